@@ -40,6 +40,8 @@ public class SecurityConfiguration {
                         .requestMatchers("/api/stats/**").permitAll()
                         .requestMatchers("/api/admin/**").hasAuthority(Role.ADMINISTRATOR.name())
                         .requestMatchers("/api/user/**").hasAnyAuthority(Role.USER.name(), Role.ADMINISTRATOR.name())
+                        .requestMatchers("/actuator/health/**").permitAll() // Liveness and readiness probes
+                        .requestMatchers("/actuator/**").hasAuthority(Role.ADMINISTRATOR.name())
                         .anyRequest().authenticated())
                 .sessionManagement(manager -> manager.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                 .authenticationProvider(authenticationProvider)
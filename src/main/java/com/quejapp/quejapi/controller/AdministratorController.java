@@ -2,10 +2,14 @@ package com.quejapp.quejapi.controller;
 
 
 import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.RejectedExecutionException;
 
 import org.springframework.data.domain.Page;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -16,12 +20,20 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.quejapp.quejapi.dto.ComplaintCursorPage;
 import com.quejapp.quejapi.dto.ComplaintSearch;
+import com.quejapp.quejapi.dto.ComplaintSliceDTO;
 import com.quejapp.quejapi.dto.ComplaintUpdate;
+import com.quejapp.quejapi.dto.EmployeeRankDTO;
+import com.quejapp.quejapi.dto.ExpirationCountsDTO;
+import com.quejapp.quejapi.dto.ExpiringComplaintDTO;
 import com.quejapp.quejapi.dto.PQRSStatisticsDTO;
+import com.quejapp.quejapi.dto.StatisticsConsistencyReport;
+import com.quejapp.quejapi.dto.StatisticsReportJobDTO;
 import com.quejapp.quejapi.model.Complaint;
 import com.quejapp.quejapi.service.AdministrationService;
 import com.quejapp.quejapi.service.PQRSStatisticsService;
+import com.quejapp.quejapi.service.StatisticsReportService;
 
 import lombok.RequiredArgsConstructor;
 
@@ -31,6 +43,7 @@ import lombok.RequiredArgsConstructor;
 public class AdministratorController {
     private final AdministrationService administrationService;
     private final PQRSStatisticsService statisticsService;
+    private final StatisticsReportService reportService;
 
     @PostMapping("/home")
     public ResponseEntity<String> seyHello() {
@@ -43,6 +56,22 @@ public class AdministratorController {
         return administrationService.searchComplaints(request);
     }
 
+    // Listing without a count per page; totalExact tells whether the total is current
+    @PostMapping("/complaints/slice")
+    public ComplaintSliceDTO getComplaintsSlice(@RequestBody ComplaintSearch request) {
+        return administrationService.sliceComplaints(request);
+    }
+
+    // Cursor listing: pass back nextCursor to get the following page; 400 for a token of another sort
+    @PostMapping("/complaints/cursor")
+    public ResponseEntity<ComplaintCursorPage> getComplaintsAfter(@RequestBody ComplaintSearch request) {
+        try {
+            return ResponseEntity.ok(administrationService.seekComplaints(request));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
     // Get a complaint by ID.    
     @GetMapping("/complaints/{id}")
     public ResponseEntity<Complaint> getProductById(@PathVariable String id) {
@@ -58,6 +87,38 @@ public class AdministratorController {
         return ResponseEntity.ok(update);
     }
 
+    // Fill the derived date fields of complaints registered before they existed
+    @PostMapping("/complaints/date-fields/backfill")
+    public ResponseEntity<Map<String, Integer>> backfillComplaintDateFields() {
+        return ResponseEntity.ok(Map.of("complaints", administrationService.backfillComplaintDateFields()));
+    }
+
+    // Open complaints whose deadline falls within the next days, soonest first
+    @GetMapping("/complaints/expiring")
+    public ResponseEntity<List<ExpiringComplaintDTO>> getExpiringComplaints(
+            @RequestParam(defaultValue = "3") int days) {
+        return ResponseEntity.ok(statisticsService.getExpiringComplaints(days));
+    }
+
+    // Expired and near-expiration open complaints, read from the deadline index without a scan
+    @GetMapping("/complaints/expiring/counts")
+    public ResponseEntity<ExpirationCountsDTO> getExpirationCounts() {
+        return ResponseEntity.ok(statisticsService.getExpirationCounts());
+    }
+
+    // Employees with most resolved complaints, kept sorted on every complaint update
+    @GetMapping("/employees/leaderboard")
+    public ResponseEntity<List<PQRSStatisticsDTO.EmployeeStatsDTO>> getEmployeeLeaderboard(
+            @RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(statisticsService.getEmployeeLeaderboard(limit));
+    }
+
+    @GetMapping("/employees/{id}/rank")
+    public ResponseEntity<EmployeeRankDTO> getEmployeeRank(@PathVariable String id) {
+        return statisticsService.getEmployeeRank(id).map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
     // Statistics endpoint
     @GetMapping("/statistics")
     public ResponseEntity<PQRSStatisticsDTO> getStatistics(
@@ -67,4 +128,52 @@ public class AdministratorController {
         PQRSStatisticsDTO statistics = statisticsService.getStatistics(startDate, endDate);
         return ResponseEntity.ok(statistics);
     }
+
+    // Submit a statistics report to compute in the background; identical pending ranges share the job
+    @PostMapping("/statistics/reports")
+    public ResponseEntity<StatisticsReportJobDTO> submitStatisticsReport(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+        try {
+            return ResponseEntity.accepted().body(reportService.submit(startDate, endDate));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        } catch (RejectedExecutionException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+    }
+
+    @GetMapping("/statistics/reports/{id}")
+    public ResponseEntity<StatisticsReportJobDTO> getStatisticsReport(@PathVariable String id) {
+        return reportService.getJob(id).map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    // 409 while the report is pending or when it failed
+    @GetMapping("/statistics/reports/{id}/result")
+    public ResponseEntity<PQRSStatisticsDTO> getStatisticsReportResult(@PathVariable String id) {
+        if (reportService.getJob(id).isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        return reportService.getResult(id).map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.CONFLICT).build());
+    }
+
+    // Rebuild the incremental statistics counters from scratch
+    @PostMapping("/statistics/counters/rebuild")
+    public ResponseEntity<PQRSStatisticsDTO> rebuildStatisticsCounters() {
+        return ResponseEntity.ok(statisticsService.rebuildCounters());
+    }
+
+    // Compare the incremental counters against a full recomputation
+    @GetMapping("/statistics/counters/consistency")
+    public ResponseEntity<StatisticsConsistencyReport> verifyStatisticsCounters() {
+        return ResponseEntity.ok(statisticsService.verifyCounters());
+    }
+
+    // Rebuild the daily statistics rollups from the complaints collection
+    @PostMapping("/statistics/daily-rollup/backfill")
+    public ResponseEntity<Map<String, Integer>> backfillDailyRollups() {
+        return ResponseEntity.ok(Map.of("days", statisticsService.backfillDailyRollups()));
+    }
 }
@@ -1,6 +1,9 @@
 package com.quejapp.quejapi.controller;
 
+import com.quejapp.quejapi.dto.ComplaintCubeDTO;
+import com.quejapp.quejapi.dto.ComplaintCubeQuery;
 import com.quejapp.quejapi.dto.PQRSStatisticsDTO;
+import com.quejapp.quejapi.dto.ResolutionTimeDistributionDTO;
 import com.quejapp.quejapi.service.PQRSStatisticsService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.format.annotation.DateTimeFormat;
@@ -8,6 +11,8 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
 
 @RestController
 @RequestMapping("api/stats")
@@ -24,4 +29,46 @@ public class PQRSStatisticsController {
         PQRSStatisticsDTO statistics = statisticsService.getStatistics(startDate, endDate);
         return ResponseEntity.ok(statistics);
     }
+
+    // Percentiles p50/p90/p95/p99 de días de resolución: global, por empleado y por mes
+    @GetMapping("/resolution-percentiles")
+    public ResponseEntity<ResolutionTimeDistributionDTO> getResolutionPercentiles(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+        return ResponseEntity.ok(statisticsService.getResolutionDistribution(startDate, endDate));
+    }
+
+    // Tendencias mensuales entre dos meses (yyyy-MM); los meses cerrados se leen ya calculados
+    @GetMapping("/trends")
+    public ResponseEntity<List<PQRSStatisticsDTO.MonthlyTrendDTO>> getMonthlyTrends(
+            @RequestParam(required = false) YearMonth from,
+            @RequestParam(required = false) YearMonth to) {
+        return ResponseEntity.ok(statisticsService.getMonthlyTrends(from, to));
+    }
+
+    // Tabla cruzada: agrupa por las dimensiones pedidas y filtra por el resto, p. ej.
+    // /cube?groupBy=month&groupBy=department&type=2&category=3&status=1&from=2025-01
+    @GetMapping("/cube")
+    public ResponseEntity<ComplaintCubeDTO> getCube(
+            @RequestParam(required = false) List<String> groupBy,
+            @RequestParam(required = false) Integer type,
+            @RequestParam(required = false) Integer category,
+            @RequestParam(required = false) Integer status,
+            @RequestParam(required = false) String department,
+            @RequestParam(required = false) YearMonth from,
+            @RequestParam(required = false) YearMonth to) {
+        try {
+            return ResponseEntity.ok(statisticsService.getCube(ComplaintCubeQuery.builder()
+                    .groupBy(groupBy)
+                    .type(type)
+                    .category(category)
+                    .status(status)
+                    .department(department)
+                    .fromMonth(from)
+                    .toMonth(to)
+                    .build()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
 }
@@ -9,7 +9,9 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.quejapp.quejapi.dto.ComplaintCursorPage;
 import com.quejapp.quejapi.dto.ComplaintSearch;
+import com.quejapp.quejapi.dto.ComplaintSliceDTO;
 import com.quejapp.quejapi.model.Complaint;
 import com.quejapp.quejapi.service.UserService;
 
@@ -39,6 +41,22 @@ public class UserController {
         return userService.searchComplaints(request);
     }
 
+    // Listing without a count per page; totalExact tells whether the total is current
+    @PostMapping("/complaints/slice")
+    public ComplaintSliceDTO getComplaintsSlice(@RequestBody ComplaintSearch request) {
+        return userService.sliceComplaints(request);
+    }
+
+    // Cursor listing: pass back nextCursor to get the following page; 400 for a token of another sort
+    @PostMapping("/complaints/cursor")
+    public ResponseEntity<ComplaintCursorPage> getComplaintsAfter(@RequestBody ComplaintSearch request) {
+        try {
+            return ResponseEntity.ok(userService.seekComplaints(request));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
     // Get a product by ID.    
     @GetMapping("/complaints/{id}")
     public ResponseEntity<Complaint> getComplaintById(@PathVariable String id) {
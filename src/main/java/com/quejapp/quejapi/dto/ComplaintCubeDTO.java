@@ -0,0 +1,33 @@
+package com.quejapp.quejapi.dto;
+
+import java.util.List;
+import java.util.Map;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ComplaintCubeDTO {
+
+    // Dimensiones agrupadas, en el orden de las coordenadas de cada celda
+    private List<String> dimensions;
+
+    // Total de PQRS que cumplen los filtros
+    private Long total;
+
+    private List<CellDTO> cells;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class CellDTO {
+        private Map<String, String> coordinates;
+        private Long count;
+    }
+}
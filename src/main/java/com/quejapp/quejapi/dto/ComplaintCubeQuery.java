@@ -0,0 +1,27 @@
+package com.quejapp.quejapi.dto;
+
+import java.time.YearMonth;
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ComplaintCubeQuery {
+
+    // Dimensiones a conservar: type, category, status, month, department. El resto se suma
+    private List<String> groupBy;
+
+    // Filtros opcionales (corte del cubo)
+    private Integer type;
+    private Integer category;
+    private Integer status;
+    private String department;
+    private YearMonth fromMonth;
+    private YearMonth toMonth;
+}
@@ -0,0 +1,21 @@
+package com.quejapp.quejapi.dto;
+
+import java.util.List;
+
+import com.quejapp.quejapi.model.Complaint;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class ComplaintCursorPage {
+    private List<Complaint> content;
+    private Integer size;
+    private boolean hasNext;
+    private String nextCursor; // null en la última página
+}
@@ -1,5 +1,7 @@
 package com.quejapp.quejapi.dto;
 
+import java.time.LocalDate;
+
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -12,9 +14,17 @@ import lombok.NoArgsConstructor;
 public class ComplaintSearch {
     private String searchTerm;
     private Integer status;
+    private Integer type;
+    private Integer category;
+    private LocalDate startDate; // recievedDate desde este día, inclusive
+    private LocalDate endDate; // recievedDate hasta este día, inclusive
+    private String employee;
+    private String department;
+    private String prediction;
     private String userId;
     private Integer page;
     private Integer size;
     private String sortBy;
     private String sortDirection;
+    private String cursor; // token de continuación del listado por cursor; null en la primera página
 }
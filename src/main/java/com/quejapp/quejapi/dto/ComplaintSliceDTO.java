@@ -0,0 +1,23 @@
+package com.quejapp.quejapi.dto;
+
+import java.util.List;
+
+import com.quejapp.quejapi.model.Complaint;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class ComplaintSliceDTO {
+    private List<Complaint> content;
+    private Integer page;
+    private Integer size;
+    private boolean hasNext;
+    private Long totalElements;
+    private boolean totalExact; // false si el total es estimado o anterior a la última escritura
+}
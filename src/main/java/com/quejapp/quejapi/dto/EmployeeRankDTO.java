@@ -0,0 +1,17 @@
+package com.quejapp.quejapi.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class EmployeeRankDTO {
+    // Posición en el ranking por PQRS resueltas, empezando en 1
+    private Integer rank;
+    private Integer totalEmployees;
+    private PQRSStatisticsDTO.EmployeeStatsDTO stats;
+}
@@ -0,0 +1,15 @@
+package com.quejapp.quejapi.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class ExpirationCountsDTO {
+    private Long expiredPqrs;
+    private Long nearExpirationPqrs; // vencen hoy o en los próximos días de aviso
+}
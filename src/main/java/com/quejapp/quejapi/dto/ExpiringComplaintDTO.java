@@ -0,0 +1,22 @@
+package com.quejapp.quejapi.dto;
+
+import java.time.LocalDate;
+import java.util.Date;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class ExpiringComplaintDTO {
+    private String id;
+    private String reference;
+    private String subject;
+    private Date recievedDate;
+    private LocalDate deadline; // recievedDate + días de vencimiento
+    private Integer daysLeft;
+}
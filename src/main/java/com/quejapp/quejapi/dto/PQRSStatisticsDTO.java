@@ -9,7 +9,7 @@ import java.util.List;
 import java.util.Map;
 
 @Data
-@Builder
+@Builder(toBuilder = true)
 @NoArgsConstructor
 @AllArgsConstructor
 public class PQRSStatisticsDTO {
@@ -50,7 +50,7 @@ public class PQRSStatisticsDTO {
     private Double satisfactionRate; // Basado en tiempo de respuesta
     
     @Data
-    @Builder
+    @Builder(toBuilder = true)
     @NoArgsConstructor
     @AllArgsConstructor
     public static class EmployeeStatsDTO {
@@ -64,7 +64,7 @@ public class PQRSStatisticsDTO {
     }
     
     @Data
-    @Builder
+    @Builder(toBuilder = true)
     @NoArgsConstructor
     @AllArgsConstructor
     public static class MonthlyTrendDTO {
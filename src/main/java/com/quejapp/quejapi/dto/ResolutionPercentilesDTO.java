@@ -0,0 +1,21 @@
+package com.quejapp.quejapi.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ResolutionPercentilesDTO {
+    // PQRS cerradas con días de resolución
+    private Long count;
+
+    // Días de resolución; exactos hasta 31 días y con error menor al 6.25% por encima
+    private Integer p50;
+    private Integer p90;
+    private Integer p95;
+    private Integer p99;
+}
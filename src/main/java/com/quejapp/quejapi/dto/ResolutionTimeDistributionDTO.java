@@ -0,0 +1,22 @@
+package com.quejapp.quejapi.dto;
+
+import java.util.Map;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ResolutionTimeDistributionDTO {
+    private ResolutionPercentilesDTO overall;
+
+    // Por id de empleado
+    private Map<String, ResolutionPercentilesDTO> byEmployee;
+
+    // Por mes de radicación (yyyy-MM), en orden
+    private Map<String, ResolutionPercentilesDTO> byMonth;
+}
@@ -0,0 +1,21 @@
+package com.quejapp.quejapi.dto;
+
+import java.util.Date;
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class StatisticsConsistencyReport {
+    private boolean consistent;
+    private List<String> mismatches; // Secciones que difieren del recálculo completo
+    private Long storedTotal;
+    private Long recomputedTotal;
+    private Date checkedAt;
+}
@@ -0,0 +1,30 @@
+package com.quejapp.quejapi.dto;
+
+import java.time.Instant;
+import java.time.LocalDate;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StatisticsReportJobDTO {
+    public enum Status {
+        PENDING, RUNNING, DONE, FAILED
+    }
+
+    private String id;
+    private Status status;
+    private LocalDate startDate;
+    private LocalDate endDate;
+    private Instant submittedAt;
+    private Instant startedAt;
+    private Instant finishedAt;
+    // Momento a partir del cual el resultado deja de conservarse
+    private Instant expiresAt;
+    private String error;
+}
@@ -3,6 +3,10 @@ package com.quejapp.quejapi.model;
 import java.util.Date;
 import java.util.List;
 
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.index.TextIndexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 import org.springframework.data.annotation.Id;
 import lombok.AllArgsConstructor;
@@ -11,17 +15,32 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 @Data
-@Builder
+@Builder(toBuilder = true)
 @NoArgsConstructor
 @AllArgsConstructor
-@Document("quejas")
+@Document(collection = "quejas", language = "spanish")
+// Listados más recientes primero, por usuario y/o estado; _id desempata el listado por cursor
+@CompoundIndexes({
+    @CompoundIndex(name = "recievedDate_id", def = "{'recievedDate': -1, '_id': -1}"),
+    @CompoundIndex(name = "user_recievedDate_id", def = "{'user': 1, 'recievedDate': -1, '_id': -1}"),
+    @CompoundIndex(name = "user_status_recievedDate", def = "{'user': 1, 'status': 1, 'recievedDate': -1}"),
+    @CompoundIndex(name = "status_recievedDate", def = "{'status': 1, 'recievedDate': -1}")
+})
 public class Complaint {
     @Id
     private String id; 
+    @Indexed
     private String reference;   
     private Date recievedDate;
+    // Derivados de recievedDate al registrar la queja, en la zona del servidor. Solo epochDay
+    // lleva índice: lo usa la migración para encontrar las quejas que aún no lo tienen
+    @Indexed
+    private Integer epochDay;
+    private String yearMonth; // yyyy-MM
+    private Integer weekday; // 1 = lunes ... 7 = domingo
     private Integer type; 
     private Integer category;
+    @TextIndexed
     private String subject;  
     private String description;
     private Integer status;
@@ -35,6 +54,8 @@ public class Complaint {
     private Profile employeeProfile;
     private Integer daysToResolve;
     private Integer daysfromExpiration;
+    // Lo usa el almacén columnar para leer al arrancar solo las quejas cambiadas tras su punto de control
+    @Indexed
     private Date updatedDate;
     private List<Trace> traceability;
     private String prediction; // New field for prediction
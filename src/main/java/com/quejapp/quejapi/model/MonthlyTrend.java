@@ -0,0 +1,29 @@
+package com.quejapp.quejapi.model;
+
+import java.util.Date;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Monthly trend of a month that already ended, id yyyy-MM. A write to one of its complaints
+// bumps the version and clears valid, so the next request recomputes it.
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document("quejas_monthly_trends")
+public class MonthlyTrend {
+    @Id
+    private String id;
+    private long received;
+    private long resolved;
+    private Double averageResolutionTime;
+    private long version;
+    private boolean valid;
+    private Date computedDate;
+}
@@ -0,0 +1,74 @@
+package com.quejapp.quejapi.model;
+
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Pre-aggregated statistics counters. Map keys are codes ("0".."n" or "unknown"),
+// days to resolve, epoch days of open complaints, "yyyy-MM" months and employee ids.
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document("quejas_stats")
+public class StatisticsRollup {
+    @Id
+    private String id;
+    private long total;
+    @Builder.Default
+    private Map<String, Long> byStatus = new HashMap<>();
+    @Builder.Default
+    private Map<String, Long> byType = new HashMap<>();
+    @Builder.Default
+    private Map<String, Long> byCategory = new HashMap<>();
+    private long closed;
+    private long satisfactory;
+    private long resolvedDaysSum;
+    @Builder.Default
+    private Map<String, Long> resolutionDays = new HashMap<>();
+    private long daysFromExpirationCount;
+    private long daysFromExpirationSum;
+    @Builder.Default
+    private Map<String, Long> openByDay = new HashMap<>();
+    @Builder.Default
+    private Map<String, MonthCounts> months = new HashMap<>();
+    @Builder.Default
+    private Map<String, EmployeeCounts> employees = new HashMap<>();
+    private Date updatedDate;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class MonthCounts {
+        private long received;
+        private long resolved;
+        private long resolvedCount;
+        private long resolvedDaysSum;
+        // ResolutionHistogram buckets of the days to resolve
+        @Builder.Default
+        private Map<String, Long> resolutionHistogram = new HashMap<>();
+    }
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class EmployeeCounts {
+        private long assigned;
+        private long resolved;
+        private long resolvedCount;
+        private long resolvedDaysSum;
+        @Builder.Default
+        private Map<String, Long> resolutionHistogram = new HashMap<>();
+        private Profile profile;
+    }
+}
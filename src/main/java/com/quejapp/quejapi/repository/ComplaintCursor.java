@@ -0,0 +1,79 @@
+package com.quejapp.quejapi.repository;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Date;
+
+import org.springframework.beans.BeanWrapperImpl;
+import org.springframework.beans.BeansException;
+import org.springframework.data.domain.Sort;
+
+import com.quejapp.quejapi.model.Complaint;
+
+// Position after the last complaint of a cursor listing: the value of the sort property and the
+// id that breaks ties. The token is opaque to clients and bound to the sort it was issued for.
+public record ComplaintCursor(Object value, String id) {
+    private static final char SEPARATOR = '\u0000';
+
+    public static ComplaintCursor of(Complaint complaint, Sort.Order order) {
+        if (isId(order)) {
+            return new ComplaintCursor(complaint.getId(), complaint.getId());
+        }
+        Object value;
+        try {
+            value = new BeanWrapperImpl(complaint).getPropertyValue(order.getProperty());
+        } catch (BeansException e) {
+            throw new IllegalArgumentException("Orden no admitido para cursor: " + order.getProperty(), e);
+        }
+        return new ComplaintCursor(value, complaint.getId());
+    }
+
+    public String encode(Sort.Order order) {
+        String typed = switch (value) {
+            case null -> "n";
+            case Date date -> "d" + date.getTime();
+            case String text -> "s" + text;
+            case Integer number -> "i" + number;
+            case Long number -> "l" + number;
+            case Double number -> "f" + number;
+            case Boolean flag -> "b" + flag;
+            default -> throw new IllegalArgumentException("Orden no admitido para cursor: " + order.getProperty());
+        };
+        String raw = order.getProperty() + SEPARATOR + order.getDirection() + SEPARATOR + id + SEPARATOR + typed;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    // Null for the first page; a token issued for another sort is rejected
+    public static ComplaintCursor decode(String token, Sort.Order order) {
+        if (token == null || token.isEmpty()) {
+            return null;
+        }
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8)
+                    .split(String.valueOf(SEPARATOR), 4);
+            if (parts.length != 4 || !parts[0].equals(order.getProperty())
+                    || !parts[1].equals(order.getDirection().name()) || parts[3].isEmpty()) {
+                throw new IllegalArgumentException("Cursor no válido para este orden");
+            }
+            String text = parts[3].substring(1);
+            Object value = switch (parts[3].charAt(0)) {
+                case 'n' -> null;
+                case 'd' -> new Date(Long.parseLong(text));
+                case 's' -> text;
+                case 'i' -> Integer.valueOf(text);
+                case 'l' -> Long.valueOf(text);
+                case 'f' -> Double.valueOf(text);
+                case 'b' -> Boolean.valueOf(text);
+                default -> throw new IllegalArgumentException("Cursor no válido");
+            };
+            return new ComplaintCursor(value, parts[2]);
+        } catch (IllegalArgumentException e) {
+            // NumberFormatException and malformed Base64 included
+            throw new IllegalArgumentException("Cursor no válido", e);
+        }
+    }
+
+    static boolean isId(Sort.Order order) {
+        return "id".equals(order.getProperty()) || "_id".equals(order.getProperty());
+    }
+}
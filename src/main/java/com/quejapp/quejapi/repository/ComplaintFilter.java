@@ -0,0 +1,32 @@
+package com.quejapp.quejapi.repository;
+
+import java.time.LocalDate;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Any combination of listing filters; null fields do not filter
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class ComplaintFilter {
+    private String searchTerm;
+    private String user;
+    private Integer status;
+    private Integer type;
+    private Integer category;
+    private LocalDate startDate;
+    private LocalDate endDate;
+    private String employee;
+    private String department;
+    private String prediction;
+
+    // Filters the text and trigram searches cannot apply
+    public boolean hasAttributeFilters() {
+        return type != null || category != null || startDate != null || endDate != null || employee != null
+                || department != null || prediction != null;
+    }
+}
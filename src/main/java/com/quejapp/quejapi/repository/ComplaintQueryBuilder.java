@@ -0,0 +1,122 @@
+package com.quejapp.quejapi.repository;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.util.StringUtils;
+
+// Builds complaint listing queries from any combination of filters instead of one repository
+// method per combination. Predicates follow the key order of the compound indexes declared on
+// Complaint: user and status equality, then the recievedDate range, then the filters the index
+// cannot answer. Sorting by recievedDate hints a compound index only when the filter bounds its
+// prefix (user, status or a date range), so the index is read in sort order over that range;
+// listings narrowed only by the other filters or a term are left to the planner.
+public final class ComplaintQueryBuilder {
+    static final String RECIEVED_DATE_INDEX = "recievedDate_id";
+    static final String USER_RECIEVED_DATE_INDEX = "user_recievedDate_id";
+    static final String USER_STATUS_RECIEVED_DATE_INDEX = "user_status_recievedDate";
+    static final String STATUS_RECIEVED_DATE_INDEX = "status_recievedDate";
+
+    // Any prefix of the generated reference TRC-yyyyMMdd-XXXXXX-type, from "TRC-" on
+    private static final Pattern REFERENCE = Pattern.compile(
+            "TRC-(\\d{0,7}|\\d{8}(-([A-Z0-9]{0,5}|[A-Z0-9]{6}(-\\d*)?))?)");
+
+    private ComplaintQueryBuilder() {
+    }
+
+    public static Query query(ComplaintFilter filter, Sort sort) {
+        List<Criteria> criteria = criteria(filter);
+        Query query = criteria.isEmpty() ? new Query() : Query.query(new Criteria().andOperator(criteria));
+        query.with(sort);
+        String hint = hint(filter, sort);
+        if (hint != null) {
+            query.withHint(hint);
+        }
+        return query;
+    }
+
+    static List<Criteria> criteria(ComplaintFilter filter) {
+        List<Criteria> criteria = new ArrayList<>();
+        if (filter.getUser() != null) {
+            criteria.add(Criteria.where("user").is(filter.getUser()));
+        }
+        if (filter.getStatus() != null) {
+            criteria.add(Criteria.where("status").is(filter.getStatus()));
+        }
+        if (filter.getStartDate() != null || filter.getEndDate() != null) {
+            Criteria recieved = Criteria.where("recievedDate");
+            if (filter.getStartDate() != null) {
+                recieved.gte(startOf(filter.getStartDate()));
+            }
+            if (filter.getEndDate() != null) {
+                recieved.lt(startOf(filter.getEndDate().plusDays(1)));
+            }
+            criteria.add(recieved);
+        }
+        if (filter.getType() != null) {
+            criteria.add(Criteria.where("type").is(filter.getType()));
+        }
+        if (filter.getCategory() != null) {
+            criteria.add(Criteria.where("category").is(filter.getCategory()));
+        }
+        if (filter.getEmployee() != null) {
+            criteria.add(Criteria.where("employee").is(filter.getEmployee()));
+        }
+        if (filter.getDepartment() != null) {
+            criteria.add(Criteria.where("department").is(filter.getDepartment()));
+        }
+        if (filter.getPrediction() != null) {
+            criteria.add(Criteria.where("prediction").is(filter.getPrediction()));
+        }
+        if (StringUtils.hasText(filter.getSearchTerm())) {
+            criteria.add(term(filter.getSearchTerm().trim()));
+        }
+        return criteria;
+    }
+
+    // Null when the planner should choose: other sorts, filters that bound no listing index prefix,
+    // or a reference prefix that the reference index narrows more than any listing index
+    static String hint(ComplaintFilter filter, Sort sort) {
+        Sort.Order first = sort.stream().findFirst().orElse(null);
+        if (first == null || !"recievedDate".equals(first.getProperty())) {
+            return null;
+        }
+        if (filter.getUser() != null) {
+            return filter.getStatus() != null ? USER_STATUS_RECIEVED_DATE_INDEX : USER_RECIEVED_DATE_INDEX;
+        }
+        if (isReference(filter.getSearchTerm())) {
+            return null;
+        }
+        if (filter.getStatus() != null) {
+            return STATUS_RECIEVED_DATE_INDEX;
+        }
+        return filter.getStartDate() != null || filter.getEndDate() != null ? RECIEVED_DATE_INDEX : null;
+    }
+
+    // A term shaped like a reference is an anchored prefix; anything else is matched literally
+    static Criteria term(String term) {
+        if (isReference(term)) {
+            return Criteria.where("reference").regex("^" + SearchPatterns.literal(term.trim().toUpperCase(Locale.ROOT)));
+        }
+        String literal = SearchPatterns.literal(term);
+        return new Criteria().orOperator(
+                Criteria.where("reference").regex(literal, "i"),
+                Criteria.where("subject").regex(literal, "i"));
+    }
+
+    static boolean isReference(String term) {
+        return StringUtils.hasText(term) && REFERENCE.matcher(term.trim().toUpperCase(Locale.ROOT)).matches();
+    }
+
+    private static Date startOf(LocalDate date) {
+        return Date.from(date.atStartOfDay(ZoneId.systemDefault()).toInstant());
+    }
+}
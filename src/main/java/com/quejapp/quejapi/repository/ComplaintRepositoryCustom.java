@@ -0,0 +1,33 @@
+package com.quejapp.quejapi.repository;
+
+import java.util.List;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+
+import com.quejapp.quejapi.model.Complaint;
+
+public interface ComplaintRepositoryCustom {
+    // Indexed search by reference or subject; status and user are optional filters
+    Page<Complaint> search(String searchTerm, Integer status, String user, Pageable pageable);
+
+    // Same search without the count query; a blank term lists by the filters alone
+    Slice<Complaint> searchSlice(String searchTerm, Integer status, String user, Pageable pageable);
+
+    long count(String searchTerm, Integer status, String user);
+
+    // From collection metadata, without reading documents
+    long estimatedCount();
+
+    // Any combination of filters, each answered from a compound index
+    Page<Complaint> filter(ComplaintFilter filter, Pageable pageable);
+
+    Slice<Complaint> filterSlice(ComplaintFilter filter, Pageable pageable);
+
+    long count(ComplaintFilter filter);
+
+    // Up to limit complaints strictly after the cursor in (order, _id); no skip and no count
+    List<Complaint> seek(ComplaintFilter filter, Sort.Order order, ComplaintCursor after, int limit);
+}
@@ -0,0 +1,179 @@
+package com.quejapp.quejapi.repository;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Function;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexField;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.TextCriteria;
+import org.springframework.data.mongodb.core.query.TextQuery;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.util.StringUtils;
+
+import com.quejapp.quejapi.model.Complaint;
+
+import lombok.RequiredArgsConstructor;
+
+// Searches without unanchored regular expressions. A term shaped like a reference
+// ("TRC-20240105-...") is an anchored, case-sensitive prefix lookup on the reference index;
+// anything else is a $text query on subject, most relevant first. The text index is looked up
+// once; without it the search uses the case-insensitive regex of the derived queries, with the
+// term escaped. Filtered listings are built by ComplaintQueryBuilder, and cursor listings
+// seek past the last (sort value, _id) seen instead of skipping.
+@RequiredArgsConstructor
+public class ComplaintRepositoryCustomImpl implements ComplaintRepositoryCustom {
+    private static final Logger logger = LoggerFactory.getLogger(ComplaintRepositoryCustomImpl.class);
+
+    private final MongoTemplate mongoTemplate;
+
+    // Null until the index list has been read successfully
+    private volatile Boolean textIndexed;
+
+    @Override
+    public Page<Complaint> search(String searchTerm, Integer status, String user, Pageable pageable) {
+        return execute(searchTerm, status, user, query -> page(query, pageable));
+    }
+
+    @Override
+    public Slice<Complaint> searchSlice(String searchTerm, Integer status, String user, Pageable pageable) {
+        return execute(searchTerm, status, user, query -> slice(query, pageable));
+    }
+
+    @Override
+    public long count(String searchTerm, Integer status, String user) {
+        return execute(searchTerm, status, user, query -> mongoTemplate.count(query, Complaint.class));
+    }
+
+    @Override
+    public long estimatedCount() {
+        return mongoTemplate.estimatedCount(Complaint.class);
+    }
+
+    @Override
+    public Page<Complaint> filter(ComplaintFilter filter, Pageable pageable) {
+        return page(ComplaintQueryBuilder.query(filter, pageable.getSort()), pageable);
+    }
+
+    @Override
+    public Slice<Complaint> filterSlice(ComplaintFilter filter, Pageable pageable) {
+        return slice(ComplaintQueryBuilder.query(filter, pageable.getSort()), pageable);
+    }
+
+    // Counted along the index the default listing order would use
+    @Override
+    public long count(ComplaintFilter filter) {
+        return mongoTemplate.count(ComplaintQueryBuilder.query(filter, Sort.by(Sort.Direction.DESC, "recievedDate")),
+                Complaint.class);
+    }
+
+    private <T> T execute(String searchTerm, Integer status, String user, Function<Query, T> action) {
+        if (!StringUtils.hasText(searchTerm)) {
+            return action.apply(narrow(new Query(), status, user));
+        }
+        String term = searchTerm.trim();
+        if (ComplaintQueryBuilder.isReference(term)) {
+            return action.apply(narrow(Query.query(ComplaintQueryBuilder.term(term)), status, user));
+        }
+
+        // Quotes and a leading "-" are phrase and negation operators in $text
+        String[] words = Arrays.stream(term.split("[\\s\"]+"))
+                .map(word -> word.replaceFirst("^-+", ""))
+                .filter(word -> !word.isEmpty())
+                .toArray(String[]::new);
+        if (words.length > 0 && textIndexed()) {
+            TextQuery query = TextQuery.queryText(TextCriteria.forDefaultLanguage().matchingAny(words));
+            query.sortByScore();
+            return action.apply(narrow(query, status, user));
+        }
+        return action.apply(narrow(Query.query(ComplaintQueryBuilder.term(term)), status, user));
+    }
+
+    private boolean textIndexed() {
+        Boolean indexed = textIndexed;
+        if (indexed != null) {
+            return indexed;
+        }
+        try {
+            indexed = mongoTemplate.indexOps(Complaint.class).getIndexInfo().stream()
+                    .anyMatch(index -> index.getIndexFields().stream().anyMatch(IndexField::isText));
+        } catch (DataAccessException e) {
+            logger.warn("No se pudieron leer los índices de quejas, se usa la expresión regular: {}", e.getMessage());
+            return false;
+        }
+        if (!indexed) {
+            logger.warn("Sin índice de texto en quejas, la búsqueda usa la expresión regular");
+        }
+        textIndexed = indexed;
+        return indexed;
+    }
+
+    // $text results come in relevance order, which cannot be sought, so a term is matched literally
+    @Override
+    public List<Complaint> seek(ComplaintFilter filter, Sort.Order order, ComplaintCursor after, int limit) {
+        List<Criteria> criteria = ComplaintQueryBuilder.criteria(filter);
+        boolean byId = ComplaintCursor.isId(order);
+        String field = byId ? "_id" : order.getProperty();
+        if (after != null) {
+            criteria.add(byId ? beyond("_id", order, after.id()) : after(field, order, after));
+        }
+
+        Query query = criteria.isEmpty() ? new Query() : Query.query(new Criteria().andOperator(criteria));
+        Sort sort = byId ? Sort.by(order.getDirection(), "_id") : Sort.by(order.getDirection(), field, "_id");
+        return mongoTemplate.find(query.with(sort).limit(limit), Complaint.class);
+    }
+
+    // Null and missing values sort before any other value, so they open an ascending listing and
+    // close a descending one
+    private static Criteria after(String field, Sort.Order order, ComplaintCursor cursor) {
+        Criteria tie = Criteria.where(field).is(cursor.value()).andOperator(beyond("_id", order, cursor.id()));
+        if (cursor.value() == null) {
+            return order.isAscending() ? new Criteria().orOperator(Criteria.where(field).ne(null), tie) : tie;
+        }
+        return order.isAscending()
+                ? new Criteria().orOperator(beyond(field, order, cursor.value()), tie)
+                : new Criteria().orOperator(beyond(field, order, cursor.value()), tie, Criteria.where(field).is(null));
+    }
+
+    private static Criteria beyond(String field, Sort.Order order, Object value) {
+        return order.isAscending() ? Criteria.where(field).gt(value) : Criteria.where(field).lt(value);
+    }
+
+    private static Query narrow(Query query, Integer status, String user) {
+        if (status != null) {
+            query.addCriteria(Criteria.where("status").is(status));
+        }
+        if (user != null) {
+            query.addCriteria(Criteria.where("user").is(user));
+        }
+        return query;
+    }
+
+    // With a text query the pageable sort only breaks ties in relevance
+    private Page<Complaint> page(Query query, Pageable pageable) {
+        Query count = Query.of(query).limit(-1).skip(-1);
+        List<Complaint> content = mongoTemplate.find(query.with(pageable), Complaint.class);
+        return PageableExecutionUtils.getPage(content, pageable, () -> mongoTemplate.count(count, Complaint.class));
+    }
+
+    // One extra complaint is read instead of counting
+    private Slice<Complaint> slice(Query query, Pageable pageable) {
+        query.with(pageable);
+        if (pageable.isPaged()) {
+            query.limit(pageable.getPageSize() + 1);
+        }
+        List<Complaint> content = mongoTemplate.find(query, Complaint.class);
+        boolean hasNext = pageable.isPaged() && content.size() > pageable.getPageSize();
+        return new SliceImpl<>(hasNext ? content.subList(0, pageable.getPageSize()) : content, pageable, hasNext);
+    }
+}
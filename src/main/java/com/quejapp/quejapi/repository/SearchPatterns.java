@@ -0,0 +1,15 @@
+package com.quejapp.quejapi.repository;
+
+import java.util.regex.Pattern;
+
+// User input placed inside $regex queries is matched literally
+public final class SearchPatterns {
+    private static final Pattern METACHARACTERS = Pattern.compile("[\\\\^$.|?*+()\\[\\]{}]");
+
+    private SearchPatterns() {
+    }
+
+    public static String literal(String term) {
+        return term == null ? null : METACHARACTERS.matcher(term).replaceAll("\\\\$0");
+    }
+}
@@ -3,16 +3,15 @@ package com.quejapp.quejapi.service;
 import java.util.Date;
 import java.util.Optional;
 
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Sort;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
-import org.springframework.util.StringUtils;
 
+import com.quejapp.quejapi.dto.ComplaintCursorPage;
 import com.quejapp.quejapi.dto.ComplaintSearch;
+import com.quejapp.quejapi.dto.ComplaintSliceDTO;
 import com.quejapp.quejapi.dto.ComplaintUpdate;
 import com.quejapp.quejapi.model.Complaint;
 import com.quejapp.quejapi.model.Profile;
@@ -28,44 +27,21 @@ import lombok.RequiredArgsConstructor;
 public class AdministrationService {
     private final ComplaintRepository complaintsRepo;
     private final UserRepository usersRepo;
-    
-    public Page<Complaint> searchComplaints(ComplaintSearch request) {        
-        Pageable pageable = createPageable(request);
-        
-        String searchTerm = request.getSearchTerm();
-        Integer status = request.getStatus();
-        // Case 1: Both search term and status provided
-        if (StringUtils.hasText(searchTerm) && status != null) {
-            return complaintsRepo.findByReferenceOrSubjectContainingIgnoreCaseAndStatus(
-                searchTerm, status, pageable
-            );
-        }
-        
-        // Case 2: Only search term provided
-        if (StringUtils.hasText(searchTerm)) {
-            return complaintsRepo.findByReferenceOrSubjectContainingIgnoreCase(
-                searchTerm, pageable);
-        }
-        
-        // Case 3: Only status provided
-        if (status != null) {
-            return complaintsRepo.findByStatus(status,  pageable);
-        }
-        
-        // Case 4: No filters, return all
-        return complaintsRepo.findAllByOrderByRecievedDateDesc(pageable);
-    }
-    
-    private Pageable createPageable(ComplaintSearch request) {
-        Sort sort = Sort.by(
-            "desc".equalsIgnoreCase(request.getSortDirection()) ? 
-                Sort.Direction.DESC : Sort.Direction.ASC,
-            request.getSortBy()
-        );
-        
-        return PageRequest.of(request.getPage(), request.getSize(), sort);
+    private final ApplicationEventPublisher eventPublisher;
+    private final ComplaintListingSupport listings;
+    private final ComplaintDateFieldsMigration dateFieldsMigration;
+
+    public Page<Complaint> searchComplaints(ComplaintSearch request) {
+        return listings.search(request, null);
     }
 
+    public ComplaintSliceDTO sliceComplaints(ComplaintSearch request) {
+        return listings.slice(request, null);
+    }
+
+    public ComplaintCursorPage seekComplaints(ComplaintSearch request) {
+        return listings.seek(request, null);
+    }
 
     public Optional<Complaint> getComplaintBy(String id){        
         return complaintsRepo.findById(id);
@@ -89,10 +65,13 @@ public class AdministrationService {
         }
 
         Complaint complaint = complaintOptional.get();
+        Complaint previous = complaint.toBuilder().build();
         complaint = updateResponseFields(complaint, update, employee);
         complaint.setStatus(update.getStatus());        
         complaint.setUpdatedDate(new Date());
-        return complaintsRepo.save(complaint);
+        Complaint saved = complaintsRepo.save(complaint);
+        eventPublisher.publishEvent(new ComplaintChangedEvent(previous, saved));
+        return saved;
     }
 
     private Complaint updateResponseFields(Complaint complaint, ComplaintUpdate update, User employee){
@@ -202,5 +181,9 @@ public class AdministrationService {
             default -> "Desconocido";
         };
     }
-   
+
+    // Completa epochDay, yearMonth y weekday en las quejas registradas antes de derivarlos
+    public int backfillComplaintDateFields() {
+        return dateFieldsMigration.backfill();
+    }
 }
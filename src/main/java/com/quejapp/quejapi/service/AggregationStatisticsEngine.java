@@ -0,0 +1,308 @@
+package com.quejapp.quejapi.service;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOperation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.stereotype.Component;
+
+import com.quejapp.quejapi.dto.PQRSStatisticsDTO;
+
+import lombok.RequiredArgsConstructor;
+
+// Computes the statistics server-side: one $project with the derived flags and one $facet
+// with every section, so only a single small document travels back to the JVM. $facet runs its
+// sub-pipelines one after another on one server thread; with parallel-sections each section is
+// sent as its own pipeline from a virtual thread instead. That trades latency for server work:
+// every section repeats the $match and $project over the collection, so it stays opt-in.
+@Component
+@RequiredArgsConstructor
+public class AggregationStatisticsEngine implements PQRSStatisticsEngine {
+    public static final String NAME = "aggregation";
+    static final String COLLECTION = "quejas";
+
+    private final MongoTemplate mongoTemplate;
+
+    @Value("${quejapi.statistics.aggregation.parallel-sections:false}")
+    private boolean parallelSections;
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public PQRSStatisticsDTO compute(LocalDate startDate, LocalDate endDate) {
+        LocalDate today = LocalDate.now();
+        ZoneId zone = ZoneId.systemDefault();
+        if (parallelSections) {
+            return toStatistics(computeSections(startDate, endDate, today, zone));
+        }
+        Document facets = mongoTemplate
+                .aggregate(buildAggregation(startDate, endDate, today, zone), COLLECTION, Document.class)
+                .getUniqueMappedResult();
+        return toStatistics(facets);
+    }
+
+    Aggregation buildAggregation(LocalDate startDate, LocalDate endDate, LocalDate today, ZoneId zone) {
+        List<AggregationOperation> stages = commonStages(startDate, endDate, today, zone);
+        stages.add(stage("$facet", facets()));
+        return Aggregation.newAggregation(stages);
+    }
+
+    Aggregation buildSectionAggregation(LocalDate startDate, LocalDate endDate, LocalDate today, ZoneId zone,
+            List<Document> section) {
+        List<AggregationOperation> stages = commonStages(startDate, endDate, today, zone);
+        section.forEach(stage -> stages.add(context -> stage));
+        return Aggregation.newAggregation(stages);
+    }
+
+    // Same document as the $facet result, with every section computed concurrently
+    @SuppressWarnings("unchecked")
+    Document computeSections(LocalDate startDate, LocalDate endDate, LocalDate today, ZoneId zone) {
+        Map<String, Future<List<Document>>> sections = new LinkedHashMap<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            facets().forEach((name, section) -> sections.put(name, executor.submit(() -> mongoTemplate
+                    .aggregate(buildSectionAggregation(startDate, endDate, today, zone, (List<Document>) section),
+                            COLLECTION, Document.class)
+                    .getMappedResults())));
+
+            Document facets = new Document();
+            for (Map.Entry<String, Future<List<Document>>> section : sections.entrySet()) {
+                facets.append(section.getKey(), await(section.getValue(), sections));
+            }
+            return facets;
+        }
+    }
+
+    private static List<Document> await(Future<List<Document>> section, Map<String, Future<List<Document>>> all) {
+        try {
+            return section.get();
+        } catch (ExecutionException e) {
+            // No tiene sentido esperar al resto de secciones si una falló
+            all.values().forEach(other -> other.cancel(true));
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (InterruptedException e) {
+            all.values().forEach(other -> other.cancel(true));
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Cálculo de estadísticas interrumpido", e);
+        }
+    }
+
+    private List<AggregationOperation> commonStages(LocalDate startDate, LocalDate endDate, LocalDate today,
+            ZoneId zone) {
+        List<AggregationOperation> stages = new ArrayList<>();
+        Criteria dateCriteria = StatisticsDateCriteria.recievedBetween(startDate, endDate);
+        if (!dateCriteria.getCriteriaObject().isEmpty()) {
+            stages.add(Aggregation.match(dateCriteria));
+        }
+        stages.add(stage("$project", projection(today, zone)));
+        return stages;
+    }
+
+    private Document projection(LocalDate today, ZoneId zone) {
+        // Vencida: recibida antes de hoy - 15 días; próxima a vencer: recibida entre hoy - 15 y hoy - 12
+        Date expiredBefore = Date.from(today.minusDays(PQRSStatisticsAccumulator.EXPIRATION_DAYS)
+                .atStartOfDay(zone).toInstant());
+        Date nearBefore = Date.from(today.minusDays(PQRSStatisticsAccumulator.EXPIRATION_DAYS
+                - PQRSStatisticsAccumulator.NEAR_EXPIRATION_DAYS - 1).atStartOfDay(zone).toInstant());
+
+        Document closed = new Document("$in", Arrays.asList("$status", Arrays.asList(2, 3)));
+        Document open = new Document("$not", List.of(closed));
+        Document hasDate = notNull("$recievedDate");
+
+        return new Document("status", 1)
+                .append("type", 1)
+                .append("category", 1)
+                .append("employee", 1)
+                .append("employeeProfile", 1)
+                .append("daysfromExpiration", 1)
+                .append("closed", closed)
+                .append("resolvedDays", new Document("$cond", Arrays.asList(
+                        and(closed, notNull("$daysToResolve")), "$daysToResolve", null)))
+                .append("expired", flag(and(open, hasDate,
+                        new Document("$lt", Arrays.asList("$recievedDate", expiredBefore)))))
+                .append("nearExpiration", flag(and(open, hasDate,
+                        new Document("$gte", Arrays.asList("$recievedDate", expiredBefore)),
+                        new Document("$lt", Arrays.asList("$recievedDate", nearBefore)))))
+                .append("month", month(zone));
+    }
+
+    private static Object month(ZoneId zone) {
+        Document formatted = new Document("$dateToString", new Document("format", "%Y-%m")
+                .append("date", "$recievedDate")
+                .append("timezone", zone.getId())
+                .append("onNull", null));
+        // yearMonth is derived at write time in the server zone; older documents are formatted here
+        return ComplaintDates.ZONE.equals(zone) ? new Document("$ifNull", Arrays.asList("$yearMonth", formatted))
+                : formatted;
+    }
+
+    private Document facets() {
+        Document closedCount = sum(flag("$closed"));
+        return new Document("byStatus", countBy("$status"))
+                .append("byType", countBy("$type"))
+                .append("byCategory", countBy("$category"))
+                .append("totals", List.of(new Document("$group", new Document("_id", null)
+                        .append("total", new Document("$sum", 1))
+                        .append("closed", closedCount)
+                        .append("satisfactory", sum(flag(and(notNull("$resolvedDays"), new Document("$lte",
+                                Arrays.asList("$resolvedDays", PQRSStatisticsAccumulator.EXPIRATION_DAYS))))))
+                        .append("averageDaysToResolve", new Document("$avg", "$resolvedDays"))
+                        .append("minDaysToResolve", new Document("$min", "$resolvedDays"))
+                        .append("maxDaysToResolve", new Document("$max", "$resolvedDays"))
+                        .append("averageDaysFromExpiration", new Document("$avg", "$daysfromExpiration"))
+                        .append("expired", sum("$expired"))
+                        .append("nearExpiration", sum("$nearExpiration")))))
+                .append("employees", List.of(
+                        new Document("$match", new Document("employee", new Document("$ne", null))
+                                .append("employeeProfile", new Document("$ne", null))),
+                        new Document("$group", new Document("_id", "$employee")
+                                .append("profile", new Document("$first", "$employeeProfile"))
+                                .append("totalAssigned", new Document("$sum", 1))
+                                .append("totalResolved", closedCount)
+                                .append("averageResolutionTime", new Document("$avg", "$resolvedDays"))),
+                        new Document("$sort", new Document("totalResolved", -1).append("_id", 1)),
+                        new Document("$limit", 10)))
+                .append("monthly", List.of(
+                        new Document("$match", new Document("month", new Document("$ne", null))),
+                        new Document("$group", new Document("_id", "$month")
+                                .append("totalReceived", new Document("$sum", 1))
+                                .append("totalResolved", closedCount)
+                                .append("averageResolutionTime", new Document("$avg", "$resolvedDays"))),
+                        new Document("$sort", new Document("_id", 1))));
+    }
+
+    PQRSStatisticsDTO toStatistics(Document facets) {
+        List<Document> totals = facets == null ? List.of() : facets.getList("totals", Document.class);
+        if (totals.isEmpty()) {
+            return PQRSStatisticsDTO.builder()
+                    .totalPqrs(0L)
+                    .openPqrs(0L)
+                    .closedPqrs(0L)
+                    .inProgressPqrs(0L)
+                    .build();
+        }
+        Document summary = totals.get(0);
+        long total = longValue(summary, "total");
+        long closed = longValue(summary, "closed");
+        long satisfactory = longValue(summary, "satisfactory");
+
+        List<Document> byStatus = facets.getList("byStatus", Document.class);
+        return PQRSStatisticsDTO.builder()
+                .totalPqrs(total)
+                .openPqrs(countFor(byStatus, 0))
+                .closedPqrs(closed)
+                .inProgressPqrs(countFor(byStatus, 1))
+                .pqrsByStatus(namedCounts(byStatus, PQRSStatisticsAccumulator::statusName))
+                .pqrsByType(namedCounts(facets.getList("byType", Document.class),
+                        PQRSStatisticsAccumulator::typeName))
+                .pqrsByCategory(namedCounts(facets.getList("byCategory", Document.class),
+                        PQRSStatisticsAccumulator::categoryName))
+                .averageDaysToResolve(doubleValue(summary, "averageDaysToResolve"))
+                .minDaysToResolve((int) longValue(summary, "minDaysToResolve"))
+                .maxDaysToResolve((int) longValue(summary, "maxDaysToResolve"))
+                .expiredPqrs(longValue(summary, "expired"))
+                .nearExpirationPqrs(longValue(summary, "nearExpiration"))
+                .averageDaysFromExpiration(doubleValue(summary, "averageDaysFromExpiration"))
+                .topEmployees(facets.getList("employees", Document.class).stream()
+                        .map(this::toEmployeeStats)
+                        .toList())
+                .monthlyTrends(facets.getList("monthly", Document.class).stream()
+                        .map(month -> PQRSStatisticsDTO.MonthlyTrendDTO.builder()
+                                .month(month.getString("_id"))
+                                .totalReceived(longValue(month, "totalReceived"))
+                                .totalResolved(longValue(month, "totalResolved"))
+                                .averageResolutionTime(PQRSStatisticsAccumulator
+                                        .round(doubleValue(month, "averageResolutionTime")))
+                                .build())
+                        .toList())
+                .resolutionRate(PQRSStatisticsAccumulator.round(closed * 100.0 / total))
+                .satisfactionRate(closed == 0 ? 0.0 : PQRSStatisticsAccumulator.round(satisfactory * 100.0 / closed))
+                .build();
+    }
+
+    private PQRSStatisticsDTO.EmployeeStatsDTO toEmployeeStats(Document employee) {
+        Document profile = employee.get("profile", Document.class);
+        long assigned = longValue(employee, "totalAssigned");
+        long resolved = longValue(employee, "totalResolved");
+        return PQRSStatisticsDTO.EmployeeStatsDTO.builder()
+                .employeeId(employee.getString("_id"))
+                .employeeName(profile.getString("name") + " " + profile.getString("lastname"))
+                .employeeEmail(profile.getString("email"))
+                .totalAssigned(assigned)
+                .totalResolved(resolved)
+                .averageResolutionTime(PQRSStatisticsAccumulator.round(doubleValue(employee, "averageResolutionTime")))
+                .resolutionRate(assigned == 0 ? 0.0 : PQRSStatisticsAccumulator.round(resolved * 100.0 / assigned))
+                .build();
+    }
+
+    private static Map<String, Long> namedCounts(List<Document> groups, Function<Integer, String> names) {
+        Map<String, Long> named = new HashMap<>();
+        for (Document group : groups) {
+            Object code = group.get("_id");
+            String name = names.apply(code instanceof Number number ? number.intValue() : null);
+            named.merge(name, longValue(group, "count"), Long::sum);
+        }
+        return named;
+    }
+
+    private static long countFor(List<Document> groups, int code) {
+        return groups.stream()
+                .filter(group -> group.get("_id") instanceof Number number && number.intValue() == code)
+                .mapToLong(group -> longValue(group, "count"))
+                .sum();
+    }
+
+    private static List<Document> countBy(String field) {
+        return List.of(new Document("$group", new Document("_id", field).append("count", new Document("$sum", 1))));
+    }
+
+    private static AggregationOperation stage(String operator, Document body) {
+        return context -> new Document(operator, body);
+    }
+
+    private static Document notNull(String field) {
+        return new Document("$ne", Arrays.asList(new Document("$ifNull", Arrays.asList(field, null)), null));
+    }
+
+    private static Document and(Object... conditions) {
+        return new Document("$and", Arrays.asList(conditions));
+    }
+
+    private static Document flag(Object condition) {
+        return new Document("$cond", Arrays.asList(condition, 1, 0));
+    }
+
+    private static Document sum(Object expression) {
+        return new Document("$sum", expression);
+    }
+
+    private static long longValue(Document document, String field) {
+        return document.get(field) instanceof Number number ? number.longValue() : 0L;
+    }
+
+    private static double doubleValue(Document document, String field) {
+        return document.get(field) instanceof Number number ? number.doubleValue() : 0.0;
+    }
+}
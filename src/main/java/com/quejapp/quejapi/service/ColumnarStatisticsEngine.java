@@ -0,0 +1,28 @@
+package com.quejapp.quejapi.service;
+
+import java.time.LocalDate;
+
+import org.springframework.stereotype.Component;
+
+import com.quejapp.quejapi.dto.PQRSStatisticsDTO;
+
+import lombok.RequiredArgsConstructor;
+
+// Scans the in-process ComplaintColumnStore; fails while the store is disabled or still loading
+@Component
+@RequiredArgsConstructor
+public class ColumnarStatisticsEngine implements PQRSStatisticsEngine {
+    public static final String NAME = "columnar";
+
+    private final ComplaintColumnStore columnStore;
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public PQRSStatisticsDTO compute(LocalDate startDate, LocalDate endDate) {
+        return columnStore.aggregate(startDate, endDate).toStatistics();
+    }
+}
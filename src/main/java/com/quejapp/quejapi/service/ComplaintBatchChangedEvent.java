@@ -0,0 +1,8 @@
+package com.quejapp.quejapi.service;
+
+import java.util.List;
+
+// Published after a bulk write so listeners can apply all the changes at once, e.g. a single
+// counter increment instead of one per complaint
+public record ComplaintBatchChangedEvent(List<ComplaintChangedEvent> changes) {
+}
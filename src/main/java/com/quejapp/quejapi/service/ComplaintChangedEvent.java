@@ -0,0 +1,12 @@
+package com.quejapp.quejapi.service;
+
+import com.quejapp.quejapi.model.Complaint;
+
+// Published after a complaint is saved. Both sides are whole documents: previous is null for
+// newly created complaints and otherwise a shallow copy taken before the update was applied.
+public record ComplaintChangedEvent(Complaint previous, Complaint current) {
+
+    public boolean isCreation() {
+        return previous == null;
+    }
+}
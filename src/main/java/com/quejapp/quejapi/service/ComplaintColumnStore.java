@@ -0,0 +1,426 @@
+package com.quejapp.quejapi.service;
+
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PreDestroy;
+
+import com.quejapp.quejapi.model.Complaint;
+import com.quejapp.quejapi.model.Profile;
+
+import lombok.RequiredArgsConstructor;
+
+// In-process columnar copy of the statistics fields of complaints: one primitive array per field
+// and a dictionary for employee ids, so a scan is a loop over arrays instead of Complaint
+// getters. Loaded from a projected cursor at startup and kept current from complaint write
+// events; writes that happen during a reload are replayed on the new columns. When a segment
+// directory is configured every row change is also appended to a ComplaintSegmentLog, so a
+// restart replays the mapped segments and only reads the complaints changed since the checkpoint;
+// once the log holds too many superseded records it is rewritten as a snapshot of the rows.
+@Component
+@RequiredArgsConstructor
+public class ComplaintColumnStore {
+    private static final Logger logger = LoggerFactory.getLogger(ComplaintColumnStore.class);
+    static final int MISSING = PQRSStatisticsAccumulator.MISSING;
+
+    private final MongoTemplate mongoTemplate;
+
+    @Value("${quejapi.statistics.columnar.enabled:false}")
+    private boolean enabled;
+
+    // Directory of the persisted segments; blank to keep the columns in memory only
+    @Value("${quejapi.statistics.columnar.segment-dir:}")
+    private String segmentDir = "";
+
+    // Minimum rows per task of the parallel scan; 0 always scans on the request thread
+    @Value("${quejapi.statistics.columnar.parallel-chunk-rows:65536}")
+    private int parallelChunkRows = 65536;
+
+    private final ZoneId zone = ZoneId.systemDefault();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private Columns columns;
+    private List<Complaint> pendingWrites;
+    private ComplaintSegmentLog segmentLog;
+
+    // Complaints written on other nodes or with skewed clocks can carry slightly older dates
+    static final long CATCH_UP_MARGIN_MILLIS = 5 * 60 * 1000L;
+
+    record Row(String id, byte status, byte type, byte category, int recievedDay, int daysToResolve,
+            int daysFromExpiration, String employee, Profile profile) {
+
+        static Row of(Complaint complaint, ZoneId zone) {
+            return new Row(complaint.getId(), Columns.smallCode(complaint.getStatus()),
+                    Columns.smallCode(complaint.getType()), Columns.smallCode(complaint.getCategory()),
+                    ComplaintDates.epochDay(complaint, zone, MISSING),
+                    PQRSStatisticsAccumulator.code(complaint.getDaysToResolve()),
+                    PQRSStatisticsAccumulator.code(complaint.getDaysfromExpiration()),
+                    complaint.getEmployee(), complaint.getEmployeeProfile());
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void initialize() {
+        if (!enabled) {
+            return;
+        }
+        Long checkpoint = segmentDir.isBlank() ? null : ComplaintSegmentLog.readCheckpoint(Path.of(segmentDir));
+        if (checkpoint == null) {
+            reload();
+            return;
+        }
+        try {
+            restore(checkpoint);
+        } catch (RuntimeException e) {
+            logger.warn("No se pudieron restaurar los segmentos de {}, recargando", segmentDir, e);
+            reload();
+        }
+    }
+
+    // Replays the persisted segments, then catches up with the complaints changed after the checkpoint
+    int restore(long checkpoint) {
+        startLoading();
+        Columns restored = new Columns(zone);
+        ComplaintSegmentLog log = null;
+        int replayed;
+        try {
+            log = ComplaintSegmentLog.open(Path.of(segmentDir), checkpoint, restored::upsert);
+            replayed = restored.size;
+            Date since = new Date(checkpoint - CATCH_UP_MARGIN_MILLIS);
+            Criteria changed = new Criteria().orOperator(Criteria.where("updatedDate").gte(since),
+                    Criteria.where("recievedDate").gte(since));
+            ComplaintSegmentLog restoredLog = log;
+            StatisticsProjection.forEach(mongoTemplate, changed, complaint -> apply(restored, restoredLog, complaint));
+        } catch (RuntimeException e) {
+            if (log != null) {
+                log.close();
+            }
+            abortLoading();
+            throw e;
+        }
+
+        lock.writeLock().lock();
+        try {
+            for (Complaint complaint : pendingWrites) {
+                apply(restored, log, complaint);
+            }
+            pendingWrites = null;
+            closeLog();
+            log.checkpoint();
+            segmentLog = log;
+            columns = restored;
+            compactLog();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        logger.info("Almacén columnar restaurado: {} filas de los segmentos, {} en total", replayed, restored.size);
+        return restored.size;
+    }
+
+    public int reload() {
+        startLoading();
+        Columns loaded = new Columns(zone);
+        try {
+            StatisticsProjection.forEach(mongoTemplate, new Criteria(), loaded::upsert);
+        } catch (RuntimeException e) {
+            abortLoading();
+            throw e;
+        }
+
+        lock.writeLock().lock();
+        try {
+            pendingWrites.forEach(loaded::upsert);
+            pendingWrites = null;
+            columns = loaded;
+            // Written under the lock so no append can reach the log being replaced
+            if (!segmentDir.isBlank()) {
+                closeLog();
+                segmentLog = ComplaintSegmentLog.rewrite(Path.of(segmentDir), loaded.rows(), loaded.lastSeen);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        logger.info("Almacén columnar de quejas cargado con {} filas", loaded.size);
+        return loaded.size;
+    }
+
+    private void startLoading() {
+        lock.writeLock().lock();
+        try {
+            pendingWrites = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void abortLoading() {
+        lock.writeLock().lock();
+        try {
+            pendingWrites = null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @EventListener
+    public void onComplaintChanged(ComplaintChangedEvent event) {
+        apply(List.of(event));
+    }
+
+    @EventListener
+    public void onComplaintsChanged(ComplaintBatchChangedEvent batch) {
+        apply(batch.changes());
+    }
+
+    private void apply(List<ComplaintChangedEvent> changes) {
+        if (!enabled) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            for (ComplaintChangedEvent event : changes) {
+                if (pendingWrites != null) {
+                    pendingWrites.add(event.current());
+                }
+                if (columns != null) {
+                    apply(columns, segmentLog, event.current());
+                }
+            }
+            compactLog();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        lock.writeLock().lock();
+        try {
+            closeLog();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void apply(Columns target, ComplaintSegmentLog log, Complaint complaint) {
+        Row row = Row.of(complaint, zone);
+        target.upsert(row, lastSeen(complaint));
+        if (log != null) {
+            log.append(row, lastSeen(complaint));
+        }
+    }
+
+    // Called under the write lock: replaces the log with a snapshot of the rows once superseded
+    // records dominate it, so a restart replays about one record per row
+    private void compactLog() {
+        if (segmentLog != null && columns != null && segmentLog.needsCompaction(columns.size)) {
+            long records = segmentLog.getRecords();
+            long lastSeen = Math.max(segmentLog.getLastSeen(), columns.lastSeen);
+            closeLog();
+            segmentLog = ComplaintSegmentLog.rewrite(Path.of(segmentDir), columns.rows(), lastSeen);
+            logger.info("Segmentos del almacén columnar compactados: {} registros a {}", records, columns.size);
+        }
+    }
+
+    private void closeLog() {
+        if (segmentLog != null) {
+            segmentLog.close();
+            segmentLog = null;
+        }
+    }
+
+    private static long lastSeen(Complaint complaint) {
+        long seen = complaint.getRecievedDate() == null ? 0L : complaint.getRecievedDate().getTime();
+        return complaint.getUpdatedDate() == null ? seen : Math.max(seen, complaint.getUpdatedDate().getTime());
+    }
+
+    public boolean isLoaded() {
+        lock.readLock().lock();
+        try {
+            return columns != null;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return columns == null ? 0 : columns.size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Aggregates the rows received between both days (inclusive, null for open ends)
+    public PQRSStatisticsAccumulator aggregate(LocalDate startDate, LocalDate endDate) {
+        lock.readLock().lock();
+        try {
+            if (columns == null) {
+                throw new IllegalStateException("El almacén columnar de quejas no está cargado");
+            }
+            // One task per common pool thread plus the request thread
+            return columns.aggregate(startDate, endDate, parallelChunkRows,
+                    ForkJoinPool.getCommonPoolParallelism() + 1);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    static final class Columns {
+        private static final int INITIAL_CAPACITY = 1024;
+
+        private final ZoneId zone;
+        private final Map<String, Integer> rowById = new HashMap<>();
+        private final Map<String, Integer> employeeCodes = new HashMap<>();
+        private final List<String> employeeIds = new ArrayList<>();
+        // Profile of the first row seen for each employee, as in the grouped statistics
+        private final List<Profile> employeeProfiles = new ArrayList<>();
+
+        private int size;
+        // Latest recievedDate/updatedDate among the upserted complaints
+        private long lastSeen;
+        private String[] ids = new String[INITIAL_CAPACITY];
+        private byte[] status = new byte[INITIAL_CAPACITY];
+        private byte[] type = new byte[INITIAL_CAPACITY];
+        private byte[] category = new byte[INITIAL_CAPACITY];
+        private int[] recievedDay = new int[INITIAL_CAPACITY];
+        private int[] daysToResolve = new int[INITIAL_CAPACITY];
+        private int[] daysFromExpiration = new int[INITIAL_CAPACITY];
+        private int[] employee = new int[INITIAL_CAPACITY];
+
+        Columns(ZoneId zone) {
+            this.zone = zone;
+        }
+
+        void upsert(Complaint complaint) {
+            upsert(Row.of(complaint, zone), lastSeen(complaint));
+        }
+
+        void upsert(Row row, long seen) {
+            upsert(row);
+            lastSeen = Math.max(lastSeen, seen);
+        }
+
+        void upsert(Row row) {
+            Integer existing = row.id() == null ? null : rowById.get(row.id());
+            int index;
+            if (existing != null) {
+                index = existing;
+            } else {
+                index = size++;
+                ensureCapacity(size);
+                if (row.id() != null) {
+                    rowById.put(row.id(), index);
+                }
+            }
+
+            ids[index] = row.id();
+            status[index] = row.status();
+            type[index] = row.type();
+            category[index] = row.category();
+            recievedDay[index] = row.recievedDay();
+            daysToResolve[index] = row.daysToResolve();
+            daysFromExpiration[index] = row.daysFromExpiration();
+            employee[index] = employeeCode(row.employee(), row.profile());
+        }
+
+        Stream<Row> rows() {
+            return IntStream.range(0, size).mapToObj(index -> {
+                int code = employee[index];
+                return new Row(ids[index], status[index], type[index], category[index], recievedDay[index],
+                        daysToResolve[index], daysFromExpiration[index], code < 0 ? null : employeeIds.get(code),
+                        code < 0 ? null : employeeProfiles.get(code));
+            });
+        }
+
+        // Stores of at least two chunks are split into up to maxChunks row ranges scanned on the
+        // fork/join pool. The partial accumulators are merged in row order, so the result is the
+        // sequential one.
+        PQRSStatisticsAccumulator aggregate(LocalDate startDate, LocalDate endDate, int minChunkRows, int maxChunks) {
+            boolean filtered = startDate != null || endDate != null;
+            int from = startDate == null ? Integer.MIN_VALUE + 1 : (int) startDate.toEpochDay();
+            int to = endDate == null ? Integer.MAX_VALUE : (int) endDate.toEpochDay();
+
+            int rows = size;
+            int chunks = minChunkRows <= 0 ? 1 : Math.min(maxChunks, rows / minChunkRows);
+            if (chunks <= 1) {
+                return aggregate(filtered, from, to, 0, rows);
+            }
+            int chunkRows = (rows + chunks - 1) / chunks;
+            return IntStream.range(0, chunks).parallel()
+                    .mapToObj(chunk -> aggregate(filtered, from, to, chunk * chunkRows,
+                            Math.min(rows, (chunk + 1) * chunkRows)))
+                    .reduce(PQRSStatisticsAccumulator::merge)
+                    .orElseGet(() -> new PQRSStatisticsAccumulator(zone));
+        }
+
+        private PQRSStatisticsAccumulator aggregate(boolean filtered, int from, int to, int first, int end) {
+            PQRSStatisticsAccumulator accumulator = new PQRSStatisticsAccumulator(zone);
+            for (int row = first; row < end; row++) {
+                int day = recievedDay[row];
+                // MISSING is below every bound, so rows without date never match a range
+                if (filtered && (day < from || day > to)) {
+                    continue;
+                }
+                int code = employee[row];
+                accumulator.addRow(status[row], type[row], category[row], day, daysToResolve[row],
+                        daysFromExpiration[row], code < 0 ? null : employeeIds.get(code),
+                        code < 0 ? null : employeeProfiles.get(code));
+            }
+            return accumulator;
+        }
+
+        // Codes outside the byte range can only fall in the "unknown" slot, so they collapse to -1
+        static byte smallCode(Integer code) {
+            return code == null || code < 0 || code > Byte.MAX_VALUE ? -1 : code.byteValue();
+        }
+
+        private int employeeCode(String id, Profile profile) {
+            if (id == null || profile == null) {
+                return -1;
+            }
+            return employeeCodes.computeIfAbsent(id, key -> {
+                employeeIds.add(key);
+                employeeProfiles.add(profile);
+                return employeeIds.size() - 1;
+            });
+        }
+
+        private void ensureCapacity(int required) {
+            if (required <= status.length) {
+                return;
+            }
+            int capacity = Math.max(required, status.length * 2);
+            ids = Arrays.copyOf(ids, capacity);
+            status = Arrays.copyOf(status, capacity);
+            type = Arrays.copyOf(type, capacity);
+            category = Arrays.copyOf(category, capacity);
+            recievedDay = Arrays.copyOf(recievedDay, capacity);
+            daysToResolve = Arrays.copyOf(daysToResolve, capacity);
+            daysFromExpiration = Arrays.copyOf(daysFromExpiration, capacity);
+            employee = Arrays.copyOf(employee, capacity);
+        }
+    }
+}
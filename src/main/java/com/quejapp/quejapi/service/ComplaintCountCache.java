@@ -0,0 +1,106 @@
+package com.quejapp.quejapi.service;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import com.quejapp.quejapi.repository.ComplaintFilter;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+// Bounded LRU cache of listing totals keyed by filter, so paging through a search does not count
+// it again for every page. A complaint write makes every cached total possibly stale: it is still
+// served, flagged as not exact, until the TTL expires and the next listing counts again.
+@Component
+public class ComplaintCountCache implements MeterBinder {
+
+    public record Total(long count, boolean exact) {
+    }
+
+    private record Entry(long count, long generation, Instant countedAt) {
+    }
+
+    @Value("${quejapi.search.count-cache.max-entries:256}")
+    private int maxEntries = 256;
+
+    @Value("${quejapi.search.count-cache.ttl:PT1M}")
+    private Duration ttl = Duration.ofMinutes(1);
+
+    Clock clock = Clock.systemDefaultZone();
+
+    private final LinkedHashMap<ComplaintFilter, Entry> entries = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<ComplaintFilter, Entry> eldest) {
+            return size() > maxEntries;
+        }
+    };
+
+    // Bumped on every complaint write; a total counted at the current generation is exact
+    private long generation;
+    private long hits;
+    private long misses;
+
+    public Total total(ComplaintFilter filter, LongSupplier counter) {
+        Instant now = clock.instant();
+        long observedGeneration;
+        synchronized (this) {
+            Entry entry = entries.get(filter);
+            if (entry != null && (entry.generation() == generation
+                    || entry.countedAt().plus(ttl).isAfter(now))) {
+                hits++;
+                return new Total(entry.count(), entry.generation() == generation);
+            }
+            misses++;
+            observedGeneration = generation;
+        }
+
+        long count = counter.getAsLong();
+        synchronized (this) {
+            entries.put(filter, new Entry(count, observedGeneration, now));
+        }
+        return new Total(count, true);
+    }
+
+    // The SLA sweeper only writes daysfromExpiration, which no listing filters on
+    @EventListener
+    public synchronized void onComplaintChanged(ComplaintChangedEvent event) {
+        generation++;
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+    }
+
+    synchronized int size() {
+        return entries.size();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("quejapi.search.count-cache.gets", this, cache -> cache.count(() -> cache.hits))
+                .tag("result", "hit")
+                .description("Totales de listados respondidos desde la caché")
+                .register(registry);
+        FunctionCounter.builder("quejapi.search.count-cache.gets", this, cache -> cache.count(() -> cache.misses))
+                .tag("result", "miss")
+                .description("Totales de listados contados en la base de datos")
+                .register(registry);
+        Gauge.builder("quejapi.search.count-cache.size", this, ComplaintCountCache::size)
+                .register(registry);
+    }
+
+    private synchronized double count(Supplier<Long> counter) {
+        return counter.get();
+    }
+}
@@ -0,0 +1,257 @@
+package com.quejapp.quejapi.service;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+import com.quejapp.quejapi.dto.ComplaintCubeDTO;
+import com.quejapp.quejapi.dto.ComplaintCubeQuery;
+import com.quejapp.quejapi.model.Complaint;
+
+import lombok.RequiredArgsConstructor;
+
+// Pre-aggregated complaint counts over type × category × status × month × department. Type,
+// category and status have small code spaces, so each (month, department) pair owns a dense
+// block with one counter per combination, plus an "unknown" slot per dimension. Slices and
+// roll-ups are a loop over the matching blocks; write events move one count between cells.
+@Component
+@RequiredArgsConstructor
+public class ComplaintCube {
+    private static final Logger logger = LoggerFactory.getLogger(ComplaintCube.class);
+
+    static final String TYPE = "type";
+    static final String CATEGORY = "category";
+    static final String STATUS = "status";
+    static final String MONTH = "month";
+    static final String DEPARTMENT = "department";
+    static final List<String> DIMENSIONS = List.of(TYPE, CATEGORY, STATUS, MONTH, DEPARTMENT);
+    static final String NO_DEPARTMENT = "Sin departamento";
+
+    private final MongoTemplate mongoTemplate;
+
+    @Value("${quejapi.statistics.cube.enabled:true}")
+    private boolean enabled = true;
+
+    private final ZoneId zone = ZoneId.systemDefault();
+    private Cells cells;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void initialize() {
+        if (enabled) {
+            load();
+        }
+    }
+
+    // Events wait on the monitor while the cube is loading, so no write is missed
+    public synchronized long load() {
+        Cells loaded = scan();
+        cells = loaded;
+        logger.info("Cubo de quejas cargado con {} quejas en {} bloques", loaded.total, loaded.blocks.size());
+        return loaded.total;
+    }
+
+    public synchronized boolean isLoaded() {
+        return cells != null;
+    }
+
+    @EventListener
+    public synchronized void onComplaintChanged(ComplaintChangedEvent event) {
+        if (cells != null) {
+            cells.apply(event);
+        }
+    }
+
+    @EventListener
+    public synchronized void onComplaintsChanged(ComplaintBatchChangedEvent batch) {
+        if (cells != null) {
+            batch.changes().forEach(cells::apply);
+        }
+    }
+
+    public ComplaintCubeDTO query(ComplaintCubeQuery query) {
+        List<String> groupBy = query.getGroupBy() == null ? List.of() : query.getGroupBy();
+        for (String dimension : groupBy) {
+            if (!DIMENSIONS.contains(dimension)) {
+                throw new IllegalArgumentException("Dimensión desconocida: " + dimension);
+            }
+        }
+        if (!enabled) {
+            // Sin mantenimiento incremental cada consulta recorre las quejas
+            return scan().query(query, groupBy);
+        }
+        synchronized (this) {
+            if (cells == null) {
+                load();
+            }
+            return cells.query(query, groupBy);
+        }
+    }
+
+    private Cells scan() {
+        Cells scanned = new Cells(zone);
+        Query query = new Query();
+        query.fields().include(TYPE, CATEGORY, STATUS, "recievedDate", "epochDay", DEPARTMENT);
+        try (Stream<Complaint> complaints = mongoTemplate.stream(query.cursorBatchSize(StatisticsProjection.BATCH_SIZE),
+                Complaint.class)) {
+            complaints.forEach(complaint -> scanned.add(complaint, 1));
+        }
+        return scanned;
+    }
+
+    static final class Cells {
+        private static final int TYPES = PQRSStatisticsAccumulator.TYPE_NAMES.length + 1;
+        private static final int CATEGORIES = PQRSStatisticsAccumulator.CATEGORY_NAMES.length + 1;
+        private static final int STATUSES = PQRSStatisticsAccumulator.STATUS_NAMES.length + 1;
+        private static final int BLOCK_SIZE = TYPES * CATEGORIES * STATUSES;
+
+        // Month is null for complaints without recievedDate
+        private record BlockKey(YearMonth month, String department) {
+        }
+
+        private final ZoneId zone;
+        private final Map<BlockKey, long[]> blocks = new HashMap<>();
+        private long total;
+
+        Cells(ZoneId zone) {
+            this.zone = zone;
+        }
+
+        void apply(ComplaintChangedEvent event) {
+            if (event.previous() != null) {
+                add(event.previous(), -1);
+            }
+            add(event.current(), 1);
+        }
+
+        void add(Complaint complaint, int delta) {
+            LocalDate day = ComplaintDates.day(complaint, zone);
+            YearMonth month = day == null ? null : YearMonth.from(day);
+            String department = complaint.getDepartment() == null || complaint.getDepartment().isBlank()
+                    ? NO_DEPARTMENT : complaint.getDepartment();
+            long[] block = blocks.computeIfAbsent(new BlockKey(month, department), key -> new long[BLOCK_SIZE]);
+            block[cell(slot(complaint.getType(), TYPES), slot(complaint.getCategory(), CATEGORIES),
+                    slot(complaint.getStatus(), STATUSES))] += delta;
+            total += delta;
+        }
+
+        ComplaintCubeDTO query(ComplaintCubeQuery query, List<String> groupBy) {
+            Map<List<Comparable<?>>, Long> grouped = new HashMap<>();
+            long matched = 0;
+            for (Map.Entry<BlockKey, long[]> entry : blocks.entrySet()) {
+                BlockKey key = entry.getKey();
+                if (!matches(query, key)) {
+                    continue;
+                }
+                long[] block = entry.getValue();
+                for (int cell = 0; cell < BLOCK_SIZE; cell++) {
+                    long count = block[cell];
+                    if (count == 0) {
+                        continue;
+                    }
+                    int status = cell % STATUSES;
+                    int category = cell / STATUSES % CATEGORIES;
+                    int type = cell / (STATUSES * CATEGORIES);
+                    if (!matches(query.getType(), type, TYPES) || !matches(query.getCategory(), category, CATEGORIES)
+                            || !matches(query.getStatus(), status, STATUSES)) {
+                        continue;
+                    }
+                    List<Comparable<?>> coordinates = new ArrayList<>(groupBy.size());
+                    for (String dimension : groupBy) {
+                        coordinates.add(switch (dimension) {
+                            case TYPE -> type;
+                            case CATEGORY -> category;
+                            case STATUS -> status;
+                            // "~" sorts after every yyyy-MM so undated complaints come last
+                            case MONTH -> key.month() == null ? "~" : key.month().toString();
+                            default -> key.department();
+                        });
+                    }
+                    grouped.merge(coordinates, count, Long::sum);
+                    matched += count;
+                }
+            }
+
+            List<ComplaintCubeDTO.CellDTO> result = grouped.entrySet().stream()
+                    .filter(entry -> entry.getValue() != 0)
+                    .sorted(Map.Entry.comparingByKey(Cells::compareCoordinates))
+                    .map(entry -> ComplaintCubeDTO.CellDTO.builder()
+                            .coordinates(labels(groupBy, entry.getKey()))
+                            .count(entry.getValue())
+                            .build())
+                    .toList();
+            return ComplaintCubeDTO.builder()
+                    .dimensions(groupBy)
+                    .total(matched)
+                    .cells(result)
+                    .build();
+        }
+
+        private static boolean matches(ComplaintCubeQuery query, BlockKey key) {
+            if (query.getDepartment() != null && !query.getDepartment().equals(key.department())) {
+                return false;
+            }
+            if (query.getFromMonth() == null && query.getToMonth() == null) {
+                return true;
+            }
+            return key.month() != null
+                    && (query.getFromMonth() == null || !key.month().isBefore(query.getFromMonth()))
+                    && (query.getToMonth() == null || !key.month().isAfter(query.getToMonth()));
+        }
+
+        private static boolean matches(Integer filter, int slot, int slots) {
+            return filter == null || slot(filter, slots) == slot;
+        }
+
+        private static Map<String, String> labels(List<String> groupBy, List<Comparable<?>> coordinates) {
+            Map<String, String> labels = new LinkedHashMap<>();
+            for (int i = 0; i < groupBy.size(); i++) {
+                Object value = coordinates.get(i);
+                labels.put(groupBy.get(i), switch (groupBy.get(i)) {
+                    case TYPE -> PQRSStatisticsAccumulator.typeName((Integer) value);
+                    case CATEGORY -> PQRSStatisticsAccumulator.categoryName((Integer) value);
+                    case STATUS -> PQRSStatisticsAccumulator.statusName((Integer) value);
+                    case MONTH -> "~".equals(value) ? PQRSStatisticsAccumulator.UNKNOWN_KEY : (String) value;
+                    default -> (String) value;
+                });
+            }
+            return labels;
+        }
+
+        @SuppressWarnings({ "unchecked", "rawtypes" })
+        private static int compareCoordinates(List<Comparable<?>> left, List<Comparable<?>> right) {
+            for (int i = 0; i < left.size(); i++) {
+                int compared = ((Comparable) left.get(i)).compareTo(right.get(i));
+                if (compared != 0) {
+                    return compared;
+                }
+            }
+            return 0;
+        }
+
+        private static int cell(int type, int category, int status) {
+            return (type * CATEGORIES + category) * STATUSES + status;
+        }
+
+        // Known codes keep their value; the last slot collects unknown or missing codes
+        private static int slot(Integer code, int slots) {
+            return code != null && code >= 0 && code < slots - 1 ? code : slots - 1;
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.quejapp.quejapi.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import com.quejapp.quejapi.model.Complaint;
+
+import lombok.RequiredArgsConstructor;
+
+// Fills epochDay, yearMonth and weekday on complaints written before they were derived at
+// write time. Only dated complaints still missing epochDay are read, so after the first run
+// the startup pass is a single indexed query. Writes go out in unordered bulk batches and are
+// guarded on recievedDate, so a complaint changed meanwhile is left for the next run.
+@Component
+@RequiredArgsConstructor
+public class ComplaintDateFieldsMigration {
+    private static final Logger logger = LoggerFactory.getLogger(ComplaintDateFieldsMigration.class);
+
+    private final MongoTemplate mongoTemplate;
+
+    @Value("${quejapi.migrations.complaint-dates.enabled:true}")
+    private boolean enabled = true;
+
+    @Value("${quejapi.migrations.complaint-dates.batch-size:500}")
+    private int batchSize = 500;
+
+    public void initialize() {
+        if (enabled) {
+            backfill();
+        }
+    }
+
+    public synchronized int backfill() {
+        Query query = Query.query(Criteria.where("recievedDate").ne(null).and("epochDay").exists(false));
+        query.fields().include("recievedDate");
+        List<Complaint> batch = new ArrayList<>();
+        int written = 0;
+        try (Stream<Complaint> complaints = mongoTemplate.stream(
+                query.cursorBatchSize(StatisticsProjection.BATCH_SIZE), Complaint.class)) {
+            for (Complaint complaint : (Iterable<Complaint>) complaints::iterator) {
+                batch.add(ComplaintDates.derive(complaint));
+                if (batch.size() >= batchSize) {
+                    written += flush(batch);
+                }
+            }
+        }
+        written += flush(batch);
+        if (written > 0) {
+            logger.info("Campos de fecha derivados completados en {} quejas", written);
+        }
+        return written;
+    }
+
+    private int flush(List<Complaint> batch) {
+        if (batch.isEmpty()) {
+            return 0;
+        }
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Complaint.class);
+        for (Complaint complaint : batch) {
+            bulk.updateOne(Query.query(Criteria.where("_id").is(complaint.getId())
+                    .and("recievedDate").is(complaint.getRecievedDate())),
+                    Update.update("epochDay", complaint.getEpochDay())
+                            .set("yearMonth", complaint.getYearMonth())
+                            .set("weekday", complaint.getWeekday()));
+        }
+        int written = bulk.execute().getModifiedCount();
+        batch.clear();
+        return written;
+    }
+}
@@ -0,0 +1,47 @@
+package com.quejapp.quejapi.service;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.ZoneId;
+
+import com.quejapp.quejapi.model.Complaint;
+
+// Date fields derived from recievedDate once, when the complaint is written, in the server
+// zone. Readers take the stored epoch day instead of converting every date; complaints written
+// before the fields existed fall back to the conversion until ComplaintDateFieldsMigration
+// fills them in.
+final class ComplaintDates {
+    static final ZoneId ZONE = ZoneId.systemDefault();
+
+    private ComplaintDates() {
+    }
+
+    static Complaint derive(Complaint complaint) {
+        if (complaint.getRecievedDate() == null) {
+            complaint.setEpochDay(null);
+            complaint.setYearMonth(null);
+            complaint.setWeekday(null);
+            return complaint;
+        }
+        LocalDate day = complaint.getRecievedDate().toInstant().atZone(ZONE).toLocalDate();
+        complaint.setEpochDay((int) day.toEpochDay());
+        complaint.setYearMonth(YearMonth.from(day).toString());
+        complaint.setWeekday(day.getDayOfWeek().getValue());
+        return complaint;
+    }
+
+    // Epoch day of recievedDate in the zone, or the given value when there is no date
+    static int epochDay(Complaint complaint, ZoneId zone, int missing) {
+        if (complaint.getRecievedDate() == null) {
+            return missing;
+        }
+        if (complaint.getEpochDay() != null && ZONE.equals(zone)) {
+            return complaint.getEpochDay();
+        }
+        return (int) complaint.getRecievedDate().toInstant().atZone(zone).toLocalDate().toEpochDay();
+    }
+
+    static LocalDate day(Complaint complaint, ZoneId zone) {
+        return complaint.getRecievedDate() == null ? null : LocalDate.ofEpochDay(epochDay(complaint, zone, 0));
+    }
+}
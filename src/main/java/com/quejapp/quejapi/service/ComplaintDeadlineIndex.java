@@ -0,0 +1,206 @@
+package com.quejapp.quejapi.service;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.quejapp.quejapi.dto.ExpirationCountsDTO;
+import com.quejapp.quejapi.dto.ExpiringComplaintDTO;
+import com.quejapp.quejapi.model.Complaint;
+
+import lombok.RequiredArgsConstructor;
+
+// Deadlines (recievedDate + EXPIRATION_DAYS) of the open complaints in a timing wheel with one
+// bucket per day from today to today + EXPIRATION_DAYS. Passed buckets are folded into a single
+// expired count when the day advances, so the expired and near-expiration figures are a counter
+// and a few bucket sizes, served by /complaints/expiring/counts next to the /complaints/expiring
+// list. Open means not closed, as in PQRSStatisticsAccumulator.
+@Component
+@RequiredArgsConstructor
+public class ComplaintDeadlineIndex {
+    private static final Logger logger = LoggerFactory.getLogger(ComplaintDeadlineIndex.class);
+    static final int WHEEL_SIZE = PQRSStatisticsAccumulator.EXPIRATION_DAYS + 1;
+
+    private final MongoTemplate mongoTemplate;
+
+    private final ZoneId zone = ZoneId.systemDefault();
+
+    private record Deadline(String id, String reference, String subject, Date recievedDate, int day) {
+    }
+
+    private final List<Map<String, Deadline>> wheel = new ArrayList<>(WHEEL_SIZE);
+    // Deadlines past the wheel, e.g. complaints dated in the future
+    private final TreeMap<Integer, Map<String, Deadline>> overflow = new TreeMap<>();
+    private final Map<String, Integer> deadlineById = new HashMap<>();
+    private long expired;
+    private int today;
+    private boolean loaded;
+
+    {
+        for (int i = 0; i < WHEEL_SIZE; i++) {
+            wheel.add(new LinkedHashMap<>());
+        }
+    }
+
+    public void initialize() {
+        load();
+    }
+
+    public synchronized int load() {
+        for (Map<String, Deadline> bucket : wheel) {
+            bucket.clear();
+        }
+        overflow.clear();
+        deadlineById.clear();
+        expired = 0;
+        today = (int) LocalDate.now(zone).toEpochDay();
+
+        Query query = Query.query(Criteria.where("status").nin(2, 3).and("recievedDate").ne(null));
+        query.fields().include("reference", "subject", "recievedDate", "epochDay", "status");
+        try (Stream<Complaint> open = mongoTemplate.stream(query.cursorBatchSize(StatisticsProjection.BATCH_SIZE),
+                Complaint.class)) {
+            open.forEach(this::add);
+        }
+        loaded = true;
+        logger.info("Índice de vencimientos cargado con {} quejas abiertas", deadlineById.size());
+        return deadlineById.size();
+    }
+
+    @EventListener
+    public synchronized void onComplaintChanged(ComplaintChangedEvent event) {
+        advance();
+        Complaint current = event.current();
+        if (current.getId() != null) {
+            remove(current.getId());
+        }
+        add(current);
+    }
+
+    @EventListener
+    public synchronized void onComplaintsChanged(ComplaintBatchChangedEvent batch) {
+        batch.changes().forEach(this::onComplaintChanged);
+    }
+
+    // Turns the wheel at midnight; reads also advance it in case a tick was missed
+    @Scheduled(cron = "0 0 0 * * *")
+    public synchronized void advance() {
+        advanceTo((int) LocalDate.now(zone).toEpochDay());
+    }
+
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    // Both figures of the expiration summary, consistent with each other
+    public synchronized ExpirationCountsDTO getCounts() {
+        return ExpirationCountsDTO.builder()
+                .expiredPqrs(getExpiredCount())
+                .nearExpirationPqrs(getNearExpirationCount())
+                .build();
+    }
+
+    public synchronized long getExpiredCount() {
+        advance();
+        return expired;
+    }
+
+    // Open complaints whose deadline is today or within the next NEAR_EXPIRATION_DAYS days
+    public synchronized long getNearExpirationCount() {
+        advance();
+        long near = 0;
+        for (int day = today; day <= today + PQRSStatisticsAccumulator.NEAR_EXPIRATION_DAYS; day++) {
+            near += wheel.get(slot(day)).size();
+        }
+        return near;
+    }
+
+    // Open complaints expiring within the given number of days, soonest first
+    public synchronized List<ExpiringComplaintDTO> getExpiring(int days) {
+        advance();
+        int last = today + Math.max(0, Math.min(days, WHEEL_SIZE - 1));
+        List<ExpiringComplaintDTO> expiring = new ArrayList<>();
+        for (int day = today; day <= last; day++) {
+            for (Deadline deadline : wheel.get(slot(day)).values()) {
+                expiring.add(ExpiringComplaintDTO.builder()
+                        .id(deadline.id())
+                        .reference(deadline.reference())
+                        .subject(deadline.subject())
+                        .recievedDate(deadline.recievedDate())
+                        .deadline(LocalDate.ofEpochDay(deadline.day()))
+                        .daysLeft(deadline.day() - today)
+                        .build());
+            }
+        }
+        return expiring;
+    }
+
+    synchronized void advanceTo(int day) {
+        while (today < day) {
+            Map<String, Deadline> passed = wheel.get(slot(today));
+            expired += passed.size();
+            passed.clear();
+            today++;
+            // The slot just freed now holds the day entering the wheel
+            Map<String, Deadline> entering = overflow.remove(today + WHEEL_SIZE - 1);
+            if (entering != null) {
+                wheel.get(slot(today + WHEEL_SIZE - 1)).putAll(entering);
+            }
+        }
+    }
+
+    private void add(Complaint complaint) {
+        if (complaint.getId() == null || complaint.getRecievedDate() == null
+                || PQRSStatisticsAccumulator.isStatusClosed(complaint.getStatus())) {
+            return;
+        }
+        int day = ComplaintDates.epochDay(complaint, zone, 0) + PQRSStatisticsAccumulator.EXPIRATION_DAYS;
+        Deadline deadline = new Deadline(complaint.getId(), complaint.getReference(), complaint.getSubject(),
+                complaint.getRecievedDate(), day);
+        deadlineById.put(deadline.id(), day);
+        if (day < today) {
+            expired++;
+        } else if (day < today + WHEEL_SIZE) {
+            wheel.get(slot(day)).put(deadline.id(), deadline);
+        } else {
+            overflow.computeIfAbsent(day, d -> new LinkedHashMap<>()).put(deadline.id(), deadline);
+        }
+    }
+
+    private void remove(String id) {
+        Integer day = deadlineById.remove(id);
+        if (day == null) {
+            return;
+        }
+        if (day < today) {
+            expired--;
+        } else if (day < today + WHEEL_SIZE) {
+            wheel.get(slot(day)).remove(id);
+        } else {
+            Map<String, Deadline> bucket = overflow.get(day);
+            bucket.remove(id);
+            if (bucket.isEmpty()) {
+                overflow.remove(day);
+            }
+        }
+    }
+
+    private static int slot(int day) {
+        return Math.floorMod(day, WHEEL_SIZE);
+    }
+}
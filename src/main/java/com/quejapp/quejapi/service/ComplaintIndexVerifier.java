@@ -0,0 +1,224 @@
+package com.quejapp.quejapi.service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+import com.mongodb.MongoCommandException;
+import com.quejapp.quejapi.model.Complaint;
+import com.quejapp.quejapi.repository.ComplaintFilter;
+import com.quejapp.quejapi.repository.ComplaintQueryBuilder;
+
+import lombok.RequiredArgsConstructor;
+
+// Explains the query shape of every complaint listing, without the listing's index hint, and
+// reports the plan the server picks. A shape answered by a collection scan, or by an index scan
+// with no bounds on its leading key, means a declared index is missing or no longer matches the
+// query; with fail-on-collscan the application refuses to start. Servers without explain
+// (in-memory stand-ins) skip the check.
+@Component
+@RequiredArgsConstructor
+public class ComplaintIndexVerifier {
+    private static final Logger logger = LoggerFactory.getLogger(ComplaintIndexVerifier.class);
+    private static final int COMMAND_NOT_FOUND = 59;
+    private static final Set<String> FULL_RANGES = Set.of("[MinKey, MaxKey]", "[MaxKey, MinKey]");
+
+    public record QueryPlan(String shape, Set<String> stages, Set<String> indexes, boolean unboundedIndexScan) {
+
+        public boolean collectionScan() {
+            return stages.contains("COLLSCAN");
+        }
+
+        public boolean fullScan() {
+            return collectionScan() || unboundedIndexScan;
+        }
+    }
+
+    private final MongoTemplate mongoTemplate;
+
+    @Value("${quejapi.indexes.verify.enabled:true}")
+    private boolean enabled = true;
+
+    @Value("${quejapi.indexes.verify.fail-on-collscan:true}")
+    private boolean failOnCollectionScan = true;
+
+    public void initialize() {
+        if (!enabled) {
+            return;
+        }
+        List<QueryPlan> plans = verify();
+        List<String> scans = plans.stream().filter(QueryPlan::fullScan).map(QueryPlan::shape).toList();
+        if (scans.isEmpty()) {
+            logger.info("Planes de consulta verificados: {} formas usan índices", plans.size());
+            return;
+        }
+        String message = "Consultas de quejas sin índice (COLLSCAN o IXSCAN sin límites): " + scans;
+        if (failOnCollectionScan) {
+            throw new IllegalStateException(message);
+        }
+        logger.error(message);
+    }
+
+    // Empty when the server cannot explain queries
+    public List<QueryPlan> verify() {
+        List<QueryPlan> plans = new ArrayList<>();
+        for (Map.Entry<String, Query> shape : shapes().entrySet()) {
+            Document explained;
+            try {
+                explained = explain(shape.getValue());
+            } catch (DataAccessException e) {
+                if (isCommandNotFound(e)) {
+                    logger.warn("El servidor no admite explain; no se verifican los planes de consulta");
+                    return List.of();
+                }
+                throw e;
+            }
+            Set<String> stages = new LinkedHashSet<>();
+            Set<String> indexes = new LinkedHashSet<>();
+            Document planner = explained.get("queryPlanner", Document.class);
+            Object winningPlan = planner == null ? null : planner.get("winningPlan");
+            collect(winningPlan, stages, indexes);
+            QueryPlan plan = new QueryPlan(shape.getKey(), stages, indexes,
+                    unbounded(winningPlan) && !indexOrdered(shape.getValue(), stages));
+            if (plan.collectionScan()) {
+                logger.error("{} recorre toda la colección: {}", plan.shape(), plan.stages());
+            } else if (plan.unboundedIndexScan()) {
+                logger.error("{} recorre todo el índice {} sin límites", plan.shape(), plan.indexes());
+            } else if (stages.contains("SORT")) {
+                logger.warn("{} ordena en memoria sobre {}", plan.shape(), plan.indexes());
+            }
+            plans.add(plan);
+        }
+        return plans;
+    }
+
+    // Every combination of the indexed filters (user, status, date range) with no term, a text
+    // term and a reference prefix, as built for the default listing order, plus the cursor seek,
+    // the statistics date range, the date-fields backfill, the columnar catch-up after a restart
+    // and the unfiltered default listing. Attribute filters only add residual predicates; with
+    // neither an indexed filter nor a reference no index can bound the listing, so those two
+    // shapes are left out.
+    static Map<String, Query> shapes() {
+        Sort recent = Sort.by(Sort.Direction.DESC, "recievedDate");
+        LocalDate day = LocalDate.of(2024, 1, 1);
+        Map<String, Query> shapes = new LinkedHashMap<>();
+        for (int combination = 0; combination < 8; combination++) {
+            for (String term : new String[] { null, "muestra", "TRC-2024" }) {
+                if (combination == 0 && !"TRC-2024".equals(term)) {
+                    continue;
+                }
+                ComplaintFilter filter = ComplaintFilter.builder()
+                        .user((combination & 1) != 0 ? "u" : null)
+                        .status((combination & 2) != 0 ? 0 : null)
+                        .startDate((combination & 4) != 0 ? day : null)
+                        .endDate((combination & 4) != 0 ? day.plusMonths(1) : null)
+                        .searchTerm(term)
+                        .type(0)
+                        .department("muestra")
+                        .build();
+                List<String> name = new ArrayList<>();
+                if (filter.getUser() != null) {
+                    name.add("user");
+                }
+                if (filter.getStatus() != null) {
+                    name.add("status");
+                }
+                if (filter.getStartDate() != null) {
+                    name.add("recievedDate");
+                }
+                if (term != null) {
+                    name.add(term.startsWith("TRC") ? "reference" : "term");
+                }
+                shapes.put("filter(" + String.join(", ", name) + ")", ComplaintQueryBuilder.query(filter, recent));
+            }
+        }
+
+        Date date = new Date(0);
+        shapes.put("seek(recievedDate)", Query.query(new Criteria().orOperator(
+                Criteria.where("recievedDate").lt(date),
+                Criteria.where("recievedDate").is(date).and("_id").lt("0"),
+                Criteria.where("recievedDate").is(null)))
+                .with(Sort.by(Sort.Direction.DESC, "recievedDate", "_id")));
+        shapes.put("statistics(recievedDate range)",
+                Query.query(Criteria.where("recievedDate").gte(date).lte(new Date())));
+        shapes.put("backfill(epochDay missing)",
+                Query.query(Criteria.where("recievedDate").ne(null).and("epochDay").exists(false)));
+        shapes.put("catch-up(updatedDate or recievedDate)", Query.query(new Criteria().orOperator(
+                Criteria.where("updatedDate").gte(date), Criteria.where("recievedDate").gte(date))));
+        shapes.put("listing(recievedDate order)", ComplaintQueryBuilder.query(new ComplaintFilter(), recent));
+        return shapes;
+    }
+
+    private Document explain(Query query) {
+        Document find = new Document("find", mongoTemplate.getCollectionName(Complaint.class))
+                .append("filter", query.getQueryObject())
+                .append("limit", 20);
+        if (query.isSorted()) {
+            find.append("sort", query.getSortObject());
+        }
+        return mongoTemplate.executeCommand(new Document("explain", find).append("verbosity", "queryPlanner"));
+    }
+
+    // Classic plans nest inputStage(s); slot-based plans wrap them in queryPlan
+    static void collect(Object node, Set<String> stages, Set<String> indexes) {
+        if (node instanceof Document document) {
+            if (document.get("stage") instanceof String stage) {
+                stages.add(stage);
+            }
+            if (document.get("indexName") instanceof String index) {
+                indexes.add(index);
+            }
+            for (Object child : document.values()) {
+                collect(child, stages, indexes);
+            }
+        } else if (node instanceof List<?> children) {
+            for (Object child : children) {
+                collect(child, stages, indexes);
+            }
+        }
+    }
+
+    // An index scan whose leading key spans every value reads the whole index
+    static boolean unbounded(Object node) {
+        if (node instanceof Document document) {
+            if ("IXSCAN".equals(document.get("stage")) && document.get("indexBounds") instanceof Document bounds
+                    && !bounds.isEmpty() && bounds.values().iterator().next() instanceof List<?> ranges
+                    && ranges.size() == 1 && FULL_RANGES.contains(String.valueOf(ranges.get(0)))) {
+                return true;
+            }
+            return document.values().stream().anyMatch(ComplaintIndexVerifier::unbounded);
+        }
+        return node instanceof List<?> children && children.stream().anyMatch(ComplaintIndexVerifier::unbounded);
+    }
+
+    // With no filter an index scan over every key is expected when the index supplies the order:
+    // the limit stops it after one page. Without that index the plan sorts in memory
+    static boolean indexOrdered(Query query, Set<String> stages) {
+        return query.isSorted() && query.getQueryObject().isEmpty() && !stages.contains("SORT");
+    }
+
+    private static boolean isCommandNotFound(RuntimeException e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof MongoCommandException command && command.getErrorCode() == COMMAND_NOT_FOUND) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
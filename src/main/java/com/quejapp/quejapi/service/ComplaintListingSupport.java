@@ -0,0 +1,165 @@
+package com.quejapp.quejapi.service;
+
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import com.quejapp.quejapi.dto.ComplaintCursorPage;
+import com.quejapp.quejapi.dto.ComplaintSearch;
+import com.quejapp.quejapi.dto.ComplaintSliceDTO;
+import com.quejapp.quejapi.model.Complaint;
+import com.quejapp.quejapi.repository.ComplaintCursor;
+import com.quejapp.quejapi.repository.ComplaintFilter;
+import com.quejapp.quejapi.repository.ComplaintRepository;
+
+import lombok.RequiredArgsConstructor;
+
+// Complaint listings shared by the administrator and user services. The user is null for the
+// administrator and the owner's id otherwise. A term without attribute filters is answered by the
+// trigram index or the text search, as quejapi.search.mode selects; any other filter is built by
+// ComplaintQueryBuilder on the compound indexes.
+@Component
+@RequiredArgsConstructor
+public class ComplaintListingSupport {
+    static final int DEFAULT_CURSOR_SIZE = 20;
+
+    // INDEX: in-process trigram index, TEXT until it is loaded; TEXT: text index on subject and
+    // anchored reference prefix; REGEX: unindexed regular expressions. Bound case-insensitively,
+    // so an unknown mode fails at startup
+    public enum SearchMode {
+        INDEX, TEXT, REGEX
+    }
+
+    private final ComplaintRepository complaintsRepo;
+    private final ComplaintSearchIndex searchIndex;
+    private final ComplaintCountCache countCache;
+
+    @Value("${quejapi.search.mode:index}")
+    private SearchMode searchMode = SearchMode.INDEX;
+
+    public Page<Complaint> search(ComplaintSearch request, String user) {
+        Pageable pageable = createPageable(request);
+        ComplaintFilter filter = createFilter(request, user);
+
+        // The trigram and text searches only narrow by status and user
+        String searchTerm = filter.getSearchTerm();
+        Integer status = filter.getStatus();
+        if (searchTerm != null && !filter.hasAttributeFilters()) {
+            if (searchMode == SearchMode.INDEX) {
+                Optional<Page<Complaint>> indexed = searchIndex.search(searchTerm, status, user, pageable);
+                if (indexed.isPresent()) {
+                    return indexed.get();
+                }
+            }
+            if (searchMode != SearchMode.REGEX) {
+                return complaintsRepo.search(searchTerm, status, user, pageable);
+            }
+        }
+
+        // Any other combination is built on the compound indexes, with the term matched literally
+        return complaintsRepo.filter(filter, pageable);
+    }
+
+    // Listing without the count query: hasNext comes from one extra complaint and the total is
+    // cached per filter; an index search already knows its exact total
+    public ComplaintSliceDTO slice(ComplaintSearch request, String user) {
+        Pageable pageable = createPageable(request);
+        ComplaintFilter filter = createFilter(request, user);
+        String term = filter.getSearchTerm();
+        Integer status = filter.getStatus();
+        if (term != null && !filter.hasAttributeFilters()) {
+            if (searchMode == SearchMode.INDEX) {
+                Optional<Page<Complaint>> indexed = searchIndex.search(term, status, user, pageable);
+                if (indexed.isPresent()) {
+                    Page<Complaint> page = indexed.get();
+                    return createSlice(page, new ComplaintCountCache.Total(page.getTotalElements(), true));
+                }
+            }
+            if (searchMode != SearchMode.REGEX) {
+                Slice<Complaint> slice = complaintsRepo.searchSlice(term, status, user, pageable);
+                return createSlice(slice, countCache.total(filter, () -> complaintsRepo.count(term, status, user)));
+            }
+        }
+
+        Slice<Complaint> slice = complaintsRepo.filterSlice(filter, pageable);
+        // Unfiltered, the collection metadata gives the total without reading documents
+        ComplaintCountCache.Total total = filter.equals(new ComplaintFilter())
+                ? new ComplaintCountCache.Total(complaintsRepo.estimatedCount(), false)
+                : countCache.total(filter, () -> complaintsRepo.count(filter));
+        return createSlice(slice, total);
+    }
+
+    // Cursor listing: seeks past the previous page instead of skipping it, and never counts
+    public ComplaintCursorPage seek(ComplaintSearch request, String user) {
+        Sort.Order order = createOrder(request);
+        int size = request.getSize() == null || request.getSize() < 1 ? DEFAULT_CURSOR_SIZE : request.getSize();
+        List<Complaint> complaints = complaintsRepo.seek(createFilter(request, user), order,
+                ComplaintCursor.decode(request.getCursor(), order), size + 1);
+        return createCursorPage(complaints, size, order);
+    }
+
+    private static Pageable createPageable(ComplaintSearch request) {
+        Sort sort = Sort.by(
+            "desc".equalsIgnoreCase(request.getSortDirection()) ?
+                Sort.Direction.DESC : Sort.Direction.ASC,
+            request.getSortBy()
+        );
+
+        return PageRequest.of(request.getPage(), request.getSize(), sort);
+    }
+
+    static ComplaintFilter createFilter(ComplaintSearch request, String user) {
+        return ComplaintFilter.builder()
+                .searchTerm(textOrNull(request.getSearchTerm()))
+                .user(user)
+                .status(request.getStatus())
+                .type(request.getType())
+                .category(request.getCategory())
+                .startDate(request.getStartDate())
+                .endDate(request.getEndDate())
+                .employee(textOrNull(request.getEmployee()))
+                .department(textOrNull(request.getDepartment()))
+                .prediction(textOrNull(request.getPrediction()))
+                .build();
+    }
+
+    private static String textOrNull(String text) {
+        return StringUtils.hasText(text) ? text.trim() : null;
+    }
+
+    private static Sort.Order createOrder(ComplaintSearch request) {
+        String sortBy = StringUtils.hasText(request.getSortBy()) ? request.getSortBy() : "recievedDate";
+        return "desc".equalsIgnoreCase(request.getSortDirection()) ? Sort.Order.desc(sortBy) : Sort.Order.asc(sortBy);
+    }
+
+    // One extra complaint is read to know whether another page follows
+    private static ComplaintCursorPage createCursorPage(List<Complaint> complaints, int size, Sort.Order order) {
+        boolean hasNext = complaints.size() > size;
+        List<Complaint> content = hasNext ? complaints.subList(0, size) : complaints;
+        return ComplaintCursorPage.builder()
+                .content(content)
+                .size(content.size())
+                .hasNext(hasNext)
+                .nextCursor(hasNext ? ComplaintCursor.of(content.get(size - 1), order).encode(order) : null)
+                .build();
+    }
+
+    private static ComplaintSliceDTO createSlice(Slice<Complaint> slice, ComplaintCountCache.Total total) {
+        return ComplaintSliceDTO.builder()
+                .content(slice.getContent())
+                .page(slice.getNumber())
+                .size(slice.getNumberOfElements())
+                .hasNext(slice.hasNext())
+                .totalElements(total.count())
+                .totalExact(total.exact())
+                .build();
+    }
+}
@@ -0,0 +1,333 @@
+package com.quejapp.quejapi.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+import com.quejapp.quejapi.model.Complaint;
+
+// In-process trigram inverted index over reference and subject for substring search. Each
+// complaint gets a dense ordinal; every trigram of its lowercased fields keeps a compressed
+// posting list of ordinals, and status and user keep bitmaps. A search intersects the posting
+// lists of the term's trigrams, applies the bitmaps, confirms the substring on the indexed
+// text and reads only the requested page of complaints from MongoDB. Terms shorter than a
+// trigram are confirmed against every complaint, still without touching the database.
+@Component
+public class ComplaintSearchIndex {
+    private static final Logger logger = LoggerFactory.getLogger(ComplaintSearchIndex.class);
+    static final String[] FIELDS = { "reference", "subject", "status", "user", "recievedDate" };
+
+    private final MongoTemplate mongoTemplate;
+
+    @Value("${quejapi.search.index.enabled:true}")
+    private boolean enabled = true;
+
+    // Most matched ids sent to MongoDB when it has to sort them; above it the caller searches the database
+    @Value("${quejapi.search.index.max-unsorted-matches:2000}")
+    private int maxUnsortedMatches = 2000;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private Entries entries;
+
+    public ComplaintSearchIndex(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public boolean isLoaded() {
+        lock.readLock().lock();
+        try {
+            return entries != null;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public void initialize() {
+        if (enabled) {
+            load();
+        }
+    }
+
+    // Writes wait while the index is rebuilt, so none is missed
+    public int load() {
+        lock.writeLock().lock();
+        try {
+            Entries loaded = new Entries();
+            Query query = new Query();
+            query.fields().include(FIELDS);
+            try (Stream<Complaint> complaints = mongoTemplate.stream(
+                    query.cursorBatchSize(StatisticsProjection.BATCH_SIZE), Complaint.class)) {
+                complaints.forEach(loaded::upsert);
+            }
+            entries = loaded;
+            logger.info("Índice de búsqueda cargado con {} quejas y {} trigramas", loaded.size,
+                    loaded.postings.size());
+            return loaded.size;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @EventListener
+    public void onComplaintChanged(ComplaintChangedEvent event) {
+        lock.writeLock().lock();
+        try {
+            if (entries != null) {
+                entries.upsert(event.current());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // ComplaintBatchChangedEvent is not handled: the SLA sweeper only writes daysfromExpiration
+
+    // Empty while the index is disabled or not loaded, or when an unindexed sort matches too many
+    // complaints, so the caller can search the database. MongoDB is only read once the lock is released
+    public Optional<Page<Complaint>> search(String term, Integer status, String user, Pageable pageable) {
+        List<String> ids;
+        boolean sorted;
+        int total;
+        lock.readLock().lock();
+        try {
+            if (!enabled || entries == null) {
+                return Optional.empty();
+            }
+            int[] matches = entries.match(term.trim().toLowerCase(Locale.ROOT), status, user);
+            total = matches.length;
+            Comparator<Integer> order = entries.order(pageable.getSort());
+            sorted = order != null;
+            if (sorted) {
+                ids = entries.page(matches, order, pageable).stream().map(entries.ids::get).toList();
+            } else if (total <= maxUnsortedMatches) {
+                // Unindexed sort: MongoDB sorts and pages the matched ids
+                ids = Arrays.stream(matches).mapToObj(entries.ids::get).toList();
+            } else {
+                return Optional.empty();
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        if (!sorted) {
+            Query query = Query.query(Criteria.where("_id").in(ids)).with(pageable);
+            return Optional.of(new PageImpl<>(mongoTemplate.find(query, Complaint.class), pageable, total));
+        }
+        return Optional.of(new PageImpl<>(fetch(ids), pageable, total));
+    }
+
+    private List<Complaint> fetch(List<String> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<String, Complaint> byId = mongoTemplate.find(Query.query(Criteria.where("_id").in(ids)), Complaint.class)
+                .stream().collect(Collectors.toMap(Complaint::getId, Function.identity()));
+        // Complaints deleted since the search are skipped
+        return ids.stream().map(byId::get).filter(complaint -> complaint != null).toList();
+    }
+
+    static final class Entries {
+        private final Map<String, Integer> ordinals = new HashMap<>();
+        private final List<String> ids = new ArrayList<>();
+        private final List<String> references = new ArrayList<>();
+        private final List<String> subjects = new ArrayList<>();
+        private long[] recievedMillis = new long[1024];
+        private final Map<Long, PostingList> postings = new HashMap<>();
+        private final Map<Integer, BitSet> byStatus = new HashMap<>();
+        private final Map<String, BitSet> byUser = new HashMap<>();
+        private final List<Integer> statuses = new ArrayList<>();
+        private final List<String> users = new ArrayList<>();
+        private int size;
+
+        void upsert(Complaint complaint) {
+            if (complaint.getId() == null) {
+                return;
+            }
+            Integer existing = ordinals.get(complaint.getId());
+            int ordinal;
+            if (existing == null) {
+                ordinal = size++;
+                ordinals.put(complaint.getId(), ordinal);
+                ids.add(complaint.getId());
+                references.add(null);
+                subjects.add(null);
+                statuses.add(null);
+                users.add(null);
+                if (size > recievedMillis.length) {
+                    recievedMillis = Arrays.copyOf(recievedMillis, recievedMillis.length * 2);
+                }
+            } else {
+                ordinal = existing;
+                for (long trigram : trigrams(references.get(ordinal), subjects.get(ordinal))) {
+                    PostingList list = postings.get(trigram);
+                    list.remove(ordinal);
+                    if (list.size() == 0) {
+                        postings.remove(trigram);
+                    }
+                }
+                clear(byStatus, statuses.get(ordinal), ordinal);
+                clear(byUser, users.get(ordinal), ordinal);
+            }
+
+            String reference = normalize(complaint.getReference());
+            String subject = normalize(complaint.getSubject());
+            references.set(ordinal, reference);
+            subjects.set(ordinal, subject);
+            statuses.set(ordinal, complaint.getStatus());
+            users.set(ordinal, complaint.getUser());
+            recievedMillis[ordinal] = complaint.getRecievedDate() == null ? Long.MIN_VALUE
+                    : complaint.getRecievedDate().getTime();
+            for (long trigram : trigrams(reference, subject)) {
+                postings.computeIfAbsent(trigram, key -> new PostingList()).add(ordinal);
+            }
+            if (complaint.getStatus() != null) {
+                byStatus.computeIfAbsent(complaint.getStatus(), key -> new BitSet()).set(ordinal);
+            }
+            if (complaint.getUser() != null) {
+                byUser.computeIfAbsent(complaint.getUser(), key -> new BitSet()).set(ordinal);
+            }
+        }
+
+        // Ordinals whose reference or subject contains the term, in ascending order
+        int[] match(String term, Integer status, String user) {
+            BitSet statusBits = status == null ? null : byStatus.get(status);
+            BitSet userBits = user == null ? null : byUser.get(user);
+            if ((status != null && statusBits == null) || (user != null && userBits == null)) {
+                return new int[0];
+            }
+
+            int[] candidates;
+            int count;
+            long[] termTrigrams = trigrams(term, null);
+            if (termTrigrams.length == 0) {
+                candidates = new int[size];
+                for (int i = 0; i < size; i++) {
+                    candidates[i] = i;
+                }
+                count = size;
+            } else {
+                List<PostingList> lists = new ArrayList<>(termTrigrams.length);
+                for (long trigram : termTrigrams) {
+                    PostingList list = postings.get(trigram);
+                    if (list == null) {
+                        return new int[0];
+                    }
+                    lists.add(list);
+                }
+                // Shortest list first, so each intersection scans as few candidates as possible
+                lists.sort(Comparator.comparingInt(PostingList::size));
+                candidates = lists.get(0).toArray();
+                count = candidates.length;
+                for (int i = 1; i < lists.size() && count > 0; i++) {
+                    count = lists.get(i).retainAll(candidates, count);
+                }
+            }
+
+            int kept = 0;
+            for (int i = 0; i < count; i++) {
+                int ordinal = candidates[i];
+                if ((statusBits == null || statusBits.get(ordinal)) && (userBits == null || userBits.get(ordinal))
+                        && (contains(references.get(ordinal), term) || contains(subjects.get(ordinal), term))) {
+                    candidates[kept++] = ordinal;
+                }
+            }
+            return Arrays.copyOf(candidates, kept);
+        }
+
+        // Null when the sort uses a property the index does not keep
+        Comparator<Integer> order(Sort sort) {
+            Comparator<Integer> order = null;
+            for (Sort.Order property : sort) {
+                Comparator<Integer> next = switch (property.getProperty()) {
+                    case "recievedDate" -> Comparator.comparingLong(ordinal -> recievedMillis[ordinal]);
+                    case "reference" -> Comparator.comparing(references::get,
+                            Comparator.nullsFirst(Comparator.naturalOrder()));
+                    case "id", "_id" -> Comparator.comparing(ids::get);
+                    default -> null;
+                };
+                if (next == null) {
+                    return null;
+                }
+                next = property.isDescending() ? next.reversed() : next;
+                order = order == null ? next : order.thenComparing(next);
+            }
+            Comparator<Integer> byOrdinal = Comparator.naturalOrder();
+            return order == null ? byOrdinal : order.thenComparing(byOrdinal);
+        }
+
+        // Selects the page with a bounded heap instead of sorting every match
+        List<Integer> page(int[] matches, Comparator<Integer> order, Pageable pageable) {
+            long offset = pageable.isPaged() ? pageable.getOffset() : 0;
+            if (offset >= matches.length) {
+                return List.of();
+            }
+            int limit = pageable.isPaged() ? (int) Math.min(matches.length, offset + pageable.getPageSize())
+                    : matches.length;
+            PriorityQueue<Integer> heap = new PriorityQueue<>(limit, order.reversed());
+            for (int ordinal : matches) {
+                if (heap.size() < limit) {
+                    heap.add(ordinal);
+                } else if (order.compare(ordinal, heap.peek()) < 0) {
+                    heap.poll();
+                    heap.add(ordinal);
+                }
+            }
+            List<Integer> selected = new ArrayList<>(heap);
+            selected.sort(order);
+            return selected.subList((int) offset, selected.size());
+        }
+
+        private static boolean contains(String text, String term) {
+            return text != null && text.contains(term);
+        }
+
+        private static void clear(Map<?, BitSet> bitmaps, Object key, int ordinal) {
+            if (key != null) {
+                bitmaps.get(key).clear(ordinal);
+            }
+        }
+
+        private static String normalize(String text) {
+            return text == null ? null : text.toLowerCase(Locale.ROOT);
+        }
+
+        // Distinct trigrams of both texts, each packed into a long
+        static long[] trigrams(String first, String second) {
+            return Stream.of(first, second)
+                    .filter(text -> text != null && text.length() >= 3)
+                    .flatMapToLong(text -> IntStream.rangeClosed(0, text.length() - 3)
+                            .mapToLong(i -> (long) text.charAt(i) << 32 | (long) text.charAt(i + 1) << 16
+                                    | text.charAt(i + 2)))
+                    .distinct()
+                    .toArray();
+        }
+    }
+}
@@ -0,0 +1,288 @@
+package com.quejapp.quejapi.service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Properties;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+import com.quejapp.quejapi.model.Profile;
+
+/**
+ * Append-only log of column rows in fixed-size memory-mapped segment files. Every record is
+ * {@code [length][crc32][payload]}; a zero length marks the end of the written part and a bad
+ * checksum (a write torn by a crash) ends the replay. The checkpoint file holds the latest
+ * complaint date known to be in the log, so a restart only needs the complaints changed since.
+ * Every change appends a record, so the log counts them and its owner replaces it with a snapshot
+ * of the live rows ({@link #rewrite}) once they outnumber the rows by {@link #COMPACTION_RATIO}.
+ * Not thread-safe: ComplaintColumnStore calls it under its write lock.
+ */
+final class ComplaintSegmentLog implements AutoCloseable {
+    static final int SEGMENT_SIZE = 16 * 1024 * 1024;
+    private static final int HEADER_SIZE = 8;
+    private static final String SEGMENT_PREFIX = "segment-";
+    private static final String SEGMENT_SUFFIX = ".seg";
+    private static final String CHECKPOINT = "checkpoint.properties";
+    // Appends between two forced flushes with a checkpoint update
+    private static final int CHECKPOINT_INTERVAL = 1000;
+    // Records per live row above which the log is compacted
+    static final int COMPACTION_RATIO = 2;
+
+    private final Path directory;
+    private int segmentIndex;
+    private MappedByteBuffer segment;
+    private long lastSeen;
+    private int unflushed;
+    private long records;
+
+    private ComplaintSegmentLog(Path directory, int segmentIndex, MappedByteBuffer segment, long lastSeen,
+            long records) {
+        this.directory = directory;
+        this.segmentIndex = segmentIndex;
+        this.segment = segment;
+        this.lastSeen = lastSeen;
+        this.records = records;
+    }
+
+    // Returns the checkpointed date, or null when the directory holds no complete log
+    static Long readCheckpoint(Path directory) {
+        Path checkpoint = directory.resolve(CHECKPOINT);
+        if (!Files.exists(checkpoint)) {
+            return null;
+        }
+        Properties properties = new Properties();
+        try (var reader = Files.newBufferedReader(checkpoint)) {
+            properties.load(reader);
+            return Long.parseLong(properties.getProperty("lastSeen"));
+        } catch (IOException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    // Replays every valid record into the consumer and reopens the log for appending after them
+    static ComplaintSegmentLog open(Path directory, long lastSeen, Consumer<ComplaintColumnStore.Row> rows) {
+        try {
+            List<Path> segments = segments(directory);
+            int lastIndex = 0;
+            int position = 0;
+            long[] records = new long[1];
+            Consumer<ComplaintColumnStore.Row> counted = row -> {
+                records[0]++;
+                rows.accept(row);
+            };
+            for (Path path : segments) {
+                lastIndex = indexOf(path);
+                try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+                    position = replay(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()), counted);
+                }
+            }
+            if (segments.isEmpty()) {
+                lastIndex = 1;
+            }
+            MappedByteBuffer segment = map(directory, lastIndex);
+            // Clear whatever follows the last valid record so stale records are never replayed
+            for (int i = position; i < segment.capacity(); i++) {
+                segment.put(i, (byte) 0);
+            }
+            segment.position(position);
+            return new ComplaintSegmentLog(directory, lastIndex, segment, lastSeen, records[0]);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // Replaces the log with a snapshot of the given rows
+    static ComplaintSegmentLog rewrite(Path directory, Stream<ComplaintColumnStore.Row> rows, long lastSeen) {
+        try {
+            Files.createDirectories(directory);
+            Files.deleteIfExists(directory.resolve(CHECKPOINT));
+            for (Path path : segments(directory)) {
+                Files.delete(path);
+            }
+            ComplaintSegmentLog log = new ComplaintSegmentLog(directory, 1, map(directory, 1), lastSeen, 0);
+            rows.forEach(log::write);
+            log.checkpoint();
+            return log;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    void append(ComplaintColumnStore.Row row, long seen) {
+        write(row);
+        lastSeen = Math.max(lastSeen, seen);
+        if (++unflushed >= CHECKPOINT_INTERVAL) {
+            checkpoint();
+        }
+    }
+
+    // Forces the mapped pages to disk, then records the date they cover
+    void checkpoint() {
+        segment.force();
+        Properties properties = new Properties();
+        properties.setProperty("lastSeen", Long.toString(lastSeen));
+        properties.setProperty("segment", Integer.toString(segmentIndex));
+        try {
+            Path temporary = directory.resolve(CHECKPOINT + ".tmp");
+            try (var writer = Files.newBufferedWriter(temporary)) {
+                properties.store(writer, null);
+            }
+            Files.move(temporary, directory.resolve(CHECKPOINT), StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        unflushed = 0;
+    }
+
+    long getLastSeen() {
+        return lastSeen;
+    }
+
+    // Records a restart would replay
+    long getRecords() {
+        return records;
+    }
+
+    boolean needsCompaction(int rows) {
+        return records > (long) COMPACTION_RATIO * Math.max(rows, CHECKPOINT_INTERVAL);
+    }
+
+    @Override
+    public void close() {
+        checkpoint();
+    }
+
+    private void write(ComplaintColumnStore.Row row) {
+        byte[] payload = encode(row);
+        if (HEADER_SIZE + payload.length > SEGMENT_SIZE - HEADER_SIZE) {
+            throw new IllegalArgumentException("Registro demasiado grande para un segmento: " + row.id());
+        }
+        // Keep room for the zero length that terminates the segment
+        if (segment.remaining() < HEADER_SIZE + payload.length + HEADER_SIZE) {
+            segment.force();
+            segmentIndex++;
+            try {
+                segment = map(directory, segmentIndex);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+        segment.putInt(payload.length);
+        segment.putInt((int) crc.getValue());
+        segment.put(payload);
+        records++;
+    }
+
+    private static int replay(ByteBuffer buffer, Consumer<ComplaintColumnStore.Row> rows) {
+        while (buffer.remaining() >= HEADER_SIZE) {
+            int start = buffer.position();
+            int length = buffer.getInt();
+            int checksum = buffer.getInt();
+            if (length <= 0 || length > buffer.remaining()) {
+                return start;
+            }
+            byte[] payload = new byte[length];
+            buffer.get(payload);
+            CRC32 crc = new CRC32();
+            crc.update(payload);
+            if ((int) crc.getValue() != checksum) {
+                return start;
+            }
+            rows.accept(decode(ByteBuffer.wrap(payload)));
+        }
+        return buffer.position();
+    }
+
+    private static byte[] encode(ComplaintColumnStore.Row row) {
+        Profile profile = row.profile();
+        byte[][] strings = {
+                bytes(row.id()), bytes(row.employee()),
+                bytes(profile == null ? null : profile.getId()), bytes(profile == null ? null : profile.getName()),
+                bytes(profile == null ? null : profile.getLastname()), bytes(profile == null ? null : profile.getEmail())
+        };
+        int size = 3 + 3 * Integer.BYTES + 1;
+        for (byte[] string : strings) {
+            size += Integer.BYTES + (string == null ? 0 : string.length);
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(size);
+        buffer.put(row.status()).put(row.type()).put(row.category());
+        buffer.putInt(row.recievedDay()).putInt(row.daysToResolve()).putInt(row.daysFromExpiration());
+        buffer.put((byte) (profile == null ? 0 : 1));
+        for (byte[] string : strings) {
+            buffer.putInt(string == null ? -1 : string.length);
+            if (string != null) {
+                buffer.put(string);
+            }
+        }
+        return buffer.array();
+    }
+
+    private static ComplaintColumnStore.Row decode(ByteBuffer buffer) {
+        byte status = buffer.get();
+        byte type = buffer.get();
+        byte category = buffer.get();
+        int recievedDay = buffer.getInt();
+        int daysToResolve = buffer.getInt();
+        int daysFromExpiration = buffer.getInt();
+        boolean hasProfile = buffer.get() == 1;
+        String id = string(buffer);
+        String employee = string(buffer);
+        Profile profile = Profile.builder().id(string(buffer)).name(string(buffer)).lastname(string(buffer))
+                .email(string(buffer)).build();
+        return new ComplaintColumnStore.Row(id, status, type, category, recievedDay, daysToResolve,
+                daysFromExpiration, employee, hasProfile ? profile : null);
+    }
+
+    private static byte[] bytes(String value) {
+        return value == null ? null : value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String string(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static MappedByteBuffer map(Path directory, int index) throws IOException {
+        Path path = directory.resolve(String.format("%s%08d%s", SEGMENT_PREFIX, index, SEGMENT_SUFFIX));
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE)) {
+            // The mapping stays valid after the channel is closed
+            return channel.map(FileChannel.MapMode.READ_WRITE, 0, SEGMENT_SIZE);
+        }
+    }
+
+    private static List<Path> segments(Path directory) throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(path -> path.getFileName().toString().startsWith(SEGMENT_PREFIX)
+                    && path.getFileName().toString().endsWith(SEGMENT_SUFFIX))
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    private static int indexOf(Path segment) {
+        String name = segment.getFileName().toString();
+        return Integer.parseInt(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+    }
+}
@@ -0,0 +1,179 @@
+package com.quejapp.quejapi.service;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.stereotype.Component;
+
+import com.quejapp.quejapi.dto.EmployeeRankDTO;
+import com.quejapp.quejapi.dto.PQRSStatisticsDTO;
+import com.quejapp.quejapi.model.Complaint;
+import com.quejapp.quejapi.model.Profile;
+
+import lombok.RequiredArgsConstructor;
+
+// Per-employee assigned/resolved/resolution-time tallies ordered by resolved complaints (ties by
+// employee id) in an OrderStatisticTree. Complaint write events move one employee in the tree,
+// so the top k and the rank of any employee are O(log n) instead of a full group and sort.
+// Employees are counted as in PQRSStatisticsAccumulator: only with both id and profile.
+@Component
+@RequiredArgsConstructor
+public class EmployeeLeaderboard {
+    private static final Logger logger = LoggerFactory.getLogger(EmployeeLeaderboard.class);
+
+    private final MongoTemplate mongoTemplate;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, Tally> tallies = new HashMap<>();
+    private final OrderStatisticTree<Standing> ranking = new OrderStatisticTree<>(
+            Comparator.comparingLong(Standing::resolved).reversed().thenComparing(Standing::employeeId));
+    private boolean loaded;
+
+    // Position of an employee in the ranking
+    private record Standing(String employeeId, long resolved) {
+    }
+
+    private static final class Tally {
+        private Profile profile;
+        private long assigned;
+        private long resolved;
+        private long resolvedCount;
+        private long resolvedDaysSum;
+    }
+
+    public void initialize() {
+        load();
+    }
+
+    // Write events block on the lock while the tallies are rebuilt, so none is missed
+    public int load() {
+        lock.writeLock().lock();
+        try {
+            tallies.clear();
+            ranking.clear();
+            StatisticsProjection.forEach(mongoTemplate, Criteria.where("employee").ne(null),
+                    complaint -> apply(complaint, 1));
+            loaded = true;
+            logger.info("Ranking de empleados cargado con {} empleados", tallies.size());
+            return tallies.size();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean isLoaded() {
+        lock.readLock().lock();
+        try {
+            return loaded;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @EventListener
+    public void onComplaintChanged(ComplaintChangedEvent event) {
+        onComplaintsChanged(new ComplaintBatchChangedEvent(List.of(event)));
+    }
+
+    @EventListener
+    public void onComplaintsChanged(ComplaintBatchChangedEvent batch) {
+        lock.writeLock().lock();
+        try {
+            if (!loaded) {
+                return;
+            }
+            for (ComplaintChangedEvent event : batch.changes()) {
+                if (event.previous() != null) {
+                    apply(event.previous(), -1);
+                }
+                apply(event.current(), 1);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // The k employees with most resolved complaints
+    public List<PQRSStatisticsDTO.EmployeeStatsDTO> top(int k) {
+        lock.readLock().lock();
+        try {
+            return ranking.first(k).stream()
+                    .map(standing -> toStats(standing.employeeId(), tallies.get(standing.employeeId())))
+                    .toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public Optional<EmployeeRankDTO> rank(String employeeId) {
+        lock.readLock().lock();
+        try {
+            Tally tally = tallies.get(employeeId);
+            if (tally == null) {
+                return Optional.empty();
+            }
+            return Optional.of(EmployeeRankDTO.builder()
+                    .rank(ranking.rank(new Standing(employeeId, tally.resolved)) + 1)
+                    .totalEmployees(ranking.size())
+                    .stats(toStats(employeeId, tally))
+                    .build());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void apply(Complaint complaint, long sign) {
+        String employee = complaint.getEmployee();
+        if (employee == null || complaint.getEmployeeProfile() == null) {
+            return;
+        }
+        Tally tally = tallies.get(employee);
+        if (tally == null) {
+            tally = new Tally();
+            tally.profile = complaint.getEmployeeProfile();
+            tallies.put(employee, tally);
+        } else {
+            ranking.remove(new Standing(employee, tally.resolved));
+        }
+
+        boolean isClosed = PQRSStatisticsAccumulator.isStatusClosed(complaint.getStatus());
+        tally.assigned += sign;
+        if (isClosed) {
+            tally.resolved += sign;
+            if (complaint.getDaysToResolve() != null) {
+                tally.resolvedCount += sign;
+                tally.resolvedDaysSum += sign * complaint.getDaysToResolve();
+            }
+        }
+
+        if (tally.assigned == 0 && tally.resolved == 0 && tally.resolvedCount == 0 && tally.resolvedDaysSum == 0) {
+            tallies.remove(employee);
+        } else {
+            ranking.add(new Standing(employee, tally.resolved));
+        }
+    }
+
+    // Same figures as the top employees of PQRSStatisticsAccumulator
+    private static PQRSStatisticsDTO.EmployeeStatsDTO toStats(String employeeId, Tally tally) {
+        double resolutionRate = tally.assigned == 0 ? 0.0 : (tally.resolved * 100.0) / tally.assigned;
+        return PQRSStatisticsDTO.EmployeeStatsDTO.builder()
+                .employeeId(employeeId)
+                .employeeName(tally.profile.getName() + " " + tally.profile.getLastname())
+                .employeeEmail(tally.profile.getEmail())
+                .totalAssigned(tally.assigned)
+                .totalResolved(tally.resolved)
+                .averageResolutionTime(PQRSStatisticsAccumulator.round(
+                        PQRSStatisticsAccumulator.average(tally.resolvedDaysSum, tally.resolvedCount)))
+                .resolutionRate(PQRSStatisticsAccumulator.round(resolutionRate))
+                .build();
+    }
+}
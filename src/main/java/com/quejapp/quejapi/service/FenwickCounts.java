@@ -0,0 +1,126 @@
+package com.quejapp.quejapi.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.OptionalInt;
+
+// Binary indexed trees over int keys (epoch days), one tree per column. Each column compresses
+// its own keys: it holds a sorted array of the keys it has seen, so memory follows the non-zero
+// cells instead of columns times the whole key span, and an outlier key costs one slot. Point
+// updates and range sums take O(log keys of the column); a new key past the last one is appended
+// in O(log keys), any other new key rebuilds its column in linear time.
+final class FenwickCounts {
+    private static final int MIN_CAPACITY = 8;
+
+    private final List<Column> columns = new ArrayList<>();
+
+    int addColumn() {
+        columns.add(new Column());
+        return columns.size() - 1;
+    }
+
+    int columns() {
+        return columns.size();
+    }
+
+    // Keys held across every column
+    long cells() {
+        return columns.stream().mapToLong(column -> column.size).sum();
+    }
+
+    void add(int column, int key, long delta) {
+        if (delta != 0) {
+            columns.get(column).add(key, delta);
+        }
+    }
+
+    // Sum of the column over [fromKey, toKey], both inclusive
+    long sum(int column, int fromKey, int toKey) {
+        if (fromKey > toKey) {
+            return 0L;
+        }
+        Column tree = columns.get(column);
+        return tree.prefix(tree.countUpTo(toKey)) - tree.prefix(tree.countBelow(fromKey));
+    }
+
+    // Smallest key of the column at or after the given one
+    OptionalInt ceilingKey(int column, int key) {
+        Column tree = columns.get(column);
+        int index = tree.countBelow(key);
+        return index < tree.size ? OptionalInt.of(tree.keys[index]) : OptionalInt.empty();
+    }
+
+    private static final class Column {
+        // keys[0..size) ascending; tree is 1-based and position i covers keys[i - lowbit(i) .. i - 1]
+        private int[] keys = new int[0];
+        private long[] tree = new long[1];
+        private int size;
+
+        void add(int key, long delta) {
+            int index = Arrays.binarySearch(keys, 0, size, key);
+            if (index < 0) {
+                insert(-index - 1, key);
+                index = -index - 1;
+            }
+            for (int i = index + 1; i <= size; i += i & -i) {
+                tree[i] += delta;
+            }
+        }
+
+        long prefix(int position) {
+            long sum = 0;
+            for (int i = position; i > 0; i -= i & -i) {
+                sum += tree[i];
+            }
+            return sum;
+        }
+
+        // Number of keys <= key
+        int countUpTo(int key) {
+            int index = Arrays.binarySearch(keys, 0, size, key);
+            return index < 0 ? -index - 1 : index + 1;
+        }
+
+        // Number of keys < key
+        int countBelow(int key) {
+            int index = Arrays.binarySearch(keys, 0, size, key);
+            return index < 0 ? -index - 1 : index;
+        }
+
+        // Adds a zero-valued key at the given sorted index
+        private void insert(int index, int key) {
+            if (size == keys.length) {
+                int capacity = Math.max(MIN_CAPACITY, 2 * size);
+                keys = Arrays.copyOf(keys, capacity);
+                tree = Arrays.copyOf(tree, capacity + 1);
+            }
+            if (index == size) {
+                // The new last position covers the keys after position - lowbit, all already summed
+                keys[size++] = key;
+                tree[size] = prefix(size - 1) - prefix(size - (size & -size));
+                return;
+            }
+
+            // Back to per-key values with a zero at the new key, then rebuilt bottom-up
+            long[] values = new long[size + 1];
+            for (int i = 1, position = 1; i <= size; i++, position++) {
+                if (position == index + 1) {
+                    position++;
+                }
+                values[position - 1] = prefix(i) - prefix(i - 1);
+            }
+            System.arraycopy(keys, index, keys, index + 1, size - index);
+            keys[index] = key;
+            size++;
+            Arrays.fill(tree, 0L);
+            for (int i = 1; i <= size; i++) {
+                tree[i] += values[i - 1];
+                int parent = i + (i & -i);
+                if (parent <= size) {
+                    tree[parent] += tree[i];
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package com.quejapp.quejapi.service;
+
+import java.util.Arrays;
+
+// Dense long counters indexed by an int key (epoch day, month index, days to resolve).
+// Grows in both directions so callers never need to know the key range up front.
+final class GrowableCounts {
+    private long[] counts = new long[0];
+    private int base;
+
+    void add(int key, long delta) {
+        if (delta == 0) {
+            return;
+        }
+        ensure(key);
+        counts[key - base] += delta;
+    }
+
+    long get(int key) {
+        int index = key - base;
+        return index >= 0 && index < counts.length ? counts[index] : 0L;
+    }
+
+    // Sum of the counters in [fromKey, toKey], both inclusive
+    long sum(int fromKey, int toKey) {
+        int from = (int) Math.max((long) fromKey - base, 0L);
+        int to = (int) Math.min((long) toKey - base, counts.length - 1L);
+        long total = 0;
+        for (int i = from; i <= to; i++) {
+            total += counts[i];
+        }
+        return total;
+    }
+
+    boolean isEmpty() {
+        for (long count : counts) {
+            if (count != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Lowest key with a positive count, or Integer.MAX_VALUE when empty
+    int minKey() {
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] > 0) {
+                return base + i;
+            }
+        }
+        return Integer.MAX_VALUE;
+    }
+
+    // Highest key with a positive count, or Integer.MIN_VALUE when empty
+    int maxKey() {
+        for (int i = counts.length - 1; i >= 0; i--) {
+            if (counts[i] > 0) {
+                return base + i;
+            }
+        }
+        return Integer.MIN_VALUE;
+    }
+
+    void merge(GrowableCounts other, long sign) {
+        for (int i = 0; i < other.counts.length; i++) {
+            add(other.base + i, other.counts[i] * sign);
+        }
+    }
+
+    void forEachNonZero(KeyCountConsumer consumer) {
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] != 0) {
+                consumer.accept(base + i, counts[i]);
+            }
+        }
+    }
+
+    private void ensure(int key) {
+        if (counts.length == 0) {
+            counts = new long[16];
+            base = key;
+            return;
+        }
+        if (key < base) {
+            int shift = Math.max(base - key, counts.length / 2);
+            long[] grown = new long[counts.length + shift];
+            System.arraycopy(counts, 0, grown, shift, counts.length);
+            counts = grown;
+            base -= shift;
+        } else if (key - base >= counts.length) {
+            int size = Math.max(key - base + 1, counts.length + counts.length / 2);
+            counts = Arrays.copyOf(counts, size);
+        }
+    }
+
+    @FunctionalInterface
+    interface KeyCountConsumer {
+        void accept(int key, long count);
+    }
+}
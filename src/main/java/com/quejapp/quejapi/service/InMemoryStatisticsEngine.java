@@ -0,0 +1,32 @@
+package com.quejapp.quejapi.service;
+
+import java.time.LocalDate;
+
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Component;
+
+import com.quejapp.quejapi.dto.PQRSStatisticsDTO;
+
+import lombok.RequiredArgsConstructor;
+
+// Streams the matching complaints into the JVM and aggregates them with PQRSStatisticsAccumulator
+@Component
+@RequiredArgsConstructor
+public class InMemoryStatisticsEngine implements PQRSStatisticsEngine {
+    public static final String NAME = "memory";
+
+    private final MongoTemplate mongoTemplate;
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public PQRSStatisticsDTO compute(LocalDate startDate, LocalDate endDate) {
+        PQRSStatisticsAccumulator accumulator = new PQRSStatisticsAccumulator();
+        StatisticsProjection.forEach(mongoTemplate, StatisticsDateCriteria.recievedBetween(startDate, endDate),
+                accumulator::add);
+        return accumulator.toStatistics();
+    }
+}
@@ -0,0 +1,192 @@
+package com.quejapp.quejapi.service;
+
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import com.quejapp.quejapi.dto.PQRSStatisticsDTO;
+import com.quejapp.quejapi.model.Complaint;
+import com.quejapp.quejapi.model.MonthlyTrend;
+
+import lombok.RequiredArgsConstructor;
+
+// Monthly trends with the months that already ended computed once and kept in
+// quejas_monthly_trends. A trend request reads the stored months of its range in one query and
+// only recomputes the current month, months never computed and months invalidated by a late
+// write, each from the complaints received in that month alone.
+@Component
+@RequiredArgsConstructor
+public class MonthlyTrendStore {
+    private static final Logger logger = LoggerFactory.getLogger(MonthlyTrendStore.class);
+
+    private final MongoTemplate mongoTemplate;
+
+    @Value("${quejapi.statistics.trends.cache.enabled:true}")
+    private boolean enabled = true;
+
+    private final ZoneId zone = ZoneId.systemDefault();
+
+    @EventListener
+    public void onComplaintChanged(ComplaintChangedEvent event) {
+        invalidate(List.of(event));
+    }
+
+    @EventListener
+    public void onComplaintsChanged(ComplaintBatchChangedEvent batch) {
+        invalidate(batch.changes());
+    }
+
+    private void invalidate(List<ComplaintChangedEvent> changes) {
+        if (!enabled) {
+            return;
+        }
+        YearMonth current = YearMonth.now(zone);
+        Set<String> months = new TreeSet<>();
+        for (ComplaintChangedEvent event : changes) {
+            if (!affectsTrends(event)) {
+                continue;
+            }
+            addSealedMonth(months, event.previous(), current);
+            addSealedMonth(months, event.current(), current);
+        }
+        try {
+            for (String month : months) {
+                // Upsert, so a computation that started before this write can not store its result
+                mongoTemplate.upsert(Query.query(Criteria.where("_id").is(month)),
+                        new Update().inc("version", 1).set("valid", false), MonthlyTrend.class);
+            }
+        } catch (RuntimeException e) {
+            logger.error("No se pudieron invalidar las tendencias de {}", months, e);
+        }
+    }
+
+    // Trends of the months in [from, to] with complaints, oldest first. A null from starts at the
+    // first received complaint and a null to ends at the current month.
+    public List<PQRSStatisticsDTO.MonthlyTrendDTO> getTrends(YearMonth from, YearMonth to) {
+        YearMonth current = YearMonth.now(zone);
+        YearMonth last = to == null || to.isAfter(current) ? current : to;
+        YearMonth first = from != null ? from : firstMonth();
+        if (first == null || first.isAfter(last)) {
+            return List.of();
+        }
+
+        Map<String, MonthlyTrend> stored = enabled ? storedMonths(first, last) : Map.of();
+        List<PQRSStatisticsDTO.MonthlyTrendDTO> trends = new ArrayList<>();
+        for (YearMonth month = first; !month.isAfter(last); month = month.plusMonths(1)) {
+            MonthlyTrend trend = stored.get(month.toString());
+            if (trend == null || !trend.isValid()) {
+                trend = compute(month, trend);
+            }
+            if (trend.getReceived() > 0) {
+                trends.add(PQRSStatisticsDTO.MonthlyTrendDTO.builder()
+                        .month(trend.getId())
+                        .totalReceived(trend.getReceived())
+                        .totalResolved(trend.getResolved())
+                        .averageResolutionTime(trend.getAverageResolutionTime())
+                        .build());
+            }
+        }
+        return trends;
+    }
+
+    private MonthlyTrend compute(YearMonth month, MonthlyTrend stored) {
+        Date start = Date.from(month.atDay(1).atStartOfDay(zone).toInstant());
+        Date end = Date.from(month.plusMonths(1).atDay(1).atStartOfDay(zone).toInstant());
+        PQRSStatisticsAccumulator accumulator = new PQRSStatisticsAccumulator(zone);
+        StatisticsProjection.forEach(mongoTemplate, Criteria.where("recievedDate").gte(start).lt(end),
+                accumulator::add);
+
+        MonthlyTrend trend = MonthlyTrend.builder()
+                .id(month.toString())
+                .version(stored == null ? 0 : stored.getVersion())
+                .valid(true)
+                .computedDate(new Date())
+                .build();
+        accumulator.toStatistics().getMonthlyTrends().stream()
+                .filter(entry -> trend.getId().equals(entry.getMonth()))
+                .findFirst()
+                .ifPresent(entry -> {
+                    trend.setReceived(entry.getTotalReceived());
+                    trend.setResolved(entry.getTotalResolved());
+                    trend.setAverageResolutionTime(entry.getAverageResolutionTime());
+                });
+        if (enabled && month.isBefore(YearMonth.now(zone))) {
+            store(trend, stored);
+        }
+        return trend;
+    }
+
+    // Stores the trend unless the month was written to since it was read
+    private void store(MonthlyTrend trend, MonthlyTrend stored) {
+        try {
+            if (stored == null) {
+                mongoTemplate.insert(trend);
+            } else {
+                mongoTemplate.updateFirst(Query.query(Criteria.where("_id").is(trend.getId())
+                        .and("version").is(stored.getVersion())),
+                        new Update().set("received", trend.getReceived())
+                                .set("resolved", trend.getResolved())
+                                .set("averageResolutionTime", trend.getAverageResolutionTime())
+                                .set("valid", true)
+                                .set("computedDate", trend.getComputedDate()),
+                        MonthlyTrend.class);
+            }
+        } catch (DuplicateKeyException e) {
+            // Another request or a late write stored the month first
+        }
+    }
+
+    private Map<String, MonthlyTrend> storedMonths(YearMonth first, YearMonth last) {
+        Query query = Query.query(Criteria.where("_id").gte(first.toString()).lte(last.toString()));
+        return mongoTemplate.find(query, MonthlyTrend.class).stream()
+                .collect(Collectors.toMap(MonthlyTrend::getId, Function.identity()));
+    }
+
+    private YearMonth firstMonth() {
+        Query query = Query.query(Criteria.where("recievedDate").ne(null))
+                .with(Sort.by(Sort.Direction.ASC, "recievedDate"))
+                .limit(1);
+        query.fields().include("recievedDate");
+        Complaint first = mongoTemplate.findOne(query, Complaint.class);
+        return first == null ? null : YearMonth.from(first.getRecievedDate().toInstant().atZone(zone));
+    }
+
+    // Trends only read recievedDate, status and daysToResolve, e.g. the SLA sweeper never affects them
+    private static boolean affectsTrends(ComplaintChangedEvent event) {
+        Complaint previous = event.previous();
+        Complaint current = event.current();
+        return previous == null || !Objects.equals(previous.getRecievedDate(), current.getRecievedDate())
+                || !Objects.equals(previous.getStatus(), current.getStatus())
+                || !Objects.equals(previous.getDaysToResolve(), current.getDaysToResolve());
+    }
+
+    private void addSealedMonth(Set<String> months, Complaint complaint, YearMonth current) {
+        if (complaint == null || complaint.getRecievedDate() == null) {
+            return;
+        }
+        YearMonth month = YearMonth.from(complaint.getRecievedDate().toInstant().atZone(zone));
+        if (month.isBefore(current)) {
+            months.add(month.toString());
+        }
+    }
+}
@@ -0,0 +1,172 @@
+package com.quejapp.quejapi.service;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+import java.util.SplittableRandom;
+
+// Sorted set with subtree sizes (a treap), so besides add and remove it answers the rank of an
+// element and the element at a rank in O(log n) expected time, and the first k elements in
+// O(log n + k). Not thread-safe.
+final class OrderStatisticTree<T> {
+    private final Comparator<? super T> comparator;
+    private final SplittableRandom random = new SplittableRandom(0x5eed);
+    private Node<T> root;
+
+    private static final class Node<T> {
+        private final T value;
+        private final int priority;
+        private int size = 1;
+        private Node<T> left;
+        private Node<T> right;
+
+        private Node(T value, int priority) {
+            this.value = value;
+            this.priority = priority;
+        }
+    }
+
+    // Result of splitting a subtree around a value
+    private record Split<T>(Node<T> left, Node<T> right) {
+    }
+
+    OrderStatisticTree(Comparator<? super T> comparator) {
+        this.comparator = comparator;
+    }
+
+    int size() {
+        return size(root);
+    }
+
+    boolean add(T value) {
+        if (contains(value)) {
+            return false;
+        }
+        Split<T> split = split(root, value, false);
+        root = merge(merge(split.left(), new Node<>(value, random.nextInt())), split.right());
+        return true;
+    }
+
+    boolean remove(T value) {
+        if (!contains(value)) {
+            return false;
+        }
+        Split<T> lower = split(root, value, false);
+        Split<T> upper = split(lower.right(), value, true);
+        root = merge(lower.left(), upper.right());
+        return true;
+    }
+
+    void clear() {
+        root = null;
+    }
+
+    boolean contains(T value) {
+        Node<T> node = root;
+        while (node != null) {
+            int compared = comparator.compare(value, node.value);
+            if (compared == 0) {
+                return true;
+            }
+            node = compared < 0 ? node.left : node.right;
+        }
+        return false;
+    }
+
+    // Number of elements ordered before the value
+    int rank(T value) {
+        int rank = 0;
+        Node<T> node = root;
+        while (node != null) {
+            if (comparator.compare(value, node.value) <= 0) {
+                node = node.left;
+            } else {
+                rank += size(node.left) + 1;
+                node = node.right;
+            }
+        }
+        return rank;
+    }
+
+    // Element at the 0-based rank
+    T get(int index) {
+        if (index < 0 || index >= size()) {
+            throw new IndexOutOfBoundsException(index);
+        }
+        Node<T> node = root;
+        while (true) {
+            int leftSize = size(node.left);
+            if (index < leftSize) {
+                node = node.left;
+            } else if (index == leftSize) {
+                return node.value;
+            } else {
+                index -= leftSize + 1;
+                node = node.right;
+            }
+        }
+    }
+
+    // The first k elements in order
+    List<T> first(int k) {
+        List<T> result = new ArrayList<>(Math.min(Math.max(k, 0), size()));
+        Deque<Node<T>> stack = new ArrayDeque<>();
+        Node<T> node = root;
+        while (result.size() < k && (node != null || !stack.isEmpty())) {
+            while (node != null) {
+                stack.push(node);
+                node = node.left;
+            }
+            node = stack.pop();
+            result.add(node.value);
+            node = node.right;
+        }
+        return result;
+    }
+
+    // Left holds the elements before the value (or not after it when inclusive)
+    private Split<T> split(Node<T> node, T value, boolean inclusive) {
+        if (node == null) {
+            return new Split<>(null, null);
+        }
+        int compared = comparator.compare(node.value, value);
+        if (compared < 0 || (inclusive && compared == 0)) {
+            Split<T> split = split(node.right, value, inclusive);
+            node.right = split.left();
+            update(node);
+            return new Split<>(node, split.right());
+        }
+        Split<T> split = split(node.left, value, inclusive);
+        node.left = split.right();
+        update(node);
+        return new Split<>(split.left(), node);
+    }
+
+    // Every element of left is ordered before every element of right
+    private Node<T> merge(Node<T> left, Node<T> right) {
+        if (left == null) {
+            return right;
+        }
+        if (right == null) {
+            return left;
+        }
+        if (left.priority > right.priority) {
+            left.right = merge(left.right, right);
+            update(left);
+            return left;
+        }
+        right.left = merge(left, right.left);
+        update(right);
+        return right;
+    }
+
+    private static void update(Node<?> node) {
+        node.size = 1 + size(node.left) + size(node.right);
+    }
+
+    private static int size(Node<?> node) {
+        return node == null ? 0 : node.size;
+    }
+}
@@ -0,0 +1,556 @@
+package com.quejapp.quejapi.service;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.function.IntConsumer;
+import java.util.stream.Collectors;
+
+import com.quejapp.quejapi.dto.PQRSStatisticsDTO;
+import com.quejapp.quejapi.dto.ResolutionPercentilesDTO;
+import com.quejapp.quejapi.dto.ResolutionTimeDistributionDTO;
+import com.quejapp.quejapi.model.Complaint;
+import com.quejapp.quejapi.model.Profile;
+import com.quejapp.quejapi.model.StatisticsRollup;
+
+/**
+ * Computes every field of {@link PQRSStatisticsDTO} in a single pass over the complaints.
+ * Counters are primitive and indexed by status/type/category code, and two accumulators
+ * built over disjoint partitions can be merged. Not thread-safe.
+ */
+public class PQRSStatisticsAccumulator {
+    public static final int EXPIRATION_DAYS = 15;
+    public static final int NEAR_EXPIRATION_DAYS = 3;
+
+    static final String[] STATUS_NAMES = { "Radicada", "En Proceso", "Resuelta", "Cerrada" };
+    static final String UNKNOWN_STATUS = "Desconocido";
+    static final String[] TYPE_NAMES = { "Petición", "Queja", "Reclamo", "Sugerencia", "Felicitación" };
+    static final String UNKNOWN_TYPE = "Otro";
+    static final String[] CATEGORY_NAMES = { "Servicio de Buses", "Trarifas y Pagos", "Horarios", "Rutas",
+            "infraestructura", "Atención al Cliente", "Accesibilidad", "Seguridad", "Otros" };
+    static final String UNKNOWN_CATEGORY = "Sin Categoría";
+
+    static final String UNKNOWN_KEY = "unknown";
+    static final int MISSING = Integer.MIN_VALUE;
+
+    // Most resolved first; ties by employee id, as EmployeeLeaderboard and the aggregation sort them
+    static final Comparator<PQRSStatisticsDTO.EmployeeStatsDTO> TOP_EMPLOYEE_ORDER = Comparator
+            .comparing(PQRSStatisticsDTO.EmployeeStatsDTO::getTotalResolved).reversed()
+            .thenComparing(PQRSStatisticsDTO.EmployeeStatsDTO::getEmployeeId);
+
+    private static final DateTimeFormatter MONTH_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM");
+
+    private final ZoneId zone;
+
+    private long total;
+    // One slot per known code plus a trailing slot for unknown codes
+    private final long[] byStatus = new long[STATUS_NAMES.length + 1];
+    private final long[] byType = new long[TYPE_NAMES.length + 1];
+    private final long[] byCategory = new long[CATEGORY_NAMES.length + 1];
+    // Position of the first complaint seen in each slot, so the grouped maps keep the
+    // same insertion order as Collectors.groupingBy over the original list
+    private final long[] statusSeen = unseen(byStatus.length);
+    private final long[] typeSeen = unseen(byType.length);
+    private final long[] categorySeen = unseen(byCategory.length);
+
+    private long closed;
+    private long satisfactory;
+    private long resolvedCount;
+    private long resolvedDaysSum;
+    private final GrowableCounts resolvedDays = new GrowableCounts();
+
+    private long daysFromExpirationCount;
+    private long daysFromExpirationSum;
+
+    // Open complaints by epoch day of recievedDate; expiry is evaluated when the DTO is built
+    private final GrowableCounts openByDay = new GrowableCounts();
+
+    // Monthly trends indexed by year * 12 + (month - 1)
+    private final GrowableCounts monthReceived = new GrowableCounts();
+    private final GrowableCounts monthResolved = new GrowableCounts();
+    private final GrowableCounts monthResolvedCount = new GrowableCounts();
+    private final GrowableCounts monthResolvedSum = new GrowableCounts();
+    private final Map<Integer, ResolutionHistogram> monthHistograms = new HashMap<>();
+
+    private final Map<String, EmployeeTally> employees = new HashMap<>();
+
+    private int lastMonthDay = MISSING;
+    private int lastMonth;
+
+    public PQRSStatisticsAccumulator() {
+        this(ZoneId.systemDefault());
+    }
+
+    public PQRSStatisticsAccumulator(ZoneId zone) {
+        this.zone = zone;
+    }
+
+    public PQRSStatisticsAccumulator add(Complaint complaint) {
+        return apply(complaint, 1);
+    }
+
+    // Retracts a complaint previously added, e.g. the old version of an updated complaint
+    public PQRSStatisticsAccumulator remove(Complaint complaint) {
+        return apply(complaint, -1);
+    }
+
+    private PQRSStatisticsAccumulator apply(Complaint complaint, long sign) {
+        Profile profile = complaint.getEmployeeProfile();
+        apply(code(complaint.getStatus()), code(complaint.getType()), code(complaint.getCategory()),
+                ComplaintDates.epochDay(complaint, zone, MISSING),
+                code(complaint.getDaysToResolve()), code(complaint.getDaysfromExpiration()),
+                profile == null ? null : complaint.getEmployee(), profile, sign);
+        return this;
+    }
+
+    // Adds one complaint given as primitive columns; MISSING stands for null values and the
+    // employee is only counted when both its id and profile are present
+    void addRow(int status, int type, int category, int recievedDay, int daysToResolve, int daysFromExpiration,
+            String employee, Profile profile) {
+        apply(status, type, category, recievedDay, daysToResolve, daysFromExpiration, employee, profile, 1);
+    }
+
+    private void apply(int status, int type, int category, int recievedDay, int daysToResolve,
+            int daysFromExpiration, String employee, Profile profile, long sign) {
+        long position = total;
+        total += sign;
+
+        int statusSlot = slot(status, STATUS_NAMES.length);
+        byStatus[statusSlot] += sign;
+
+        int typeSlot = slot(type, TYPE_NAMES.length);
+        byType[typeSlot] += sign;
+
+        int categorySlot = slot(category, CATEGORY_NAMES.length);
+        byCategory[categorySlot] += sign;
+
+        if (sign > 0) {
+            markSeen(statusSeen, statusSlot, position);
+            markSeen(typeSeen, typeSlot, position);
+            markSeen(categorySeen, categorySlot, position);
+        }
+
+        boolean isClosed = status == 3 || status == 2;
+        boolean resolved = isClosed && daysToResolve != MISSING;
+        if (isClosed) {
+            closed += sign;
+        }
+        if (resolved) {
+            resolvedCount += sign;
+            resolvedDaysSum += sign * daysToResolve;
+            resolvedDays.add(daysToResolve, sign);
+            if (daysToResolve <= EXPIRATION_DAYS) {
+                satisfactory += sign;
+            }
+        }
+
+        if (daysFromExpiration != MISSING) {
+            daysFromExpirationCount += sign;
+            daysFromExpirationSum += sign * daysFromExpiration;
+        }
+
+        if (recievedDay != MISSING) {
+            if (!isClosed) {
+                openByDay.add(recievedDay, sign);
+            }
+            int month = monthOf(recievedDay);
+            monthReceived.add(month, sign);
+            if (isClosed) {
+                monthResolved.add(month, sign);
+            }
+            if (resolved) {
+                monthResolvedCount.add(month, sign);
+                monthResolvedSum.add(month, sign * daysToResolve);
+                monthHistograms.computeIfAbsent(month, key -> new ResolutionHistogram()).add(daysToResolve, sign);
+            }
+        }
+
+        if (employee != null && profile != null) {
+            EmployeeTally tally = employees.computeIfAbsent(employee, id -> new EmployeeTally(profile));
+            tally.assigned += sign;
+            if (isClosed) {
+                tally.resolved += sign;
+            }
+            if (resolved) {
+                tally.resolvedCount += sign;
+                tally.resolvedDaysSum += sign * daysToResolve;
+                tally.histogram.add(daysToResolve, sign);
+            }
+            if (tally.isEmpty()) {
+                employees.remove(employee);
+            }
+        }
+    }
+
+    // Month index of an epoch day, remembering the last lookup since rows tend to share months
+    private int monthOf(int epochDay) {
+        if (epochDay != lastMonthDay) {
+            LocalDate day = LocalDate.ofEpochDay(epochDay);
+            lastMonth = day.getYear() * 12 + day.getMonthValue() - 1;
+            lastMonthDay = epochDay;
+        }
+        return lastMonth;
+    }
+
+    // Folds another accumulator into this one, as if its complaints had been added after ours
+    public PQRSStatisticsAccumulator merge(PQRSStatisticsAccumulator other) {
+        mergeSlots(byStatus, statusSeen, other.byStatus, other.statusSeen, total);
+        mergeSlots(byType, typeSeen, other.byType, other.typeSeen, total);
+        mergeSlots(byCategory, categorySeen, other.byCategory, other.categorySeen, total);
+        total += other.total;
+
+        closed += other.closed;
+        satisfactory += other.satisfactory;
+        resolvedCount += other.resolvedCount;
+        resolvedDaysSum += other.resolvedDaysSum;
+        resolvedDays.merge(other.resolvedDays, 1);
+        daysFromExpirationCount += other.daysFromExpirationCount;
+        daysFromExpirationSum += other.daysFromExpirationSum;
+        openByDay.merge(other.openByDay, 1);
+        monthReceived.merge(other.monthReceived, 1);
+        monthResolved.merge(other.monthResolved, 1);
+        monthResolvedCount.merge(other.monthResolvedCount, 1);
+        monthResolvedSum.merge(other.monthResolvedSum, 1);
+        other.monthHistograms.forEach((month, histogram) ->
+                monthHistograms.computeIfAbsent(month, key -> new ResolutionHistogram()).merge(histogram, 1));
+
+        other.employees.forEach((id, tally) -> {
+            EmployeeTally merged = employees.computeIfAbsent(id, key -> new EmployeeTally(tally.profile));
+            merged.merge(tally);
+            if (merged.isEmpty()) {
+                employees.remove(id);
+            }
+        });
+        return this;
+    }
+
+    public long getTotal() {
+        return total;
+    }
+
+    // Exports the non-zero counters; used both for full snapshots and for write deltas
+    public StatisticsRollup toRollup(String id) {
+        StatisticsRollup rollup = StatisticsRollup.builder()
+                .id(id)
+                .total(total)
+                .closed(closed)
+                .satisfactory(satisfactory)
+                .resolvedDaysSum(resolvedDaysSum)
+                .daysFromExpirationCount(daysFromExpirationCount)
+                .daysFromExpirationSum(daysFromExpirationSum)
+                .build();
+        putSlots(rollup.getByStatus(), byStatus);
+        putSlots(rollup.getByType(), byType);
+        putSlots(rollup.getByCategory(), byCategory);
+        resolvedDays.forEachNonZero((days, count) -> rollup.getResolutionDays().put(String.valueOf(days), count));
+        openByDay.forEachNonZero((day, count) -> rollup.getOpenByDay().put(String.valueOf(day), count));
+        forEachMonth(month -> {
+            StatisticsRollup.MonthCounts counts = StatisticsRollup.MonthCounts.builder()
+                    .received(monthReceived.get(month))
+                    .resolved(monthResolved.get(month))
+                    .resolvedCount(monthResolvedCount.get(month))
+                    .resolvedDaysSum(monthResolvedSum.get(month))
+                    .build();
+            ResolutionHistogram histogram = monthHistograms.get(month);
+            if (histogram != null) {
+                histogram.putNonZero(counts.getResolutionHistogram());
+            }
+            rollup.getMonths().put(monthKey(month), counts);
+        });
+        employees.forEach((employee, tally) -> {
+            StatisticsRollup.EmployeeCounts counts = StatisticsRollup.EmployeeCounts.builder()
+                    .assigned(tally.assigned)
+                    .resolved(tally.resolved)
+                    .resolvedCount(tally.resolvedCount)
+                    .resolvedDaysSum(tally.resolvedDaysSum)
+                    .profile(tally.profile)
+                    .build();
+            tally.histogram.putNonZero(counts.getResolutionHistogram());
+            rollup.getEmployees().put(employee, counts);
+        });
+        return rollup;
+    }
+
+    public static PQRSStatisticsAccumulator fromRollup(StatisticsRollup rollup) {
+        return new PQRSStatisticsAccumulator().merge(rollup);
+    }
+
+    // Adds the counters of a persisted rollup to this accumulator
+    public PQRSStatisticsAccumulator merge(StatisticsRollup rollup) {
+        total += rollup.getTotal();
+        readSlots(rollup.getByStatus(), byStatus, statusSeen);
+        readSlots(rollup.getByType(), byType, typeSeen);
+        readSlots(rollup.getByCategory(), byCategory, categorySeen);
+        closed += rollup.getClosed();
+        satisfactory += rollup.getSatisfactory();
+        resolvedDaysSum += rollup.getResolvedDaysSum();
+        rollup.getResolutionDays().forEach((days, count) -> {
+            resolvedDays.add(Integer.parseInt(days), count);
+            resolvedCount += count;
+        });
+        daysFromExpirationCount += rollup.getDaysFromExpirationCount();
+        daysFromExpirationSum += rollup.getDaysFromExpirationSum();
+        rollup.getOpenByDay().forEach((day, count) -> openByDay.add(Integer.parseInt(day), count));
+        rollup.getMonths().forEach((key, counts) -> {
+            YearMonth yearMonth = YearMonth.parse(key, MONTH_FORMAT);
+            int month = yearMonth.getYear() * 12 + yearMonth.getMonthValue() - 1;
+            monthReceived.add(month, counts.getReceived());
+            monthResolved.add(month, counts.getResolved());
+            monthResolvedCount.add(month, counts.getResolvedCount());
+            monthResolvedSum.add(month, counts.getResolvedDaysSum());
+            monthHistograms.computeIfAbsent(month, m -> new ResolutionHistogram())
+                    .addAll(counts.getResolutionHistogram());
+        });
+        rollup.getEmployees().forEach((employee, counts) -> {
+            EmployeeTally tally = employees.computeIfAbsent(employee, id -> new EmployeeTally(counts.getProfile()));
+            tally.assigned += counts.getAssigned();
+            tally.resolved += counts.getResolved();
+            tally.resolvedCount += counts.getResolvedCount();
+            tally.resolvedDaysSum += counts.getResolvedDaysSum();
+            tally.histogram.addAll(counts.getResolutionHistogram());
+            if (tally.isEmpty() || tally.profile == null) {
+                employees.remove(employee);
+            }
+        });
+        return this;
+    }
+
+    public PQRSStatisticsDTO toStatistics() {
+        return toStatistics(LocalDate.now(zone));
+    }
+
+    public PQRSStatisticsDTO toStatistics(LocalDate today) {
+        if (total == 0) {
+            return PQRSStatisticsDTO.builder()
+                    .totalPqrs(0L)
+                    .openPqrs(0L)
+                    .closedPqrs(0L)
+                    .inProgressPqrs(0L)
+                    .build();
+        }
+
+        int todayDay = (int) today.toEpochDay();
+        // Vencida: más de EXPIRATION_DAYS transcurridos; próxima a vencer: quedan entre 0 y 3 días
+        int expirationStart = todayDay - EXPIRATION_DAYS;
+        long expired = openByDay.sum(Integer.MIN_VALUE, expirationStart - 1);
+        long nearExpiration = openByDay.sum(expirationStart, expirationStart + NEAR_EXPIRATION_DAYS);
+
+        return PQRSStatisticsDTO.builder()
+                .totalPqrs(total)
+                .openPqrs(byStatus[0])
+                .closedPqrs(closed)
+                .inProgressPqrs(byStatus[1])
+                .pqrsByStatus(namedCounts(byStatus, statusSeen, STATUS_NAMES, UNKNOWN_STATUS))
+                .pqrsByType(namedCounts(byType, typeSeen, TYPE_NAMES, UNKNOWN_TYPE))
+                .pqrsByCategory(namedCounts(byCategory, categorySeen, CATEGORY_NAMES, UNKNOWN_CATEGORY))
+                .averageDaysToResolve(average(resolvedDaysSum, resolvedCount))
+                .minDaysToResolve(resolvedCount == 0 ? 0 : resolvedDays.minKey())
+                .maxDaysToResolve(resolvedCount == 0 ? 0 : resolvedDays.maxKey())
+                .expiredPqrs(expired)
+                .nearExpirationPqrs(nearExpiration)
+                .averageDaysFromExpiration(average(daysFromExpirationSum, daysFromExpirationCount))
+                .topEmployees(topEmployees())
+                .monthlyTrends(monthlyTrends())
+                .resolutionRate(round(closed * 100.0 / total))
+                .satisfactionRate(closed == 0 ? 0.0 : round(satisfactory * 100.0 / closed))
+                .build();
+    }
+
+    // Percentiles of the days to resolve, overall, per employee and per month of recievedDate
+    public ResolutionTimeDistributionDTO toResolutionDistribution() {
+        ResolutionHistogram overall = new ResolutionHistogram();
+        resolvedDays.forEachNonZero(overall::add);
+
+        Map<String, ResolutionPercentilesDTO> byEmployee = new TreeMap<>();
+        employees.forEach((employee, tally) -> {
+            if (tally.histogram.count() > 0) {
+                byEmployee.put(employee, tally.histogram.toPercentiles());
+            }
+        });
+        Map<String, ResolutionPercentilesDTO> byMonth = new TreeMap<>();
+        monthHistograms.forEach((month, histogram) -> {
+            if (histogram.count() > 0) {
+                byMonth.put(monthKey(month), histogram.toPercentiles());
+            }
+        });
+        return ResolutionTimeDistributionDTO.builder()
+                .overall(overall.toPercentiles())
+                .byEmployee(byEmployee)
+                .byMonth(byMonth)
+                .build();
+    }
+
+    private List<PQRSStatisticsDTO.EmployeeStatsDTO> topEmployees() {
+        return employees.entrySet().stream()
+                .map(entry -> {
+                    EmployeeTally tally = entry.getValue();
+                    Profile profile = tally.profile;
+                    double resolutionRate = tally.assigned == 0 ? 0.0
+                            : (tally.resolved * 100.0) / tally.assigned;
+                    return PQRSStatisticsDTO.EmployeeStatsDTO.builder()
+                            .employeeId(entry.getKey())
+                            .employeeName(profile.getName() + " " + profile.getLastname())
+                            .employeeEmail(profile.getEmail())
+                            .totalAssigned(tally.assigned)
+                            .totalResolved(tally.resolved)
+                            .averageResolutionTime(round(average(tally.resolvedDaysSum, tally.resolvedCount)))
+                            .resolutionRate(round(resolutionRate))
+                            .build();
+                })
+                .sorted(TOP_EMPLOYEE_ORDER)
+                .limit(10)
+                .collect(Collectors.toList());
+    }
+
+    private List<PQRSStatisticsDTO.MonthlyTrendDTO> monthlyTrends() {
+        List<PQRSStatisticsDTO.MonthlyTrendDTO> trends = new ArrayList<>();
+        monthReceived.forEachNonZero((month, received) -> trends.add(
+                PQRSStatisticsDTO.MonthlyTrendDTO.builder()
+                        .month(monthKey(month))
+                        .totalReceived(received)
+                        .totalResolved(monthResolved.get(month))
+                        .averageResolutionTime(round(average(monthResolvedSum.get(month),
+                                monthResolvedCount.get(month))))
+                        .build()));
+        return trends;
+    }
+
+    // Months where any of the monthly counters is non-zero, in ascending order
+    private void forEachMonth(IntConsumer consumer) {
+        SortedSet<Integer> months = new TreeSet<>();
+        GrowableCounts.KeyCountConsumer collect = (month, count) -> months.add(month);
+        monthReceived.forEachNonZero(collect);
+        monthResolved.forEachNonZero(collect);
+        monthResolvedCount.forEachNonZero(collect);
+        monthResolvedSum.forEachNonZero(collect);
+        months.forEach(consumer::accept);
+    }
+
+    private static String monthKey(int month) {
+        return YearMonth.of(Math.floorDiv(month, 12), Math.floorMod(month, 12) + 1).format(MONTH_FORMAT);
+    }
+
+    private static void putSlots(Map<String, Long> target, long[] counts) {
+        for (int slot = 0; slot < counts.length; slot++) {
+            if (counts[slot] != 0) {
+                target.put(slot < counts.length - 1 ? String.valueOf(slot) : UNKNOWN_KEY, counts[slot]);
+            }
+        }
+    }
+
+    private static void readSlots(Map<String, Long> source, long[] counts, long[] seen) {
+        source.forEach((key, count) -> {
+            int slot = UNKNOWN_KEY.equals(key) ? counts.length - 1 : Integer.parseInt(key);
+            counts[slot] += count;
+            markSeen(seen, slot, slot);
+        });
+    }
+
+    private static Map<String, Long> namedCounts(long[] counts, long[] seen, String[] names, String unknown) {
+        Integer[] order = new Integer[counts.length];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, Comparator.comparingLong(i -> seen[i]));
+
+        // computeIfAbsent (like groupingBy) links colliding keys at the head of their bin,
+        // unlike put, so it is what reproduces the original iteration order
+        Map<String, Long> named = new HashMap<>();
+        for (int slot : order) {
+            long count = counts[slot];
+            if (count > 0) {
+                named.computeIfAbsent(slot < names.length ? names[slot] : unknown, name -> count);
+            }
+        }
+        return named;
+    }
+
+    private static void mergeSlots(long[] counts, long[] seen, long[] otherCounts, long[] otherSeen,
+            long offset) {
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] += otherCounts[i];
+            if (seen[i] == Long.MAX_VALUE && otherSeen[i] != Long.MAX_VALUE) {
+                seen[i] = otherSeen[i] + offset;
+            }
+        }
+    }
+
+    private static int slot(int code, int known) {
+        return code >= 0 && code < known ? code : known;
+    }
+
+    static int code(Integer value) {
+        return value == null ? MISSING : value;
+    }
+
+    private static void markSeen(long[] seen, int slot, long position) {
+        if (seen[slot] == Long.MAX_VALUE) {
+            seen[slot] = position;
+        }
+    }
+
+    private static long[] unseen(int length) {
+        long[] seen = new long[length];
+        Arrays.fill(seen, Long.MAX_VALUE);
+        return seen;
+    }
+
+    static String statusName(Integer code) {
+        return code != null && code >= 0 && code < STATUS_NAMES.length ? STATUS_NAMES[code] : UNKNOWN_STATUS;
+    }
+
+    static String typeName(Integer code) {
+        return code != null && code >= 0 && code < TYPE_NAMES.length ? TYPE_NAMES[code] : UNKNOWN_TYPE;
+    }
+
+    static String categoryName(Integer code) {
+        return code != null && code >= 0 && code < CATEGORY_NAMES.length ? CATEGORY_NAMES[code] : UNKNOWN_CATEGORY;
+    }
+
+    static boolean isStatusClosed(Integer status) {
+        return status != null && (status == 3 || status == 2);
+    }
+
+    static double average(long sum, long count) {
+        return count == 0 ? 0.0 : (double) sum / count;
+    }
+
+    static double round(double value) {
+        return Math.round(value * 100.0) / 100.0;
+    }
+
+    private static final class EmployeeTally {
+        private final Profile profile;
+        private long assigned;
+        private long resolved;
+        private long resolvedCount;
+        private long resolvedDaysSum;
+        private final ResolutionHistogram histogram = new ResolutionHistogram();
+
+        private EmployeeTally(Profile profile) {
+            this.profile = profile;
+        }
+
+        private boolean isEmpty() {
+            return assigned == 0 && resolved == 0 && resolvedCount == 0 && resolvedDaysSum == 0;
+        }
+
+        private void merge(EmployeeTally other) {
+            assigned += other.assigned;
+            resolved += other.resolved;
+            resolvedCount += other.resolvedCount;
+            resolvedDaysSum += other.resolvedDaysSum;
+            histogram.merge(other.histogram, 1);
+        }
+    }
+}
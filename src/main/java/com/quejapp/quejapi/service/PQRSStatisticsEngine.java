@@ -0,0 +1,14 @@
+package com.quejapp.quejapi.service;
+
+import java.time.LocalDate;
+
+import com.quejapp.quejapi.dto.PQRSStatisticsDTO;
+
+// Strategy used by PQRSStatisticsService to compute the statistics of a recievedDate range.
+// Either bound may be null, meaning the range is open on that side.
+public interface PQRSStatisticsEngine {
+
+    String getName();
+
+    PQRSStatisticsDTO compute(LocalDate startDate, LocalDate endDate);
+}
@@ -1,325 +1,145 @@
 package com.quejapp.quejapi.service;
 
+import com.quejapp.quejapi.dto.ComplaintCubeDTO;
+import com.quejapp.quejapi.dto.ComplaintCubeQuery;
+import com.quejapp.quejapi.dto.EmployeeRankDTO;
+import com.quejapp.quejapi.dto.ExpirationCountsDTO;
+import com.quejapp.quejapi.dto.ExpiringComplaintDTO;
 import com.quejapp.quejapi.dto.PQRSStatisticsDTO;
-import com.quejapp.quejapi.model.Complaint;
-import com.quejapp.quejapi.repository.ComplaintRepository;
+import com.quejapp.quejapi.dto.ResolutionTimeDistributionDTO;
+import com.quejapp.quejapi.dto.StatisticsConsistencyReport;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.mongodb.core.MongoTemplate;
-import org.springframework.data.mongodb.core.query.Criteria;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDate;
-import java.time.LocalDateTime;
-import java.time.ZoneId;
-import java.time.format.DateTimeFormatter;
+import java.time.YearMonth;
 import java.util.*;
-import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
-public class PQRSStatisticsService {
+public class PQRSStatisticsService implements MeterBinder {
+        private static final Logger logger = LoggerFactory.getLogger(PQRSStatisticsService.class);
 
-        private final ComplaintRepository complaintRepository;
-        private final MongoTemplate mongoTemplate;
-        private int EXPIRATION_DAYS = 15;
+        private final List<PQRSStatisticsEngine> engines;
+        private final StatisticsCounterStore counterStore;
+        private final StatisticsDailyRollupStore dailyRollupStore;
+        private final StatisticsResultCache resultCache;
+        private final ComplaintDeadlineIndex deadlineIndex;
+        private final ComplaintCube cube;
+        private final StatisticsRangeIndex rangeIndex;
+        private final MonthlyTrendStore trendStore;
+        private final EmployeeLeaderboard leaderboard;
 
-        public PQRSStatisticsDTO getStatistics(LocalDate startDate, LocalDate endDate) {
-                // Construir criterios de fecha
-                Criteria dateCriteria = buildDateCriteria(startDate, endDate);
-
-                // Obtener todas las PQRS según el filtro de fecha
-                List<Complaint> complaints = getFilteredComplaints(dateCriteria);
+        // Motor activo: "aggregation" (pipeline en MongoDB), "memory" (cálculo en la JVM)
+        // o "columnar" (almacén columnar en memoria)
+        @Value("${quejapi.statistics.engine:aggregation}")
+        private String engineName = AggregationStatisticsEngine.NAME;
 
-                if (complaints.isEmpty()) {
-                        return PQRSStatisticsDTO.builder()
-                                        .totalPqrs(0L)
-                                        .openPqrs(0L)
-                                        .closedPqrs(0L)
-                                        .inProgressPqrs(0L)
-                                        .build();
-                }
+        // Peticiones idénticas simultáneas comparten un único cálculo
+        private final SingleFlight<StatisticsResultCache.RangeKey, PQRSStatisticsDTO> inFlight =
+                        new SingleFlight<>("statistics");
 
-                return PQRSStatisticsDTO.builder()
-                                .totalPqrs((long) complaints.size())
-                                .openPqrs(countByStatus(complaints, 0))
-                                .closedPqrs(countByStatus(complaints, 2, 3))
-                                .inProgressPqrs(countByStatus(complaints, 1))
-                                .pqrsByStatus(groupByStatus(complaints))
-                                .pqrsByType(groupByType(complaints))
-                                .pqrsByCategory(groupByCategory(complaints))
-                                .averageDaysToResolve(calculateAverageResolutionDays(complaints))
-                                .minDaysToResolve(calculateMinResolutionDays(complaints))
-                                .maxDaysToResolve(calculateMaxResolutionDays(complaints))
-                                .expiredPqrs(countExpired(complaints))
-                                .nearExpirationPqrs(countNearExpiration(complaints))
-                                .averageDaysFromExpiration(calculateAverageDaysFromExpiration(complaints))
-                                .topEmployees(calculateEmployeeStats(complaints))
-                                .monthlyTrends(calculateMonthlyTrends(complaints))
-                                .resolutionRate(calculateResolutionRate(complaints))
-                                .satisfactionRate(calculateSatisfactionRate(complaints))
-                                .build();
+        @Override
+        public void bindTo(MeterRegistry registry) {
+                inFlight.bindTo(registry);
         }
 
-        private Criteria buildDateCriteria(LocalDate startDate, LocalDate endDate) {
-                Criteria criteria = new Criteria();
-
-                if (startDate != null && endDate != null) {
-                        Date start = Date.from(startDate.atStartOfDay(ZoneId.systemDefault()).toInstant());
-                        Date end = Date.from(endDate.atTime(23, 59, 59).atZone(ZoneId.systemDefault()).toInstant());
-                        criteria.and("recievedDate").gte(start).lte(end);
-                } else if (startDate != null) {
-                        Date start = Date.from(startDate.atStartOfDay(ZoneId.systemDefault()).toInstant());
-                        criteria.and("recievedDate").gte(start);
-                } else if (endDate != null) {
-                        Date end = Date.from(endDate.atTime(23, 59, 59).atZone(ZoneId.systemDefault()).toInstant());
-                        criteria.and("recievedDate").lte(end);
+        public PQRSStatisticsDTO getStatistics(LocalDate startDate, LocalDate endDate) {
+                return resultCache.get(startDate, endDate, () -> inFlight.run(
+                                new StatisticsResultCache.RangeKey(startDate, endDate),
+                                () -> computeStatistics(startDate, endDate)));
+        }
+
+        // Cada respuesta sale de una sola fuente; el índice de plazos y el ranking de empleados
+        // solo atienden sus propios endpoints
+        private PQRSStatisticsDTO computeStatistics(LocalDate startDate, LocalDate endDate) {
+                // Sin filtro de fechas se responde desde los contadores incrementales
+                if (startDate == null && endDate == null && counterStore.isEnabled()) {
+                        try {
+                                return counterStore.getStatistics();
+                        } catch (RuntimeException e) {
+                                logger.warn("No se pudieron leer los contadores de estadísticas", e);
+                        }
+                } else if ((startDate != null || endDate != null) && rangeIndex.isEnabled() && rangeIndex.isLoaded()) {
+                        // Con filtro de fechas se responde con sumas de prefijos en memoria
+                        return rangeIndex.getStatistics(startDate, endDate);
+                } else if ((startDate != null || endDate != null) && dailyRollupStore.isEnabled()) {
+                        // Sin el índice en memoria se suman los resúmenes diarios del rango
+                        try {
+                                return dailyRollupStore.getStatistics(startDate, endDate);
+                        } catch (RuntimeException e) {
+                                logger.warn("No se pudo leer el resumen diario de estadísticas", e);
+                        }
                 }
 
-                return criteria;
-        }
-
-        private List<Complaint> getFilteredComplaints(Criteria dateCriteria) {
-                if (dateCriteria.getCriteriaObject().isEmpty()) {
-                        return complaintRepository.findAll();
+                PQRSStatisticsEngine engine = getEngine(engineName);
+                try {
+                        return engine.compute(startDate, endDate);
+                } catch (RuntimeException e) {
+                        if (InMemoryStatisticsEngine.NAME.equals(engine.getName())) {
+                                throw e;
+                        }
+                        // El cálculo en la JVM sigue disponible como respaldo
+                        logger.warn("El motor de estadísticas '{}' falló, usando '{}'", engine.getName(),
+                                        InMemoryStatisticsEngine.NAME, e);
+                        return getEngine(InMemoryStatisticsEngine.NAME).compute(startDate, endDate);
                 }
-                return mongoTemplate.find(
-                                org.springframework.data.mongodb.core.query.Query.query(dateCriteria),
-                                Complaint.class);
-        }
-
-        private Long countByStatus(List<Complaint> complaints, Integer... statuses) {
-                Set<Integer> statusSet = Set.of(statuses);
-                return complaints.stream()
-                                .filter(c -> statusSet.contains(c.getStatus()))
-                                .count();
-        }
-
-        private Map<String, Long> groupByStatus(List<Complaint> complaints) {
-                Map<Integer, String> statusNames = Map.of(
-                                0, "Radicada",
-                                1, "En Proceso",
-                                2, "Resuelta",
-                                3, "Cerrada");
-
-                return complaints.stream()
-                                .collect(Collectors.groupingBy(
-                                                c -> statusNames.getOrDefault(c.getStatus(), "Desconocido"),
-                                                Collectors.counting()));
-        }
-
-        private Map<String, Long> groupByType(List<Complaint> complaints) {
-                Map<Integer, String> typeNames = Map.of(
-                                0, "Petición",
-                                1, "Queja",
-                                2, "Reclamo",
-                                3, "Sugerencia",
-                                4, "Felicitación");
-
-                return complaints.stream()
-                                .collect(Collectors.groupingBy(
-                                                c -> typeNames.getOrDefault(c.getType(), "Otro"),
-                                                Collectors.counting()));
-        }
-
-        private Map<String, Long> groupByCategory(List<Complaint> complaints) {
-                Map<Integer, String> categoryNames = Map.of(
-                                0, "Servicio de Buses",
-                                1, "Trarifas y Pagos",
-                                2, "Horarios",
-                                3, "Rutas",
-                                4, "infraestructura",
-                                5, "Atención al Cliente",
-                                6, "Accesibilidad",
-                                7, "Seguridad",
-                                8, "Otros");
-
-                return complaints.stream()
-                                .collect(Collectors.groupingBy(
-                                                c -> categoryNames.getOrDefault(c.getCategory(), "Sin Categoría"),
-                                                Collectors.counting()));
-        }
-
-        private Double calculateAverageResolutionDays(List<Complaint> complaints) {
-                return complaints.stream()
-                                .filter(c -> c.getDaysToResolve() != null && isStatusClosed(c.getStatus()))
-                                .mapToInt(Complaint::getDaysToResolve)
-                                .average()
-                                .orElse(0.0);
         }
 
-        private boolean isStatusClosed(Integer status) {
-                return status != null && (status == 3 || status == 2);
+        public PQRSStatisticsDTO rebuildCounters() {
+                PQRSStatisticsDTO statistics = PQRSStatisticsAccumulator.fromRollup(counterStore.rebuild()).toStatistics();
+                resultCache.clear();
+                return statistics;
         }
 
-        private Integer calculateMinResolutionDays(List<Complaint> complaints) {
-                return complaints.stream()
-                                .filter(c -> c.getDaysToResolve() != null && isStatusClosed(c.getStatus()))
-                                .mapToInt(Complaint::getDaysToResolve)
-                                .min()
-                                .orElse(0);
+        public StatisticsConsistencyReport verifyCounters() {
+                return counterStore.verify();
         }
 
-        private Integer calculateMaxResolutionDays(List<Complaint> complaints) {
-                return complaints.stream()
-                                .filter(c -> c.getDaysToResolve() != null && isStatusClosed(c.getStatus()))
-                                .mapToInt(Complaint::getDaysToResolve)
-                                .max()
-                                .orElse(0);
+        public List<ExpiringComplaintDTO> getExpiringComplaints(int days) {
+                return deadlineIndex.getExpiring(days);
         }
 
-        private Long countExpired(List<Complaint> complaints) {
-                return complaints.stream()
-                                .filter(c -> isExpired(c))
-                                .count();
+        public ExpirationCountsDTO getExpirationCounts() {
+                return deadlineIndex.getCounts();
         }
 
-        private boolean isExpired(Complaint complaint) {
-                if (complaint.getRecievedDate() == null) {
-                        return false;
-                }
-                if (isStatusClosed(complaint.getStatus())) {
-                        return false;
-                }
-                LocalDate recievedDate = complaint.getRecievedDate().toInstant()
-                                .atZone(ZoneId.systemDefault())
-                                .toLocalDate();
-                LocalDate currentDate = LocalDate.now();
-                int elapsedDays = (int) java.time.temporal.ChronoUnit.DAYS.between(recievedDate, currentDate);
-                return elapsedDays > EXPIRATION_DAYS;
+        public ComplaintCubeDTO getCube(ComplaintCubeQuery query) {
+                return cube.query(query);
         }
 
-        private Long countNearExpiration(List<Complaint> complaints) {
-                return complaints.stream()
-                                .filter(c -> c.getRecievedDate() != null && calculateElapsedDays(c))
-                                .count();
-        }
-
-        private boolean calculateElapsedDays(Complaint complaint) {
-                if (complaint.getRecievedDate() == null) {
-                        return false;
-                }
-                if (isStatusClosed(complaint.getStatus())) {
-                        return false;
-                }
-                LocalDate recievedDate = complaint.getRecievedDate().toInstant()
-                                .atZone(ZoneId.systemDefault())
-                                .toLocalDate();
-                LocalDate currentDate = LocalDate.now();
-                int elapsedDays = (int) java.time.temporal.ChronoUnit.DAYS.between(recievedDate, currentDate);
-                return (EXPIRATION_DAYS - elapsedDays >= 0) && (EXPIRATION_DAYS - elapsedDays <= 3);
-
+        public List<PQRSStatisticsDTO.MonthlyTrendDTO> getMonthlyTrends(YearMonth from, YearMonth to) {
+                return trendStore.getTrends(from, to);
         }
 
-        private Double calculateAverageDaysFromExpiration(List<Complaint> complaints) {
-                return complaints.stream()
-                                .filter(c -> c.getDaysfromExpiration() != null)
-                                .mapToInt(Complaint::getDaysfromExpiration)
-                                .average()
-                                .orElse(0.0);
+        public ResolutionTimeDistributionDTO getResolutionDistribution(LocalDate startDate, LocalDate endDate) {
+                return dailyRollupStore.getResolutionDistribution(startDate, endDate);
         }
 
-        private List<PQRSStatisticsDTO.EmployeeStatsDTO> calculateEmployeeStats(List<Complaint> complaints) {
-                Map<String, List<Complaint>> byEmployee = complaints.stream()
-                                .filter(c -> c.getEmployee() != null && c.getEmployeeProfile() != null)
-                                .collect(Collectors.groupingBy(Complaint::getEmployee));
-                return byEmployee.entrySet().stream()
-                                .map(entry -> {
-                                        List<Complaint> empComplaints = entry.getValue();
-                                        Complaint sample = empComplaints.get(0);
-
-                                        long totalResolved = empComplaints.stream()
-                                                        .filter(c -> isStatusClosed(c.getStatus()))
-                                                        .count();
-
-                                        double avgResTime = empComplaints.stream()
-                                                        .filter(c -> c.getDaysToResolve() != null
-                                                                        && isStatusClosed(c.getStatus()))
-                                                        .mapToInt(Complaint::getDaysToResolve)
-                                                        .average()
-                                                        .orElse(0.0);
-
-                                        double resolutionRate = empComplaints.isEmpty() ? 0.0
-                                                        : (totalResolved * 100.0) / empComplaints.size();
-
-                                        return PQRSStatisticsDTO.EmployeeStatsDTO.builder()
-                                                        .employeeId(entry.getKey())
-                                                        .employeeName(sample.getEmployeeProfile().getName() + " " +
-                                                                        sample.getEmployeeProfile().getLastname())
-                                                        .employeeEmail(sample.getEmployeeProfile().getEmail())
-                                                        .totalAssigned((long) empComplaints.size())
-                                                        .totalResolved(totalResolved)
-                                                        .averageResolutionTime(Math.round(avgResTime * 100.0) / 100.0)
-                                                        .resolutionRate(Math.round(resolutionRate * 100.0) / 100.0)
-                                                        .build();
-                                })
-                                .sorted(Comparator.comparing(PQRSStatisticsDTO.EmployeeStatsDTO::getTotalResolved)
-                                                .reversed())
-                                .limit(10)
-                                .collect(Collectors.toList());
+        public List<PQRSStatisticsDTO.EmployeeStatsDTO> getEmployeeLeaderboard(int limit) {
+                return leaderboard.top(limit);
         }
 
-        private List<PQRSStatisticsDTO.MonthlyTrendDTO> calculateMonthlyTrends(List<Complaint> complaints) {
-                DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM");
-
-                Map<String, List<Complaint>> byMonth = complaints.stream()
-                                .collect(Collectors.groupingBy(c -> {
-                                        LocalDateTime dateTime = c.getRecievedDate().toInstant()
-                                                        .atZone(ZoneId.systemDefault()).toLocalDateTime();
-                                        return dateTime.format(formatter);
-                                }));
-
-                return byMonth.entrySet().stream()
-                                .map(entry -> {
-                                        List<Complaint> monthComplaints = entry.getValue();
-                                        long resolved = monthComplaints.stream()
-                                                        .filter(c -> isStatusClosed(c.getStatus()))
-                                                        .count();
-
-                                        double avgResTime = monthComplaints.stream()
-                                                        .filter(c -> c.getDaysToResolve() != null
-                                                                        && isStatusClosed(c.getStatus()))
-                                                        .mapToInt(Complaint::getDaysToResolve)
-                                                        .average()
-                                                        .orElse(0.0);
-
-                                        return PQRSStatisticsDTO.MonthlyTrendDTO.builder()
-                                                        .month(entry.getKey())
-                                                        .totalReceived((long) monthComplaints.size())
-                                                        .totalResolved(resolved)
-                                                        .averageResolutionTime(Math.round(avgResTime * 100.0) / 100.0)
-                                                        .build();
-                                })
-                                .sorted(Comparator.comparing(PQRSStatisticsDTO.MonthlyTrendDTO::getMonth))
-                                .collect(Collectors.toList());
+        public Optional<EmployeeRankDTO> getEmployeeRank(String employeeId) {
+                return leaderboard.rank(employeeId);
         }
 
-        private Double calculateResolutionRate(List<Complaint> complaints) {
-                if (complaints.isEmpty())
-                        return 0.0;
-
-                long resolved = complaints.stream()
-                                .filter(c -> isStatusClosed(c.getStatus()))
-                                .count();
-
-                return Math.round((resolved * 100.0 / complaints.size()) * 100.0) / 100.0;
+        public int backfillDailyRollups() {
+                int days = dailyRollupStore.backfill();
+                resultCache.clear();
+                return days;
         }
 
-        private Double calculateSatisfactionRate(List<Complaint> complaints) {
-                // Consideramos satisfactorio si se resolvió en menos del promedio de días
-                // permitidos
-                long satisfactory = complaints.stream()
-                                .filter(c -> isStatusClosed(c.getStatus()) &&
-                                                c.getDaysToResolve() != null &&
-                                                c.getDaysToResolve() <= 15)
-                                .count();
-
-                long totalClosed = complaints.stream()
-                                .filter(c -> isStatusClosed(c.getStatus()))
-                                .count();
-
-                if (totalClosed == 0)
-                        return 0.0;
-
-                return Math.round((satisfactory * 100.0 / totalClosed) * 100.0) / 100.0;
+        private PQRSStatisticsEngine getEngine(String name) {
+                return engines.stream()
+                                .filter(engine -> engine.getName().equalsIgnoreCase(name))
+                                .findFirst()
+                                .orElseThrow(() -> new IllegalStateException(
+                                                "Motor de estadísticas desconocido: " + name));
         }
-}
\ No newline at end of file
+}
@@ -0,0 +1,122 @@
+package com.quejapp.quejapi.service;
+
+import java.util.Arrays;
+
+// Sorted set of document ordinals stored as varint-encoded gaps, so a posting list of nearby
+// ordinals takes about one byte per entry. Appending an ordinal above the last one writes in
+// place; inserting or removing elsewhere re-encodes the list. Not thread-safe.
+final class PostingList {
+    private byte[] bytes = new byte[4];
+    private int length;
+    private int size;
+    private int last = -1;
+
+    int size() {
+        return size;
+    }
+
+    boolean add(int ordinal) {
+        if (ordinal > last) {
+            append(ordinal);
+            return true;
+        }
+        int[] values = toArray();
+        int position = Arrays.binarySearch(values, ordinal);
+        if (position >= 0) {
+            return false;
+        }
+        int insertion = -position - 1;
+        int[] updated = new int[values.length + 1];
+        System.arraycopy(values, 0, updated, 0, insertion);
+        updated[insertion] = ordinal;
+        System.arraycopy(values, insertion, updated, insertion + 1, values.length - insertion);
+        encode(updated, updated.length);
+        return true;
+    }
+
+    boolean remove(int ordinal) {
+        if (ordinal > last) {
+            return false;
+        }
+        int[] values = toArray();
+        int position = Arrays.binarySearch(values, ordinal);
+        if (position < 0) {
+            return false;
+        }
+        System.arraycopy(values, position + 1, values, position, values.length - position - 1);
+        encode(values, values.length - 1);
+        return true;
+    }
+
+    int[] toArray() {
+        int[] values = new int[size];
+        int offset = 0;
+        int value = -1;
+        for (int i = 0; i < size; i++) {
+            int gap = 0;
+            int shift = 0;
+            byte current;
+            do {
+                current = bytes[offset++];
+                gap |= (current & 0x7f) << shift;
+                shift += 7;
+            } while (current < 0);
+            value += gap;
+            values[i] = value;
+        }
+        return values;
+    }
+
+    // Keeps the sorted candidates also present in this list, compacting them to the front
+    int retainAll(int[] candidates, int count) {
+        int kept = 0;
+        int offset = 0;
+        int value = -1;
+        int remaining = size;
+        for (int i = 0; i < count; i++) {
+            int candidate = candidates[i];
+            while (value < candidate && remaining > 0) {
+                int gap = 0;
+                int shift = 0;
+                byte current;
+                do {
+                    current = bytes[offset++];
+                    gap |= (current & 0x7f) << shift;
+                    shift += 7;
+                } while (current < 0);
+                value += gap;
+                remaining--;
+            }
+            if (value == candidate) {
+                candidates[kept++] = candidate;
+            } else if (value < candidate) {
+                break;
+            }
+        }
+        return kept;
+    }
+
+    private void append(int ordinal) {
+        int gap = ordinal - last;
+        if (length + 5 > bytes.length) {
+            bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, length + 5));
+        }
+        while ((gap & ~0x7f) != 0) {
+            bytes[length++] = (byte) ((gap & 0x7f) | 0x80);
+            gap >>>= 7;
+        }
+        bytes[length++] = (byte) gap;
+        last = ordinal;
+        size++;
+    }
+
+    private void encode(int[] values, int count) {
+        bytes = new byte[Math.max(4, count * 2)];
+        length = 0;
+        size = 0;
+        last = -1;
+        for (int i = 0; i < count; i++) {
+            append(values[i]);
+        }
+    }
+}
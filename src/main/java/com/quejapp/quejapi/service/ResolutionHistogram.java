@@ -0,0 +1,106 @@
+package com.quejapp.quejapi.service;
+
+import java.util.Map;
+
+import com.quejapp.quejapi.dto.ResolutionPercentilesDTO;
+
+/**
+ * Fixed-size, mergeable histogram of days to resolve. Values below {@value #EXACT} days get a
+ * bucket each; above that every power of two is split into {@value #SUB_BUCKETS} equal buckets,
+ * as in HdrHistogram. Percentiles use the nearest-rank definition and report the upper bound of
+ * the bucket holding the rank, so they are exact below {@value #EXACT} days and otherwise never
+ * below the true value and less than 1/{@value #SUB_BUCKETS} (6.25%) above it. Merging two
+ * histograms adds their buckets, so the error stays the same for any range of days.
+ */
+final class ResolutionHistogram {
+    static final int EXACT = 32;
+    static final int SUB_BUCKETS = 16;
+    private static final int EXACT_BITS = Integer.numberOfTrailingZeros(EXACT);
+    private static final int SUB_BITS = Integer.numberOfTrailingZeros(SUB_BUCKETS);
+    static final int BUCKETS = EXACT + (Integer.SIZE - 1 - EXACT_BITS) * SUB_BUCKETS;
+    static final double[] PERCENTILES = { 0.50, 0.90, 0.95, 0.99 };
+
+    private final long[] counts = new long[BUCKETS];
+    private long total;
+
+    static int bucket(int days) {
+        if (days < EXACT) {
+            return Math.max(days, 0);
+        }
+        int power = Integer.SIZE - 1 - Integer.numberOfLeadingZeros(days);
+        int sub = (days >>> (power - SUB_BITS)) & (SUB_BUCKETS - 1);
+        return EXACT + (power - EXACT_BITS) * SUB_BUCKETS + sub;
+    }
+
+    // Highest number of days that falls in the bucket
+    static int upperBound(int bucket) {
+        if (bucket < EXACT) {
+            return bucket;
+        }
+        int power = (bucket - EXACT) / SUB_BUCKETS + EXACT_BITS;
+        int sub = (bucket - EXACT) % SUB_BUCKETS;
+        long width = 1L << (power - SUB_BITS);
+        return (int) Math.min(Integer.MAX_VALUE, (1L << power) + (sub + 1) * width - 1);
+    }
+
+    void add(int days, long count) {
+        addBucket(bucket(days), count);
+    }
+
+    void addBucket(int bucket, long count) {
+        counts[bucket] += count;
+        total += count;
+    }
+
+    void merge(ResolutionHistogram other, long sign) {
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] += sign * other.counts[i];
+        }
+        total += sign * other.total;
+    }
+
+    long count() {
+        return total;
+    }
+
+    // Nearest-rank percentile, null when the histogram is empty
+    Integer percentile(double fraction) {
+        if (total <= 0) {
+            return null;
+        }
+        long rank = Math.max(1L, (long) Math.ceil(fraction * total));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return upperBound(i);
+            }
+        }
+        return upperBound(BUCKETS - 1);
+    }
+
+    ResolutionPercentilesDTO toPercentiles() {
+        return ResolutionPercentilesDTO.builder()
+                .count(total)
+                .p50(percentile(PERCENTILES[0]))
+                .p90(percentile(PERCENTILES[1]))
+                .p95(percentile(PERCENTILES[2]))
+                .p99(percentile(PERCENTILES[3]))
+                .build();
+    }
+
+    // Sparse form stored in the rollups: bucket index -> count
+    void putNonZero(Map<String, Long> target) {
+        for (int i = 0; i < BUCKETS; i++) {
+            if (counts[i] != 0) {
+                target.put(String.valueOf(i), counts[i]);
+            }
+        }
+    }
+
+    void addAll(Map<String, Long> buckets) {
+        if (buckets != null) {
+            buckets.forEach((bucket, count) -> addBucket(Integer.parseInt(bucket), count));
+        }
+    }
+}
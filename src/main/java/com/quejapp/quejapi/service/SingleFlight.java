@@ -0,0 +1,96 @@
+package com.quejapp.quejapi.service;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+// Collapses concurrent calls with the same key into one execution: the first caller runs it and
+// the others wait for its result or exception. Nothing is kept once the call finishes, so later
+// calls run again. The owning bean binds the counters to the application registry through its
+// own MeterBinder.
+public class SingleFlight<K, V> implements MeterBinder {
+    private final String name;
+    private final ConcurrentMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final AtomicLong executed = new AtomicLong();
+    private final AtomicLong coalesced = new AtomicLong();
+
+    public SingleFlight(String name) {
+        this.name = name;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("quejapi.singleflight.calls", executed, AtomicLong::get)
+                .tag("name", name)
+                .tag("result", "executed")
+                .description("Llamadas que ejecutaron el cálculo")
+                .register(registry);
+        FunctionCounter.builder("quejapi.singleflight.calls", coalesced, AtomicLong::get)
+                .tag("name", name)
+                .tag("result", "coalesced")
+                .description("Llamadas que reutilizaron un cálculo en curso")
+                .register(registry);
+    }
+
+    public V execute(K key, Callable<V> call) throws Exception {
+        CompletableFuture<V> flight = new CompletableFuture<>();
+        CompletableFuture<V> running = inFlight.putIfAbsent(key, flight);
+        if (running != null) {
+            coalesced.incrementAndGet();
+            return await(running);
+        }
+
+        executed.incrementAndGet();
+        try {
+            V result = call.call();
+            flight.complete(result);
+            return result;
+        } catch (Throwable e) {
+            flight.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, flight);
+        }
+    }
+
+    // Variant for calls without checked exceptions
+    public V run(K key, Supplier<V> call) {
+        try {
+            return execute(key, call::get);
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    long getExecuted() {
+        return executed.get();
+    }
+
+    long getCoalesced() {
+        return coalesced.get();
+    }
+
+    private static <V> V await(CompletableFuture<V> running) throws Exception {
+        try {
+            return running.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof Exception cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
+    }
+}
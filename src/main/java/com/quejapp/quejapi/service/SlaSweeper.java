@@ -0,0 +1,175 @@
+package com.quejapp.quejapi.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.mongodb.bulk.BulkWriteResult;
+import com.quejapp.quejapi.model.Complaint;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+// Keeps daysfromExpiration current on open complaints. The value only changes when a full day
+// elapses past the deadline, so each run selects the open overdue complaints whose elapsed time
+// crossed a day boundary since the previous run, and writes them in unordered bulk batches.
+// The first run after startup, or one more than a day after the last, checks every overdue one.
+// Complaints are read whole, so the published changes carry full documents, and only the updates
+// that were applied are published.
+@Component
+public class SlaSweeper {
+    private static final Logger logger = LoggerFactory.getLogger(SlaSweeper.class);
+    static final long DAY_MILLIS = 24L * 60 * 60 * 1000;
+
+    private final MongoTemplate mongoTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Value("${quejapi.sla.sweep.enabled:true}")
+    private boolean enabled = true;
+
+    @Value("${quejapi.sla.sweep.batch-size:500}")
+    private int batchSize = 500;
+
+    private Date lastRun;
+
+    private final Timer duration;
+    private final Counter updated;
+    private final AtomicLong lastThroughput = new AtomicLong();
+
+    public SlaSweeper(MongoTemplate mongoTemplate, ApplicationEventPublisher eventPublisher,
+            MeterRegistry meterRegistry) {
+        this.mongoTemplate = mongoTemplate;
+        this.eventPublisher = eventPublisher;
+        this.duration = Timer.builder("quejapi.sla.sweep.duration")
+                .description("Duración de cada barrido de vencimientos")
+                .register(meterRegistry);
+        this.updated = Counter.builder("quejapi.sla.sweep.updated")
+                .description("Quejas abiertas con daysfromExpiration actualizado")
+                .register(meterRegistry);
+        Gauge.builder("quejapi.sla.sweep.throughput", lastThroughput, AtomicLong::get)
+                .description("Quejas actualizadas por segundo en el último barrido")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${quejapi.sla.sweep.interval:PT1H}",
+            initialDelayString = "${quejapi.sla.sweep.initial-delay:PT1M}")
+    public void scheduledSweep() {
+        if (enabled) {
+            sweep(new Date());
+        }
+    }
+
+    public synchronized int sweep(Date now) {
+        long start = System.nanoTime();
+        List<ComplaintChangedEvent> batch = new ArrayList<>();
+        int written = 0;
+
+        Query query = candidates(lastRun, now);
+        try (Stream<Complaint> complaints = mongoTemplate.stream(
+                query.cursorBatchSize(StatisticsProjection.BATCH_SIZE), Complaint.class)) {
+            for (Complaint complaint : (Iterable<Complaint>) complaints::iterator) {
+                Integer days = daysFromExpiration(complaint.getRecievedDate(), now);
+                if (Objects.equals(days, complaint.getDaysfromExpiration())) {
+                    continue;
+                }
+                batch.add(new ComplaintChangedEvent(complaint,
+                        complaint.toBuilder().daysfromExpiration(days).updatedDate(now).build()));
+                if (batch.size() >= batchSize) {
+                    written += flush(batch, now);
+                }
+            }
+        }
+        written += flush(batch, now);
+        lastRun = now;
+
+        long elapsed = System.nanoTime() - start;
+        duration.record(elapsed, TimeUnit.NANOSECONDS);
+        updated.increment(written);
+        lastThroughput.set(elapsed == 0 ? 0 : written * TimeUnit.SECONDS.toNanos(1) / elapsed);
+        logger.info("Barrido de vencimientos: {} quejas actualizadas en {} ms", written,
+                TimeUnit.NANOSECONDS.toMillis(elapsed));
+        return written;
+    }
+
+    // Open complaints at least one full day past their deadline whose elapsed time crossed a
+    // day boundary in (lastRun, now]
+    static Query candidates(Date lastRun, Date now) {
+        Date overdueBefore = new Date(now.getTime()
+                - (PQRSStatisticsAccumulator.EXPIRATION_DAYS + 1) * DAY_MILLIS);
+        Criteria criteria = Criteria.where("status").nin(2, 3).and("recievedDate").lte(overdueBefore);
+        if (lastRun != null && now.getTime() - lastRun.getTime() < DAY_MILLIS) {
+            Document elapsedInDay = new Document("$mod", Arrays.asList(
+                    new Document("$subtract", Arrays.asList(now, "$recievedDate")), DAY_MILLIS));
+            Document crossed = new Document("$lt", Arrays.asList(elapsedInDay, now.getTime() - lastRun.getTime()));
+            criteria = criteria.andOperator(Criteria.expr(() -> crossed));
+        }
+        return Query.query(criteria);
+    }
+
+    // Same rule as AdministrationService: whole days elapsed beyond the 15-day response period
+    static Integer daysFromExpiration(Date recievedDate, Date now) {
+        if (recievedDate == null) {
+            return null;
+        }
+        long daysElapsed = Math.abs(now.getTime() - recievedDate.getTime()) / DAY_MILLIS;
+        return (int) Math.max(0, daysElapsed - PQRSStatisticsAccumulator.EXPIRATION_DAYS);
+    }
+
+    private int flush(List<ComplaintChangedEvent> batch, Date now) {
+        if (batch.isEmpty()) {
+            return 0;
+        }
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Complaint.class);
+        for (ComplaintChangedEvent change : batch) {
+            // Only while still open and unchanged, so a concurrent resolution is not overwritten
+            bulk.updateOne(Query.query(Criteria.where("_id").is(change.current().getId())
+                    .and("status").nin(2, 3)
+                    .and("daysfromExpiration").is(change.previous().getDaysfromExpiration())),
+                    Update.update("daysfromExpiration", change.current().getDaysfromExpiration())
+                            .set("updatedDate", change.current().getUpdatedDate()));
+        }
+        BulkWriteResult result = bulk.execute();
+        List<ComplaintChangedEvent> applied = result.getModifiedCount() < batch.size() ? applied(batch, now)
+                : List.copyOf(batch);
+        if (applied.size() < batch.size()) {
+            logger.info("{} quejas cambiaron durante el barrido y se omiten", batch.size() - applied.size());
+        }
+        if (!applied.isEmpty()) {
+            eventPublisher.publishEvent(new ComplaintBatchChangedEvent(applied));
+        }
+        batch.clear();
+        return applied.size();
+    }
+
+    // The skipped updates left their complaint without this sweep's updatedDate
+    private List<ComplaintChangedEvent> applied(List<ComplaintChangedEvent> batch, Date now) {
+        Query written = Query.query(Criteria.where("_id").in(batch.stream().map(c -> c.current().getId()).toList())
+                .and("updatedDate").is(now));
+        written.fields().include("_id");
+        Set<String> ids = mongoTemplate.find(written, Complaint.class).stream().map(Complaint::getId)
+                .collect(Collectors.toSet());
+        return batch.stream().filter(change -> ids.contains(change.current().getId())).toList();
+    }
+}
@@ -0,0 +1,96 @@
+package com.quejapp.quejapi.service;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import lombok.RequiredArgsConstructor;
+
+// Runs the startup work that scans the complaints. The index check runs on the startup thread,
+// so a missing index still keeps the application from starting; the date migration and the
+// in-memory loads then run one after another on a background thread, migration first since the
+// loads read its fields. Until they finish the readiness group reports OUT_OF_SERVICE, and DOWN
+// if any of them failed. Writes made meanwhile are not lost: each load holds its own lock.
+@Component
+@RequiredArgsConstructor
+public class StartupWarmup implements HealthIndicator {
+    private static final Logger logger = LoggerFactory.getLogger(StartupWarmup.class);
+
+    private record Step(String name, Runnable action) {
+    }
+
+    private final ComplaintIndexVerifier indexVerifier;
+    private final ComplaintDateFieldsMigration dateFieldsMigration;
+    private final StatisticsCounterStore counterStore;
+    private final StatisticsDailyRollupStore dailyRollupStore;
+    private final StatisticsRangeIndex rangeIndex;
+    private final ComplaintCube cube;
+    private final ComplaintColumnStore columnStore;
+    private final EmployeeLeaderboard leaderboard;
+    private final ComplaintDeadlineIndex deadlineIndex;
+    private final ComplaintSearchIndex searchIndex;
+
+    private final Map<String, String> failed = new LinkedHashMap<>();
+    private volatile boolean finished;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        indexVerifier.initialize();
+        Thread thread = new Thread(this::run, "quejapi-warmup");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    // A failed step is reported and the next ones still run
+    void run() {
+        long start = System.nanoTime();
+        for (Step step : steps()) {
+            try {
+                step.action().run();
+            } catch (RuntimeException e) {
+                logger.error("Falló la carga inicial de {}", step.name(), e);
+                synchronized (failed) {
+                    failed.put(step.name(), e.getMessage() == null ? e.getClass().getName() : e.getMessage());
+                }
+            }
+        }
+        finished = true;
+        logger.info("Carga inicial terminada en {} ms", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    public boolean isFinished() {
+        return finished;
+    }
+
+    @Override
+    public Health health() {
+        if (!finished) {
+            return Health.outOfService().build();
+        }
+        synchronized (failed) {
+            return failed.isEmpty() ? Health.up().build() : Health.down().withDetails(failed).build();
+        }
+    }
+
+    private List<Step> steps() {
+        return List.of(
+                new Step("dateFieldsMigration", dateFieldsMigration::initialize),
+                new Step("counterStore", counterStore::initialize),
+                new Step("dailyRollupStore", dailyRollupStore::initialize),
+                new Step("rangeIndex", rangeIndex::initialize),
+                new Step("cube", cube::initialize),
+                new Step("columnStore", columnStore::initialize),
+                new Step("leaderboard", leaderboard::initialize),
+                new Step("deadlineIndex", deadlineIndex::initialize),
+                new Step("searchIndex", searchIndex::initialize));
+    }
+}
@@ -0,0 +1,230 @@
+package com.quejapp.quejapi.service;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import com.quejapp.quejapi.dto.PQRSStatisticsDTO;
+import com.quejapp.quejapi.dto.StatisticsConsistencyReport;
+import com.quejapp.quejapi.model.StatisticsRollup;
+
+import lombok.RequiredArgsConstructor;
+
+// Keeps the unfiltered statistics as counters in a single document of quejas_stats. Every
+// complaint write applies its delta with an atomic $inc, so reading the overview costs one
+// findById instead of a collection scan. A rebuild folds in the writes made while it scans before
+// it replaces the document (see StatisticsRebuild).
+@Component
+@RequiredArgsConstructor
+public class StatisticsCounterStore {
+    private static final Logger logger = LoggerFactory.getLogger(StatisticsCounterStore.class);
+    static final String GLOBAL_ID = "global";
+
+    private final MongoTemplate mongoTemplate;
+    private final StatisticsRebuild rebuilds = new StatisticsRebuild();
+
+    @Value("${quejapi.statistics.counters.enabled:true}")
+    private boolean enabled = true;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void initialize() {
+        if (enabled && mongoTemplate.findById(GLOBAL_ID, StatisticsRollup.class) == null) {
+            logger.info("Contadores de estadísticas inexistentes, reconstruyendo...");
+            rebuild();
+        }
+    }
+
+    @EventListener
+    public void onComplaintChanged(ComplaintChangedEvent event) {
+        apply(List.of(event));
+    }
+
+    @EventListener
+    public void onComplaintsChanged(ComplaintBatchChangedEvent batch) {
+        apply(batch.changes());
+    }
+
+    private void apply(List<ComplaintChangedEvent> changes) {
+        if (!enabled || changes.isEmpty()) {
+            return;
+        }
+        rebuilds.apply(changes, () -> {
+            try {
+                PQRSStatisticsAccumulator delta = new PQRSStatisticsAccumulator();
+                changes.forEach(event -> delta.merge(delta(event)));
+                increment(mongoTemplate, mongoTemplate.getCollectionName(StatisticsRollup.class), GLOBAL_ID,
+                        delta.toRollup(GLOBAL_ID));
+            } catch (RuntimeException e) {
+                // La escritura de la queja ya se realizó; la verificación de consistencia lo detectará
+                logger.error("No se pudieron actualizar los contadores para {} quejas", changes.size(), e);
+            }
+        });
+    }
+
+    public PQRSStatisticsDTO getStatistics() {
+        StatisticsRollup rollup = mongoTemplate.findById(GLOBAL_ID, StatisticsRollup.class);
+        if (rollup == null) {
+            rollup = rebuild();
+        }
+        return PQRSStatisticsAccumulator.fromRollup(rollup).toStatistics();
+    }
+
+    public StatisticsRollup rebuild() {
+        PQRSStatisticsAccumulator accumulator = new PQRSStatisticsAccumulator();
+        StatisticsRollup rollup = rebuilds.run(mongoTemplate, new Criteria(),
+                new StatisticsRebuild.Target(accumulator::add, accumulator::remove), () -> {
+                    StatisticsRollup rebuilt = accumulator.toRollup(GLOBAL_ID);
+                    rebuilt.setUpdatedDate(new Date());
+                    return mongoTemplate.save(rebuilt);
+                });
+        logger.info("Contadores de estadísticas reconstruidos con {} quejas", rollup.getTotal());
+        return rollup;
+    }
+
+    public StatisticsConsistencyReport verify() {
+        StatisticsRollup expected = recompute();
+        StatisticsRollup stored = mongoTemplate.findById(GLOBAL_ID, StatisticsRollup.class);
+        List<String> mismatches = stored == null ? List.of(GLOBAL_ID) : differences(expected, stored);
+        return StatisticsConsistencyReport.builder()
+                .consistent(mismatches.isEmpty())
+                .mismatches(mismatches)
+                .storedTotal(stored == null ? null : stored.getTotal())
+                .recomputedTotal(expected.getTotal())
+                .checkedAt(new Date())
+                .build();
+    }
+
+    private StatisticsRollup recompute() {
+        PQRSStatisticsAccumulator accumulator = new PQRSStatisticsAccumulator();
+        StatisticsProjection.forEach(mongoTemplate, new Criteria(), accumulator::add);
+        StatisticsRollup rollup = accumulator.toRollup(GLOBAL_ID);
+        rollup.setUpdatedDate(new Date());
+        return rollup;
+    }
+
+    static PQRSStatisticsAccumulator delta(ComplaintChangedEvent event) {
+        PQRSStatisticsAccumulator delta = new PQRSStatisticsAccumulator();
+        if (event.previous() != null) {
+            delta.remove(event.previous());
+        }
+        return delta.add(event.current());
+    }
+
+    // Applies a delta rollup with $inc on every non-zero counter, creating the document if needed
+    static void increment(MongoTemplate mongoTemplate, String collection, String id, StatisticsRollup delta) {
+        Update update = new Update();
+        incrementIfNonZero(update, "total", delta.getTotal());
+        incrementAll(update, "byStatus", delta.getByStatus());
+        incrementAll(update, "byType", delta.getByType());
+        incrementAll(update, "byCategory", delta.getByCategory());
+        incrementIfNonZero(update, "closed", delta.getClosed());
+        incrementIfNonZero(update, "satisfactory", delta.getSatisfactory());
+        incrementIfNonZero(update, "resolvedDaysSum", delta.getResolvedDaysSum());
+        incrementAll(update, "resolutionDays", delta.getResolutionDays());
+        incrementIfNonZero(update, "daysFromExpirationCount", delta.getDaysFromExpirationCount());
+        incrementIfNonZero(update, "daysFromExpirationSum", delta.getDaysFromExpirationSum());
+        incrementAll(update, "openByDay", delta.getOpenByDay());
+        delta.getMonths().forEach((month, counts) -> {
+            String path = "months." + month + ".";
+            incrementIfNonZero(update, path + "received", counts.getReceived());
+            incrementIfNonZero(update, path + "resolved", counts.getResolved());
+            incrementIfNonZero(update, path + "resolvedCount", counts.getResolvedCount());
+            incrementIfNonZero(update, path + "resolvedDaysSum", counts.getResolvedDaysSum());
+            incrementAll(update, path + "resolutionHistogram", counts.getResolutionHistogram());
+        });
+        delta.getEmployees().forEach((employee, counts) -> {
+            String path = "employees." + employee + ".";
+            incrementIfNonZero(update, path + "assigned", counts.getAssigned());
+            incrementIfNonZero(update, path + "resolved", counts.getResolved());
+            incrementIfNonZero(update, path + "resolvedCount", counts.getResolvedCount());
+            incrementIfNonZero(update, path + "resolvedDaysSum", counts.getResolvedDaysSum());
+            incrementAll(update, path + "resolutionHistogram", counts.getResolutionHistogram());
+            if (counts.getAssigned() > 0 && counts.getProfile() != null) {
+                update.set(path + "profile", mongoTemplate.getConverter().convertToMongoType(counts.getProfile()));
+            }
+        });
+        if (update.getUpdateObject().isEmpty()) {
+            return;
+        }
+        update.set("updatedDate", new Date());
+        mongoTemplate.upsert(Query.query(Criteria.where("_id").is(id)), update, StatisticsRollup.class, collection);
+    }
+
+    private static void incrementAll(Update update, String field, Map<String, Long> counts) {
+        counts.forEach((key, count) -> incrementIfNonZero(update, field + "." + key, count));
+    }
+
+    private static void incrementIfNonZero(Update update, String path, long value) {
+        if (value != 0) {
+            update.inc(path, value);
+        }
+    }
+
+    static List<String> differences(StatisticsRollup expected, StatisticsRollup actual) {
+        List<String> mismatches = new ArrayList<>();
+        compare(mismatches, "total", expected.getTotal(), actual.getTotal());
+        compare(mismatches, "byStatus", nonZero(expected.getByStatus()), nonZero(actual.getByStatus()));
+        compare(mismatches, "byType", nonZero(expected.getByType()), nonZero(actual.getByType()));
+        compare(mismatches, "byCategory", nonZero(expected.getByCategory()), nonZero(actual.getByCategory()));
+        compare(mismatches, "closed", expected.getClosed(), actual.getClosed());
+        compare(mismatches, "satisfactory", expected.getSatisfactory(), actual.getSatisfactory());
+        compare(mismatches, "resolvedDaysSum", expected.getResolvedDaysSum(), actual.getResolvedDaysSum());
+        compare(mismatches, "resolutionDays", nonZero(expected.getResolutionDays()),
+                nonZero(actual.getResolutionDays()));
+        compare(mismatches, "daysFromExpirationCount", expected.getDaysFromExpirationCount(),
+                actual.getDaysFromExpirationCount());
+        compare(mismatches, "daysFromExpirationSum", expected.getDaysFromExpirationSum(),
+                actual.getDaysFromExpirationSum());
+        compare(mismatches, "openByDay", nonZero(expected.getOpenByDay()), nonZero(actual.getOpenByDay()));
+        compare(mismatches, "months", months(expected), months(actual));
+        compare(mismatches, "employees", employees(expected), employees(actual));
+        return mismatches;
+    }
+
+    private static void compare(List<String> mismatches, String section, Object expected, Object actual) {
+        if (!Objects.equals(expected, actual)) {
+            mismatches.add(section);
+        }
+    }
+
+    private static Map<String, Long> nonZero(Map<String, Long> counts) {
+        return counts.entrySet().stream()
+                .filter(entry -> entry.getValue() != null && entry.getValue() != 0)
+                .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
+    }
+
+    private static Map<String, List<Long>> months(StatisticsRollup rollup) {
+        return rollup.getMonths().entrySet().stream()
+                .map(entry -> Map.entry(entry.getKey(), List.of(entry.getValue().getReceived(),
+                        entry.getValue().getResolved(), entry.getValue().getResolvedCount(),
+                        entry.getValue().getResolvedDaysSum())))
+                .filter(entry -> entry.getValue().stream().anyMatch(value -> value != 0))
+                .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
+    }
+
+    // Profiles are ignored: the stored one is the latest seen, the recomputed one the first
+    private static Map<String, List<Long>> employees(StatisticsRollup rollup) {
+        return rollup.getEmployees().entrySet().stream()
+                .map(entry -> Map.entry(entry.getKey(), List.of(entry.getValue().getAssigned(),
+                        entry.getValue().getResolved(), entry.getValue().getResolvedCount(),
+                        entry.getValue().getResolvedDaysSum())))
+                .filter(entry -> entry.getValue().stream().anyMatch(value -> value != 0))
+                .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
+    }
+}
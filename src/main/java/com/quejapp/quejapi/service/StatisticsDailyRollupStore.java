@@ -0,0 +1,165 @@
+package com.quejapp.quejapi.service;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+import com.mongodb.MongoNamespace;
+import com.mongodb.client.model.RenameCollectionOptions;
+import com.quejapp.quejapi.dto.PQRSStatisticsDTO;
+import com.quejapp.quejapi.dto.ResolutionTimeDistributionDTO;
+import com.quejapp.quejapi.model.Complaint;
+import com.quejapp.quejapi.model.StatisticsRollup;
+
+import lombok.RequiredArgsConstructor;
+
+// One StatisticsRollup per received day (id yyyy-MM-dd) in quejas_daily_rollup. A date range is
+// answered by summing the day documents it covers, which stays small no matter how many
+// complaints each day holds. Complaints without recievedDate never match a range and are skipped.
+// A backfill builds the day documents in a staging collection and renames it over the live one,
+// folding in the writes made while it scans (see StatisticsRebuild).
+@Component
+@RequiredArgsConstructor
+public class StatisticsDailyRollupStore {
+    private static final Logger logger = LoggerFactory.getLogger(StatisticsDailyRollupStore.class);
+    static final String COLLECTION = "quejas_daily_rollup";
+    static final String STAGING_COLLECTION = COLLECTION + "_staging";
+
+    private final MongoTemplate mongoTemplate;
+    private final StatisticsRebuild rebuilds = new StatisticsRebuild();
+
+    @Value("${quejapi.statistics.daily-rollup.enabled:true}")
+    private boolean enabled = true;
+
+    private final ZoneId zone = ZoneId.systemDefault();
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void initialize() {
+        if (enabled && mongoTemplate.estimatedCount(COLLECTION) == 0) {
+            logger.info("Resumen diario de estadísticas vacío, reconstruyendo...");
+            backfill();
+        }
+    }
+
+    @EventListener
+    public void onComplaintChanged(ComplaintChangedEvent event) {
+        apply(List.of(event));
+    }
+
+    @EventListener
+    public void onComplaintsChanged(ComplaintBatchChangedEvent batch) {
+        apply(batch.changes());
+    }
+
+    private void apply(List<ComplaintChangedEvent> changes) {
+        if (!enabled || changes.isEmpty()) {
+            return;
+        }
+        rebuilds.apply(changes, () -> {
+            try {
+                deltas(changes).forEach((day, delta) -> StatisticsCounterStore.increment(mongoTemplate, COLLECTION,
+                        day.toString(), delta.toRollup(day.toString())));
+            } catch (RuntimeException e) {
+                logger.error("No se pudo actualizar el resumen diario para {} quejas", changes.size(), e);
+            }
+        });
+    }
+
+    public PQRSStatisticsDTO getStatistics(LocalDate startDate, LocalDate endDate) {
+        return accumulate(startDate, endDate).toStatistics();
+    }
+
+    // Merges the resolution histograms of the day documents; without them it scans the range
+    public ResolutionTimeDistributionDTO getResolutionDistribution(LocalDate startDate, LocalDate endDate) {
+        if (enabled) {
+            return accumulate(startDate, endDate).toResolutionDistribution();
+        }
+        PQRSStatisticsAccumulator accumulator = new PQRSStatisticsAccumulator(zone);
+        StatisticsProjection.forEach(mongoTemplate, StatisticsDateCriteria.recievedBetween(startDate, endDate),
+                accumulator::add);
+        return accumulator.toResolutionDistribution();
+    }
+
+    private PQRSStatisticsAccumulator accumulate(LocalDate startDate, LocalDate endDate) {
+        Criteria criteria = Criteria.where("_id");
+        if (startDate != null) {
+            criteria.gte(startDate.toString());
+        }
+        if (endDate != null) {
+            criteria.lte(endDate.toString());
+        }
+        Query query = startDate == null && endDate == null ? new Query() : Query.query(criteria);
+        List<StatisticsRollup> days = mongoTemplate.find(query.with(Sort.by("_id")), StatisticsRollup.class,
+                COLLECTION);
+
+        PQRSStatisticsAccumulator accumulator = new PQRSStatisticsAccumulator(zone);
+        days.forEach(accumulator::merge);
+        return accumulator;
+    }
+
+    // Rebuilds every day document from the quejas collection; readers keep the previous documents
+    // until the rebuilt collection replaces them
+    public int backfill() {
+        Map<LocalDate, PQRSStatisticsAccumulator> byDay = new LinkedHashMap<>();
+        StatisticsRebuild.Target target = new StatisticsRebuild.Target(
+                complaint -> dayAccumulator(byDay, complaint).ifPresent(day -> day.add(complaint)),
+                complaint -> dayAccumulator(byDay, complaint).ifPresent(day -> day.remove(complaint)));
+
+        int days = rebuilds.run(mongoTemplate, Criteria.where("recievedDate").ne(null), target, () -> {
+            List<StatisticsRollup> rollups = byDay.entrySet().stream()
+                    .map(entry -> entry.getValue().toRollup(entry.getKey().toString()))
+                    .toList();
+            mongoTemplate.dropCollection(STAGING_COLLECTION);
+            mongoTemplate.createCollection(STAGING_COLLECTION);
+            mongoTemplate.insert(rollups, STAGING_COLLECTION);
+            mongoTemplate.getCollection(STAGING_COLLECTION).renameCollection(
+                    new MongoNamespace(mongoTemplate.getDb().getName(), COLLECTION),
+                    new RenameCollectionOptions().dropTarget(true));
+            return rollups.size();
+        });
+        logger.info("Resumen diario de estadísticas reconstruido con {} días", days);
+        return days;
+    }
+
+    private Optional<PQRSStatisticsAccumulator> dayAccumulator(Map<LocalDate, PQRSStatisticsAccumulator> byDay,
+            Complaint complaint) {
+        LocalDate day = dayOf(complaint);
+        return day == null ? Optional.empty()
+                : Optional.of(byDay.computeIfAbsent(day, d -> new PQRSStatisticsAccumulator(zone)));
+    }
+
+    private Map<LocalDate, PQRSStatisticsAccumulator> deltas(List<ComplaintChangedEvent> changes) {
+        Map<LocalDate, PQRSStatisticsAccumulator> deltas = new LinkedHashMap<>();
+        for (ComplaintChangedEvent event : changes) {
+            LocalDate previousDay = event.previous() == null ? null : dayOf(event.previous());
+            if (previousDay != null) {
+                deltas.computeIfAbsent(previousDay, d -> new PQRSStatisticsAccumulator(zone)).remove(event.previous());
+            }
+            LocalDate currentDay = dayOf(event.current());
+            if (currentDay != null) {
+                deltas.computeIfAbsent(currentDay, d -> new PQRSStatisticsAccumulator(zone)).add(event.current());
+            }
+        }
+        return deltas;
+    }
+
+    private LocalDate dayOf(Complaint complaint) {
+        return ComplaintDates.day(complaint, zone);
+    }
+}
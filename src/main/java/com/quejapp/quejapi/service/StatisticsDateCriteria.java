@@ -0,0 +1,36 @@
+package com.quejapp.quejapi.service;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Date;
+
+import org.springframework.data.mongodb.core.query.Criteria;
+
+// Builds the recievedDate filter shared by the statistics engines
+final class StatisticsDateCriteria {
+
+    private StatisticsDateCriteria() {
+    }
+
+    static Criteria recievedBetween(LocalDate startDate, LocalDate endDate) {
+        Criteria criteria = new Criteria();
+
+        if (startDate != null && endDate != null) {
+            criteria.and("recievedDate").gte(startOf(startDate)).lte(endOf(endDate));
+        } else if (startDate != null) {
+            criteria.and("recievedDate").gte(startOf(startDate));
+        } else if (endDate != null) {
+            criteria.and("recievedDate").lte(endOf(endDate));
+        }
+
+        return criteria;
+    }
+
+    static Date startOf(LocalDate date) {
+        return Date.from(date.atStartOfDay(ZoneId.systemDefault()).toInstant());
+    }
+
+    static Date endOf(LocalDate date) {
+        return Date.from(date.atTime(23, 59, 59).atZone(ZoneId.systemDefault()).toInstant());
+    }
+}
@@ -0,0 +1,38 @@
+package com.quejapp.quejapi.service;
+
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+
+import com.quejapp.quejapi.model.Complaint;
+
+// Streams the complaints read by the statistics through a cursor, fetching only the fields the
+// accumulator uses. Memory stays bounded by the cursor batch instead of the collection size.
+final class StatisticsProjection {
+    static final String[] FIELDS = { "status", "type", "category", "recievedDate", "epochDay", "daysToResolve",
+            "daysfromExpiration", "employee", "employeeProfile", "updatedDate" };
+    static final int BATCH_SIZE = 1000;
+
+    private StatisticsProjection() {
+    }
+
+    static Query query(Criteria criteria) {
+        Query query = criteria.getCriteriaObject().isEmpty() ? new Query() : Query.query(criteria);
+        query.fields().include(FIELDS);
+        return query.cursorBatchSize(BATCH_SIZE);
+    }
+
+    static void forEach(MongoTemplate mongoTemplate, Criteria criteria, Consumer<Complaint> consumer) {
+        forEach(mongoTemplate, criteria, Sort.unsorted(), consumer);
+    }
+
+    static void forEach(MongoTemplate mongoTemplate, Criteria criteria, Sort sort, Consumer<Complaint> consumer) {
+        try (Stream<Complaint> complaints = mongoTemplate.stream(query(criteria).with(sort), Complaint.class)) {
+            complaints.forEach(consumer);
+        }
+    }
+}
@@ -0,0 +1,284 @@
+package com.quejapp.quejapi.service;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.OptionalInt;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.stereotype.Component;
+
+import com.quejapp.quejapi.dto.PQRSStatisticsDTO;
+import com.quejapp.quejapi.model.Complaint;
+import com.quejapp.quejapi.model.Profile;
+import com.quejapp.quejapi.model.StatisticsRollup;
+
+import lombok.RequiredArgsConstructor;
+
+// Per-day prefix sums of every statistics counter, keyed by the epoch day of recievedDate, in
+// Fenwick trees. A date range becomes a StatisticsRollup built from O(log days) range sums per
+// counter, with no database access; monthly trends take one range sum per month holding
+// complaints. Resolution days and employees get their columns on first sight, and every column
+// only keeps the days it has counts for. Complaints without
+// recievedDate never match a range and are skipped, as in StatisticsDailyRollupStore.
+@Component
+@RequiredArgsConstructor
+public class StatisticsRangeIndex {
+    private static final Logger logger = LoggerFactory.getLogger(StatisticsRangeIndex.class);
+
+    private static final int STATUS_SLOTS = PQRSStatisticsAccumulator.STATUS_NAMES.length + 1;
+    private static final int TYPE_SLOTS = PQRSStatisticsAccumulator.TYPE_NAMES.length + 1;
+    private static final int CATEGORY_SLOTS = PQRSStatisticsAccumulator.CATEGORY_NAMES.length + 1;
+
+    private final MongoTemplate mongoTemplate;
+
+    @Value("${quejapi.statistics.range-index.enabled:true}")
+    private boolean enabled = true;
+
+    private final ZoneId zone = ZoneId.systemDefault();
+    private Counters counters;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public synchronized boolean isLoaded() {
+        return counters != null;
+    }
+
+    public void initialize() {
+        if (enabled) {
+            load();
+        }
+    }
+
+    // Events wait on the monitor while the trees are loading, so no write is missed. Read in date
+    // order, every new day is appended to its columns instead of rebuilding them.
+    public synchronized int load() {
+        Counters loaded = new Counters(zone);
+        StatisticsProjection.forEach(mongoTemplate, Criteria.where("recievedDate").ne(null), Sort.by("recievedDate"),
+                complaint -> loaded.apply(complaint, 1));
+        counters = loaded;
+        logger.info("Índice de rangos de estadísticas cargado con {} columnas y {} celdas", loaded.trees.columns(),
+                loaded.trees.cells());
+        return loaded.trees.columns();
+    }
+
+    @EventListener
+    public synchronized void onComplaintChanged(ComplaintChangedEvent event) {
+        if (counters != null) {
+            counters.apply(event);
+        }
+    }
+
+    @EventListener
+    public synchronized void onComplaintsChanged(ComplaintBatchChangedEvent batch) {
+        if (counters != null) {
+            batch.changes().forEach(counters::apply);
+        }
+    }
+
+    public PQRSStatisticsDTO getStatistics(LocalDate startDate, LocalDate endDate) {
+        return getStatistics(startDate, endDate, LocalDate.now(zone));
+    }
+
+    synchronized PQRSStatisticsDTO getStatistics(LocalDate startDate, LocalDate endDate, LocalDate today) {
+        if (counters == null) {
+            throw new IllegalStateException("El índice de rangos de estadísticas no está cargado");
+        }
+        int from = startDate == null ? Integer.MIN_VALUE : (int) startDate.toEpochDay();
+        int to = endDate == null ? Integer.MAX_VALUE : (int) endDate.toEpochDay();
+        return new PQRSStatisticsAccumulator(zone).merge(counters.rollup(from, to, (int) today.toEpochDay()))
+                .toStatistics(today);
+    }
+
+    static final class Counters {
+        private final ZoneId zone;
+        private final FenwickCounts trees = new FenwickCounts();
+
+        private final int total;
+        private final int[] byStatus = new int[STATUS_SLOTS];
+        private final int[] byType = new int[TYPE_SLOTS];
+        private final int[] byCategory = new int[CATEGORY_SLOTS];
+        private final int closed;
+        private final int satisfactory;
+        private final int resolvedCount;
+        private final int resolvedDaysSum;
+        private final int daysFromExpirationCount;
+        private final int daysFromExpirationSum;
+        private final int open;
+        private final Map<Integer, Integer> resolutionDays = new HashMap<>();
+        private final Map<String, EmployeeColumns> employees = new HashMap<>();
+
+        // assigned, resolved, resolvedCount and resolvedDaysSum in consecutive columns
+        private record EmployeeColumns(int first, Profile profile) {
+        }
+
+        Counters(ZoneId zone) {
+            this.zone = zone;
+            total = trees.addColumn();
+            for (int slot = 0; slot < STATUS_SLOTS; slot++) {
+                byStatus[slot] = trees.addColumn();
+            }
+            for (int slot = 0; slot < TYPE_SLOTS; slot++) {
+                byType[slot] = trees.addColumn();
+            }
+            for (int slot = 0; slot < CATEGORY_SLOTS; slot++) {
+                byCategory[slot] = trees.addColumn();
+            }
+            closed = trees.addColumn();
+            satisfactory = trees.addColumn();
+            resolvedCount = trees.addColumn();
+            resolvedDaysSum = trees.addColumn();
+            daysFromExpirationCount = trees.addColumn();
+            daysFromExpirationSum = trees.addColumn();
+            open = trees.addColumn();
+        }
+
+        void apply(ComplaintChangedEvent event) {
+            if (event.previous() != null) {
+                apply(event.previous(), -1);
+            }
+            apply(event.current(), 1);
+        }
+
+        // Mirrors PQRSStatisticsAccumulator.apply, one column per counter
+        void apply(Complaint complaint, long sign) {
+            if (complaint.getRecievedDate() == null) {
+                return;
+            }
+            int day = ComplaintDates.epochDay(complaint, zone, 0);
+
+            trees.add(total, day, sign);
+            trees.add(byStatus[slot(complaint.getStatus(), STATUS_SLOTS)], day, sign);
+            trees.add(byType[slot(complaint.getType(), TYPE_SLOTS)], day, sign);
+            trees.add(byCategory[slot(complaint.getCategory(), CATEGORY_SLOTS)], day, sign);
+
+            boolean isClosed = PQRSStatisticsAccumulator.isStatusClosed(complaint.getStatus());
+            Integer daysToResolve = complaint.getDaysToResolve();
+            boolean resolved = isClosed && daysToResolve != null;
+            if (isClosed) {
+                trees.add(closed, day, sign);
+            } else {
+                trees.add(open, day, sign);
+            }
+            if (resolved) {
+                trees.add(resolvedCount, day, sign);
+                trees.add(resolvedDaysSum, day, sign * daysToResolve);
+                trees.add(resolutionDays.computeIfAbsent(daysToResolve, d -> trees.addColumn()), day, sign);
+                if (daysToResolve <= PQRSStatisticsAccumulator.EXPIRATION_DAYS) {
+                    trees.add(satisfactory, day, sign);
+                }
+            }
+            if (complaint.getDaysfromExpiration() != null) {
+                trees.add(daysFromExpirationCount, day, sign);
+                trees.add(daysFromExpirationSum, day, sign * complaint.getDaysfromExpiration());
+            }
+
+            Profile profile = complaint.getEmployeeProfile();
+            if (complaint.getEmployee() != null && profile != null) {
+                EmployeeColumns columns = employees.computeIfAbsent(complaint.getEmployee(),
+                        id -> new EmployeeColumns(addColumns(4), profile));
+                trees.add(columns.first(), day, sign);
+                if (isClosed) {
+                    trees.add(columns.first() + 1, day, sign);
+                }
+                if (resolved) {
+                    trees.add(columns.first() + 2, day, sign);
+                    trees.add(columns.first() + 3, day, sign * daysToResolve);
+                }
+            }
+        }
+
+        StatisticsRollup rollup(int from, int to, int today) {
+            StatisticsRollup rollup = new StatisticsRollup();
+            rollup.setTotal(trees.sum(total, from, to));
+            if (rollup.getTotal() == 0) {
+                return rollup;
+            }
+            putSlots(rollup.getByStatus(), byStatus, from, to);
+            putSlots(rollup.getByType(), byType, from, to);
+            putSlots(rollup.getByCategory(), byCategory, from, to);
+            rollup.setClosed(trees.sum(closed, from, to));
+            rollup.setSatisfactory(trees.sum(satisfactory, from, to));
+            rollup.setResolvedDaysSum(trees.sum(resolvedDaysSum, from, to));
+            resolutionDays.forEach((days, column) -> putNonZero(rollup.getResolutionDays(), days.toString(),
+                    trees.sum(column, from, to)));
+            rollup.setDaysFromExpirationCount(trees.sum(daysFromExpirationCount, from, to));
+            rollup.setDaysFromExpirationSum(trees.sum(daysFromExpirationSum, from, to));
+
+            // toStatistics only needs the open complaints before and within the near-expiration window
+            int expirationStart = today - PQRSStatisticsAccumulator.EXPIRATION_DAYS;
+            putNonZero(rollup.getOpenByDay(), String.valueOf(expirationStart - 1),
+                    trees.sum(open, from, Math.min(to, expirationStart - 1)));
+            putNonZero(rollup.getOpenByDay(), String.valueOf(expirationStart), trees.sum(open,
+                    Math.max(from, expirationStart),
+                    Math.min(to, expirationStart + PQRSStatisticsAccumulator.NEAR_EXPIRATION_DAYS)));
+
+            // Months without any counted day are skipped, so an outlier date adds one month, not a span
+            for (OptionalInt day = trees.ceilingKey(total, from); day.isPresent() && day.getAsInt() <= to;) {
+                YearMonth month = YearMonth.from(LocalDate.ofEpochDay(day.getAsInt()));
+                int monthFrom = Math.max(from, (int) month.atDay(1).toEpochDay());
+                int monthTo = Math.min(to, (int) month.atEndOfMonth().toEpochDay());
+                day = trees.ceilingKey(total, monthTo + 1);
+                long received = trees.sum(total, monthFrom, monthTo);
+                if (received != 0) {
+                    rollup.getMonths().put(month.toString(), StatisticsRollup.MonthCounts.builder()
+                            .received(received)
+                            .resolved(trees.sum(closed, monthFrom, monthTo))
+                            .resolvedCount(trees.sum(resolvedCount, monthFrom, monthTo))
+                            .resolvedDaysSum(trees.sum(resolvedDaysSum, monthFrom, monthTo))
+                            .build());
+                }
+            }
+
+            employees.forEach((employee, columns) -> {
+                long assigned = trees.sum(columns.first(), from, to);
+                if (assigned != 0) {
+                    rollup.getEmployees().put(employee, StatisticsRollup.EmployeeCounts.builder()
+                            .assigned(assigned)
+                            .resolved(trees.sum(columns.first() + 1, from, to))
+                            .resolvedCount(trees.sum(columns.first() + 2, from, to))
+                            .resolvedDaysSum(trees.sum(columns.first() + 3, from, to))
+                            .profile(columns.profile())
+                            .build());
+                }
+            });
+            return rollup;
+        }
+
+        private int addColumns(int count) {
+            int first = trees.addColumn();
+            for (int i = 1; i < count; i++) {
+                trees.addColumn();
+            }
+            return first;
+        }
+
+        private void putSlots(Map<String, Long> target, int[] columns, int from, int to) {
+            for (int slot = 0; slot < columns.length; slot++) {
+                putNonZero(target, slot < columns.length - 1 ? String.valueOf(slot)
+                        : PQRSStatisticsAccumulator.UNKNOWN_KEY, trees.sum(columns[slot], from, to));
+            }
+        }
+
+        private static void putNonZero(Map<String, Long> target, String key, long count) {
+            if (count != 0) {
+                target.put(key, count);
+            }
+        }
+
+        private static int slot(Integer code, int slots) {
+            return code != null && code >= 0 && code < slots - 1 ? code : slots - 1;
+        }
+    }
+
+}
@@ -0,0 +1,111 @@
+package com.quejapp.quejapi.service;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+
+import com.quejapp.quejapi.model.Complaint;
+
+// Recomputes stored statistics from a full scan without losing the deltas written while it runs.
+// The scan reads complaints in _id order: a change to a complaint it has passed is applied to the
+// recomputed counts as a delta, and a change ahead of it replaces the state the scan will read.
+// Live increments hold the read lock and the replacement of the stored counts the write lock, so
+// each delta lands either on the counts being replaced, having been folded into the new ones, or
+// after the replacement. A write the scan reads before its event is published is counted twice;
+// the consistency check reports it.
+final class StatisticsRebuild {
+
+    record Target(Consumer<Complaint> add, Consumer<Complaint> remove) {
+    }
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private Scan scan;
+
+    // Runs a live update; while a rebuild scans, the changes are also folded into its counts
+    void apply(List<ComplaintChangedEvent> changes, Runnable live) {
+        lock.readLock().lock();
+        try {
+            if (scan != null) {
+                scan.track(changes);
+            }
+            live.run();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Scans the complaints matching criteria into target, then runs replace with no live update
+    // in flight. Rebuilds of the same counts run one at a time.
+    synchronized <T> T run(MongoTemplate mongoTemplate, Criteria criteria, Target target, Supplier<T> replace) {
+        Scan current = new Scan(target);
+        lock.writeLock().lock();
+        try {
+            scan = current;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        boolean scanned = false;
+        T replaced = null;
+        try {
+            StatisticsProjection.forEach(mongoTemplate, criteria, Sort.by("_id"), current::read);
+            scanned = true;
+        } finally {
+            lock.writeLock().lock();
+            try {
+                scan = null;
+                if (scanned) {
+                    current.finish();
+                    replaced = replace.get();
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+        return replaced;
+    }
+
+    private static final class Scan {
+        private final Target target;
+        // Latest state of the complaints written ahead of the scan position
+        private final Map<String, Complaint> ahead = new HashMap<>();
+        private String position;
+
+        Scan(Target target) {
+            this.target = target;
+        }
+
+        synchronized void read(Complaint complaint) {
+            Complaint latest = ahead.remove(complaint.getId());
+            target.add().accept(latest == null ? complaint : latest);
+            position = complaint.getId();
+        }
+
+        synchronized void track(List<ComplaintChangedEvent> changes) {
+            for (ComplaintChangedEvent event : changes) {
+                String id = event.current().getId();
+                if (position != null && id != null && id.compareTo(position) <= 0) {
+                    if (event.previous() != null) {
+                        target.remove().accept(event.previous());
+                    }
+                    target.add().accept(event.current());
+                } else {
+                    ahead.put(id, event.current());
+                }
+            }
+        }
+
+        // Complaints written during the scan that it never returned
+        synchronized void finish() {
+            ahead.values().forEach(target.add());
+            ahead.clear();
+        }
+    }
+}
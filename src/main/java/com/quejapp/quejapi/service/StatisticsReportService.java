@@ -0,0 +1,213 @@
+package com.quejapp.quejapi.service;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.quejapp.quejapi.dto.PQRSStatisticsDTO;
+import com.quejapp.quejapi.dto.StatisticsReportJobDTO;
+import com.quejapp.quejapi.dto.StatisticsReportJobDTO.Status;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+
+// Computes statistics for large date ranges in the background, so the request thread only
+// submits the job and later polls it. A fixed pool with a bounded queue caps the work in
+// progress and rejects submissions beyond it. A submission for a range that is pending, running
+// or finished within the TTL returns that job instead of computing it again; finished results
+// are kept for the TTL and then purged. A complaint write stops the reuse of every running or
+// finished job whose range contains the written days, as StatisticsResultCache evicts them: the
+// job stays readable by id, but the next submission for its range computes it again.
+@Service
+public class StatisticsReportService {
+    private static final Logger logger = LoggerFactory.getLogger(StatisticsReportService.class);
+
+    private final PQRSStatisticsService statisticsService;
+    private final ThreadPoolExecutor executor;
+    private final Duration ttl;
+    Clock clock = Clock.systemUTC();
+    private final ZoneId zone = ZoneId.systemDefault();
+
+    // Both maps and every job field are guarded by the service monitor
+    private final Map<String, Job> jobs = new HashMap<>();
+    private final Map<StatisticsResultCache.RangeKey, Job> byRange = new HashMap<>();
+
+    private static final class Job {
+        private final String id;
+        private final StatisticsResultCache.RangeKey range;
+        private final Instant submittedAt;
+        private Status status = Status.PENDING;
+        private Instant startedAt;
+        private Instant finishedAt;
+        private PQRSStatisticsDTO result;
+        private String error;
+
+        private Job(String id, StatisticsResultCache.RangeKey range, Instant submittedAt) {
+            this.id = id;
+            this.range = range;
+            this.submittedAt = submittedAt;
+        }
+    }
+
+    public StatisticsReportService(PQRSStatisticsService statisticsService, MeterRegistry meterRegistry,
+            @Value("${quejapi.statistics.reports.threads:2}") int threads,
+            @Value("${quejapi.statistics.reports.queue-capacity:16}") int queueCapacity,
+            @Value("${quejapi.statistics.reports.ttl:PT30M}") Duration ttl) {
+        this.statisticsService = statisticsService;
+        this.ttl = ttl;
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                Thread.ofPlatform().name("statistics-report-", 1).daemon(true).factory(),
+                new ThreadPoolExecutor.AbortPolicy());
+        Gauge.builder("quejapi.statistics.reports.queued", executor, pool -> pool.getQueue().size())
+                .description("Informes de estadísticas en cola")
+                .register(meterRegistry);
+        Gauge.builder("quejapi.statistics.reports.running", executor, ThreadPoolExecutor::getActiveCount)
+                .description("Informes de estadísticas en cálculo")
+                .register(meterRegistry);
+    }
+
+    // Throws RejectedExecutionException when the queue is full
+    public synchronized StatisticsReportJobDTO submit(LocalDate startDate, LocalDate endDate) {
+        if (startDate != null && endDate != null && startDate.isAfter(endDate)) {
+            throw new IllegalArgumentException("La fecha inicial es posterior a la final");
+        }
+        purgeExpired();
+        StatisticsResultCache.RangeKey range = new StatisticsResultCache.RangeKey(startDate, endDate);
+        Job existing = byRange.get(range);
+        if (existing != null) {
+            return toDto(existing);
+        }
+
+        Job job = new Job(UUID.randomUUID().toString(), range, clock.instant());
+        // Until submit returns the worker waits on the monitor, so it sees the registered job
+        executor.execute(() -> run(job));
+        jobs.put(job.id, job);
+        byRange.put(range, job);
+        return toDto(job);
+    }
+
+    public synchronized Optional<StatisticsReportJobDTO> getJob(String id) {
+        return find(id).map(this::toDto);
+    }
+
+    // Present only once the job finished successfully and until it expires
+    public synchronized Optional<PQRSStatisticsDTO> getResult(String id) {
+        return find(id).filter(job -> job.status == Status.DONE).map(job -> job.result);
+    }
+
+    @Scheduled(fixedDelayString = "${quejapi.statistics.reports.purge-interval:PT1M}")
+    public synchronized int purgeExpired() {
+        Instant now = clock.instant();
+        int before = jobs.size();
+        jobs.values().removeIf(job -> {
+            if (!isExpired(job, now)) {
+                return false;
+            }
+            byRange.remove(job.range, job);
+            return true;
+        });
+        return before - jobs.size();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private void run(Job job) {
+        synchronized (this) {
+            job.status = Status.RUNNING;
+            job.startedAt = clock.instant();
+        }
+        PQRSStatisticsDTO result = null;
+        String error = null;
+        try {
+            result = statisticsService.getStatistics(job.range.startDate(), job.range.endDate());
+        } catch (RuntimeException e) {
+            logger.warn("Falló el informe de estadísticas {} ({} - {})", job.id, job.range.startDate(),
+                    job.range.endDate(), e);
+            error = e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+        }
+        synchronized (this) {
+            job.finishedAt = clock.instant();
+            job.result = result;
+            job.error = error;
+            job.status = error == null ? Status.DONE : Status.FAILED;
+            if (job.status == Status.FAILED) {
+                // A new submission for the range computes it again
+                byRange.remove(job.range, job);
+            }
+        }
+    }
+
+    // After the result cache, so a recomputation cannot read a cached result missing this write
+    @EventListener
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    public void onComplaintChanged(ComplaintChangedEvent event) {
+        detach(List.of(event));
+    }
+
+    @EventListener
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    public void onComplaintsChanged(ComplaintBatchChangedEvent batch) {
+        detach(batch.changes());
+    }
+
+    // A pending job has not read anything yet, so it still covers the write
+    private synchronized void detach(List<ComplaintChangedEvent> changes) {
+        StatisticsResultCache.ChangedDays changed = StatisticsResultCache.ChangedDays.of(changes, zone);
+        byRange.values().removeIf(job -> job.status != Status.PENDING && changed.touches(job.range));
+    }
+
+    private Optional<Job> find(String id) {
+        Job job = jobs.get(id);
+        if (job == null) {
+            return Optional.empty();
+        }
+        if (isExpired(job, clock.instant())) {
+            jobs.remove(id);
+            byRange.remove(job.range, job);
+            return Optional.empty();
+        }
+        return Optional.of(job);
+    }
+
+    private boolean isExpired(Job job, Instant now) {
+        return job.finishedAt != null && !now.isBefore(job.finishedAt.plus(ttl));
+    }
+
+    private StatisticsReportJobDTO toDto(Job job) {
+        return StatisticsReportJobDTO.builder()
+                .id(job.id)
+                .status(job.status)
+                .startDate(job.range.startDate())
+                .endDate(job.range.endDate())
+                .submittedAt(job.submittedAt)
+                .startedAt(job.startedAt)
+                .finishedAt(job.finishedAt)
+                .expiresAt(job.finishedAt == null ? null : job.finishedAt.plus(ttl))
+                .error(job.error)
+                .build();
+    }
+}
@@ -0,0 +1,203 @@
+package com.quejapp.quejapi.service;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import com.quejapp.quejapi.dto.PQRSStatisticsDTO;
+import com.quejapp.quejapi.model.Complaint;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+// Bounded LRU cache of computed statistics keyed by date range. A complaint write only evicts
+// the ranges containing its received day (before and after the change), and entries computed
+// on a previous day are discarded since the expiry figures depend on today's date. The DTO is
+// mutable, so every caller gets its own copy: the cached one is never handed out, and callers
+// coalesced onto one computation do not share its result either.
+@Component
+public class StatisticsResultCache implements MeterBinder {
+
+    record RangeKey(LocalDate startDate, LocalDate endDate) {
+
+        // Complaints without recievedDate are only counted by the unfiltered query
+        boolean contains(LocalDate day) {
+            if (day == null) {
+                return startDate == null && endDate == null;
+            }
+            return (startDate == null || !day.isBefore(startDate)) && (endDate == null || !day.isAfter(endDate));
+        }
+    }
+
+    // Received days touched by a set of writes, before and after each change
+    record ChangedDays(Set<LocalDate> days, boolean undated) {
+
+        static ChangedDays of(List<ComplaintChangedEvent> changes, ZoneId zone) {
+            Set<LocalDate> days = new HashSet<>();
+            boolean undated = false;
+            for (ComplaintChangedEvent event : changes) {
+                for (Complaint complaint : Arrays.asList(event.previous(), event.current())) {
+                    if (complaint != null) {
+                        Date date = complaint.getRecievedDate();
+                        undated |= date == null;
+                        if (date != null) {
+                            days.add(date.toInstant().atZone(zone).toLocalDate());
+                        }
+                    }
+                }
+            }
+            return new ChangedDays(days, undated);
+        }
+
+        boolean touches(RangeKey key) {
+            return (undated && key.contains(null)) || days.stream().anyMatch(key::contains);
+        }
+    }
+
+    private record Entry(PQRSStatisticsDTO statistics, LocalDate computedOn) {
+    }
+
+    @Value("${quejapi.statistics.cache.enabled:true}")
+    private boolean enabled = true;
+
+    @Value("${quejapi.statistics.cache.max-entries:64}")
+    private int maxEntries = 64;
+
+    private final ZoneId zone = ZoneId.systemDefault();
+
+    private final LinkedHashMap<RangeKey, Entry> entries = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<RangeKey, Entry> eldest) {
+            if (size() > maxEntries) {
+                evictions++;
+                return true;
+            }
+            return false;
+        }
+    };
+
+    // Bumped on every write so a result computed concurrently with it is not stored
+    private long generation;
+    private long hits;
+    private long misses;
+    private long evictions;
+    private long invalidations;
+
+    public PQRSStatisticsDTO get(LocalDate startDate, LocalDate endDate, Supplier<PQRSStatisticsDTO> loader) {
+        if (!enabled) {
+            return copy(loader.get());
+        }
+        RangeKey key = new RangeKey(startDate, endDate);
+        LocalDate today = LocalDate.now(zone);
+        long observedGeneration;
+        synchronized (this) {
+            Entry entry = entries.get(key);
+            if (entry != null && entry.computedOn().equals(today)) {
+                hits++;
+                return copy(entry.statistics());
+            }
+            misses++;
+            observedGeneration = generation;
+        }
+
+        PQRSStatisticsDTO statistics = loader.get();
+        synchronized (this) {
+            if (generation == observedGeneration) {
+                entries.put(key, new Entry(copy(statistics), today));
+            }
+        }
+        return copy(statistics);
+    }
+
+    // Runs after the counter stores so no reader can cache a result missing this write
+    @EventListener
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    public void onComplaintChanged(ComplaintChangedEvent event) {
+        invalidate(List.of(event));
+    }
+
+    @EventListener
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    public void onComplaintsChanged(ComplaintBatchChangedEvent batch) {
+        invalidate(batch.changes());
+    }
+
+    private synchronized void invalidate(List<ComplaintChangedEvent> changes) {
+        generation++;
+        ChangedDays changed = ChangedDays.of(changes, zone);
+        int before = entries.size();
+        entries.keySet().removeIf(changed::touches);
+        invalidations += before - entries.size();
+    }
+
+    public synchronized void clear() {
+        generation++;
+        entries.clear();
+    }
+
+    synchronized int size() {
+        return entries.size();
+    }
+
+    // Deep copy; linked maps keep the iteration order, and so the JSON, of the original
+    static PQRSStatisticsDTO copy(PQRSStatisticsDTO statistics) {
+        return statistics.toBuilder()
+                .pqrsByStatus(copy(statistics.getPqrsByStatus()))
+                .pqrsByType(copy(statistics.getPqrsByType()))
+                .pqrsByCategory(copy(statistics.getPqrsByCategory()))
+                .topEmployees(statistics.getTopEmployees() == null ? null : statistics.getTopEmployees().stream()
+                        .map(employee -> employee.toBuilder().build())
+                        .collect(Collectors.toCollection(ArrayList::new)))
+                .monthlyTrends(statistics.getMonthlyTrends() == null ? null : statistics.getMonthlyTrends().stream()
+                        .map(month -> month.toBuilder().build())
+                        .collect(Collectors.toCollection(ArrayList::new)))
+                .build();
+    }
+
+    private static Map<String, Long> copy(Map<String, Long> counts) {
+        return counts == null ? null : new LinkedHashMap<>(counts);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("quejapi.statistics.cache.gets", this, cache -> cache.count(() -> cache.hits))
+                .tag("result", "hit")
+                .description("Consultas de estadísticas respondidas desde la caché")
+                .register(registry);
+        FunctionCounter.builder("quejapi.statistics.cache.gets", this, cache -> cache.count(() -> cache.misses))
+                .tag("result", "miss")
+                .description("Consultas de estadísticas calculadas")
+                .register(registry);
+        FunctionCounter.builder("quejapi.statistics.cache.evictions", this,
+                cache -> cache.count(() -> cache.evictions))
+                .description("Rangos descartados por tamaño")
+                .register(registry);
+        FunctionCounter.builder("quejapi.statistics.cache.invalidations", this,
+                cache -> cache.count(() -> cache.invalidations))
+                .description("Rangos invalidados por escrituras de quejas")
+                .register(registry);
+        Gauge.builder("quejapi.statistics.cache.size", this, StatisticsResultCache::size)
+                .register(registry);
+    }
+
+    private synchronized double count(Supplier<Long> counter) {
+        return counter.get();
+    }
+}
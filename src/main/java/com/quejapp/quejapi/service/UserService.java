@@ -1,19 +1,18 @@
 package com.quejapp.quejapi.service;
 
-import java.text.SimpleDateFormat;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
-import java.util.Date;
 import java.util.Random;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Sort;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
-import org.springframework.util.StringUtils;
 
+import com.quejapp.quejapi.dto.ComplaintCursorPage;
 import com.quejapp.quejapi.dto.ComplaintSearch;
+import com.quejapp.quejapi.dto.ComplaintSliceDTO;
 import com.quejapp.quejapi.model.Complaint;
 import com.quejapp.quejapi.model.Profile;
 import com.quejapp.quejapi.model.Trace;
@@ -29,6 +28,8 @@ public class UserService {
     private final ComplaintRepository complaintsRepo;
     private final UserRepository usersRepo; 
     private final WekaService wekaService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ComplaintListingSupport listings;
 
     public Complaint createComplaintForUser(Complaint complaint) {
         Authentication auth = SecurityContextHolder.getContext().getAuthentication();
@@ -40,7 +41,9 @@ public class UserService {
             return new RuntimeException("Usuario no encontrado");
         });
       
-        return complaintsRepo.save(initializeComplaint(complaint, user));
+        Complaint saved = complaintsRepo.save(initializeComplaint(complaint, user));
+        eventPublisher.publishEvent(new ComplaintChangedEvent(null, saved));
+        return saved;
     }
 
     private Complaint initializeComplaint(Complaint complaint, User user) {
@@ -53,8 +56,10 @@ public class UserService {
             .email(user.getEmail())
             .build()
         );
-        complaint.setReference(buildReferenceField(complaint.getType()));
         complaint.setRecievedDate(new java.util.Date());
+        // Día, mes y día de la semana se calculan una sola vez y quedan indexados
+        ComplaintDates.derive(complaint);
+        complaint.setReference(buildReferenceField(complaint.getType(), complaint.getEpochDay()));
         complaint.setTraceability(new ArrayList<Trace>());        
         complaint.addTrace(Trace.builder()
             .date(new java.util.Date())
@@ -67,9 +72,9 @@ public class UserService {
         return complaint;
     }
 
-    private String buildReferenceField(Integer type) {
+    private String buildReferenceField(Integer type, int epochDay) {
         String prefix = "TRC";
-        String date = new SimpleDateFormat("yyyyMMdd").format(new java.util.Date());
+        String date = LocalDate.ofEpochDay(epochDay).format(DateTimeFormatter.BASIC_ISO_DATE);
         String random = generateRandomString(6);
         return String.format("%s-%s-%s-%s", prefix, date, random, type);
     }
@@ -86,8 +91,8 @@ public class UserService {
     private String makePredition(Complaint complaint){
         String tipo = transformTypeToString(complaint.getType());
         String canal = "Web";
-        String dia = transformDayToString(complaint.getRecievedDate());
-        String mes = transformMonthToString(complaint.getRecievedDate());
+        String dia = transformDayToString(complaint.getWeekday());
+        String mes = transformMonthToString(LocalDate.ofEpochDay(complaint.getEpochDay()).getMonthValue());
         try {
             return wekaService.predict(tipo, canal, dia, mes, true);
         } catch (Exception e) {
@@ -104,9 +109,7 @@ public class UserService {
         return types[type];
     }
 
-    private String transformDayToString(Date date) {
-        SimpleDateFormat sdf = new SimpleDateFormat("u"); // 'u' gives day
-        int day = Integer.parseInt(sdf.format(date));
+    private String transformDayToString(int day) { // 1 = lunes ... 7 = domingo
         String[] days = {"lunes", "martes", "miercoles", "jueves", "viernes"};
         if( day < 1 || day > days.length) {
             return "lunes";
@@ -117,9 +120,7 @@ public class UserService {
         return days[day - 1];
     }
 
-    private String transformMonthToString(Date date) {
-        SimpleDateFormat sdf = new SimpleDateFormat("M"); // 'M' gives month
-        int month = Integer.parseInt(sdf.format(date));
+    private String transformMonthToString(int month) {
         String[] months = {"enero", "febrero", "marzo", "abril", "mayo", "junio", 
                            "julio", "agosto", "septiembre", "octubre", "noviembre", "diciembre"};
         if(month < 1 || month > months.length) {
@@ -150,48 +151,31 @@ public class UserService {
     }
 
     public Page<Complaint> searchComplaints(ComplaintSearch request) {
+        User user = authenticatedUser();
+        request.setUserId(user.getId());
+        return listings.search(request, user.getId());
+    }
+
+    public ComplaintSliceDTO sliceComplaints(ComplaintSearch request) {
+        User user = authenticatedUser();
+        request.setUserId(user.getId());
+        return listings.slice(request, user.getId());
+    }
+
+    public ComplaintCursorPage seekComplaints(ComplaintSearch request) {
+        User user = authenticatedUser();
+        request.setUserId(user.getId());
+        return listings.seek(request, user.getId());
+    }
+
+    private User authenticatedUser() {
         Authentication auth = SecurityContextHolder.getContext().getAuthentication();
         String mail = auth.getName();
         System.out.println("🔐 Nickname extraído del token: " + mail);
 
-        User user = usersRepo.findByEmail(mail).orElseThrow(()-> {
+        return usersRepo.findByEmail(mail).orElseThrow(()-> {
             System.out.println("❌ Usuario no encontrado en la base de datos.");
             return new RuntimeException("Usuario no encontrado");
         });
-        request.setUserId(user.getId());
-        Pageable pageable = createPageable(request);
-        
-        String searchTerm = request.getSearchTerm();
-        Integer status = request.getStatus();
-        // Case 1: Both search term and status provided
-        if (StringUtils.hasText(searchTerm) && status != null) {
-            return complaintsRepo.findByReferenceOrSubjectContainingIgnoreCaseAndStatus(
-                searchTerm, status, user.getId(), pageable
-            );
-        }
-        
-        // Case 2: Only search term provided
-        if (StringUtils.hasText(searchTerm)) {
-            return complaintsRepo.findByReferenceOrSubjectContainingIgnoreCase(
-                searchTerm, user.getId(), pageable);
-        }
-        
-        // Case 3: Only status provided
-        if (status != null) {
-            return complaintsRepo.findByStatus(status, user.getId(), pageable);
-        }
-        
-        // Case 4: No filters, return all
-        return complaintsRepo.findByUserOrderByRecievedDateDesc(request.getUserId(), pageable);
-    }
-    
-    private Pageable createPageable(ComplaintSearch request) {
-        Sort sort = Sort.by(
-            "desc".equalsIgnoreCase(request.getSortDirection()) ? 
-                Sort.Direction.DESC : Sort.Direction.ASC,
-            request.getSortBy()
-        );
-        
-        return PageRequest.of(request.getPage(), request.getSize(), sort);
     }
 }
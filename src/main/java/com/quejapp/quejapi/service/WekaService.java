@@ -3,6 +3,8 @@ package com.quejapp.quejapi.service;
 import org.springframework.core.io.ClassPathResource;
 import org.springframework.stereotype.Service;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
 import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import weka.classifiers.bayes.NaiveBayes;
@@ -16,12 +18,20 @@ import java.util.Random;
 
 @Service
 @RequiredArgsConstructor
-public class WekaService {
+public class WekaService implements MeterBinder {
     private static final Logger logger = LoggerFactory.getLogger(WekaService.class);
 
     private NaiveBayes classifier;
     private Instances trainingData;
 
+    // La validación cruzada es costosa: las evaluaciones simultáneas comparten un resultado
+    private final SingleFlight<String, String> evaluations = new SingleFlight<>("weka-evaluation");
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        evaluations.bindTo(registry);
+    }
+
     @PostConstruct
     public void init() {
         try {
@@ -103,6 +113,10 @@ public class WekaService {
     }
 
     public String evaluateModel() throws Exception {
+        return evaluations.execute("evaluateModel", this::crossValidate);
+    }
+
+    private String crossValidate() throws Exception {
         if (classifier == null || trainingData == null) {
             throw new IllegalStateException("El modelo no está entrenado");
         }
@@ -0,0 +1,71 @@
+package com.quejapp.quejapi.configuration;
+
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.authentication.AuthenticationProvider;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.quejapp.quejapi.model.Role;
+import com.quejapp.quejapi.service.JwtService;
+
+@WebMvcTest(controllers = SecurityConfigurationUnitTest.ActuatorStub.class)
+@Import({ SecurityConfiguration.class, SecurityConfigurationUnitTest.ActuatorStub.class })
+@DisplayName("SecurityConfiguration - Pruebas Unitarias")
+class SecurityConfigurationUnitTest {
+
+    // Responde en las rutas del actuator para probar solo las reglas de acceso
+    @RestController
+    static class ActuatorStub {
+
+        @GetMapping({ "/actuator/health", "/actuator/health/readiness", "/actuator/health/liveness" })
+        String health() {
+            return "UP";
+        }
+
+        @GetMapping("/actuator/metrics")
+        String metrics() {
+            return "metrics";
+        }
+    }
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private JwtService jwtService;
+
+    @MockitoBean
+    private UserDetailsService userDetailsService;
+
+    @MockitoBean
+    private AuthenticationProvider authenticationProvider;
+
+    @Test
+    @DisplayName("Las sondas de salud responden sin credenciales")
+    void testHealthProbesArePublic() throws Exception {
+        mockMvc.perform(get("/actuator/health/readiness")).andExpect(status().isOk());
+        mockMvc.perform(get("/actuator/health/liveness")).andExpect(status().isOk());
+        mockMvc.perform(get("/actuator/health")).andExpect(status().isOk());
+    }
+
+    @Test
+    @DisplayName("Las métricas siguen reservadas al administrador")
+    void testMetricsRequireAdministrator() throws Exception {
+        mockMvc.perform(get("/actuator/metrics")).andExpect(status().isForbidden());
+        mockMvc.perform(get("/actuator/metrics").with(user("usuario").authorities(() -> Role.USER.name())))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(get("/actuator/metrics").with(user("admin").authorities(() -> Role.ADMINISTRATOR.name())))
+                .andExpect(status().isOk());
+    }
+}
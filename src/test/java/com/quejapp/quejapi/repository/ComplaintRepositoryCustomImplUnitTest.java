@@ -0,0 +1,347 @@
+package com.quejapp.quejapi.repository;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+import java.util.Random;
+
+import org.bson.Document;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexField;
+import org.springframework.data.mongodb.core.index.IndexInfo;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.query.Query;
+
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import com.quejapp.quejapi.model.Complaint;
+
+import de.bwaldvogel.mongo.MongoServer;
+import de.bwaldvogel.mongo.backend.memory.MemoryBackend;
+
+@DisplayName("ComplaintRepositoryCustomImpl - Pruebas Unitarias")
+class ComplaintRepositoryCustomImplUnitTest {
+
+    private static final PageRequest PAGE = PageRequest.of(0, 10, Sort.by(Sort.Direction.ASC, "reference"));
+
+    private MongoServer server;
+    private MongoClient client;
+    private MongoTemplate mongoTemplate;
+    private ComplaintRepositoryCustomImpl repository;
+
+    @BeforeEach
+    void setUp() {
+        server = new MongoServer(new MemoryBackend());
+        client = MongoClients.create(server.bindAndGetConnectionString());
+        mongoTemplate = new MongoTemplate(client, "quejappdb");
+        repository = new ComplaintRepositoryCustomImpl(mongoTemplate);
+
+        mongoTemplate.insertAll(List.of(
+                complaint("1", "TRC-20240105-ABC123-1", "Factura duplicada", "u1", 0),
+                complaint("2", "TRC-20240105-XYZ789-2", "Demora en la entrega", "u1", 1),
+                complaint("3", "TRC-20240210-QWE456-0", "Cobro de factura", "u2", 0),
+                complaint("4", "TRC-20240301-RTY111-3", "Error axb en el portal", "u2", 0)));
+    }
+
+    @AfterEach
+    void tearDown() {
+        client.close();
+        server.shutdown();
+    }
+
+    @Test
+    @DisplayName("Una referencia se busca por prefijo anclado sin distinguir mayúsculas")
+    void shouldFindByReferencePrefix() {
+        Page<Complaint> page = repository.search(" trc-20240105 ", null, null, PAGE);
+
+        assertEquals(2, page.getTotalElements());
+        assertEquals(List.of("1", "2"), page.getContent().stream().map(Complaint::getId).toList());
+        assertEquals(List.of("2"), repository.search("TRC-20240105", 1, "u1", PAGE).getContent().stream()
+                .map(Complaint::getId).toList());
+        // El prefijo va anclado: un fragmento intermedio no es una referencia
+        assertEquals(0, repository.search("TRC-ABC123", null, null, PAGE).getTotalElements());
+    }
+
+    @Test
+    @DisplayName("El asunto se busca con los filtros de estado y usuario")
+    void shouldFindBySubjectWithFilters() {
+        assertEquals(List.of("1", "3"), repository.search("factura", null, null, PAGE).getContent().stream()
+                .map(Complaint::getId).sorted().toList());
+        assertEquals(List.of("3"), repository.search("factura", 0, "u2", PAGE).getContent().stream()
+                .map(Complaint::getId).toList());
+    }
+
+    @Test
+    @DisplayName("Los metacaracteres del término no se interpretan como expresión regular")
+    void shouldMatchTermLiterally() {
+        assertEquals(0, repository.search("a.b", null, null, PAGE).getTotalElements());
+        assertEquals(0, repository.search("(", null, null, PAGE).getTotalElements());
+    }
+
+    @Test
+    @DisplayName("Con índice de texto el asunto se busca con $text ordenado por relevancia")
+    void shouldUseTextQuerySortedByScore() {
+        MongoTemplate template = mock(MongoTemplate.class);
+        IndexOperations indexOps = mock(IndexOperations.class);
+        when(template.indexOps(Complaint.class)).thenReturn(indexOps);
+        when(indexOps.getIndexInfo()).thenReturn(List.of(
+                new IndexInfo(List.of(IndexField.text("subject", 1f)), "subject_text", false, false, "spanish")));
+        when(template.find(any(Query.class), eq(Complaint.class))).thenReturn(List.of());
+        ComplaintRepositoryCustomImpl textRepository = new ComplaintRepositoryCustomImpl(template);
+        textRepository.search("factura \"duplicada\" -cobro", 0, "u1", PAGE);
+        textRepository.search("factura", null, null, PAGE);
+
+        // Los índices se leen una sola vez
+        verify(indexOps).getIndexInfo();
+        ArgumentCaptor<Query> captor = ArgumentCaptor.forClass(Query.class);
+        verify(template, times(2)).find(captor.capture(), eq(Complaint.class));
+        Document query = captor.getAllValues().get(0).getQueryObject();
+        assertEquals("factura duplicada cobro", ((Document) query.get("$text")).get("$search"));
+        assertEquals(0, query.get("status"));
+        assertEquals("u1", query.get("user"));
+        assertEquals(List.of("score", "reference"),
+                List.copyOf(captor.getAllValues().get(0).getSortObject().keySet()));
+    }
+
+    @Test
+    @DisplayName("El listado sin total sabe si hay más páginas sin contar")
+    void shouldSliceWithoutCounting() {
+        PageRequest first = PageRequest.of(0, 2, Sort.by(Sort.Direction.ASC, "reference"));
+        Slice<Complaint> slice = repository.searchSlice(null, 0, null, first);
+        assertEquals(List.of("1", "3"), slice.getContent().stream().map(Complaint::getId).toList());
+        assertTrue(slice.hasNext());
+        Slice<Complaint> last = repository.searchSlice(null, 0, null, first.next());
+        assertEquals(List.of("4"), last.getContent().stream().map(Complaint::getId).toList());
+        assertFalse(last.hasNext());
+
+        assertEquals(1, repository.searchSlice("trc-20240105", 1, "u1", first).getNumberOfElements());
+        assertEquals(3, repository.count(null, 0, null));
+        assertEquals(2, repository.count("factura", null, null));
+        assertEquals(4, repository.estimatedCount());
+
+        MongoTemplate template = mock(MongoTemplate.class);
+        when(template.indexOps(Complaint.class)).thenReturn(mock(IndexOperations.class));
+        when(template.find(any(Query.class), eq(Complaint.class))).thenReturn(List.of());
+        new ComplaintRepositoryCustomImpl(template).searchSlice("factura", null, null, first);
+        verify(template, never()).count(any(Query.class), eq(Complaint.class));
+    }
+
+    @Test
+    @DisplayName("El listado por cursor recorre todas las páginas en orden sin saltos ni repeticiones")
+    void shouldSeekThroughAllPages() {
+        Random random = new Random(22);
+        List<Complaint> complaints = new ArrayList<>();
+        for (int i = 0; i < 120; i++) {
+            // Valores repetidos y nulos para ejercitar el desempate por _id
+            Complaint complaint = complaint(String.format("s%03d", i), "TRC-REF-" + random.nextInt(40),
+                    "Factura " + i, "u" + random.nextInt(3), random.nextInt(4));
+            complaint.setRecievedDate(random.nextInt(5) == 0 ? null : new Date(1_700_000_000_000L
+                    + random.nextInt(30) * 86_400_000L));
+            complaint.setDaysToResolve(random.nextInt(3) == 0 ? null : random.nextInt(10));
+            complaints.add(complaint);
+        }
+        mongoTemplate.insertAll(complaints);
+        complaints.addAll(mongoTemplate.find(new Query(), Complaint.class).stream()
+                .filter(c -> !c.getId().startsWith("s")).toList());
+
+        for (String property : new String[] { "recievedDate", "daysToResolve", "reference", "status", "id" }) {
+            for (Sort.Order order : List.of(Sort.Order.asc(property), Sort.Order.desc(property))) {
+                for (Integer status : new Integer[] { null, 1 }) {
+                    List<String> expected = complaints.stream()
+                            .filter(c -> status == null || status.equals(c.getStatus()))
+                            .sorted(oracle(order)).map(Complaint::getId).toList();
+                    List<String> seen = new ArrayList<>();
+                    ComplaintCursor cursor = null;
+                    for (int pages = 0; pages <= expected.size(); pages++) {
+                        List<Complaint> page = repository.seek(ComplaintFilter.builder().status(status).build(), order, cursor, 9);
+                        page.forEach(c -> seen.add(c.getId()));
+                        if (page.size() < 9) {
+                            break;
+                        }
+                        // El cursor viaja como token opaco
+                        cursor = ComplaintCursor.decode(ComplaintCursor.of(page.get(8), order).encode(order), order);
+                    }
+                    assertEquals(expected, seen, order + "/" + status);
+                }
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("El cursor combina el término con el filtro de usuario y rechaza tokens de otro orden")
+    void shouldSeekWithTermAndRejectForeignCursor() {
+        Sort.Order order = Sort.Order.asc("reference");
+        List<Complaint> first = repository.seek(ComplaintFilter.builder().searchTerm("factura").build(), order, null, 1);
+        assertEquals(List.of("1"), first.stream().map(Complaint::getId).toList());
+        String token = ComplaintCursor.of(first.get(0), order).encode(order);
+        assertEquals(List.of("3"), repository.seek(ComplaintFilter.builder().searchTerm("factura").build(), order,
+                ComplaintCursor.decode(token, order), 5).stream().map(Complaint::getId).toList());
+        assertEquals(List.of("2"), repository.seek(ComplaintFilter.builder().searchTerm("trc-20240105").user("u1").build(), order,
+                ComplaintCursor.decode(token, order), 5).stream().map(Complaint::getId).toList());
+
+        assertThrows(IllegalArgumentException.class, () -> ComplaintCursor.decode(token, Sort.Order.desc("reference")));
+        assertThrows(IllegalArgumentException.class, () -> ComplaintCursor.decode(token, Sort.Order.asc("status")));
+        assertThrows(IllegalArgumentException.class, () -> ComplaintCursor.decode("no-es-un-cursor", order));
+        assertNull(ComplaintCursor.decode(null, order));
+    }
+
+    @Test
+    @DisplayName("Cualquier combinación de filtros coincide con el filtrado en memoria")
+    void shouldFilterAnyCombination() {
+        Random random = new Random(25);
+        List<Complaint> complaints = new ArrayList<>(mongoTemplate.find(new Query(), Complaint.class));
+        for (int i = 0; i < 150; i++) {
+            Complaint complaint = complaint(String.format("f%03d", i), String.format("TRC-2024%04d-F-%d", i, i % 4),
+                    random.nextBoolean() ? "Factura " + i : "Demora " + i, "u" + random.nextInt(3), random.nextInt(4));
+            complaint.setType(random.nextInt(3));
+            complaint.setCategory(random.nextInt(3));
+            complaint.setRecievedDate(new Date(1_704_067_200_000L + random.nextInt(60) * 86_400_000L
+                    + random.nextInt(86_400_000)));
+            complaint.setEmployee(random.nextBoolean() ? "e" + random.nextInt(2) : null);
+            complaint.setDepartment("d" + random.nextInt(2));
+            complaint.setPrediction(random.nextBoolean() ? "Queja" : "Reclamo");
+            complaints.add(complaint);
+        }
+        mongoTemplate.insertAll(complaints.subList(4, complaints.size()));
+
+        PageRequest pageable = PageRequest.of(0, 500, Sort.by(Sort.Direction.DESC, "recievedDate"));
+        for (int i = 0; i < 200; i++) {
+            ComplaintFilter filter = ComplaintFilter.builder()
+                    .searchTerm(random.nextInt(3) == 0 ? (random.nextBoolean() ? "factura 1" : "trc-20240") : null)
+                    .user(random.nextBoolean() ? "u" + random.nextInt(3) : null)
+                    .status(random.nextBoolean() ? random.nextInt(4) : null)
+                    .type(random.nextInt(3) == 0 ? random.nextInt(3) : null)
+                    .category(random.nextInt(3) == 0 ? random.nextInt(3) : null)
+                    .startDate(random.nextBoolean() ? LocalDate.of(2024, 1, 1).plusDays(random.nextInt(30)) : null)
+                    .endDate(random.nextBoolean() ? LocalDate.of(2024, 1, 31).plusDays(random.nextInt(30)) : null)
+                    .employee(random.nextInt(4) == 0 ? "e" + random.nextInt(2) : null)
+                    .department(random.nextInt(4) == 0 ? "d" + random.nextInt(2) : null)
+                    .prediction(random.nextInt(4) == 0 ? "Queja" : null)
+                    .build();
+            List<String> expected = complaints.stream().filter(c -> matches(filter, c))
+                    .sorted(Comparator.comparing(Complaint::getRecievedDate, Comparator.nullsFirst(Comparator.naturalOrder()))
+                            .reversed())
+                    .map(Complaint::getId).toList();
+
+            Page<Complaint> page = repository.filter(filter, pageable);
+            assertEquals(expected, page.getContent().stream().map(Complaint::getId).toList(), filter.toString());
+            assertEquals(expected.size(), page.getTotalElements(), filter.toString());
+            assertEquals(expected.size(), repository.count(filter), filter.toString());
+        }
+    }
+
+    @Test
+    @DisplayName("El constructor ordena los predicados como los índices y elige el índice del orden")
+    void shouldOrderPredicatesAndHintListingIndex() {
+        Sort recent = Sort.by(Sort.Direction.DESC, "recievedDate");
+        ComplaintFilter filter = ComplaintFilter.builder().department("d1").searchTerm("factura").status(2)
+                .user("u1").startDate(LocalDate.of(2024, 1, 1)).build();
+        Query query = ComplaintQueryBuilder.query(filter, recent);
+
+        List<String> fields = ((List<?>) query.getQueryObject().get("$and")).stream()
+                .map(predicate -> ((Document) predicate).keySet().iterator().next()).toList();
+        assertEquals(List.of("user", "status", "recievedDate", "department", "$or"), fields);
+        assertEquals("user_status_recievedDate", query.getHint());
+
+        assertEquals("user_recievedDate_id", ComplaintQueryBuilder.hint(ComplaintFilter.builder().user("u1").build(), recent));
+        assertEquals("status_recievedDate", ComplaintQueryBuilder.hint(ComplaintFilter.builder().status(1).build(), recent));
+        assertEquals("recievedDate_id", ComplaintQueryBuilder.hint(ComplaintFilter.builder().type(1)
+                .endDate(LocalDate.of(2024, 1, 31)).build(), recent));
+        // Sin usuario, estado ni fechas ningún prefijo queda acotado y elige el planificador
+        assertNull(ComplaintQueryBuilder.hint(ComplaintFilter.builder().type(1).category(2).build(), recent));
+        assertNull(ComplaintQueryBuilder.hint(ComplaintFilter.builder().employee("e1").searchTerm("factura").build(),
+                recent));
+        assertNull(ComplaintQueryBuilder.hint(new ComplaintFilter(), recent));
+        // Un prefijo de referencia sin usuario usa el índice de reference; otros órdenes los elige el planificador
+        assertNull(ComplaintQueryBuilder.hint(ComplaintFilter.builder().searchTerm("TRC-2024").build(), recent));
+        assertNull(ComplaintQueryBuilder.hint(ComplaintFilter.builder().searchTerm("TRC-2024").status(1).build(),
+                recent));
+        assertNull(ComplaintQueryBuilder.hint(ComplaintFilter.builder().user("u1").build(),
+                Sort.by(Sort.Direction.ASC, "reference")));
+    }
+
+    @Test
+    @DisplayName("El término se busca literalmente aunque contenga metacaracteres")
+    void shouldFilterTermLiterally() {
+        mongoTemplate.insertAll(List.of(
+                complaint("m1", "TRC-20240301-A-1", "Cargo a.b( duplicado", "u1", 0),
+                complaint("m2", "TRC-20240301-A-2", "Cargo aXbY duplicado", "u1", 0)));
+
+        Page<Complaint> page = repository.filter(ComplaintFilter.builder().searchTerm("A.B(").build(),
+                PageRequest.of(0, 10));
+
+        assertEquals(List.of("m1"), page.getContent().stream().map(Complaint::getId).toList());
+    }
+
+    @Test
+    @DisplayName("Una palabra con guion no se confunde con una referencia")
+    void shouldSearchHyphenatedWordsInSubject() {
+        mongoTemplate.insert(complaint("h1", "TRC-20240301-B12CD3-1", "Ruta sur-norte cancelada", "u1", 0));
+
+        for (String term : new String[] { "sur-norte", "bus-", "con-", "abc-123", "trc-abc" }) {
+            assertFalse(ComplaintQueryBuilder.isReference(term), term);
+        }
+        for (String term : new String[] { "TRC-", "trc-2024", "TRC-20240301-B1", "TRC-20240301-B12CD3-1" }) {
+            assertTrue(ComplaintQueryBuilder.isReference(term), term);
+        }
+        Page<Complaint> page = repository.filter(ComplaintFilter.builder().searchTerm("sur-norte").build(), PAGE);
+        assertEquals(List.of("h1"), page.getContent().stream().map(Complaint::getId).toList());
+    }
+
+    private static boolean matches(ComplaintFilter filter, Complaint c) {
+        String term = filter.getSearchTerm();
+        boolean termMatches = term == null || (ComplaintQueryBuilder.isReference(term)
+                ? c.getReference().startsWith(term.toUpperCase())
+                : c.getReference().toLowerCase().contains(term) || c.getSubject().toLowerCase().contains(term));
+        long start = filter.getStartDate() == null ? Long.MIN_VALUE
+                : filter.getStartDate().atStartOfDay(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        long end = filter.getEndDate() == null ? Long.MAX_VALUE
+                : filter.getEndDate().plusDays(1).atStartOfDay(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        boolean dated = filter.getStartDate() == null && filter.getEndDate() == null
+                || c.getRecievedDate() != null && c.getRecievedDate().getTime() >= start
+                        && c.getRecievedDate().getTime() < end;
+        return termMatches && dated
+                && (filter.getUser() == null || filter.getUser().equals(c.getUser()))
+                && (filter.getStatus() == null || filter.getStatus().equals(c.getStatus()))
+                && (filter.getType() == null || filter.getType().equals(c.getType()))
+                && (filter.getCategory() == null || filter.getCategory().equals(c.getCategory()))
+                && (filter.getEmployee() == null || filter.getEmployee().equals(c.getEmployee()))
+                && (filter.getDepartment() == null || filter.getDepartment().equals(c.getDepartment()))
+                && (filter.getPrediction() == null || filter.getPrediction().equals(c.getPrediction()));
+    }
+
+    // Orden de MongoDB: nulos primero en ascendente, _id como desempate en la misma dirección
+    private static Comparator<Complaint> oracle(Sort.Order order) {
+        Comparator<Complaint> byId = Comparator.comparing(Complaint::getId);
+        Comparator<Complaint> comparator = switch (order.getProperty()) {
+            case "recievedDate" -> Comparator.comparing(Complaint::getRecievedDate,
+                    Comparator.nullsFirst(Comparator.naturalOrder())).thenComparing(byId);
+            case "daysToResolve" -> Comparator.comparing(Complaint::getDaysToResolve,
+                    Comparator.nullsFirst(Comparator.naturalOrder())).thenComparing(byId);
+            case "reference" -> Comparator.comparing(Complaint::getReference).thenComparing(byId);
+            case "status" -> Comparator.comparing(Complaint::getStatus).thenComparing(byId);
+            default -> byId;
+        };
+        return order.isAscending() ? comparator : comparator.reversed();
+    }
+
+    private static Complaint complaint(String id, String reference, String subject, String user, int status) {
+        return Complaint.builder().id(id).reference(reference).subject(subject).user(user).status(status).build();
+    }
+}
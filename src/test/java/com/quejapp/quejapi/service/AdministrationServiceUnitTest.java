@@ -4,6 +4,7 @@ import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 
+import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
@@ -13,23 +14,32 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.mockito.junit.jupiter.MockitoSettings;
 import org.mockito.quality.Strictness;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
 
+import com.quejapp.quejapi.dto.ComplaintCursorPage;
 import com.quejapp.quejapi.dto.ComplaintSearch;
+import com.quejapp.quejapi.dto.ComplaintSliceDTO;
 import com.quejapp.quejapi.dto.ComplaintUpdate;
 import com.quejapp.quejapi.model.Complaint;
 import com.quejapp.quejapi.model.Trace;
 import com.quejapp.quejapi.model.User;
+import com.quejapp.quejapi.repository.ComplaintCursor;
+import com.quejapp.quejapi.repository.ComplaintFilter;
 import com.quejapp.quejapi.repository.ComplaintRepository;
 import com.quejapp.quejapi.repository.UserRepository;
 
@@ -44,13 +54,21 @@ class AdministrationServiceUnitTest {
     @Mock
     private UserRepository usersRepo;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private ComplaintSearchIndex searchIndex;
+
+    @Mock
+    private ComplaintCountCache countCache;
+
     @Mock
     private SecurityContext securityContext;
 
     @Mock
     private Authentication authentication;
 
-    @InjectMocks
     private AdministrationService adminService;
 
     private User testEmployee;
@@ -59,6 +77,9 @@ class AdministrationServiceUnitTest {
 
     @BeforeEach
     void setUp() {
+        adminService = new AdministrationService(complaintsRepo, usersRepo, eventPublisher,
+                new ComplaintListingSupport(complaintsRepo, searchIndex, countCache), null);
+
         testEmployee = new User();
         testEmployee.setId("emp123");
         testEmployee.setFirstname("Admin");
@@ -98,9 +119,10 @@ class AdministrationServiceUnitTest {
         complaints.add(testComplaint);
         Page<Complaint> page = new PageImpl<>(complaints);
 
-        when(complaintsRepo.findByReferenceOrSubjectContainingIgnoreCaseAndStatus(
-            eq("test"), eq(1), any(Pageable.class)))
-            .thenReturn(page);
+        ComplaintFilter filter = ComplaintFilter.builder().searchTerm("test").status(1).build();
+        when(complaintsRepo.filter(eq(filter), any(Pageable.class))).thenReturn(page);
+
+        ReflectionTestUtils.setField(listingsOf(adminService), "searchMode", ComplaintListingSupport.SearchMode.REGEX);
 
         // Act
         Page<Complaint> result = adminService.searchComplaints(request);
@@ -108,8 +130,134 @@ class AdministrationServiceUnitTest {
         // Assert
         assertNotNull(result);
         assertEquals(1, result.getContent().size());
-        verify(complaintsRepo).findByReferenceOrSubjectContainingIgnoreCaseAndStatus(
-            eq("test"), eq(1), any(Pageable.class));
+        verify(complaintsRepo).filter(eq(filter), any(Pageable.class));
+    }
+
+    @Test
+    @DisplayName("Buscar quejas - En modo texto usa la búsqueda indexada")
+    void testSearchComplaints_TextMode() {
+        // Arrange
+        ComplaintSearch request = new ComplaintSearch();
+        request.setSearchTerm("test");
+        request.setStatus(1);
+        request.setPage(0);
+        request.setSize(10);
+        request.setSortBy("recievedDate");
+        request.setSortDirection("desc");
+
+        Page<Complaint> page = new PageImpl<>(List.of(testComplaint));
+        when(complaintsRepo.search(eq("test"), eq(1), isNull(), any(Pageable.class))).thenReturn(page);
+
+        // Act
+        Page<Complaint> result = adminService.searchComplaints(request);
+
+        // Assert
+        assertEquals(1, result.getContent().size());
+        verify(complaintsRepo, never()).filter(any(), any(Pageable.class));
+    }
+
+    @Test
+    @DisplayName("Buscar quejas - En modo índice responde el índice de trigramas sin consultar el repositorio")
+    void testSearchComplaints_IndexMode() {
+        // Arrange
+        ComplaintSearch request = new ComplaintSearch();
+        request.setSearchTerm("test");
+        request.setStatus(1);
+        request.setPage(0);
+        request.setSize(10);
+        request.setSortBy("recievedDate");
+        request.setSortDirection("desc");
+
+        when(searchIndex.search(eq("test"), eq(1), isNull(), any(Pageable.class)))
+            .thenReturn(Optional.of(new PageImpl<>(List.of(testComplaint))));
+
+        // Act
+        Page<Complaint> result = adminService.searchComplaints(request);
+
+        // Assert
+        assertEquals(1, result.getContent().size());
+        verify(complaintsRepo, never()).search(anyString(), any(), any(), any(Pageable.class));
+    }
+
+    @Test
+    @DisplayName("Listar quejas por cursor - Devuelve el token de la última queja de la página")
+    void testSeekComplaints_ReturnsNextCursor() {
+        // Arrange
+        ComplaintSearch request = new ComplaintSearch();
+        request.setStatus(0);
+        request.setSize(2);
+        request.setSortBy("recievedDate");
+        request.setSortDirection("desc");
+
+        Complaint second = new Complaint();
+        second.setId("complaint456");
+        second.setRecievedDate(new Date(0));
+        Sort.Order order = Sort.Order.desc("recievedDate");
+        when(complaintsRepo.seek(eq(ComplaintFilter.builder().status(0).build()), eq(order), isNull(), eq(3)))
+            .thenReturn(List.of(testComplaint, second, new Complaint()));
+
+        // Act
+        ComplaintCursorPage result = adminService.seekComplaints(request);
+
+        // Assert
+        assertEquals(2, result.getContent().size());
+        assertTrue(result.isHasNext());
+        assertEquals(new ComplaintCursor(new Date(0), "complaint456"),
+            ComplaintCursor.decode(result.getNextCursor(), order));
+        verify(complaintsRepo, never()).count();
+    }
+
+    @Test
+    @DisplayName("Listar quejas sin total - Sin filtros usa el total estimado de la colección")
+    void testSliceComplaints_UnfilteredUsesEstimatedCount() {
+        // Arrange
+        ComplaintSearch request = new ComplaintSearch();
+        request.setPage(0);
+        request.setSize(10);
+        request.setSortBy("recievedDate");
+        request.setSortDirection("desc");
+
+        when(complaintsRepo.filterSlice(eq(new ComplaintFilter()), any(Pageable.class)))
+            .thenReturn(new SliceImpl<>(List.of(testComplaint), PageRequest.of(0, 10), true));
+        when(complaintsRepo.estimatedCount()).thenReturn(120L);
+
+        // Act
+        ComplaintSliceDTO result = adminService.sliceComplaints(request);
+
+        // Assert
+        assertEquals(1, result.getContent().size());
+        assertTrue(result.isHasNext());
+        assertEquals(120L, result.getTotalElements());
+        assertFalse(result.isTotalExact());
+        verify(complaintsRepo, never()).count(any(ComplaintFilter.class));
+        verifyNoInteractions(countCache);
+    }
+
+    @Test
+    @DisplayName("Listar quejas sin total - Con filtros usa el total guardado por filtro")
+    void testSliceComplaints_FilteredUsesCountCache() {
+        // Arrange
+        ComplaintSearch request = new ComplaintSearch();
+        request.setSearchTerm(" factura ");
+        request.setStatus(1);
+        request.setPage(0);
+        request.setSize(10);
+        request.setSortBy("recievedDate");
+        request.setSortDirection("desc");
+        ReflectionTestUtils.setField(listingsOf(adminService), "searchMode", ComplaintListingSupport.SearchMode.TEXT);
+
+        when(complaintsRepo.searchSlice(eq("factura"), eq(1), isNull(), any(Pageable.class)))
+            .thenReturn(new SliceImpl<>(List.of(testComplaint), PageRequest.of(0, 10), false));
+        when(countCache.total(eq(ComplaintFilter.builder().searchTerm("factura").status(1).build()), any()))
+            .thenReturn(new ComplaintCountCache.Total(1, false));
+
+        // Act
+        ComplaintSliceDTO result = adminService.sliceComplaints(request);
+
+        // Assert
+        assertEquals(1L, result.getTotalElements());
+        assertFalse(result.isTotalExact());
+        assertFalse(result.isHasNext());
     }
 
     @Test
@@ -125,15 +273,48 @@ class AdministrationServiceUnitTest {
         List<Complaint> complaints = new ArrayList<>();
         Page<Complaint> page = new PageImpl<>(complaints);
 
-        when(complaintsRepo.findAllByOrderByRecievedDateDesc(any(Pageable.class)))
-            .thenReturn(page);
+        when(complaintsRepo.filter(eq(new ComplaintFilter()), any(Pageable.class))).thenReturn(page);
 
         // Act
         Page<Complaint> result = adminService.searchComplaints(request);
 
         // Assert
         assertNotNull(result);
-        verify(complaintsRepo).findAllByOrderByRecievedDateDesc(any(Pageable.class));
+        verify(complaintsRepo).filter(eq(new ComplaintFilter()), any(Pageable.class));
+        verifyNoInteractions(searchIndex);
+    }
+
+    @Test
+    @DisplayName("Buscar quejas - Los filtros de atributos usan el constructor de consultas aunque haya término")
+    void testSearchComplaints_AttributeFiltersBypassIndex() {
+        // Arrange
+        ComplaintSearch request = new ComplaintSearch();
+        request.setSearchTerm("test");
+        request.setType(1);
+        request.setCategory(2);
+        request.setStartDate(LocalDate.of(2024, 1, 1));
+        request.setEndDate(LocalDate.of(2024, 1, 31));
+        request.setEmployee(" emp123 ");
+        request.setDepartment("IT");
+        request.setPrediction("Queja");
+        request.setPage(0);
+        request.setSize(10);
+        request.setSortBy("recievedDate");
+        request.setSortDirection("desc");
+
+        ComplaintFilter filter = ComplaintFilter.builder().searchTerm("test").type(1).category(2)
+            .startDate(LocalDate.of(2024, 1, 1)).endDate(LocalDate.of(2024, 1, 31))
+            .employee("emp123").department("IT").prediction("Queja").build();
+        when(complaintsRepo.filter(eq(filter), any(Pageable.class)))
+            .thenReturn(new PageImpl<>(List.of(testComplaint)));
+
+        // Act
+        Page<Complaint> result = adminService.searchComplaints(request);
+
+        // Assert
+        assertEquals(1, result.getContent().size());
+        verifyNoInteractions(searchIndex);
+        verify(complaintsRepo, never()).search(anyString(), any(), any(), any(Pageable.class));
     }
 
     @Test
@@ -176,6 +357,11 @@ class AdministrationServiceUnitTest {
         assertTrue(result.getTraceability().size() > 0);
 
         verify(complaintsRepo).save(any(Complaint.class));
+        ArgumentCaptor<ComplaintChangedEvent> event = ArgumentCaptor.forClass(ComplaintChangedEvent.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        assertEquals(0, event.getValue().previous().getStatus());
+        assertNull(event.getValue().previous().getDaysToResolve());
+        assertSame(result, event.getValue().current());
     }
 
     @Test
@@ -325,5 +511,8 @@ class AdministrationServiceUnitTest {
         assertEquals("admin@test.com", lastTrace.getPerformedBy());
         assertTrue(lastTrace.getStatus().contains("Resuelto"));
     }
-}
 
+    private static ComplaintListingSupport listingsOf(AdministrationService service) {
+        return (ComplaintListingSupport) ReflectionTestUtils.getField(service, "listings");
+    }
+}
@@ -0,0 +1,123 @@
+package com.quejapp.quejapi.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.Random;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import com.quejapp.quejapi.dto.PQRSStatisticsDTO;
+import com.quejapp.quejapi.model.Complaint;
+
+import de.bwaldvogel.mongo.MongoServer;
+import de.bwaldvogel.mongo.backend.memory.MemoryBackend;
+
+@DisplayName("ComplaintColumnStore - Pruebas Unitarias")
+class ComplaintColumnStoreUnitTest {
+
+    private MongoServer server;
+    private MongoClient client;
+    private MongoTemplate mongoTemplate;
+    private ComplaintColumnStore store;
+    private ColumnarStatisticsEngine columnarEngine;
+    private InMemoryStatisticsEngine memoryEngine;
+
+    @BeforeEach
+    void setUp() {
+        server = new MongoServer(new MemoryBackend());
+        client = MongoClients.create(server.bindAndGetConnectionString());
+        mongoTemplate = new MongoTemplate(client, "quejappdb");
+
+        store = new ComplaintColumnStore(mongoTemplate);
+        ReflectionTestUtils.setField(store, "enabled", true);
+        columnarEngine = new ColumnarStatisticsEngine(store);
+        memoryEngine = new InMemoryStatisticsEngine(mongoTemplate);
+        mongoTemplate.insertAll(PQRSStatisticsAccumulatorUnitTest.fixture(new Random(21), 2500, 12));
+    }
+
+    @AfterEach
+    void tearDown() {
+        client.close();
+        server.shutdown();
+    }
+
+    @Test
+    @DisplayName("El escaneo columnar coincide con el cálculo sobre las quejas")
+    void testColumnarMatchesMemoryEngine() {
+        assertEquals(2500, store.reload());
+
+        assertRangesMatch();
+    }
+
+    @Test
+    @DisplayName("Las escrituras de quejas actualizan las columnas")
+    void testWritesUpdateColumns() {
+        store.reload();
+
+        Complaint created = mongoTemplate.insert(Complaint.builder()
+                .status(0).type(300).category(-4).recievedDate(new Date()).build());
+        store.onComplaintChanged(new ComplaintChangedEvent(null, created));
+
+        Complaint stored = mongoTemplate.findAll(Complaint.class).get(7);
+        Complaint previous = stored.toBuilder().build();
+        stored.setStatus(2);
+        stored.setDaysToResolve(9);
+        stored.setDaysfromExpiration(6);
+        mongoTemplate.save(stored);
+        store.onComplaintChanged(new ComplaintChangedEvent(previous, stored));
+
+        assertEquals(2501, store.size());
+        assertRangesMatch();
+    }
+
+    @Test
+    @DisplayName("El escaneo paralelo por bloques de filas coincide con el secuencial")
+    void testParallelScanMatchesSequential() {
+        store.reload();
+        LocalDate today = LocalDate.now();
+        ReflectionTestUtils.setField(store, "parallelChunkRows", 0);
+        PQRSStatisticsDTO all = columnarEngine.compute(null, null);
+        PQRSStatisticsDTO range = columnarEngine.compute(today.minusDays(150), today.minusDays(40));
+
+        ReflectionTestUtils.setField(store, "parallelChunkRows", 97);
+        assertEquals(all, columnarEngine.compute(null, null));
+        assertEquals(range, columnarEngine.compute(today.minusDays(150), today.minusDays(40)));
+    }
+
+    @Test
+    @DisplayName("Sin cargar el almacén el motor columnar falla")
+    void testNotLoadedFails() {
+        assertFalse(store.isLoaded());
+        assertThrows(IllegalStateException.class, () -> columnarEngine.compute(null, null));
+    }
+
+    private void assertRangesMatch() {
+        LocalDate today = LocalDate.now();
+        assertEquivalent(memoryEngine.compute(null, null), columnarEngine.compute(null, null));
+        assertEquivalent(memoryEngine.compute(today.minusDays(150), today.minusDays(40)),
+                columnarEngine.compute(today.minusDays(150), today.minusDays(40)));
+        assertEquivalent(memoryEngine.compute(today.minusDays(10), null), columnarEngine.compute(today.minusDays(10), null));
+        assertEquivalent(memoryEngine.compute(null, today.minusDays(300)),
+                columnarEngine.compute(null, today.minusDays(300)));
+    }
+
+    private static void assertEquivalent(PQRSStatisticsDTO expected, PQRSStatisticsDTO actual) {
+        Comparator<PQRSStatisticsDTO.EmployeeStatsDTO> byId =
+                Comparator.comparing(PQRSStatisticsDTO.EmployeeStatsDTO::getEmployeeId);
+        if (expected.getTopEmployees() != null) {
+            expected.getTopEmployees().sort(byId);
+            actual.getTopEmployees().sort(byId);
+        }
+        assertEquals(expected, actual);
+    }
+}
@@ -0,0 +1,86 @@
+package com.quejapp.quejapi.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.quejapp.quejapi.model.Complaint;
+import com.quejapp.quejapi.repository.ComplaintFilter;
+
+@DisplayName("ComplaintCountCache - Pruebas Unitarias")
+class ComplaintCountCacheUnitTest {
+
+    private static final Instant NOW = Instant.parse("2024-03-01T10:00:00Z");
+
+    private ComplaintCountCache cache;
+    private AtomicLong counted;
+
+    @BeforeEach
+    void setUp() {
+        cache = new ComplaintCountCache();
+        cache.clock = Clock.fixed(NOW, ZoneId.of("UTC"));
+        counted = new AtomicLong();
+    }
+
+    @Test
+    @DisplayName("Debe contar una sola vez por filtro mientras no haya escrituras")
+    void shouldCountOncePerFilter() {
+        assertEquals(new ComplaintCountCache.Total(5, true), cache.total(filter("factura", 0, null), this::count));
+        assertEquals(new ComplaintCountCache.Total(5, true), cache.total(filter("factura", 0, null), this::count));
+        assertEquals(1, counted.get());
+
+        // Otro filtro es otra entrada
+        cache.total(filter("factura", 1, null), this::count);
+        cache.total(filter("factura", 0, "u1"), this::count);
+        assertEquals(3, counted.get());
+    }
+
+    @Test
+    @DisplayName("Tras una escritura el total se marca como no exacto hasta que vence")
+    void shouldFlagStaleTotalsUntilExpired() {
+        cache.total(filter(null, 2, null), this::count);
+        cache.onComplaintChanged(new ComplaintChangedEvent(null, Complaint.builder().id("1").status(2).build()));
+
+        assertEquals(new ComplaintCountCache.Total(5, false), cache.total(filter(null, 2, null), this::count));
+        assertEquals(1, counted.get());
+
+        cache.clock = Clock.fixed(NOW.plus(Duration.ofMinutes(2)), ZoneId.of("UTC"));
+        assertEquals(new ComplaintCountCache.Total(5, true), cache.total(filter(null, 2, null), this::count));
+        assertEquals(2, counted.get());
+        assertTrue(cache.total(filter(null, 2, null), this::count).exact());
+    }
+
+    @Test
+    @DisplayName("Debe descartar los filtros menos usados al superar el máximo")
+    void shouldEvictLeastRecentlyUsed() {
+        ReflectionTestUtils.setField(cache, "maxEntries", 2);
+        cache.total(filter("a", null, null), this::count);
+        cache.total(filter("b", null, null), this::count);
+        cache.total(filter("a", null, null), this::count);
+        cache.total(filter("c", null, null), this::count);
+
+        assertEquals(2, cache.size());
+        cache.total(filter("a", null, null), this::count);
+        assertEquals(3, counted.get());
+        cache.total(filter("b", null, null), this::count);
+        assertEquals(4, counted.get());
+    }
+
+    private static ComplaintFilter filter(String term, Integer status, String user) {
+        return ComplaintFilter.builder().searchTerm(term).status(status).user(user).build();
+    }
+
+    private long count() {
+        counted.incrementAndGet();
+        return 5;
+    }
+}
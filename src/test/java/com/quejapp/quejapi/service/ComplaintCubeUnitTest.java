@@ -0,0 +1,154 @@
+package com.quejapp.quejapi.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import com.quejapp.quejapi.dto.ComplaintCubeDTO;
+import com.quejapp.quejapi.dto.ComplaintCubeQuery;
+import com.quejapp.quejapi.dto.PQRSStatisticsDTO;
+import com.quejapp.quejapi.model.Complaint;
+
+import de.bwaldvogel.mongo.MongoServer;
+import de.bwaldvogel.mongo.backend.memory.MemoryBackend;
+
+@DisplayName("ComplaintCube - Pruebas Unitarias")
+class ComplaintCubeUnitTest {
+
+    private MongoServer server;
+    private MongoClient client;
+    private MongoTemplate mongoTemplate;
+    private ComplaintCube cube;
+
+    @BeforeEach
+    void setUp() {
+        server = new MongoServer(new MemoryBackend());
+        client = MongoClients.create(server.bindAndGetConnectionString());
+        mongoTemplate = new MongoTemplate(client, "quejappdb");
+        cube = new ComplaintCube(mongoTemplate);
+    }
+
+    @AfterEach
+    void tearDown() {
+        client.close();
+        server.shutdown();
+    }
+
+    @Test
+    @DisplayName("Agregar por una dimensión coincide con las estadísticas generales")
+    void testRollUpMatchesStatistics() {
+        List<Complaint> complaints = PQRSStatisticsAccumulatorUnitTest.fixture(new Random(5), 300, 6);
+        mongoTemplate.insertAll(complaints);
+        PQRSStatisticsAccumulator accumulator = new PQRSStatisticsAccumulator();
+        complaints.forEach(accumulator::add);
+        PQRSStatisticsDTO statistics = accumulator.toStatistics();
+        cube.load();
+
+        assertEquals(300L, cube.query(new ComplaintCubeQuery()).getTotal());
+        assertEquals(statistics.getPqrsByType(), counts(cube.query(groupBy(ComplaintCube.TYPE)), ComplaintCube.TYPE));
+        assertEquals(statistics.getPqrsByStatus(),
+                counts(cube.query(groupBy(ComplaintCube.STATUS)), ComplaintCube.STATUS));
+        assertEquals(statistics.getPqrsByCategory(),
+                counts(cube.query(groupBy(ComplaintCube.CATEGORY)), ComplaintCube.CATEGORY));
+    }
+
+    @Test
+    @DisplayName("Corte por tipo, categoría y estado agrupado por mes y departamento")
+    void testSliceByMonthAndDepartment() {
+        insert("1", 2, 3, 1, LocalDate.of(2025, 1, 10), "Operaciones");
+        insert("2", 2, 3, 1, LocalDate.of(2025, 1, 20), "Operaciones");
+        insert("3", 2, 3, 1, LocalDate.of(2025, 2, 5), "Planeación");
+        insert("4", 2, 3, 2, LocalDate.of(2025, 2, 6), "Planeación");
+        insert("5", 1, 3, 1, LocalDate.of(2025, 2, 7), "Planeación");
+        insert("6", 2, 3, 1, LocalDate.of(2025, 3, 1), null);
+        insert("7", 2, 3, 1, LocalDate.of(2024, 12, 31), "Operaciones");
+        cube.load();
+
+        ComplaintCubeDTO result = cube.query(ComplaintCubeQuery.builder()
+                .groupBy(List.of(ComplaintCube.MONTH, ComplaintCube.DEPARTMENT))
+                .type(2).category(3).status(1)
+                .fromMonth(YearMonth.of(2025, 1)).toMonth(YearMonth.of(2025, 3))
+                .build());
+
+        assertEquals(4L, result.getTotal());
+        assertEquals(List.of(ComplaintCube.MONTH, ComplaintCube.DEPARTMENT), result.getDimensions());
+        assertEquals(3, result.getCells().size());
+        assertEquals(Map.of("month", "2025-01", "department", "Operaciones"), result.getCells().get(0).getCoordinates());
+        assertEquals(2L, result.getCells().get(0).getCount());
+        assertEquals(Map.of("month", "2025-02", "department", "Planeación"), result.getCells().get(1).getCoordinates());
+        assertEquals(Map.of("month", "2025-03", "department", ComplaintCube.NO_DEPARTMENT),
+                result.getCells().get(2).getCoordinates());
+
+        ComplaintCubeDTO planning = cube.query(ComplaintCubeQuery.builder().department("Planeación").build());
+        assertEquals(3L, planning.getTotal());
+        assertEquals(1, planning.getCells().size());
+    }
+
+    @Test
+    @DisplayName("Los eventos de escritura mantienen el cubo igual a una recarga")
+    void testIncrementalMaintenance() {
+        Complaint created = insert("1", 2, 3, 0, LocalDate.of(2025, 1, 10), null);
+        cube.load();
+
+        Complaint other = insert("2", 0, 1, 0, LocalDate.of(2025, 2, 1), null);
+        cube.onComplaintChanged(new ComplaintChangedEvent(null, other));
+        Complaint resolved = created.toBuilder().status(2).department("Operaciones").build();
+        mongoTemplate.save(resolved);
+        cube.onComplaintChanged(new ComplaintChangedEvent(created, resolved));
+
+        ComplaintCubeQuery query = groupBy(ComplaintCube.STATUS, ComplaintCube.DEPARTMENT, ComplaintCube.MONTH);
+        ComplaintCubeDTO incremental = cube.query(query);
+        cube.load();
+        assertEquals(cube.query(query), incremental);
+        assertEquals(2L, incremental.getTotal());
+        assertEquals(Map.of("status", "Resuelta", "department", "Operaciones", "month", "2025-01"),
+                incremental.getCells().get(1).getCoordinates());
+    }
+
+    @Test
+    @DisplayName("Con el cubo deshabilitado cada consulta recorre las quejas")
+    void testDisabledCubeScans() {
+        ReflectionTestUtils.setField(cube, "enabled", false);
+        insert("1", 0, 0, 0, LocalDate.of(2025, 1, 10), null);
+
+        assertEquals(1L, cube.query(new ComplaintCubeQuery()).getTotal());
+        assertFalse(cube.isLoaded());
+    }
+
+    @Test
+    @DisplayName("Una dimensión desconocida es rechazada")
+    void testUnknownDimension() {
+        assertThrows(IllegalArgumentException.class, () -> cube.query(groupBy("employee")));
+    }
+
+    private Complaint insert(String id, int type, int category, int status, LocalDate recieved, String department) {
+        return mongoTemplate.insert(Complaint.builder().id(id).type(type).category(category).status(status)
+                .recievedDate(Date.from(recieved.atStartOfDay(ZoneId.systemDefault()).toInstant()))
+                .department(department).build());
+    }
+
+    private static ComplaintCubeQuery groupBy(String... dimensions) {
+        return ComplaintCubeQuery.builder().groupBy(List.of(dimensions)).build();
+    }
+
+    private static Map<String, Long> counts(ComplaintCubeDTO result, String dimension) {
+        return result.getCells().stream().collect(Collectors.toMap(
+                cell -> cell.getCoordinates().get(dimension), ComplaintCubeDTO.CellDTO::getCount));
+    }
+}
@@ -0,0 +1,88 @@
+package com.quejapp.quejapi.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import com.quejapp.quejapi.dto.PQRSStatisticsDTO;
+import com.quejapp.quejapi.model.Complaint;
+
+import de.bwaldvogel.mongo.MongoServer;
+import de.bwaldvogel.mongo.backend.memory.MemoryBackend;
+
+@DisplayName("ComplaintDateFieldsMigration - Pruebas Unitarias")
+class ComplaintDateFieldsMigrationUnitTest {
+
+    private MongoServer server;
+    private MongoClient client;
+    private MongoTemplate mongoTemplate;
+    private ComplaintDateFieldsMigration migration;
+
+    @BeforeEach
+    void setUp() {
+        server = new MongoServer(new MemoryBackend());
+        client = MongoClients.create(server.bindAndGetConnectionString());
+        mongoTemplate = new MongoTemplate(client, "quejappdb");
+        migration = new ComplaintDateFieldsMigration(mongoTemplate);
+        ReflectionTestUtils.setField(migration, "batchSize", 7);
+
+        mongoTemplate.insertAll(PQRSStatisticsAccumulatorUnitTest.fixture(new Random(19), 60, 5));
+        mongoTemplate.insert(Complaint.builder().id("sin-fecha").status(0).build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        client.close();
+        server.shutdown();
+    }
+
+    @Test
+    @DisplayName("Debe completar los campos derivados de las quejas con fecha")
+    void shouldBackfillDerivedFields() {
+        assertEquals(60, migration.backfill());
+
+        for (Complaint complaint : mongoTemplate.findAll(Complaint.class)) {
+            if (complaint.getRecievedDate() == null) {
+                assertNull(complaint.getEpochDay());
+                assertNull(complaint.getYearMonth());
+                assertNull(complaint.getWeekday());
+                continue;
+            }
+            LocalDate day = complaint.getRecievedDate().toInstant().atZone(ZoneId.systemDefault()).toLocalDate();
+            assertEquals((int) day.toEpochDay(), complaint.getEpochDay());
+            assertEquals(YearMonth.from(day).toString(), complaint.getYearMonth());
+            assertEquals(day.getDayOfWeek().getValue(), complaint.getWeekday());
+        }
+
+        // Ya migradas no se vuelven a leer
+        assertEquals(0, migration.backfill());
+    }
+
+    @Test
+    @DisplayName("Las estadísticas no cambian al usar los campos derivados")
+    void shouldKeepStatisticsAfterBackfill() {
+        InMemoryStatisticsEngine memoryEngine = new InMemoryStatisticsEngine(mongoTemplate);
+        AggregationStatisticsEngine aggregationEngine = new AggregationStatisticsEngine(mongoTemplate);
+        LocalDate start = LocalDate.now().minusDays(200);
+        List<PQRSStatisticsDTO> before = List.of(memoryEngine.compute(null, null), memoryEngine.compute(start, null),
+                aggregationEngine.compute(null, null));
+
+        migration.backfill();
+
+        assertEquals(before, List.of(memoryEngine.compute(null, null), memoryEngine.compute(start, null),
+                aggregationEngine.compute(null, null)));
+    }
+}
@@ -0,0 +1,118 @@
+package com.quejapp.quejapi.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import com.quejapp.quejapi.dto.ExpirationCountsDTO;
+import com.quejapp.quejapi.dto.ExpiringComplaintDTO;
+import com.quejapp.quejapi.dto.PQRSStatisticsDTO;
+import com.quejapp.quejapi.model.Complaint;
+
+import de.bwaldvogel.mongo.MongoServer;
+import de.bwaldvogel.mongo.backend.memory.MemoryBackend;
+
+@DisplayName("ComplaintDeadlineIndex - Pruebas Unitarias")
+class ComplaintDeadlineIndexUnitTest {
+
+    private MongoServer server;
+    private MongoClient client;
+    private MongoTemplate mongoTemplate;
+    private ComplaintDeadlineIndex index;
+
+    @BeforeEach
+    void setUp() {
+        server = new MongoServer(new MemoryBackend());
+        client = MongoClients.create(server.bindAndGetConnectionString());
+        mongoTemplate = new MongoTemplate(client, "quejappdb");
+        index = new ComplaintDeadlineIndex(mongoTemplate);
+        mongoTemplate.insertAll(PQRSStatisticsAccumulatorUnitTest.fixture(new Random(17), 600, 4));
+    }
+
+    @AfterEach
+    void tearDown() {
+        client.close();
+        server.shutdown();
+    }
+
+    @Test
+    @DisplayName("Los conteos coinciden con el cálculo completo al avanzar los días")
+    void testCountsMatchAccumulatorAsDaysPass() {
+        index.load();
+        LocalDate today = LocalDate.now();
+
+        for (int days = 0; days <= 20; days++) {
+            LocalDate day = today.plusDays(days);
+            index.advanceTo((int) day.toEpochDay());
+            PQRSStatisticsDTO expected = accumulate().toStatistics(day);
+
+            assertEquals(expected.getExpiredPqrs(), index.getExpiredCount(), "vencidas el " + day);
+            assertEquals(expected.getNearExpirationPqrs(), index.getNearExpirationCount(), "por vencer el " + day);
+        }
+    }
+
+    @Test
+    @DisplayName("Crear y cerrar quejas actualiza el índice")
+    void testWritesUpdateIndex() {
+        index.load();
+        Complaint created = mongoTemplate.insert(Complaint.builder().status(0).reference("TRC-NUEVA")
+                .recievedDate(daysAgo(14)).build());
+        index.onComplaintChanged(new ComplaintChangedEvent(null, created));
+
+        Complaint open = mongoTemplate.findAll(Complaint.class).stream()
+                .filter(c -> Integer.valueOf(1).equals(c.getStatus()) && c.getRecievedDate() != null)
+                .findFirst().orElseThrow();
+        Complaint previous = open.toBuilder().build();
+        open.setStatus(2);
+        mongoTemplate.save(open);
+        index.onComplaintChanged(new ComplaintChangedEvent(previous, open));
+
+        PQRSStatisticsDTO expected = accumulate().toStatistics(LocalDate.now());
+        ExpirationCountsDTO counts = index.getCounts();
+        assertEquals(expected.getExpiredPqrs(), counts.getExpiredPqrs());
+        assertEquals(expected.getNearExpirationPqrs(), counts.getNearExpirationPqrs());
+        assertTrue(index.getExpiring(3).stream().anyMatch(c -> "TRC-NUEVA".equals(c.getReference())));
+    }
+
+    @Test
+    @DisplayName("Las quejas por vencer se listan de la más próxima a la más lejana")
+    void testExpiringListIsOrdered() {
+        mongoTemplate.remove(new Query(), Complaint.class);
+        mongoTemplate.insert(Complaint.builder().status(0).reference("B").recievedDate(daysAgo(13)).build());
+        mongoTemplate.insert(Complaint.builder().status(1).reference("A").recievedDate(daysAgo(15)).build());
+        mongoTemplate.insert(Complaint.builder().status(0).reference("C").recievedDate(daysAgo(5)).build());
+        mongoTemplate.insert(Complaint.builder().status(0).reference("X").recievedDate(daysAgo(16)).build());
+        mongoTemplate.insert(Complaint.builder().status(3).reference("Y").recievedDate(daysAgo(14)).build());
+        index.load();
+
+        List<ExpiringComplaintDTO> expiring = index.getExpiring(3);
+
+        assertEquals(List.of("A", "B"), expiring.stream().map(ExpiringComplaintDTO::getReference).toList());
+        assertEquals(List.of(0, 2), expiring.stream().map(ExpiringComplaintDTO::getDaysLeft).toList());
+        assertEquals(1, index.getExpiredCount());
+        assertEquals(3, index.getExpiring(15).size());
+    }
+
+    private PQRSStatisticsAccumulator accumulate() {
+        PQRSStatisticsAccumulator accumulator = new PQRSStatisticsAccumulator();
+        mongoTemplate.findAll(Complaint.class).forEach(accumulator::add);
+        return accumulator;
+    }
+
+    private static Date daysAgo(int days) {
+        return Date.from(LocalDate.now().minusDays(days).atTime(12, 0).atZone(ZoneId.systemDefault()).toInstant());
+    }
+}
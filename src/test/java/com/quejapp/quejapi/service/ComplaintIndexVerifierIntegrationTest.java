@@ -0,0 +1,66 @@
+package com.quejapp.quejapi.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexDefinition;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.index.MongoPersistentEntityIndexResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import com.quejapp.quejapi.model.Complaint;
+
+// Contra un mongod local: mvn verify -Pmongodb (o -Dmongodb.uri=... para otro servidor)
+@EnabledIfSystemProperty(named = "mongodb.uri", matches = ".+")
+@DisplayName("ComplaintIndexVerifier - Pruebas de Integración")
+class ComplaintIndexVerifierIntegrationTest {
+
+    private MongoClient client;
+    private MongoTemplate mongoTemplate;
+
+    @BeforeEach
+    void setUp() {
+        client = MongoClients.create(System.getProperty("mongodb.uri"));
+        mongoTemplate = new MongoTemplate(client, "quejapi_index_verification");
+        mongoTemplate.dropCollection(Complaint.class);
+
+        // Los mismos índices que crea auto-index-creation al arrancar
+        IndexOperations indexes = mongoTemplate.indexOps(Complaint.class);
+        new MongoPersistentEntityIndexResolver(new MongoMappingContext()).resolveIndexFor(Complaint.class)
+                .forEach(index -> indexes.createIndex((IndexDefinition) index));
+        mongoTemplate.insertAll(PQRSStatisticsAccumulatorUnitTest.fixture(new Random(24), 500, 8));
+    }
+
+    @AfterEach
+    void tearDown() {
+        mongoTemplate.getDb().drop();
+        client.close();
+    }
+
+    @Test
+    @DisplayName("Ninguna forma de consulta de quejas recorre toda la colección")
+    void shouldUseIndexesForEveryShape() {
+        List<ComplaintIndexVerifier.QueryPlan> plans = new ComplaintIndexVerifier(mongoTemplate).verify();
+
+        assertEquals(ComplaintIndexVerifier.shapes().size(), plans.size());
+        assertEquals(List.of(), plans.stream().filter(ComplaintIndexVerifier.QueryPlan::fullScan).toList());
+    }
+
+    @Test
+    @DisplayName("Sin los índices compuestos la verificación falla")
+    void shouldDetectMissingIndexes() {
+        mongoTemplate.indexOps(Complaint.class).dropAllIndexes();
+
+        assertThrows(IllegalStateException.class, new ComplaintIndexVerifier(mongoTemplate)::initialize);
+    }
+}
@@ -0,0 +1,192 @@
+package com.quejapp.quejapi.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.StreamSupport;
+
+import org.bson.Document;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexDefinition;
+import org.springframework.data.mongodb.core.index.MongoPersistentEntityIndexResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import com.quejapp.quejapi.model.Complaint;
+
+import de.bwaldvogel.mongo.MongoServer;
+import de.bwaldvogel.mongo.backend.memory.MemoryBackend;
+
+@DisplayName("ComplaintIndexVerifier - Pruebas Unitarias")
+class ComplaintIndexVerifierUnitTest {
+
+    // Plan clásico: LIMIT -> FETCH -> IXSCAN
+    private static final Document CLASSIC_IXSCAN = Document.parse("""
+            {"queryPlanner": {"winningPlan": {"stage": "LIMIT", "inputStage": {"stage": "FETCH",
+              "inputStage": {"stage": "IXSCAN", "indexName": "user_recievedDate_id"}}}}, "ok": 1}""");
+
+    // Plan del motor basado en slots: el árbol va dentro de queryPlan
+    private static final Document SLOT_BASED_COLLSCAN = Document.parse("""
+            {"queryPlanner": {"winningPlan": {"queryPlan": {"stage": "SORT",
+              "inputStage": {"stage": "COLLSCAN", "direction": "forward"}},
+              "slotBasedPlan": {"slots": "$$RESULT=s5", "stages": "[2] sort [s4] [asc] ..."}}}, "ok": 1}""");
+
+    // Índice recorrido entero: la clave inicial no tiene límites
+    private static final Document UNBOUNDED_IXSCAN = Document.parse("""
+            {"queryPlanner": {"winningPlan": {"stage": "LIMIT", "inputStage": {"stage": "FETCH",
+              "inputStage": {"stage": "IXSCAN", "indexName": "recievedDate_id",
+                "indexBounds": {"recievedDate": ["[MaxKey, MinKey]"], "_id": ["[MaxKey, MinKey]"]}}}}}, "ok": 1}""");
+
+    // Mismo índice acotado por el rango de fechas
+    private static final Document BOUNDED_IXSCAN = Document.parse("""
+            {"queryPlanner": {"winningPlan": {"stage": "FETCH", "inputStage": {"stage": "IXSCAN",
+              "indexName": "recievedDate_id", "indexBounds": {"recievedDate": [
+                "(new Date(1706659200000), new Date(1704067200000)]"], "_id": ["[MaxKey, MinKey]"]}}}}, "ok": 1}""");
+
+    // Índice completo de otra clave: el orden se hace en memoria
+    private static final Document UNBOUNDED_SORTED_IXSCAN = Document.parse("""
+            {"queryPlanner": {"winningPlan": {"stage": "SORT", "inputStage": {"stage": "FETCH",
+              "inputStage": {"stage": "IXSCAN", "indexName": "status_recievedDate",
+                "indexBounds": {"status": ["[MinKey, MaxKey]"], "recievedDate": ["[MinKey, MaxKey]"]}}}}}, "ok": 1}""");
+
+    @Test
+    @DisplayName("Debe detectar un COLLSCAN en planes clásicos y basados en slots")
+    void shouldDetectCollectionScans() {
+        MongoTemplate template = template(CLASSIC_IXSCAN);
+        List<ComplaintIndexVerifier.QueryPlan> plans = new ComplaintIndexVerifier(template).verify();
+
+        assertEquals(ComplaintIndexVerifier.shapes().size(), plans.size());
+        assertTrue(plans.stream().noneMatch(ComplaintIndexVerifier.QueryPlan::collectionScan));
+        assertEquals(List.of("user_recievedDate_id"), List.copyOf(plans.get(0).indexes()));
+
+        when(template.executeCommand(any(Document.class))).thenReturn(SLOT_BASED_COLLSCAN);
+        ComplaintIndexVerifier.QueryPlan plan = new ComplaintIndexVerifier(template).verify().get(0);
+        assertTrue(plan.collectionScan());
+        assertEquals(List.of("SORT", "COLLSCAN"), List.copyOf(plan.stages()));
+    }
+
+    @Test
+    @DisplayName("Un IXSCAN sin límites en la clave inicial cuenta como recorrido completo")
+    void shouldDetectUnboundedIndexScans() {
+        ComplaintIndexVerifier.QueryPlan plan = new ComplaintIndexVerifier(template(UNBOUNDED_IXSCAN)).verify().get(0);
+        assertFalse(plan.collectionScan());
+        assertTrue(plan.fullScan());
+        assertThrows(IllegalStateException.class, new ComplaintIndexVerifier(template(UNBOUNDED_IXSCAN))::initialize);
+
+        assertFalse(new ComplaintIndexVerifier(template(BOUNDED_IXSCAN)).verify().get(0).fullScan());
+        assertDoesNotThrow(new ComplaintIndexVerifier(template(BOUNDED_IXSCAN))::initialize);
+    }
+
+    @Test
+    @DisplayName("El listado sin filtro acepta el índice completo solo si este da el orden")
+    void shouldAcceptUnfilteredListingOrderedByIndex() {
+        assertFalse(listing(template(UNBOUNDED_IXSCAN)).fullScan());
+        // Sin el índice de recievedDate: COLLSCAN y orden en memoria
+        assertTrue(listing(template(SLOT_BASED_COLLSCAN)).fullScan());
+        // Un índice completo que no da el orden obliga a ordenar en memoria
+        assertTrue(listing(template(UNBOUNDED_SORTED_IXSCAN)).fullScan());
+        // Con filtro la excepción no aplica
+        assertTrue(new ComplaintIndexVerifier(template(UNBOUNDED_IXSCAN)).verify().get(0).fullScan());
+    }
+
+    private static ComplaintIndexVerifier.QueryPlan listing(MongoTemplate template) {
+        return new ComplaintIndexVerifier(template).verify().stream()
+                .filter(plan -> plan.shape().equals("listing(recievedDate order)")).findFirst().orElseThrow();
+    }
+
+    @Test
+    @DisplayName("Debe explicar cada forma con su filtro y orden sobre la colección de quejas")
+    void shouldExplainEveryShape() {
+        MongoTemplate template = template(CLASSIC_IXSCAN);
+        new ComplaintIndexVerifier(template).verify();
+
+        verify(template, times(ComplaintIndexVerifier.shapes().size())).executeCommand(argThat((Document command) -> {
+            Document find = command.get("explain", Document.class);
+            // Sin la pista del listado: el planificador tiene que elegir el índice por sí mismo
+            return "quejas".equals(find.get("find")) && "queryPlanner".equals(command.get("verbosity"))
+                    && !find.containsKey("hint");
+        }));
+        Map<String, Query> shapes = ComplaintIndexVerifier.shapes();
+        assertEquals(new Document("recievedDate", -1),
+                shapes.get("filter(user, status)").getSortObject());
+        assertEquals(Document.parse("{'$and': [{'user': 'u'}, {'status': 0}, {'type': 0}, {'department': 'muestra'}]}"),
+                shapes.get("filter(user, status)").getQueryObject());
+        assertEquals("user_status_recievedDate", shapes.get("filter(user, status)").getHint());
+        // Sin filtro indexado ni referencia ningún índice acota el listado
+        assertFalse(shapes.containsKey("filter()"));
+        assertFalse(shapes.containsKey("filter(term)"));
+        assertTrue(shapes.containsKey("filter(reference)"));
+        // El listado por defecto de la administración, sin filtro
+        assertEquals(new Document("recievedDate", -1), shapes.get("listing(recievedDate order)").getSortObject());
+        assertTrue(shapes.get("listing(recievedDate order)").getQueryObject().isEmpty());
+        assertEquals(22 + 5, shapes.size());
+    }
+
+    @Test
+    @DisplayName("Al arrancar un COLLSCAN detiene la aplicación salvo que se configure solo el aviso")
+    void shouldFailStartupOnCollectionScan() {
+        ComplaintIndexVerifier verifier = new ComplaintIndexVerifier(template(SLOT_BASED_COLLSCAN));
+        IllegalStateException error = assertThrows(IllegalStateException.class, verifier::initialize);
+        assertTrue(error.getMessage().contains("filter(user, recievedDate, term)"));
+
+        ReflectionTestUtils.setField(verifier, "failOnCollectionScan", false);
+        assertDoesNotThrow(verifier::initialize);
+
+        ComplaintIndexVerifier disabled = new ComplaintIndexVerifier(template(SLOT_BASED_COLLSCAN));
+        ReflectionTestUtils.setField(disabled, "enabled", false);
+        assertDoesNotThrow(disabled::initialize);
+    }
+
+    @Test
+    @DisplayName("Un servidor sin explain omite la verificación")
+    void shouldSkipWhenExplainIsUnsupported() {
+        MongoServer server = new MongoServer(new MemoryBackend());
+        try (MongoClient client = MongoClients.create(server.bindAndGetConnectionString())) {
+            ComplaintIndexVerifier verifier = new ComplaintIndexVerifier(new MongoTemplate(client, "quejappdb"));
+            assertEquals(List.of(), verifier.verify());
+            assertDoesNotThrow(verifier::initialize);
+        } finally {
+            server.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("La queja declara los índices compuestos de los listados")
+    void shouldDeclareCompoundIndexes() {
+        MongoMappingContext mappingContext = new MongoMappingContext();
+        Map<String, Document> indexes = StreamSupport.stream(
+                new MongoPersistentEntityIndexResolver(mappingContext).resolveIndexFor(Complaint.class).spliterator(),
+                false)
+                .map(IndexDefinition.class::cast)
+                .filter(index -> index.getIndexOptions().containsKey("name"))
+                .collect(Collectors.toMap(index -> index.getIndexOptions().getString("name"),
+                        IndexDefinition::getIndexKeys));
+
+        assertEquals(Document.parse("{'user': 1, 'recievedDate': -1, '_id': -1}"), indexes.get("user_recievedDate_id"));
+        assertEquals(Document.parse("{'user': 1, 'status': 1, 'recievedDate': -1}"),
+                indexes.get("user_status_recievedDate"));
+        assertEquals(Document.parse("{'status': 1, 'recievedDate': -1}"), indexes.get("status_recievedDate"));
+        assertEquals(Document.parse("{'recievedDate': -1, '_id': -1}"), indexes.get("recievedDate_id"));
+        // Solo los campos derivados que filtra alguna consulta verificada
+        assertEquals(Document.parse("{'epochDay': 1}"), indexes.get("epochDay"));
+        assertEquals(Document.parse("{'updatedDate': 1}"), indexes.get("updatedDate"));
+        assertFalse(indexes.containsKey("weekday"));
+        assertFalse(indexes.containsKey("yearMonth"));
+    }
+
+    private static MongoTemplate template(Document explained) {
+        MongoTemplate template = mock(MongoTemplate.class);
+        when(template.getCollectionName(Complaint.class)).thenReturn("quejas");
+        when(template.executeCommand(any(Document.class))).thenReturn(explained);
+        return template;
+    }
+}
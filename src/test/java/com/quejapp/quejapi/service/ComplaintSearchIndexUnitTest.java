@@ -0,0 +1,218 @@
+package com.quejapp.quejapi.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.TreeSet;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import com.quejapp.quejapi.model.Complaint;
+
+import de.bwaldvogel.mongo.MongoServer;
+import de.bwaldvogel.mongo.backend.memory.MemoryBackend;
+
+@DisplayName("ComplaintSearchIndex - Pruebas Unitarias")
+class ComplaintSearchIndexUnitTest {
+
+    private static final String[] WORDS = { "Factura", "duplicada", "demora", "entrega", "cobro", "portal",
+            "error", "atención", "reembolso", "señal" };
+    private static final String[] TERMS = { "fac", "factura duplicada", "DEMORA", "ro", "a", "trc-2024",
+            "-0", "ñal", "xyz", "cobro de", "ón", "20240105" };
+
+    private MongoServer server;
+    private MongoClient client;
+    private MongoTemplate mongoTemplate;
+    private ComplaintSearchIndex index;
+    private List<Complaint> complaints;
+
+    @BeforeEach
+    void setUp() {
+        server = new MongoServer(new MemoryBackend());
+        client = MongoClients.create(server.bindAndGetConnectionString());
+        mongoTemplate = new MongoTemplate(client, "quejappdb");
+        index = new ComplaintSearchIndex(mongoTemplate);
+
+        complaints = fixture(new Random(21), 300);
+        mongoTemplate.insertAll(complaints);
+    }
+
+    @AfterEach
+    void tearDown() {
+        client.close();
+        server.shutdown();
+    }
+
+    @Test
+    @DisplayName("Sin cargar el índice la búsqueda se delega")
+    void shouldBeEmptyUntilLoaded() {
+        assertTrue(index.search("factura", null, null, PageRequest.of(0, 10)).isEmpty());
+
+        ReflectionTestUtils.setField(index, "enabled", false);
+        index.initialize();
+        assertFalse(index.isLoaded());
+    }
+
+    @Test
+    @DisplayName("Debe coincidir con la búsqueda por subcadena con filtros, orden y páginas")
+    void shouldMatchSubstringOracle() {
+        assertEquals(300, index.load());
+
+        Sort[] sorts = { Sort.by(Sort.Direction.DESC, "recievedDate"), Sort.by(Sort.Direction.ASC, "reference"),
+                Sort.by(Sort.Direction.ASC, "status", "reference") };
+        for (String term : TERMS) {
+            for (Integer status : new Integer[] { null, 0, 2 }) {
+                for (String user : new String[] { null, "u3" }) {
+                    for (Sort sort : sorts) {
+                        List<String> expected = oracle(complaints, term, status, user, sort);
+                        for (int page = 0; page < 3; page++) {
+                            PageRequest pageable = PageRequest.of(page, 7, sort);
+                            Page<Complaint> result = index.search(term, status, user, pageable).orElseThrow();
+                            String context = term + "/" + status + "/" + user + "/" + sort + "/" + page;
+                            assertEquals(expected.size(), result.getTotalElements(), context);
+                            assertEquals(expected.subList(Math.min(page * 7, expected.size()),
+                                    Math.min(page * 7 + 7, expected.size())),
+                                    result.getContent().stream().map(Complaint::getId).toList(), context);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Con orden no indexado y demasiadas coincidencias la búsqueda se delega")
+    void shouldDelegateLargeUnsortedMatches() {
+        index.load();
+        ReflectionTestUtils.setField(index, "maxUnsortedMatches", 10);
+        PageRequest byStatus = PageRequest.of(0, 7, Sort.by(Sort.Direction.ASC, "status", "reference"));
+
+        assertTrue(index.search("a", null, null, byStatus).isEmpty());
+        // Ordenado en el índice no hay límite; con pocas coincidencias MongoDB sigue ordenando
+        assertTrue(index.search("a", null, null, PageRequest.of(0, 7, Sort.by("reference"))).isPresent());
+        String reference = complaints.get(0).getReference();
+        assertEquals(List.of(complaints.get(0).getId()), index.search(reference, null, null, byStatus)
+                .orElseThrow().getContent().stream().map(Complaint::getId).toList());
+    }
+
+    @Test
+    @DisplayName("Debe reflejar las quejas creadas y actualizadas")
+    void shouldApplyComplaintChanges() {
+        index.load();
+        PageRequest pageable = PageRequest.of(0, 50, Sort.by(Sort.Direction.DESC, "recievedDate"));
+
+        Complaint previous = complaints.get(0);
+        Complaint updated = copy(previous);
+        updated.setSubject("Cambio de titular");
+        updated.setStatus(3);
+        mongoTemplate.save(updated);
+        index.onComplaintChanged(new ComplaintChangedEvent(previous, updated));
+
+        Complaint created = Complaint.builder().id("nueva").reference("TRC-20991231-NUEVA1-0")
+                .subject("Cambio de plan").status(0).user("u9").recievedDate(new Date()).build();
+        mongoTemplate.save(created);
+        index.onComplaintChanged(new ComplaintChangedEvent(null, created));
+
+        complaints.set(0, updated);
+        complaints.add(created);
+        for (String term : new String[] { "cambio", previous.getSubject(), "nueva1", "titular" }) {
+            for (Integer status : new Integer[] { null, 0, 3 }) {
+                assertEquals(oracle(complaints, term, status, null, pageable.getSort()),
+                        index.search(term, status, null, pageable).orElseThrow().getContent().stream()
+                                .map(Complaint::getId).toList(), term + "/" + status);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("La lista de publicaciones conserva el orden al insertar, borrar e intersecar")
+    void shouldKeepPostingListSorted() {
+        Random random = new Random(7);
+        PostingList list = new PostingList();
+        TreeSet<Integer> expected = new TreeSet<>();
+        for (int i = 0; i < 2000; i++) {
+            int ordinal = random.nextInt(i % 3 == 0 ? 100 : 1_000_000);
+            if (random.nextInt(4) == 0) {
+                assertEquals(expected.remove(ordinal), list.remove(ordinal));
+            } else {
+                assertEquals(expected.add(ordinal), list.add(ordinal));
+            }
+        }
+        assertEquals(expected.size(), list.size());
+        assertArrayEquals(expected.stream().mapToInt(Integer::intValue).toArray(), list.toArray());
+
+        int[] candidates = random.ints(500, 0, 1_000_000).sorted().distinct().toArray();
+        candidates[candidates.length - 1] = expected.last();
+        int[] kept = candidates.clone();
+        int count = list.retainAll(kept, kept.length);
+        int[] matches = Arrays.stream(candidates).filter(expected::contains).toArray();
+        assertArrayEquals(matches, Arrays.copyOf(kept, count));
+    }
+
+    private static List<String> oracle(List<Complaint> complaints, String term, Integer status, String user,
+            Sort sort) {
+        String needle = term.trim().toLowerCase(Locale.ROOT);
+        Comparator<Complaint> order = null;
+        for (Sort.Order property : sort) {
+            Comparator<Complaint> next = switch (property.getProperty()) {
+                case "recievedDate" -> Comparator.comparing(Complaint::getRecievedDate);
+                case "status" -> Comparator.comparing(Complaint::getStatus);
+                default -> Comparator.comparing(Complaint::getReference);
+            };
+            next = property.isDescending() ? next.reversed() : next;
+            order = order == null ? next : order.thenComparing(next);
+        }
+        return complaints.stream()
+                .filter(c -> c.getReference().toLowerCase(Locale.ROOT).contains(needle)
+                        || c.getSubject().toLowerCase(Locale.ROOT).contains(needle))
+                .filter(c -> status == null || status.equals(c.getStatus()))
+                .filter(c -> user == null || user.equals(c.getUser()))
+                .sorted(order)
+                .map(Complaint::getId)
+                .toList();
+    }
+
+    private static Complaint copy(Complaint complaint) {
+        return Complaint.builder().id(complaint.getId()).reference(complaint.getReference())
+                .subject(complaint.getSubject()).status(complaint.getStatus()).user(complaint.getUser())
+                .recievedDate(complaint.getRecievedDate()).build();
+    }
+
+    // Fechas distintas por queja, para que el orden por fecha no dependa del desempate
+    private static List<Complaint> fixture(Random random, int size) {
+        List<Complaint> complaints = new ArrayList<>(size);
+        long start = 1_704_067_200_000L;
+        for (int i = 0; i < size; i++) {
+            StringBuilder subject = new StringBuilder();
+            for (int w = 0, words = 1 + random.nextInt(3); w < words; w++) {
+                subject.append(w == 0 ? "" : " de ").append(WORDS[random.nextInt(WORDS.length)]);
+            }
+            complaints.add(Complaint.builder()
+                    .id(String.format("c%03d", i))
+                    .reference(String.format("TRC-2024%02d%02d-%06X-%d", 1 + random.nextInt(12),
+                            1 + random.nextInt(28), random.nextInt(1 << 24), random.nextInt(4)))
+                    .subject(subject.toString())
+                    .status(random.nextInt(4))
+                    .user("u" + random.nextInt(6))
+                    .recievedDate(new Date(start + i * 3_600_000L + random.nextInt(3_000_000)))
+                    .build());
+        }
+        return complaints;
+    }
+}
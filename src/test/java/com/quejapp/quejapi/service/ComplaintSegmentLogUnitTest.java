@@ -0,0 +1,179 @@
+package com.quejapp.quejapi.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.RandomAccessFile;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import com.quejapp.quejapi.dto.PQRSStatisticsDTO;
+import com.quejapp.quejapi.model.Complaint;
+import com.quejapp.quejapi.model.Profile;
+
+import de.bwaldvogel.mongo.MongoServer;
+import de.bwaldvogel.mongo.backend.memory.MemoryBackend;
+
+@DisplayName("ComplaintSegmentLog - Pruebas Unitarias")
+class ComplaintSegmentLogUnitTest {
+
+    @TempDir
+    Path directory;
+
+    private MongoServer server;
+    private MongoClient client;
+    private MongoTemplate mongoTemplate;
+
+    @BeforeEach
+    void setUp() {
+        server = new MongoServer(new MemoryBackend());
+        client = MongoClients.create(server.bindAndGetConnectionString());
+        mongoTemplate = new MongoTemplate(client, "quejappdb");
+    }
+
+    @AfterEach
+    void tearDown() {
+        client.close();
+        server.shutdown();
+    }
+
+    @Test
+    @DisplayName("Un reinicio restaura los segmentos y solo lee las quejas recientes")
+    void testRestartRestoresSegmentsAndCatchesUp() {
+        mongoTemplate.insertAll(PQRSStatisticsAccumulatorUnitTest.fixture(new Random(4), 800, 5));
+        ComplaintColumnStore first = store();
+        first.initialize();
+        Complaint updated = mongoTemplate.findAll(Complaint.class).get(3);
+        Complaint previous = updated.toBuilder().build();
+        updated.setStatus(3);
+        updated.setDaysToResolve(2);
+        updated.setUpdatedDate(new Date());
+        mongoTemplate.save(updated);
+        first.onComplaintChanged(new ComplaintChangedEvent(previous, updated));
+        first.close();
+
+        // Mientras el nodo está detenido: una queja nueva y una antigua borrada por fuera
+        mongoTemplate.insert(Complaint.builder().status(0).type(1).category(2).recievedDate(new Date()).build());
+        Date monthAgo = Date.from(LocalDate.now().minusDays(30).atStartOfDay(ZoneId.systemDefault()).toInstant());
+        Complaint old = mongoTemplate.findAll(Complaint.class).stream()
+                .filter(c -> c.getRecievedDate() != null && c.getRecievedDate().before(monthAgo))
+                .findFirst().orElseThrow();
+        mongoTemplate.remove(old);
+
+        ComplaintColumnStore restarted = store();
+        restarted.initialize();
+
+        // La queja borrada sigue en los segmentos: no se releyó la colección completa
+        assertEquals(801, restarted.size());
+        mongoTemplate.insert(old);
+        assertEquivalent(new InMemoryStatisticsEngine(mongoTemplate).compute(null, null),
+                restarted.aggregate(null, null).toStatistics());
+        restarted.close();
+    }
+
+    @Test
+    @DisplayName("Los segmentos se compactan cuando los registros reemplazados dominan el registro")
+    void testLogIsCompactedIntoSnapshot() {
+        mongoTemplate.insertAll(PQRSStatisticsAccumulatorUnitTest.fixture(new Random(6), 50, 3));
+        ComplaintColumnStore store = store();
+        store.initialize();
+        Complaint updated = mongoTemplate.findAll(Complaint.class).get(0);
+        int updates = ComplaintSegmentLog.COMPACTION_RATIO * 1000 + 10;
+        for (int i = 0; i < updates; i++) {
+            Complaint previous = updated.toBuilder().build();
+            updated.setStatus(i % 4);
+            updated.setUpdatedDate(new Date());
+            store.onComplaintChanged(new ComplaintChangedEvent(previous, updated));
+        }
+        mongoTemplate.save(updated);
+
+        ComplaintSegmentLog log = (ComplaintSegmentLog) ReflectionTestUtils.getField(store, "segmentLog");
+        assertTrue(log.getRecords() < updates, () -> "Registros sin compactar: " + log.getRecords());
+        store.close();
+
+        List<ComplaintColumnStore.Row> replayed = new ArrayList<>();
+        ComplaintSegmentLog.open(directory, ComplaintSegmentLog.readCheckpoint(directory), replayed::add).close();
+        assertTrue(replayed.size() < 50 + ComplaintSegmentLog.COMPACTION_RATIO * 1000);
+        ComplaintColumnStore restarted = store();
+        restarted.initialize();
+        assertEquals(50, restarted.size());
+        assertEquivalent(new InMemoryStatisticsEngine(mongoTemplate).compute(null, null),
+                restarted.aggregate(null, null).toStatistics());
+        restarted.close();
+    }
+
+    @Test
+    @DisplayName("Un registro corrupto detiene la reproducción")
+    void testTornRecordStopsReplay() throws Exception {
+        ComplaintColumnStore.Row first = row("a", 0);
+        ComplaintColumnStore.Row second = row("b", 2);
+        ComplaintSegmentLog log = ComplaintSegmentLog.rewrite(directory, Stream.of(first), 10L);
+        log.append(second, 20L);
+        log.close();
+        assertEquals(20L, ComplaintSegmentLog.readCheckpoint(directory));
+
+        try (RandomAccessFile file = new RandomAccessFile(directory.resolve("segment-00000001.seg").toFile(), "rw")) {
+            // Último byte del segundo registro
+            long end = 8L * 2 + payloadLength(first) + payloadLength(second) - 1;
+            file.seek(end);
+            int last = file.read();
+            file.seek(end);
+            file.write(last ^ 0xFF);
+        }
+
+        List<ComplaintColumnStore.Row> replayed = new ArrayList<>();
+        ComplaintSegmentLog reopened = ComplaintSegmentLog.open(directory, 20L, replayed::add);
+        assertEquals(List.of(first), replayed);
+
+        // Lo que sigue al último registro válido se sobrescribe
+        reopened.append(row("c", 1), 30L);
+        reopened.close();
+        replayed.clear();
+        ComplaintSegmentLog.open(directory, 30L, replayed::add).close();
+        assertEquals(List.of("a", "c"), replayed.stream().map(ComplaintColumnStore.Row::id).toList());
+    }
+
+    private ComplaintColumnStore store() {
+        ComplaintColumnStore store = new ComplaintColumnStore(mongoTemplate);
+        ReflectionTestUtils.setField(store, "enabled", true);
+        ReflectionTestUtils.setField(store, "segmentDir", directory.toString());
+        return store;
+    }
+
+    private static ComplaintColumnStore.Row row(String id, int status) {
+        return new ComplaintColumnStore.Row(id, (byte) status, (byte) 1, (byte) 2, 20000, 5,
+                ComplaintColumnStore.MISSING, "emp-1",
+                Profile.builder().id("emp-1").name("Ana").lastname("Ruiz").email("ana@test.com").build());
+    }
+
+    // Longitud codificada: 3 bytes, 3 enteros, indicador de perfil y 6 cadenas con su longitud
+    private static long payloadLength(ComplaintColumnStore.Row row) {
+        Profile profile = row.profile();
+        return 3 + 12 + 1 + 6 * 4 + row.id().length() + row.employee().length() + profile.getId().length()
+                + profile.getName().length() + profile.getLastname().length() + profile.getEmail().length();
+    }
+
+    private static void assertEquivalent(PQRSStatisticsDTO expected, PQRSStatisticsDTO actual) {
+        Comparator<PQRSStatisticsDTO.EmployeeStatsDTO> byId =
+                Comparator.comparing(PQRSStatisticsDTO.EmployeeStatsDTO::getEmployeeId);
+        expected.getTopEmployees().sort(byId);
+        actual.getTopEmployees().sort(byId);
+        assertEquals(expected, actual);
+    }
+}
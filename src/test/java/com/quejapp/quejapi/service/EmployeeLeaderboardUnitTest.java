@@ -0,0 +1,145 @@
+package com.quejapp.quejapi.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import com.quejapp.quejapi.dto.EmployeeRankDTO;
+import com.quejapp.quejapi.dto.PQRSStatisticsDTO;
+import com.quejapp.quejapi.model.Complaint;
+import com.quejapp.quejapi.model.Profile;
+
+import de.bwaldvogel.mongo.MongoServer;
+import de.bwaldvogel.mongo.backend.memory.MemoryBackend;
+
+@DisplayName("EmployeeLeaderboard - Pruebas Unitarias")
+class EmployeeLeaderboardUnitTest {
+
+    private MongoServer server;
+    private MongoClient client;
+    private MongoTemplate mongoTemplate;
+    private EmployeeLeaderboard leaderboard;
+    private List<Complaint> complaints;
+
+    @BeforeEach
+    void setUp() {
+        server = new MongoServer(new MemoryBackend());
+        client = MongoClients.create(server.bindAndGetConnectionString());
+        mongoTemplate = new MongoTemplate(client, "quejappdb");
+
+        leaderboard = new EmployeeLeaderboard(mongoTemplate);
+        complaints = PQRSStatisticsAccumulatorUnitTest.fixture(new Random(17), 300, 8);
+        mongoTemplate.insertAll(complaints);
+    }
+
+    @AfterEach
+    void tearDown() {
+        client.close();
+        server.shutdown();
+    }
+
+    @Test
+    @DisplayName("El ranking coincide con el top de empleados de las estadísticas")
+    void testLeaderboardMatchesStatistics() {
+        leaderboard.load();
+        PQRSStatisticsAccumulator accumulator = new PQRSStatisticsAccumulator();
+        complaints.forEach(accumulator::add);
+
+        assertSameEmployees(accumulator.toStatistics().getTopEmployees(), leaderboard.top(10));
+        assertRanksFollowTop();
+    }
+
+    @Test
+    @DisplayName("Las actualizaciones mueven al empleado en el ranking")
+    void testUpdatesMoveEmployee() {
+        leaderboard.load();
+        PQRSStatisticsDTO.EmployeeStatsDTO last = leaderboard.top(10).get(leaderboard.top(10).size() - 1);
+
+        Profile profile = Profile.builder().id(last.getEmployeeId()).name("Nombre").lastname("Apellido")
+                .email("x@test.com").build();
+        List<ComplaintChangedEvent> batch = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            Complaint open = mongoTemplate.insert(Complaint.builder().status(1).recievedDate(new Date())
+                    .employee(last.getEmployeeId()).employeeProfile(profile).build());
+            batch.add(new ComplaintChangedEvent(open, open.toBuilder().status(2).daysToResolve(3).build()));
+        }
+        leaderboard.onComplaintsChanged(new ComplaintBatchChangedEvent(batch));
+
+        EmployeeRankDTO rank = leaderboard.rank(last.getEmployeeId()).orElseThrow();
+        assertEquals(1, rank.getRank());
+        assertEquals(last.getTotalResolved() + 100, rank.getStats().getTotalResolved());
+        assertEquals(last.getEmployeeId(), leaderboard.top(1).get(0).getEmployeeId());
+        assertRanksFollowTop();
+    }
+
+    @Test
+    @DisplayName("Un empleado sin quejas sale del ranking")
+    void testEmptyEmployeeLeaves() {
+        Profile profile = Profile.builder().id("solo").name("Solo").lastname("Uno").email("solo@test.com").build();
+        Complaint assigned = mongoTemplate.insert(Complaint.builder().status(1).employee("solo")
+                .employeeProfile(profile).build());
+        leaderboard.load();
+        int employees = leaderboard.rank("solo").orElseThrow().getTotalEmployees();
+
+        leaderboard.onComplaintChanged(new ComplaintChangedEvent(assigned,
+                assigned.toBuilder().status(0).employee(null).employeeProfile(null).build()));
+
+        assertTrue(leaderboard.rank("solo").isEmpty());
+        assertEquals(employees - 1, leaderboard.top(100).size());
+    }
+
+    @Test
+    @DisplayName("El árbol responde rangos y posiciones como un conjunto ordenado")
+    void testOrderStatisticTree() {
+        OrderStatisticTree<Integer> tree = new OrderStatisticTree<>(Comparator.naturalOrder());
+        TreeSet<Integer> expected = new TreeSet<>();
+        Random random = new Random(2);
+        for (int i = 0; i < 5000; i++) {
+            int value = random.nextInt(1000);
+            if (random.nextInt(3) == 0) {
+                assertEquals(expected.remove(value), tree.remove(value));
+            } else {
+                assertEquals(expected.add(value), tree.add(value));
+            }
+        }
+
+        assertEquals(expected.size(), tree.size());
+        List<Integer> ordered = new ArrayList<>(expected);
+        assertEquals(ordered.subList(0, 25), tree.first(25));
+        for (int i = 0; i < ordered.size(); i += 17) {
+            assertEquals(ordered.get(i), tree.get(i));
+            assertEquals(i, tree.rank(ordered.get(i)));
+        }
+        assertEquals(expected.headSet(500).size(), tree.rank(500));
+    }
+
+    private void assertRanksFollowTop() {
+        List<PQRSStatisticsDTO.EmployeeStatsDTO> top = leaderboard.top(100);
+        for (int i = 0; i < top.size(); i++) {
+            assertEquals(i + 1, leaderboard.rank(top.get(i).getEmployeeId()).orElseThrow().getRank());
+            if (i > 0) {
+                assertTrue(top.get(i - 1).getTotalResolved() >= top.get(i).getTotalResolved());
+            }
+        }
+    }
+
+    private static void assertSameEmployees(List<PQRSStatisticsDTO.EmployeeStatsDTO> expected,
+            List<PQRSStatisticsDTO.EmployeeStatsDTO> actual) {
+        // Mismo orden de desempate que el acumulador
+        assertFalse(expected.isEmpty());
+        assertEquals(expected, actual);
+    }
+}
@@ -0,0 +1,114 @@
+package com.quejapp.quejapi.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import com.quejapp.quejapi.dto.PQRSStatisticsDTO;
+import com.quejapp.quejapi.model.Complaint;
+import com.quejapp.quejapi.model.MonthlyTrend;
+
+import de.bwaldvogel.mongo.MongoServer;
+import de.bwaldvogel.mongo.backend.memory.MemoryBackend;
+
+@DisplayName("MonthlyTrendStore - Pruebas Unitarias")
+class MonthlyTrendStoreUnitTest {
+
+    private MongoServer server;
+    private MongoClient client;
+    private MongoTemplate mongoTemplate;
+    private MonthlyTrendStore store;
+    private InMemoryStatisticsEngine memoryEngine;
+
+    @BeforeEach
+    void setUp() {
+        server = new MongoServer(new MemoryBackend());
+        client = MongoClients.create(server.bindAndGetConnectionString());
+        mongoTemplate = new MongoTemplate(client, "quejappdb");
+
+        store = new MonthlyTrendStore(mongoTemplate);
+        memoryEngine = new InMemoryStatisticsEngine(mongoTemplate);
+        mongoTemplate.insertAll(PQRSStatisticsAccumulatorUnitTest.fixture(new Random(13), 300, 6));
+    }
+
+    @AfterEach
+    void tearDown() {
+        client.close();
+        server.shutdown();
+    }
+
+    @Test
+    @DisplayName("Las tendencias coinciden con el cálculo sobre todas las quejas")
+    void testTrendsMatchRecomputation() {
+        List<PQRSStatisticsDTO.MonthlyTrendDTO> expected = memoryEngine.compute(null, null).getMonthlyTrends();
+
+        assertEquals(expected, store.getTrends(null, null));
+        // La segunda lectura sale de los meses guardados
+        assertEquals(expected, store.getTrends(null, null));
+
+        YearMonth from = YearMonth.now().minusMonths(5);
+        YearMonth to = YearMonth.now().minusMonths(2);
+        assertEquals(expected.stream()
+                .filter(trend -> trend.getMonth().compareTo(from.toString()) >= 0
+                        && trend.getMonth().compareTo(to.toString()) <= 0)
+                .toList(), store.getTrends(from, to));
+    }
+
+    @Test
+    @DisplayName("Solo se guardan los meses cerrados")
+    void testOnlySealedMonthsAreStored() {
+        store.getTrends(null, null);
+
+        List<MonthlyTrend> stored = mongoTemplate.findAll(MonthlyTrend.class);
+        assertFalse(stored.isEmpty());
+        assertTrue(stored.stream().allMatch(MonthlyTrend::isValid));
+        assertTrue(stored.stream().noneMatch(trend -> trend.getId().equals(YearMonth.now().toString())));
+    }
+
+    @Test
+    @DisplayName("Una actualización tardía invalida solo su mes")
+    void testLateUpdateInvalidatesItsMonth() {
+        YearMonth month = YearMonth.now().minusMonths(3);
+        store.getTrends(month, month);
+
+        Complaint late = mongoTemplate.insert(Complaint.builder().status(2).type(0).category(0).daysToResolve(4)
+                .recievedDate(Date.from(month.atDay(2).atStartOfDay(ZoneId.systemDefault()).toInstant())).build());
+        long before = store.getTrends(month, month).get(0).getTotalReceived();
+
+        store.onComplaintChanged(new ComplaintChangedEvent(null, late));
+        MonthlyTrend invalidated = mongoTemplate.findById(month.toString(), MonthlyTrend.class);
+        assertFalse(invalidated.isValid());
+        assertEquals(1, invalidated.getVersion());
+
+        assertEquals(before + 1, store.getTrends(month, month).get(0).getTotalReceived());
+        assertTrue(mongoTemplate.findById(month.toString(), MonthlyTrend.class).isValid());
+    }
+
+    @Test
+    @DisplayName("Los cambios de vencimiento no invalidan las tendencias")
+    void testExpirationChangesKeepTrends() {
+        store.getTrends(null, null);
+        Complaint complaint = mongoTemplate.findOne(Query.query(Criteria.where("recievedDate")
+                .lt(Date.from(YearMonth.now().atDay(1).atStartOfDay(ZoneId.systemDefault()).toInstant()))),
+                Complaint.class);
+
+        store.onComplaintChanged(new ComplaintChangedEvent(complaint,
+                complaint.toBuilder().daysfromExpiration(9).build()));
+
+        assertTrue(mongoTemplate.findAll(MonthlyTrend.class).stream().allMatch(MonthlyTrend::isValid));
+    }
+}
@@ -0,0 +1,263 @@
+package com.quejapp.quejapi.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.quejapp.quejapi.dto.PQRSStatisticsDTO;
+import com.quejapp.quejapi.model.Complaint;
+import com.quejapp.quejapi.model.Profile;
+
+@DisplayName("PQRSStatisticsAccumulator - Pruebas Unitarias")
+class PQRSStatisticsAccumulatorUnitTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    @DisplayName("Sin quejas retorna solo los contadores generales")
+    void testEmptyStatistics() {
+        PQRSStatisticsDTO result = new PQRSStatisticsAccumulator().toStatistics();
+
+        assertEquals(0L, result.getTotalPqrs());
+        assertEquals(0L, result.getOpenPqrs());
+        assertNull(result.getPqrsByStatus());
+        assertNull(result.getTopEmployees());
+    }
+
+    @Test
+    @DisplayName("Una pasada produce el mismo JSON que el cálculo original")
+    void testSinglePassMatchesLegacyJson() throws Exception {
+        for (long seed = 1; seed <= 20; seed++) {
+            List<Complaint> complaints = fixture(new Random(seed), 500, 14);
+
+            PQRSStatisticsAccumulator accumulator = new PQRSStatisticsAccumulator();
+            complaints.forEach(accumulator::add);
+
+            assertEquals(objectMapper.writeValueAsString(LegacyStatistics.compute(complaints)),
+                    objectMapper.writeValueAsString(accumulator.toStatistics()),
+                    "seed " + seed);
+        }
+    }
+
+    @Test
+    @DisplayName("Combinar particiones equivale a acumular secuencialmente")
+    void testMergeMatchesSequential() {
+        List<Complaint> complaints = fixture(new Random(7), 900, 8);
+
+        PQRSStatisticsAccumulator sequential = new PQRSStatisticsAccumulator();
+        complaints.forEach(sequential::add);
+
+        PQRSStatisticsAccumulator merged = new PQRSStatisticsAccumulator();
+        for (int from = 0; from < complaints.size(); from += 250) {
+            PQRSStatisticsAccumulator partition = new PQRSStatisticsAccumulator();
+            complaints.subList(from, Math.min(from + 250, complaints.size())).forEach(partition::add);
+            merged.merge(partition);
+        }
+
+        assertEquals(sequential.toStatistics(), merged.toStatistics());
+    }
+
+    @Test
+    @DisplayName("Vencimiento se evalúa contra la fecha indicada")
+    void testExpirationRelativeToToday() {
+        LocalDate today = LocalDate.of(2025, 3, 20);
+        PQRSStatisticsAccumulator accumulator = new PQRSStatisticsAccumulator();
+        accumulator.add(complaint(0, today.minusDays(16)));  // vencida
+        accumulator.add(complaint(1, today.minusDays(15)));  // próxima a vencer
+        accumulator.add(complaint(0, today.minusDays(12)));  // próxima a vencer
+        accumulator.add(complaint(0, today.minusDays(11)));  // a tiempo
+        accumulator.add(complaint(2, today.minusDays(30)));  // cerrada, no cuenta
+
+        PQRSStatisticsDTO result = accumulator.toStatistics(today);
+
+        assertEquals(1L, result.getExpiredPqrs());
+        assertEquals(2L, result.getNearExpirationPqrs());
+    }
+
+    private static Complaint complaint(int status, LocalDate recieved) {
+        return Complaint.builder()
+                .status(status)
+                .type(0)
+                .category(0)
+                .recievedDate(Date.from(recieved.atStartOfDay(ZoneId.systemDefault()).toInstant()))
+                .build();
+    }
+
+    static List<Complaint> fixture(Random random, int size, int employees) {
+        List<Complaint> complaints = new ArrayList<>(size);
+        long now = System.currentTimeMillis();
+        for (int i = 0; i < size; i++) {
+            int status = random.nextInt(10) == 0 ? 7 : random.nextInt(4);
+            boolean closed = status == 2 || status == 3;
+            String employee = random.nextInt(4) == 0 ? null : "emp" + random.nextInt(employees);
+            Complaint complaint = Complaint.builder()
+                    .id("c" + i)
+                    .status(status)
+                    .type(random.nextInt(7) - 1)
+                    .category(random.nextInt(11))
+                    .recievedDate(new Date(now - (long) random.nextInt(400) * 24 * 60 * 60 * 1000L))
+                    .daysToResolve(closed && random.nextBoolean() ? random.nextInt(40) : null)
+                    .daysfromExpiration(random.nextInt(3) == 0 ? random.nextInt(20) : null)
+                    .employee(employee)
+                    .employeeProfile(employee == null ? null
+                            : Profile.builder().id(employee).name("Nombre" + employee)
+                                    .lastname("Apellido").email(employee + "@test.com").build())
+                    .build();
+            complaints.add(complaint);
+        }
+        return complaints;
+    }
+
+    // Cálculo original de PQRSStatisticsService, usado como oráculo. Los empates del ranking, que
+    // el original dejaba en el orden del HashMap, se desempatan por id como en todos los motores
+    private static final class LegacyStatistics {
+        private static final int EXPIRATION_DAYS = 15;
+
+        static PQRSStatisticsDTO compute(List<Complaint> complaints) {
+            if (complaints.isEmpty()) {
+                return PQRSStatisticsDTO.builder().totalPqrs(0L).openPqrs(0L).closedPqrs(0L)
+                        .inProgressPqrs(0L).build();
+            }
+            return PQRSStatisticsDTO.builder()
+                    .totalPqrs((long) complaints.size())
+                    .openPqrs(countByStatus(complaints, 0))
+                    .closedPqrs(countByStatus(complaints, 2, 3))
+                    .inProgressPqrs(countByStatus(complaints, 1))
+                    .pqrsByStatus(groupBy(complaints, c -> statusName(c.getStatus())))
+                    .pqrsByType(groupBy(complaints, c -> typeName(c.getType())))
+                    .pqrsByCategory(groupBy(complaints, c -> categoryName(c.getCategory())))
+                    .averageDaysToResolve(resolved(complaints).average().orElse(0.0))
+                    .minDaysToResolve(resolved(complaints).min().orElse(0))
+                    .maxDaysToResolve(resolved(complaints).max().orElse(0))
+                    .expiredPqrs(complaints.stream().filter(c -> isOpen(c) && elapsed(c) > EXPIRATION_DAYS).count())
+                    .nearExpirationPqrs(complaints.stream()
+                            .filter(c -> isOpen(c) && EXPIRATION_DAYS - elapsed(c) >= 0
+                                    && EXPIRATION_DAYS - elapsed(c) <= 3)
+                            .count())
+                    .averageDaysFromExpiration(complaints.stream().filter(c -> c.getDaysfromExpiration() != null)
+                            .mapToInt(Complaint::getDaysfromExpiration).average().orElse(0.0))
+                    .topEmployees(employeeStats(complaints))
+                    .monthlyTrends(monthlyTrends(complaints))
+                    .resolutionRate(Math.round((countClosed(complaints) * 100.0 / complaints.size()) * 100.0) / 100.0)
+                    .satisfactionRate(satisfactionRate(complaints))
+                    .build();
+        }
+
+        private static Long countByStatus(List<Complaint> complaints, Integer... statuses) {
+            Set<Integer> statusSet = Set.of(statuses);
+            return complaints.stream().filter(c -> statusSet.contains(c.getStatus())).count();
+        }
+
+        private static Map<String, Long> groupBy(List<Complaint> complaints,
+                java.util.function.Function<Complaint, String> classifier) {
+            return complaints.stream().collect(Collectors.groupingBy(classifier, Collectors.counting()));
+        }
+
+        private static String statusName(Integer code) {
+            return name(code, PQRSStatisticsAccumulator.STATUS_NAMES, "Desconocido");
+        }
+
+        private static String typeName(Integer code) {
+            return name(code, PQRSStatisticsAccumulator.TYPE_NAMES, "Otro");
+        }
+
+        private static String categoryName(Integer code) {
+            return name(code, PQRSStatisticsAccumulator.CATEGORY_NAMES, "Sin Categoría");
+        }
+
+        private static String name(Integer code, String[] names, String unknown) {
+            return code != null && code >= 0 && code < names.length ? names[code] : unknown;
+        }
+
+        private static boolean isClosed(Integer status) {
+            return status != null && (status == 3 || status == 2);
+        }
+
+        private static boolean isOpen(Complaint c) {
+            return c.getRecievedDate() != null && !isClosed(c.getStatus());
+        }
+
+        private static long countClosed(List<Complaint> complaints) {
+            return complaints.stream().filter(c -> isClosed(c.getStatus())).count();
+        }
+
+        private static java.util.stream.IntStream resolved(List<Complaint> complaints) {
+            return complaints.stream().filter(c -> c.getDaysToResolve() != null && isClosed(c.getStatus()))
+                    .mapToInt(Complaint::getDaysToResolve);
+        }
+
+        private static int elapsed(Complaint c) {
+            LocalDate recieved = c.getRecievedDate().toInstant().atZone(ZoneId.systemDefault()).toLocalDate();
+            return (int) java.time.temporal.ChronoUnit.DAYS.between(recieved, LocalDate.now());
+        }
+
+        private static List<PQRSStatisticsDTO.EmployeeStatsDTO> employeeStats(List<Complaint> complaints) {
+            Map<String, List<Complaint>> byEmployee = complaints.stream()
+                    .filter(c -> c.getEmployee() != null && c.getEmployeeProfile() != null)
+                    .collect(Collectors.groupingBy(Complaint::getEmployee));
+            return byEmployee.entrySet().stream()
+                    .map(entry -> {
+                        List<Complaint> emp = entry.getValue();
+                        Complaint sample = emp.get(0);
+                        long totalResolved = countClosed(emp);
+                        double avg = resolved(emp).average().orElse(0.0);
+                        double rate = (totalResolved * 100.0) / emp.size();
+                        return PQRSStatisticsDTO.EmployeeStatsDTO.builder()
+                                .employeeId(entry.getKey())
+                                .employeeName(sample.getEmployeeProfile().getName() + " "
+                                        + sample.getEmployeeProfile().getLastname())
+                                .employeeEmail(sample.getEmployeeProfile().getEmail())
+                                .totalAssigned((long) emp.size())
+                                .totalResolved(totalResolved)
+                                .averageResolutionTime(Math.round(avg * 100.0) / 100.0)
+                                .resolutionRate(Math.round(rate * 100.0) / 100.0)
+                                .build();
+                    })
+                    .sorted(Comparator.comparing(PQRSStatisticsDTO.EmployeeStatsDTO::getTotalResolved).reversed()
+                            .thenComparing(PQRSStatisticsDTO.EmployeeStatsDTO::getEmployeeId))
+                    .limit(10)
+                    .collect(Collectors.toList());
+        }
+
+        private static List<PQRSStatisticsDTO.MonthlyTrendDTO> monthlyTrends(List<Complaint> complaints) {
+            DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM");
+            Map<String, List<Complaint>> byMonth = complaints.stream()
+                    .collect(Collectors.groupingBy(c -> LocalDateTime
+                            .ofInstant(c.getRecievedDate().toInstant(), ZoneId.systemDefault()).format(formatter)));
+            return byMonth.entrySet().stream()
+                    .map(entry -> PQRSStatisticsDTO.MonthlyTrendDTO.builder()
+                            .month(entry.getKey())
+                            .totalReceived((long) entry.getValue().size())
+                            .totalResolved(countClosed(entry.getValue()))
+                            .averageResolutionTime(
+                                    Math.round(resolved(entry.getValue()).average().orElse(0.0) * 100.0) / 100.0)
+                            .build())
+                    .sorted(Comparator.comparing(PQRSStatisticsDTO.MonthlyTrendDTO::getMonth))
+                    .collect(Collectors.toList());
+        }
+
+        private static Double satisfactionRate(List<Complaint> complaints) {
+            long satisfactory = complaints.stream().filter(c -> isClosed(c.getStatus())
+                    && c.getDaysToResolve() != null && c.getDaysToResolve() <= 15).count();
+            long totalClosed = countClosed(complaints);
+            if (totalClosed == 0)
+                return 0.0;
+            return Math.round((satisfactory * 100.0 / totalClosed) * 100.0) / 100.0;
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package com.quejapp.quejapi.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import com.quejapp.quejapi.dto.PQRSStatisticsDTO;
+
+import de.bwaldvogel.mongo.MongoServer;
+import de.bwaldvogel.mongo.backend.memory.MemoryBackend;
+
+@DisplayName("Motores de estadísticas - Pruebas Unitarias")
+class PQRSStatisticsEnginesUnitTest {
+
+    private MongoServer server;
+    private MongoClient client;
+    private MongoTemplate mongoTemplate;
+    private InMemoryStatisticsEngine memoryEngine;
+    private AggregationStatisticsEngine aggregationEngine;
+
+    @BeforeEach
+    void setUp() {
+        server = new MongoServer(new MemoryBackend());
+        client = MongoClients.create(server.bindAndGetConnectionString());
+        mongoTemplate = new MongoTemplate(client, "quejappdb");
+
+        memoryEngine = new InMemoryStatisticsEngine(mongoTemplate);
+        aggregationEngine = new AggregationStatisticsEngine(mongoTemplate);
+    }
+
+    @AfterEach
+    void tearDown() {
+        client.close();
+        server.shutdown();
+    }
+
+    @Test
+    @DisplayName("Ambos motores coinciden sobre los mismos datos")
+    void testEnginesAgree() {
+        mongoTemplate.insertAll(PQRSStatisticsAccumulatorUnitTest.fixture(new Random(11), 400, 8));
+
+        assertEquivalent(memoryEngine.compute(null, null), aggregationEngine.compute(null, null));
+
+        LocalDate end = LocalDate.now().minusDays(20);
+        LocalDate start = end.minusDays(90);
+        assertEquivalent(memoryEngine.compute(start, end), aggregationEngine.compute(start, end));
+        assertEquivalent(memoryEngine.compute(start, null), aggregationEngine.compute(start, null));
+    }
+
+    @Test
+    @DisplayName("Las secciones calculadas en paralelo coinciden con el $facet")
+    void testParallelSectionsMatchFacet() {
+        mongoTemplate.insertAll(PQRSStatisticsAccumulatorUnitTest.fixture(new Random(12), 300, 6));
+        AggregationStatisticsEngine parallelEngine = new AggregationStatisticsEngine(mongoTemplate);
+        ReflectionTestUtils.setField(parallelEngine, "parallelSections", true);
+
+        assertEquals(aggregationEngine.compute(null, null), parallelEngine.compute(null, null));
+        LocalDate start = LocalDate.now().minusDays(120);
+        assertEquals(aggregationEngine.compute(start, null), parallelEngine.compute(start, null));
+    }
+
+    @Test
+    @DisplayName("Sin datos ambos motores retornan estadísticas vacías")
+    void testEnginesAgreeOnEmptyCollection() {
+        assertEquals(memoryEngine.compute(null, null), aggregationEngine.compute(null, null));
+    }
+
+    @Test
+    @DisplayName("El servicio usa el cálculo en la JVM si el pipeline falla")
+    void testServiceFallsBackToMemoryEngine() {
+        PQRSStatisticsEngine failing = mock(PQRSStatisticsEngine.class);
+        when(failing.getName()).thenReturn(AggregationStatisticsEngine.NAME);
+        when(failing.compute(any(), any())).thenThrow(new IllegalStateException("$facet no soportado"));
+        mongoTemplate.insertAll(PQRSStatisticsAccumulatorUnitTest.fixture(new Random(3), 50, 4));
+
+        PQRSStatisticsService service = new PQRSStatisticsService(List.of(failing, memoryEngine),
+                mock(StatisticsCounterStore.class), mock(StatisticsDailyRollupStore.class),
+                new StatisticsResultCache(), mock(ComplaintDeadlineIndex.class), mock(ComplaintCube.class),
+                mock(StatisticsRangeIndex.class), mock(MonthlyTrendStore.class),
+                mock(EmployeeLeaderboard.class));
+        ReflectionTestUtils.setField(service, "engineName", AggregationStatisticsEngine.NAME);
+
+        assertEquals(50L, service.getStatistics(null, null).getTotalPqrs());
+    }
+
+    @Test
+    @DisplayName("La vista general sale entera del motor, sin mezclar el índice de plazos ni el ranking")
+    void testOverviewHasSingleSource() {
+        mongoTemplate.insertAll(PQRSStatisticsAccumulatorUnitTest.fixture(new Random(5), 200, 12));
+        ComplaintDeadlineIndex deadlineIndex = mock(ComplaintDeadlineIndex.class);
+        EmployeeLeaderboard leaderboard = mock(EmployeeLeaderboard.class);
+        when(deadlineIndex.isLoaded()).thenReturn(true);
+        when(leaderboard.isLoaded()).thenReturn(true);
+
+        PQRSStatisticsService service = new PQRSStatisticsService(List.of(memoryEngine),
+                mock(StatisticsCounterStore.class), mock(StatisticsDailyRollupStore.class),
+                new StatisticsResultCache(), deadlineIndex, mock(ComplaintCube.class),
+                mock(StatisticsRangeIndex.class), mock(MonthlyTrendStore.class), leaderboard);
+        ReflectionTestUtils.setField(service, "engineName", InMemoryStatisticsEngine.NAME);
+
+        assertEquals(memoryEngine.compute(null, null), service.getStatistics(null, null));
+        verifyNoInteractions(deadlineIndex, leaderboard);
+    }
+
+    @Test
+    @DisplayName("El motor en la JVM solo lee los campos usados por el acumulador")
+    void testMemoryEngineProjection() {
+        Query query = StatisticsProjection.query(StatisticsDateCriteria.recievedBetween(LocalDate.now(), null));
+
+        assertEquals(Set.of(StatisticsProjection.FIELDS), query.getFieldsObject().keySet());
+        assertFalse(query.getFieldsObject().containsKey("traceability"));
+        assertTrue(query.getQueryObject().containsKey("recievedDate"));
+        assertTrue(StatisticsProjection.query(new Criteria()).getQueryObject().isEmpty());
+    }
+
+    private static void assertEquivalent(PQRSStatisticsDTO expected, PQRSStatisticsDTO actual) {
+        assertTrue(expected.getTotalPqrs() > 0);
+        // Ambos motores desempatan el ranking por id de empleado
+        assertEquals(expected, actual);
+    }
+}
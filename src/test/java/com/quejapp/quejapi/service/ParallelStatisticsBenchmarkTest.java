@@ -0,0 +1,79 @@
+package com.quejapp.quejapi.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Random;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import com.quejapp.quejapi.dto.PQRSStatisticsDTO;
+import com.quejapp.quejapi.model.Profile;
+
+// Ejecutar con: mvn test -Dtest=ParallelStatisticsBenchmarkTest -Dbenchmark=true
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@DisplayName("Escaneo columnar paralelo - Benchmark")
+class ParallelStatisticsBenchmarkTest {
+
+    private static final int COMPLAINTS = Integer.getInteger("benchmark.complaints", 1_000_000);
+    private static final int EMPLOYEES = 500;
+    private static final int WARMUP = 5;
+    private static final int RUNS = 15;
+    private static final int CHUNKS = Integer.getInteger("benchmark.chunks", Runtime.getRuntime().availableProcessors());
+
+    @Test
+    @DisplayName("Compara el escaneo secuencial con el paralelo por bloques de filas")
+    void compareSequentialAndParallelScan() {
+        ComplaintColumnStore.Columns columns = columns();
+        LocalDate today = LocalDate.now();
+        LocalDate start = today.minusDays(300);
+
+        PQRSStatisticsDTO sequential = columns.aggregate(null, null, 0, 1).toStatistics(today);
+        assertEquals(sequential, columns.aggregate(null, null, 65536, CHUNKS).toStatistics(today));
+
+        double sequentialMillis = best(() -> columns.aggregate(start, null, 0, 1));
+        double parallelMillis = best(() -> columns.aggregate(start, null, 65536, CHUNKS));
+        System.out.printf("%d quejas, %d núcleos: secuencial %.1f ms, paralelo %.1f ms, aceleración %.2fx%n",
+                COMPLAINTS, Runtime.getRuntime().availableProcessors(), sequentialMillis, parallelMillis,
+                sequentialMillis / parallelMillis);
+    }
+
+    private static double best(Runnable scan) {
+        for (int i = 0; i < WARMUP; i++) {
+            scan.run();
+        }
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < RUNS; i++) {
+            long started = System.nanoTime();
+            scan.run();
+            best = Math.min(best, System.nanoTime() - started);
+        }
+        return best / 1_000_000.0;
+    }
+
+    // Misma distribución que PQRSStatisticsAccumulatorUnitTest.fixture, sin materializar las quejas
+    private static ComplaintColumnStore.Columns columns() {
+        Random random = new Random(18);
+        Profile[] profiles = new Profile[EMPLOYEES];
+        for (int i = 0; i < EMPLOYEES; i++) {
+            profiles[i] = Profile.builder().id("emp" + i).name("Nombre" + i).lastname("Apellido")
+                    .email("emp" + i + "@test.com").build();
+        }
+        ComplaintColumnStore.Columns columns = new ComplaintColumnStore.Columns(ZoneId.systemDefault());
+        int today = (int) LocalDate.now().toEpochDay();
+        for (int i = 0; i < COMPLAINTS; i++) {
+            int status = random.nextInt(10) == 0 ? 7 : random.nextInt(4);
+            boolean closed = status == 2 || status == 3;
+            int employee = random.nextInt(4) == 0 ? -1 : random.nextInt(EMPLOYEES);
+            columns.upsert(new ComplaintColumnStore.Row("c" + i, (byte) status, (byte) (random.nextInt(7) - 1),
+                    (byte) random.nextInt(11), today - random.nextInt(1500),
+                    closed && random.nextBoolean() ? random.nextInt(40) : ComplaintColumnStore.MISSING,
+                    random.nextInt(3) == 0 ? random.nextInt(20) : ComplaintColumnStore.MISSING,
+                    employee < 0 ? null : profiles[employee].getId(), employee < 0 ? null : profiles[employee]));
+        }
+        return columns;
+    }
+}
@@ -0,0 +1,71 @@
+package com.quejapp.quejapi.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+@DisplayName("ResolutionHistogram - Pruebas Unitarias")
+class ResolutionHistogramUnitTest {
+
+    @Test
+    @DisplayName("Cada valor cae en un cubo cuyo límite superior lo acota")
+    void testBucketBounds() {
+        for (int days = 0; days < 100_000; days++) {
+            int bucket = ResolutionHistogram.bucket(days);
+            int upper = ResolutionHistogram.upperBound(bucket);
+            assertTrue(upper >= days);
+            assertTrue(days < ResolutionHistogram.EXACT ? upper == days
+                    : upper - days < days / (double) ResolutionHistogram.SUB_BUCKETS);
+            assertTrue(bucket == 0 || ResolutionHistogram.upperBound(bucket - 1) < days);
+        }
+        assertEquals(ResolutionHistogram.BUCKETS - 1, ResolutionHistogram.bucket(Integer.MAX_VALUE));
+        assertEquals(Integer.MAX_VALUE, ResolutionHistogram.upperBound(ResolutionHistogram.BUCKETS - 1));
+    }
+
+    @Test
+    @DisplayName("Los percentiles respetan el error documentado")
+    void testPercentileError() {
+        Random random = new Random(8);
+        int[] values = new int[5000];
+        ResolutionHistogram histogram = new ResolutionHistogram();
+        for (int i = 0; i < values.length; i++) {
+            values[i] = (int) Math.min(2000, Math.round(Math.exp(random.nextGaussian() * 1.2 + 2.5)));
+            histogram.add(values[i], 1);
+        }
+        Arrays.sort(values);
+
+        for (double fraction : ResolutionHistogram.PERCENTILES) {
+            int exact = values[(int) Math.ceil(fraction * values.length) - 1];
+            int estimate = histogram.percentile(fraction);
+            assertTrue(estimate >= exact);
+            assertTrue(exact < ResolutionHistogram.EXACT ? estimate == exact
+                    : estimate - exact < exact / (double) ResolutionHistogram.SUB_BUCKETS);
+        }
+    }
+
+    @Test
+    @DisplayName("Combinar histogramas equivale a uno solo")
+    void testMerge() {
+        ResolutionHistogram first = new ResolutionHistogram();
+        ResolutionHistogram second = new ResolutionHistogram();
+        ResolutionHistogram all = new ResolutionHistogram();
+        for (int days = 0; days < 300; days += 7) {
+            (days % 2 == 0 ? first : second).add(days, 1);
+            all.add(days, 1);
+        }
+        Map<String, Long> stored = new HashMap<>();
+        second.putNonZero(stored);
+        ResolutionHistogram restored = new ResolutionHistogram();
+        restored.addAll(stored);
+        first.merge(restored, 1);
+
+        assertEquals(all.toPercentiles(), first.toPercentiles());
+        assertNull(new ResolutionHistogram().percentile(0.5));
+    }
+}
@@ -0,0 +1,122 @@
+package com.quejapp.quejapi.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@DisplayName("SingleFlight - Pruebas Unitarias")
+class SingleFlightUnitTest {
+
+    private static final int CALLERS = 8;
+
+    private SimpleMeterRegistry registry;
+    private SingleFlight<String, String> singleFlight;
+    private ExecutorService executor;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        singleFlight = new SingleFlight<>("test");
+        singleFlight.bindTo(registry);
+        executor = Executors.newFixedThreadPool(CALLERS);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("Llamadas simultáneas con la misma clave ejecutan un solo cálculo")
+    void testConcurrentCallsAreCoalesced() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger executions = new AtomicInteger();
+
+        List<Future<String>> results = submitAll(() -> singleFlight.execute("overview", () -> {
+            executions.incrementAndGet();
+            release.await();
+            return "resultado";
+        }));
+        awaitCoalesced(CALLERS - 1);
+        release.countDown();
+
+        for (Future<String> result : results) {
+            assertEquals("resultado", result.get(5, TimeUnit.SECONDS));
+        }
+        assertEquals(1, executions.get());
+        assertEquals(1.0, registry.get("quejapi.singleflight.calls").tag("result", "executed").functionCounter().count());
+        assertEquals(CALLERS - 1.0,
+                registry.get("quejapi.singleflight.calls").tag("result", "coalesced").functionCounter().count());
+    }
+
+    @Test
+    @DisplayName("Los que esperan reciben la excepción del cálculo")
+    void testFailureIsSharedWithWaiters() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+
+        List<Future<String>> results = submitAll(() -> singleFlight.execute("overview", () -> {
+            release.await();
+            throw new IllegalStateException("falló");
+        }));
+        awaitCoalesced(CALLERS - 1);
+        release.countDown();
+
+        for (Future<String> result : results) {
+            Exception e = assertThrows(Exception.class, () -> result.get(5, TimeUnit.SECONDS));
+            assertInstanceOf(IllegalStateException.class, e.getCause());
+        }
+    }
+
+    @Test
+    @DisplayName("Claves distintas y llamadas sucesivas no se combinan")
+    void testSequentialAndDistinctKeysRunAgain() {
+        assertEquals("a", singleFlight.run("a", () -> "a"));
+        assertEquals("a", singleFlight.run("a", () -> "a"));
+        assertEquals("b", singleFlight.run("b", () -> "b"));
+
+        assertEquals(3, singleFlight.getExecuted());
+        assertEquals(0, singleFlight.getCoalesced());
+    }
+
+    private List<Future<String>> submitAll(Callable<String> call) {
+        List<Future<String>> results = new ArrayList<>();
+        for (int i = 0; i < CALLERS; i++) {
+            results.add(executor.submit(call));
+        }
+        return results;
+    }
+
+    private void awaitCoalesced(int expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (singleFlight.getCoalesced() < expected && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertEquals(expected, singleFlight.getCoalesced());
+    }
+
+    @Test
+    @DisplayName("Los contadores solo se registran en el registro de la aplicación")
+    void testCountersBypassGlobalRegistry() {
+        new SingleFlight<String, String>("sin-registro").run("clave", () -> "valor");
+
+        assertNull(Metrics.globalRegistry.find("quejapi.singleflight.calls").tag("name", "sin-registro")
+                .functionCounter());
+        assertNull(registry.find("quejapi.singleflight.calls").tag("name", "sin-registro").functionCounter());
+    }
+}
@@ -0,0 +1,160 @@
+package com.quejapp.quejapi.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import com.quejapp.quejapi.model.Complaint;
+
+import de.bwaldvogel.mongo.MongoServer;
+import de.bwaldvogel.mongo.backend.memory.MemoryBackend;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@DisplayName("SlaSweeper - Pruebas Unitarias")
+class SlaSweeperUnitTest {
+
+    private static final long HOUR = 60 * 60 * 1000L;
+    private static final long DAY = SlaSweeper.DAY_MILLIS;
+
+    private MongoServer server;
+    private MongoClient client;
+    private MongoTemplate mongoTemplate;
+    private ApplicationEventPublisher eventPublisher;
+    private SimpleMeterRegistry registry;
+    private SlaSweeper sweeper;
+    private Date now;
+
+    @BeforeEach
+    void setUp() {
+        server = new MongoServer(new MemoryBackend());
+        client = MongoClients.create(server.bindAndGetConnectionString());
+        mongoTemplate = new MongoTemplate(client, "quejappdb");
+        eventPublisher = mock(ApplicationEventPublisher.class);
+        registry = new SimpleMeterRegistry();
+        sweeper = new SlaSweeper(mongoTemplate, eventPublisher, registry);
+        ReflectionTestUtils.setField(sweeper, "batchSize", 2);
+        now = new Date();
+
+        insert("vencida-20", 0, ago(20 * DAY + 5 * HOUR), null);
+        insert("vencida-16", 1, ago(16 * DAY + 23 * HOUR + 30 * 60 * 1000L), null);
+        insert("vencida-18", 0, ago(18 * DAY + 2 * HOUR), 3);
+        insert("a-tiempo", 0, ago(10 * DAY), null);
+        insert("cerrada", 2, ago(30 * DAY), 0);
+    }
+
+    @AfterEach
+    void tearDown() {
+        client.close();
+        server.shutdown();
+    }
+
+    @Test
+    @DisplayName("El primer barrido actualiza todas las quejas abiertas vencidas")
+    void testFirstSweepUpdatesEveryOverdueComplaint() {
+        // vencida-18 ya tenía el valor correcto
+        assertEquals(2, sweeper.sweep(now));
+
+        Map<String, Integer> days = daysByReference();
+        assertEquals(5, days.get("vencida-20"));
+        assertEquals(1, days.get("vencida-16"));
+        assertEquals(3, days.get("vencida-18"));
+        assertNull(days.get("a-tiempo"));
+        assertEquals(0, days.get("cerrada"));
+        // La fecha de actualización permite al almacén columnar recuperar el cambio tras reiniciar
+        Map<String, Date> updatedDates = mongoTemplate.findAll(Complaint.class).stream()
+                .filter(c -> c.getUpdatedDate() != null)
+                .collect(Collectors.toMap(Complaint::getReference, Complaint::getUpdatedDate));
+        assertEquals(Map.of("vencida-20", now, "vencida-16", now), updatedDates);
+
+        ArgumentCaptor<ComplaintBatchChangedEvent> events = ArgumentCaptor.forClass(ComplaintBatchChangedEvent.class);
+        verify(eventPublisher).publishEvent(events.capture());
+        assertEquals(2, events.getValue().changes().size());
+        assertEquals(2.0, registry.get("quejapi.sla.sweep.updated").counter().count());
+        assertEquals(1, registry.get("quejapi.sla.sweep.duration").timer().count());
+    }
+
+    @Test
+    @DisplayName("Los barridos siguientes solo tocan las quejas que cruzaron un día")
+    void testLaterSweepsOnlyTouchCrossedBoundaries() {
+        sweeper.sweep(now);
+
+        // vencida-16 cruza su día 17 a la media hora; vencida-20 a las 19 horas
+        assertEquals(0, sweeper.sweep(new Date(now.getTime() + 20 * 60 * 1000L)));
+        assertEquals(1, sweeper.sweep(new Date(now.getTime() + HOUR)));
+        assertEquals(2, daysByReference().get("vencida-16"));
+        assertEquals(5, daysByReference().get("vencida-20"));
+        assertEquals(3, daysByReference().get("vencida-18"));
+    }
+
+    @Test
+    @DisplayName("Una queja resuelta durante el barrido no se sobrescribe")
+    void testResolvedComplaintIsNotOverwritten() {
+        Complaint resolved = mongoTemplate.findAll(Complaint.class).stream()
+                .filter(c -> "vencida-20".equals(c.getReference())).findFirst().orElseThrow();
+        resolved.setStatus(2);
+        resolved.setDaysfromExpiration(4);
+        mongoTemplate.save(resolved);
+
+        sweeper.sweep(now);
+
+        assertEquals(4, daysByReference().get("vencida-20"));
+    }
+
+    @Test
+    @DisplayName("Solo se publican los cambios que se aplicaron, con la queja completa")
+    void testOnlyAppliedChangesArePublished() {
+        MongoTemplate spied = spy(mongoTemplate);
+        sweeper = new SlaSweeper(spied, eventPublisher, registry);
+        ReflectionTestUtils.setField(sweeper, "batchSize", 2);
+        // vencida-20 se resuelve entre la lectura del barrido y su escritura
+        doAnswer(invocation -> {
+            Complaint resolved = mongoTemplate.findAll(Complaint.class).stream()
+                    .filter(c -> "vencida-20".equals(c.getReference())).findFirst().orElseThrow();
+            resolved.setStatus(2);
+            mongoTemplate.save(resolved);
+            return invocation.callRealMethod();
+        }).doCallRealMethod().when(spied).bulkOps(any(BulkOperations.BulkMode.class), eq(Complaint.class));
+
+        assertEquals(1, sweeper.sweep(now));
+
+        ArgumentCaptor<ComplaintBatchChangedEvent> events = ArgumentCaptor.forClass(ComplaintBatchChangedEvent.class);
+        verify(eventPublisher).publishEvent(events.capture());
+        List<ComplaintChangedEvent> changes = events.getValue().changes();
+        assertEquals(1, changes.size());
+        assertEquals("vencida-16", changes.get(0).current().getReference());
+        assertEquals("Queja vencida-16", changes.get(0).current().getDescription());
+        assertEquals("Queja vencida-16", changes.get(0).previous().getDescription());
+        assertEquals(1.0, registry.get("quejapi.sla.sweep.updated").counter().count());
+    }
+
+    private void insert(String reference, int status, Date recievedDate, Integer daysfromExpiration) {
+        mongoTemplate.insert(Complaint.builder().reference(reference).status(status).recievedDate(recievedDate)
+                .daysfromExpiration(daysfromExpiration).description("Queja " + reference).build());
+    }
+
+    private Date ago(long millis) {
+        return new Date(now.getTime() - millis);
+    }
+
+    private Map<String, Integer> daysByReference() {
+        List<Complaint> complaints = mongoTemplate.findAll(Complaint.class);
+        return complaints.stream().filter(c -> c.getDaysfromExpiration() != null)
+                .collect(Collectors.toMap(Complaint::getReference, Complaint::getDaysfromExpiration));
+    }
+}
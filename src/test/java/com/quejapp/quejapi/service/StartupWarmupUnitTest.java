@@ -0,0 +1,82 @@
+package com.quejapp.quejapi.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.boot.actuate.health.Status;
+
+@DisplayName("StartupWarmup - Pruebas Unitarias")
+class StartupWarmupUnitTest {
+
+    private ComplaintIndexVerifier indexVerifier;
+    private ComplaintDateFieldsMigration dateFieldsMigration;
+    private StatisticsCounterStore counterStore;
+    private StatisticsDailyRollupStore dailyRollupStore;
+    private StatisticsRangeIndex rangeIndex;
+    private ComplaintCube cube;
+    private ComplaintColumnStore columnStore;
+    private EmployeeLeaderboard leaderboard;
+    private ComplaintDeadlineIndex deadlineIndex;
+    private ComplaintSearchIndex searchIndex;
+    private StartupWarmup warmup;
+
+    @BeforeEach
+    void setUp() {
+        indexVerifier = mock(ComplaintIndexVerifier.class);
+        dateFieldsMigration = mock(ComplaintDateFieldsMigration.class);
+        counterStore = mock(StatisticsCounterStore.class);
+        dailyRollupStore = mock(StatisticsDailyRollupStore.class);
+        rangeIndex = mock(StatisticsRangeIndex.class);
+        cube = mock(ComplaintCube.class);
+        columnStore = mock(ComplaintColumnStore.class);
+        leaderboard = mock(EmployeeLeaderboard.class);
+        deadlineIndex = mock(ComplaintDeadlineIndex.class);
+        searchIndex = mock(ComplaintSearchIndex.class);
+        warmup = new StartupWarmup(indexVerifier, dateFieldsMigration, counterStore, dailyRollupStore, rangeIndex,
+                cube, columnStore, leaderboard, deadlineIndex, searchIndex);
+    }
+
+    @Test
+    @DisplayName("La disponibilidad espera a que termine la carga inicial")
+    void testReadinessWaitsForWarmup() {
+        assertEquals(Status.OUT_OF_SERVICE, warmup.health().getStatus());
+
+        warmup.run();
+
+        assertTrue(warmup.isFinished());
+        assertEquals(Status.UP, warmup.health().getStatus());
+        // La migración va primero porque las cargas leen sus campos
+        InOrder order = inOrder(dateFieldsMigration, counterStore, searchIndex);
+        order.verify(dateFieldsMigration).initialize();
+        order.verify(counterStore).initialize();
+        order.verify(searchIndex).initialize();
+        verify(columnStore).initialize();
+        verifyNoInteractions(indexVerifier);
+    }
+
+    @Test
+    @DisplayName("Un paso fallido marca la aplicación como caída sin detener los demás")
+    void testFailedStepIsReported() {
+        doThrow(new IllegalStateException("sin conexión")).when(cube).initialize();
+
+        warmup.run();
+
+        assertEquals(Status.DOWN, warmup.health().getStatus());
+        assertEquals("sin conexión", warmup.health().getDetails().get("cube"));
+        verify(leaderboard).initialize();
+        verify(searchIndex).initialize();
+    }
+
+    @Test
+    @DisplayName("La verificación de índices sigue deteniendo el arranque")
+    void testIndexVerificationStillStopsStartup() {
+        doThrow(new IllegalStateException("COLLSCAN")).when(indexVerifier).initialize();
+
+        assertThrows(IllegalStateException.class, warmup::onApplicationReady);
+        verifyNoInteractions(dateFieldsMigration, searchIndex);
+    }
+}
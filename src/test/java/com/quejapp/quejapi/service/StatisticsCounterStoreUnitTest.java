@@ -0,0 +1,172 @@
+package com.quejapp.quejapi.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import com.quejapp.quejapi.dto.PQRSStatisticsDTO;
+import com.quejapp.quejapi.dto.StatisticsConsistencyReport;
+import com.quejapp.quejapi.model.Complaint;
+import com.quejapp.quejapi.model.Profile;
+import com.quejapp.quejapi.model.StatisticsRollup;
+
+import de.bwaldvogel.mongo.MongoServer;
+import de.bwaldvogel.mongo.backend.memory.MemoryBackend;
+
+@DisplayName("StatisticsCounterStore - Pruebas Unitarias")
+class StatisticsCounterStoreUnitTest {
+
+    private MongoServer server;
+    private MongoClient client;
+    private MongoTemplate mongoTemplate;
+    private StatisticsCounterStore store;
+    private InMemoryStatisticsEngine memoryEngine;
+
+    @BeforeEach
+    void setUp() {
+        server = new MongoServer(new MemoryBackend());
+        client = MongoClients.create(server.bindAndGetConnectionString());
+        mongoTemplate = new MongoTemplate(client, "quejappdb");
+
+        store = new StatisticsCounterStore(mongoTemplate);
+        memoryEngine = new InMemoryStatisticsEngine(mongoTemplate);
+        mongoTemplate.insertAll(PQRSStatisticsAccumulatorUnitTest.fixture(new Random(5), 300, 6));
+    }
+
+    @AfterEach
+    void tearDown() {
+        client.close();
+        server.shutdown();
+    }
+
+    @Test
+    @DisplayName("Sin documento de contadores se reconstruye al consultar")
+    void testGetStatisticsRebuildsWhenMissing() {
+        PQRSStatisticsDTO result = store.getStatistics();
+
+        assertEquals(300L, result.getTotalPqrs());
+        assertNotNull(mongoTemplate.findById(StatisticsCounterStore.GLOBAL_ID, StatisticsRollup.class));
+        assertEquivalent(memoryEngine.compute(null, null), result);
+    }
+
+    @Test
+    @DisplayName("Crear y actualizar quejas aplica deltas consistentes")
+    void testDeltasMatchFullRecomputation() {
+        store.rebuild();
+
+        Complaint created = mongoTemplate.insert(Complaint.builder()
+                .status(0).type(2).category(3).recievedDate(new Date()).build());
+        store.onComplaintChanged(new ComplaintChangedEvent(null, created));
+
+        Complaint stored = mongoTemplate.findAll(Complaint.class).stream()
+                .filter(c -> Integer.valueOf(0).equals(c.getStatus()))
+                .findFirst().orElseThrow();
+        Complaint previous = stored.toBuilder().build();
+        stored.setStatus(2);
+        stored.setDaysToResolve(4);
+        stored.setEmployee("emp-nuevo");
+        stored.setEmployeeProfile(Profile.builder().id("emp-nuevo").name("Ana").lastname("Gómez")
+                .email("ana@test.com").build());
+        mongoTemplate.save(stored);
+        store.onComplaintChanged(new ComplaintChangedEvent(previous, stored));
+
+        StatisticsConsistencyReport report = store.verify();
+        assertTrue(report.isConsistent(), () -> "Diferencias: " + report.getMismatches());
+        assertEquals(301L, report.getStoredTotal());
+        assertEquivalent(memoryEngine.compute(null, null), store.getStatistics());
+    }
+
+    @Test
+    @DisplayName("La verificación detecta contadores desfasados")
+    void testVerifyDetectsDrift() {
+        store.rebuild();
+        mongoTemplate.updateFirst(Query.query(Criteria.where("_id").is(StatisticsCounterStore.GLOBAL_ID)),
+                new Update().inc("byType.1", 1L), StatisticsRollup.class);
+
+        StatisticsConsistencyReport report = store.verify();
+
+        assertFalse(report.isConsistent());
+        assertEquals(List.of("byType"), report.getMismatches());
+    }
+
+    @Test
+    @DisplayName("Las escrituras durante la reconstrucción no se pierden ni se duplican")
+    void testRebuildKeepsWritesMadeDuringScan() {
+        store.rebuild();
+        StatisticsCounterStore[] rebuilding = new StatisticsCounterStore[1];
+        rebuilding[0] = new StatisticsCounterStore(writingDuringScan(mongoTemplate, () ->
+                writeAround(mongoTemplate, complaint -> true, event -> rebuilding[0].onComplaintChanged(event))));
+
+        rebuilding[0].rebuild();
+
+        StatisticsConsistencyReport report = store.verify();
+        assertTrue(report.isConsistent(), () -> "Diferencias: " + report.getMismatches());
+        assertEquals(301L, report.getStoredTotal());
+    }
+
+    // Spy whose first complaint stream runs writes once the scan has passed one complaint
+    @SuppressWarnings("unchecked")
+    static MongoTemplate writingDuringScan(MongoTemplate mongoTemplate, Runnable writes) {
+        MongoTemplate scanning = spy(mongoTemplate);
+        AtomicBoolean written = new AtomicBoolean();
+        doAnswer(invocation -> {
+            AtomicInteger seen = new AtomicInteger();
+            return ((Stream<Complaint>) invocation.callRealMethod()).peek(complaint -> {
+                if (seen.incrementAndGet() == 2 && written.compareAndSet(false, true)) {
+                    writes.run();
+                }
+            });
+        }).when(scanning).stream(any(Query.class), eq(Complaint.class));
+        return scanning;
+    }
+
+    // Resolves the first and the last scanned complaint in _id order and creates a new one,
+    // publishing each change as the services do
+    static void writeAround(MongoTemplate mongoTemplate, Predicate<Complaint> scanned,
+            Consumer<ComplaintChangedEvent> listener) {
+        List<Complaint> complaints = mongoTemplate.findAll(Complaint.class).stream().filter(scanned)
+                .sorted(Comparator.comparing(Complaint::getId)).toList();
+        for (Complaint stored : List.of(complaints.get(0), complaints.get(complaints.size() - 1))) {
+            Complaint previous = stored.toBuilder().build();
+            stored.setStatus(2);
+            stored.setDaysToResolve(7);
+            stored.setEmployee("emp-concurrente");
+            stored.setEmployeeProfile(Profile.builder().id("emp-concurrente").name("Eva").lastname("Sanz")
+                    .email("eva@test.com").build());
+            mongoTemplate.save(stored);
+            listener.accept(new ComplaintChangedEvent(previous, stored));
+        }
+        Complaint created = mongoTemplate.insert(Complaint.builder()
+                .status(0).type(1).category(1).recievedDate(new Date()).build());
+        listener.accept(new ComplaintChangedEvent(null, created));
+    }
+
+    private static void assertEquivalent(PQRSStatisticsDTO expected, PQRSStatisticsDTO actual) {
+        Comparator<PQRSStatisticsDTO.EmployeeStatsDTO> byId =
+                Comparator.comparing(PQRSStatisticsDTO.EmployeeStatsDTO::getEmployeeId);
+        expected.getTopEmployees().sort(byId);
+        actual.getTopEmployees().sort(byId);
+        assertEquals(expected, actual);
+    }
+}
@@ -0,0 +1,165 @@
+package com.quejapp.quejapi.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.Random;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import com.quejapp.quejapi.dto.PQRSStatisticsDTO;
+import com.quejapp.quejapi.dto.ResolutionTimeDistributionDTO;
+import com.quejapp.quejapi.model.Complaint;
+import com.quejapp.quejapi.model.Profile;
+
+import de.bwaldvogel.mongo.MongoServer;
+import de.bwaldvogel.mongo.backend.memory.MemoryBackend;
+
+@DisplayName("StatisticsDailyRollupStore - Pruebas Unitarias")
+class StatisticsDailyRollupStoreUnitTest {
+
+    private MongoServer server;
+    private MongoClient client;
+    private MongoTemplate mongoTemplate;
+    private StatisticsDailyRollupStore store;
+    private InMemoryStatisticsEngine memoryEngine;
+
+    @BeforeEach
+    void setUp() {
+        server = new MongoServer(new MemoryBackend());
+        client = MongoClients.create(server.bindAndGetConnectionString());
+        mongoTemplate = new MongoTemplate(client, "quejappdb");
+
+        store = new StatisticsDailyRollupStore(mongoTemplate);
+        memoryEngine = new InMemoryStatisticsEngine(mongoTemplate);
+        mongoTemplate.insertAll(PQRSStatisticsAccumulatorUnitTest.fixture(new Random(9), 300, 6));
+    }
+
+    @AfterEach
+    void tearDown() {
+        client.close();
+        server.shutdown();
+    }
+
+    @Test
+    @DisplayName("Los rangos de fechas coinciden con el cálculo sobre las quejas")
+    void testRangesMatchRecomputation() {
+        int days = store.backfill();
+
+        assertTrue(days > 0);
+        assertEquals(days, mongoTemplate.estimatedCount(StatisticsDailyRollupStore.COLLECTION));
+        assertRangesMatch();
+    }
+
+    @Test
+    @DisplayName("Crear y actualizar quejas mantiene el resumen del día")
+    void testWritesRefreshDays() {
+        store.backfill();
+
+        Complaint created = mongoTemplate.insert(Complaint.builder()
+                .status(0).type(1).category(2).recievedDate(new Date()).build());
+        store.onComplaintChanged(new ComplaintChangedEvent(null, created));
+
+        Complaint stored = mongoTemplate.findAll(Complaint.class).stream()
+                .filter(c -> Integer.valueOf(1).equals(c.getStatus()) && c.getRecievedDate() != null)
+                .findFirst().orElseThrow();
+        Complaint previous = stored.toBuilder().build();
+        stored.setStatus(3);
+        stored.setDaysToResolve(20);
+        stored.setEmployee("emp-nuevo");
+        stored.setEmployeeProfile(Profile.builder().id("emp-nuevo").name("Luis").lastname("Mora")
+                .email("luis@test.com").build());
+        mongoTemplate.save(stored);
+        store.onComplaintChanged(new ComplaintChangedEvent(previous, stored));
+
+        assertRangesMatch();
+    }
+
+    @Test
+    @DisplayName("Los percentiles de resolución salen de los histogramas diarios")
+    void testResolutionDistributionFromDays() {
+        store.backfill();
+        Complaint stored = mongoTemplate.findAll(Complaint.class).stream()
+                .filter(c -> Integer.valueOf(0).equals(c.getStatus()) && c.getRecievedDate() != null)
+                .findFirst().orElseThrow();
+        Complaint previous = stored.toBuilder().build();
+        stored.setStatus(2);
+        stored.setDaysToResolve(45);
+        stored.setEmployee("emp1");
+        stored.setEmployeeProfile(Profile.builder().id("emp1").name("Ana").lastname("Ruiz")
+                .email("ana@test.com").build());
+        mongoTemplate.save(stored);
+        store.onComplaintChanged(new ComplaintChangedEvent(previous, stored));
+
+        LocalDate today = LocalDate.now();
+        for (LocalDate start : new LocalDate[] { null, today.minusDays(150) }) {
+            PQRSStatisticsAccumulator expected = new PQRSStatisticsAccumulator();
+            StatisticsProjection.forEach(mongoTemplate, StatisticsDateCriteria.recievedBetween(start, null),
+                    expected::add);
+            ResolutionTimeDistributionDTO distribution = store.getResolutionDistribution(start, null);
+
+            assertEquals(expected.toResolutionDistribution(), distribution);
+            assertTrue(distribution.getOverall().getCount() > 0);
+            assertFalse(distribution.getByEmployee().isEmpty());
+            assertFalse(distribution.getByMonth().isEmpty());
+        }
+    }
+
+    @Test
+    @DisplayName("Un rango sin días retorna estadísticas vacías")
+    void testEmptyRange() {
+        store.backfill();
+        LocalDate future = LocalDate.now().plusDays(10);
+
+        assertEquals(memoryEngine.compute(future, future.plusDays(5)), store.getStatistics(future, future.plusDays(5)));
+    }
+
+    @Test
+    @DisplayName("La reconstrucción conserva los días existentes y las escrituras hechas mientras recorre")
+    void testBackfillKeepsWritesMadeDuringScan() {
+        store.backfill();
+        long before = mongoTemplate.estimatedCount(StatisticsDailyRollupStore.COLLECTION);
+        StatisticsDailyRollupStore[] rebuilding = new StatisticsDailyRollupStore[1];
+        rebuilding[0] = new StatisticsDailyRollupStore(StatisticsCounterStoreUnitTest.writingDuringScan(mongoTemplate,
+                () -> {
+                    // Los lectores siguen viendo el resumen anterior mientras se reconstruye
+                    assertEquals(before, mongoTemplate.estimatedCount(StatisticsDailyRollupStore.COLLECTION));
+                    StatisticsCounterStoreUnitTest.writeAround(mongoTemplate, c -> c.getRecievedDate() != null,
+                            event -> rebuilding[0].onComplaintChanged(event));
+                }));
+
+        rebuilding[0].backfill();
+
+        assertFalse(mongoTemplate.collectionExists(StatisticsDailyRollupStore.STAGING_COLLECTION));
+        assertRangesMatch();
+        assertEquivalent(memoryEngine.compute(null, null), store.getStatistics(null, null));
+    }
+
+    private void assertRangesMatch() {
+        LocalDate today = LocalDate.now();
+        assertEquivalent(memoryEngine.compute(today.minusDays(120), today.minusDays(30)),
+                store.getStatistics(today.minusDays(120), today.minusDays(30)));
+        assertEquivalent(memoryEngine.compute(today.minusDays(20), null), store.getStatistics(today.minusDays(20), null));
+        assertEquivalent(memoryEngine.compute(null, today.minusDays(200)), store.getStatistics(null, today.minusDays(200)));
+        assertEquivalent(memoryEngine.compute(today, today), store.getStatistics(today, today));
+    }
+
+    private static void assertEquivalent(PQRSStatisticsDTO expected, PQRSStatisticsDTO actual) {
+        Comparator<PQRSStatisticsDTO.EmployeeStatsDTO> byId =
+                Comparator.comparing(PQRSStatisticsDTO.EmployeeStatsDTO::getEmployeeId);
+        if (expected.getTopEmployees() != null) {
+            expected.getTopEmployees().sort(byId);
+            actual.getTopEmployees().sort(byId);
+        }
+        assertEquals(expected, actual);
+    }
+}
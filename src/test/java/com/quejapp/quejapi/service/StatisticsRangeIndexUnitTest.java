@@ -0,0 +1,179 @@
+package com.quejapp.quejapi.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.Random;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import com.quejapp.quejapi.dto.PQRSStatisticsDTO;
+import com.quejapp.quejapi.model.Complaint;
+import com.quejapp.quejapi.model.Profile;
+
+import de.bwaldvogel.mongo.MongoServer;
+import de.bwaldvogel.mongo.backend.memory.MemoryBackend;
+
+@DisplayName("StatisticsRangeIndex - Pruebas Unitarias")
+class StatisticsRangeIndexUnitTest {
+
+    private MongoServer server;
+    private MongoClient client;
+    private MongoTemplate mongoTemplate;
+    private StatisticsRangeIndex index;
+    private InMemoryStatisticsEngine memoryEngine;
+
+    @BeforeEach
+    void setUp() {
+        server = new MongoServer(new MemoryBackend());
+        client = MongoClients.create(server.bindAndGetConnectionString());
+        mongoTemplate = new MongoTemplate(client, "quejappdb");
+
+        index = new StatisticsRangeIndex(mongoTemplate);
+        memoryEngine = new InMemoryStatisticsEngine(mongoTemplate);
+        mongoTemplate.insertAll(PQRSStatisticsAccumulatorUnitTest.fixture(new Random(21), 300, 6));
+    }
+
+    @AfterEach
+    void tearDown() {
+        client.close();
+        server.shutdown();
+    }
+
+    @Test
+    @DisplayName("Los rangos de fechas coinciden con el cálculo sobre las quejas")
+    void testRangesMatchRecomputation() {
+        index.load();
+
+        assertTrue(index.isLoaded());
+        assertRangesMatch();
+    }
+
+    @Test
+    @DisplayName("Crear y actualizar quejas actualiza los árboles en el lugar")
+    void testWritesUpdateTrees() {
+        index.load();
+
+        // Fuera del rango cargado, para que los árboles crezcan en ambos sentidos
+        Complaint future = mongoTemplate.insert(Complaint.builder().status(0).type(1).category(2)
+                .recievedDate(new Date(System.currentTimeMillis() + 500L * 24 * 60 * 60 * 1000)).build());
+        index.onComplaintChanged(new ComplaintChangedEvent(null, future));
+        Complaint old = mongoTemplate.insert(Complaint.builder().status(2).type(3).category(4).daysToResolve(70)
+                .recievedDate(new Date(System.currentTimeMillis() - 900L * 24 * 60 * 60 * 1000)).build());
+        index.onComplaintChanged(new ComplaintChangedEvent(null, old));
+
+        Complaint stored = mongoTemplate.findAll(Complaint.class).stream()
+                .filter(c -> Integer.valueOf(1).equals(c.getStatus()))
+                .findFirst().orElseThrow();
+        Complaint previous = stored.toBuilder().build();
+        stored.setStatus(3);
+        stored.setDaysToResolve(20);
+        stored.setEmployee("emp-nuevo");
+        stored.setEmployeeProfile(Profile.builder().id("emp-nuevo").name("Luis").lastname("Mora")
+                .email("luis@test.com").build());
+        mongoTemplate.save(stored);
+        index.onComplaintChanged(new ComplaintChangedEvent(previous, stored));
+
+        assertRangesMatch();
+        LocalDate today = LocalDate.now();
+        assertEquivalent(memoryEngine.compute(today.minusDays(1000), today.plusDays(600)),
+                index.getStatistics(today.minusDays(1000), today.plusDays(600)));
+    }
+
+    @Test
+    @DisplayName("Un rango sin quejas retorna estadísticas vacías")
+    void testEmptyRange() {
+        index.load();
+        LocalDate future = LocalDate.now().plusDays(10);
+
+        assertEquals(memoryEngine.compute(future, future.plusDays(5)), index.getStatistics(future, future.plusDays(5)));
+    }
+
+    @Test
+    @DisplayName("Sin cargar el índice la consulta falla")
+    void testNotLoaded() {
+        assertFalse(index.isLoaded());
+        assertThrows(IllegalStateException.class, () -> index.getStatistics(LocalDate.now(), null));
+    }
+
+    @Test
+    @DisplayName("Las sumas de rango del árbol coinciden con una suma directa")
+    void testFenwickRangeSums() {
+        FenwickCounts trees = new FenwickCounts();
+        int column = trees.addColumn();
+        long[] expected = new long[2000];
+        Random random = new Random(4);
+        for (int i = 0; i < 3000; i++) {
+            int key = random.nextInt(expected.length);
+            long delta = random.nextInt(21) - 10;
+            expected[key] += delta;
+            trees.add(column, key - 1000, delta);
+        }
+        int late = trees.addColumn();
+        trees.add(late, 5, 7);
+
+        for (int i = 0; i < 200; i++) {
+            int from = random.nextInt(expected.length);
+            int to = from + random.nextInt(expected.length - from);
+            long sum = 0;
+            for (int key = from; key <= to; key++) {
+                sum += expected[key];
+            }
+            assertEquals(sum, trees.sum(column, from - 1000, to - 1000));
+        }
+        assertEquals(7, trees.sum(late, Integer.MIN_VALUE, Integer.MAX_VALUE));
+        assertEquals(0, trees.sum(late, 6, 3));
+        assertEquals(5, trees.ceilingKey(late, -40).getAsInt());
+        assertTrue(trees.ceilingKey(late, 6).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Cada columna guarda solo sus días: una fecha atípica no ensancha las demás")
+    void testFenwickKeepsSparseColumns() {
+        FenwickCounts trees = new FenwickCounts();
+        int busy = trees.addColumn();
+        int sparse = trees.addColumn();
+        for (int day = 19000; day < 19365; day++) {
+            trees.add(busy, day, 1);
+        }
+        // Descendente y desordenado: las claves nuevas en medio reconstruyen la columna
+        for (int day : new int[] { 19300, 19010, -25567, 19200, 2932896, 19010 }) {
+            trees.add(sparse, day, 2);
+        }
+
+        assertEquals(365 + 5, trees.cells());
+        assertEquals(12, trees.sum(sparse, Integer.MIN_VALUE, Integer.MAX_VALUE));
+        assertEquals(4, trees.sum(sparse, 19010, 19010));
+        assertEquals(8, trees.sum(sparse, 19000, 19300));
+        assertEquals(2, trees.sum(sparse, 2932896, 2932896));
+        assertEquals(365, trees.sum(busy, -25567, 2932896));
+        assertEquals(19200, trees.ceilingKey(sparse, 19011).getAsInt());
+    }
+
+    private void assertRangesMatch() {
+        LocalDate today = LocalDate.now();
+        assertEquivalent(memoryEngine.compute(today.minusDays(120), today.minusDays(30)),
+                index.getStatistics(today.minusDays(120), today.minusDays(30)));
+        assertEquivalent(memoryEngine.compute(today.minusDays(20), null), index.getStatistics(today.minusDays(20), null));
+        assertEquivalent(memoryEngine.compute(null, today.minusDays(200)), index.getStatistics(null, today.minusDays(200)));
+        assertEquivalent(memoryEngine.compute(today.minusDays(45), today.minusDays(14)),
+                index.getStatistics(today.minusDays(45), today.minusDays(14)));
+    }
+
+    private static void assertEquivalent(PQRSStatisticsDTO expected, PQRSStatisticsDTO actual) {
+        Comparator<PQRSStatisticsDTO.EmployeeStatsDTO> byId =
+                Comparator.comparing(PQRSStatisticsDTO.EmployeeStatsDTO::getEmployeeId);
+        assertTrue(expected.getTotalPqrs() > 0);
+        expected.getTopEmployees().sort(byId);
+        actual.getTopEmployees().sort(byId);
+        assertEquals(expected, actual);
+    }
+}
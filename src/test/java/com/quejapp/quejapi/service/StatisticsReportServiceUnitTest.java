@@ -0,0 +1,182 @@
+package com.quejapp.quejapi.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.quejapp.quejapi.dto.PQRSStatisticsDTO;
+import com.quejapp.quejapi.dto.StatisticsReportJobDTO;
+import com.quejapp.quejapi.dto.StatisticsReportJobDTO.Status;
+import com.quejapp.quejapi.model.Complaint;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@DisplayName("StatisticsReportService - Pruebas Unitarias")
+class StatisticsReportServiceUnitTest {
+
+    private static final LocalDate START = LocalDate.of(2020, 1, 1);
+    private static final LocalDate END = LocalDate.of(2024, 12, 31);
+
+    private PQRSStatisticsService statisticsService;
+    private StatisticsReportService reports;
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @BeforeEach
+    void setUp() {
+        statisticsService = mock(PQRSStatisticsService.class);
+        reports = new StatisticsReportService(statisticsService, new SimpleMeterRegistry(), 1, 1,
+                Duration.ofMinutes(30));
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        reports.shutdown();
+    }
+
+    @Test
+    @DisplayName("Debe calcular el informe en segundo plano y conservar el resultado")
+    void shouldComputeReportInBackground() throws Exception {
+        PQRSStatisticsDTO statistics = PQRSStatisticsDTO.builder().totalPqrs(42L).build();
+        when(statisticsService.getStatistics(START, END)).thenReturn(statistics);
+
+        StatisticsReportJobDTO job = reports.submit(START, END);
+        assertNotNull(job.getId());
+        assertEquals(START, job.getStartDate());
+        assertEquals(END, job.getEndDate());
+
+        StatisticsReportJobDTO finished = await(job.getId());
+        assertEquals(Status.DONE, finished.getStatus());
+        assertNotNull(finished.getFinishedAt());
+        assertEquals(finished.getFinishedAt().plus(Duration.ofMinutes(30)), finished.getExpiresAt());
+        assertSame(statistics, reports.getResult(job.getId()).orElseThrow());
+    }
+
+    @Test
+    @DisplayName("Debe reutilizar el trabajo de un rango ya enviado")
+    void shouldDeduplicateSubmissionsForSameRange() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        when(statisticsService.getStatistics(START, END)).thenAnswer(invocation -> {
+            started.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return new PQRSStatisticsDTO();
+        });
+
+        StatisticsReportJobDTO first = reports.submit(START, END);
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        assertEquals(Status.RUNNING, reports.getJob(first.getId()).orElseThrow().getStatus());
+        assertEquals(first.getId(), reports.submit(START, END).getId());
+        assertTrue(reports.getResult(first.getId()).isEmpty());
+
+        release.countDown();
+        await(first.getId());
+        // Mientras el resultado se conserva también se reutiliza
+        assertEquals(first.getId(), reports.submit(START, END).getId());
+        verify(statisticsService, times(1)).getStatistics(START, END);
+    }
+
+    @Test
+    @DisplayName("Una escritura en el rango impide reutilizar el informe terminado")
+    void shouldRecomputeAfterWriteInRange() throws Exception {
+        when(statisticsService.getStatistics(START, END)).thenReturn(new PQRSStatisticsDTO());
+        StatisticsReportJobDTO first = await(reports.submit(START, END).getId());
+
+        // Fuera del rango el informe sigue siendo válido
+        reports.onComplaintChanged(new ComplaintChangedEvent(null, complaintOn(END.plusDays(1))));
+        assertEquals(first.getId(), reports.submit(START, END).getId());
+
+        reports.onComplaintsChanged(new ComplaintBatchChangedEvent(
+                List.of(new ComplaintChangedEvent(null, complaintOn(START.plusDays(10))))));
+        StatisticsReportJobDTO second = reports.submit(START, END);
+        assertNotEquals(first.getId(), second.getId());
+        // El informe anterior sigue disponible por su id
+        assertTrue(reports.getResult(first.getId()).isPresent());
+        await(second.getId());
+        verify(statisticsService, times(2)).getStatistics(START, END);
+    }
+
+    @Test
+    @DisplayName("Debe rechazar envíos cuando la cola está llena")
+    void shouldRejectWhenQueueIsFull() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        when(statisticsService.getStatistics(any(), any())).thenAnswer(invocation -> {
+            started.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return new PQRSStatisticsDTO();
+        });
+
+        reports.submit(START, END);
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        StatisticsReportJobDTO queued = reports.submit(START, START);
+        assertEquals(Status.PENDING, queued.getStatus());
+        assertThrows(RejectedExecutionException.class, () -> reports.submit(END, END));
+        assertThrows(IllegalArgumentException.class, () -> reports.submit(END, START));
+    }
+
+    @Test
+    @DisplayName("Debe marcar como fallido el trabajo y permitir reintentarlo")
+    void shouldAllowRetryAfterFailure() throws Exception {
+        when(statisticsService.getStatistics(START, END))
+                .thenThrow(new IllegalStateException("Motor no disponible"))
+                .thenReturn(new PQRSStatisticsDTO());
+
+        StatisticsReportJobDTO failed = await(reports.submit(START, END).getId());
+        assertEquals(Status.FAILED, failed.getStatus());
+        assertEquals("Motor no disponible", failed.getError());
+        assertTrue(reports.getResult(failed.getId()).isEmpty());
+
+        StatisticsReportJobDTO retried = reports.submit(START, END);
+        assertNotEquals(failed.getId(), retried.getId());
+        assertEquals(Status.DONE, await(retried.getId()).getStatus());
+    }
+
+    @Test
+    @DisplayName("Debe descartar los resultados vencidos")
+    void shouldPurgeExpiredResults() throws Exception {
+        when(statisticsService.getStatistics(START, END)).thenReturn(new PQRSStatisticsDTO());
+        StatisticsReportJobDTO job = reports.submit(START, END);
+        StatisticsReportJobDTO finished = await(job.getId());
+
+        reports.clock = Clock.fixed(finished.getExpiresAt().minusSeconds(1), ZoneOffset.UTC);
+        assertEquals(0, reports.purgeExpired());
+        assertTrue(reports.getResult(job.getId()).isPresent());
+
+        reports.clock = Clock.fixed(finished.getExpiresAt(), ZoneOffset.UTC);
+        assertEquals(1, reports.purgeExpired());
+        assertTrue(reports.getJob(job.getId()).isEmpty());
+        assertNotEquals(job.getId(), reports.submit(START, END).getId());
+    }
+
+    private StatisticsReportJobDTO await(String id) throws InterruptedException {
+        Instant deadline = Instant.now().plusSeconds(5);
+        while (Instant.now().isBefore(deadline)) {
+            StatisticsReportJobDTO job = reports.getJob(id).orElseThrow();
+            if (job.getStatus() == Status.DONE || job.getStatus() == Status.FAILED) {
+                return job;
+            }
+            Thread.sleep(10);
+        }
+        return fail("El informe " + id + " no terminó a tiempo");
+    }
+
+    private static Complaint complaintOn(LocalDate day) {
+        return Complaint.builder().status(0)
+                .recievedDate(Date.from(day.atTime(10, 0).atZone(ZoneId.systemDefault()).toInstant())).build();
+    }
+}
@@ -0,0 +1,175 @@
+package com.quejapp.quejapi.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.quejapp.quejapi.dto.PQRSStatisticsDTO;
+import com.quejapp.quejapi.model.Complaint;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@DisplayName("StatisticsResultCache - Pruebas Unitarias")
+class StatisticsResultCacheUnitTest {
+
+    private static final LocalDate MARCH_1 = LocalDate.of(2025, 3, 1);
+    private static final LocalDate MARCH_31 = LocalDate.of(2025, 3, 31);
+    private static final LocalDate APRIL_1 = LocalDate.of(2025, 4, 1);
+    private static final LocalDate APRIL_30 = LocalDate.of(2025, 4, 30);
+
+    private StatisticsResultCache cache;
+    private AtomicInteger loads;
+
+    @BeforeEach
+    void setUp() {
+        cache = new StatisticsResultCache();
+        loads = new AtomicInteger();
+    }
+
+    @Test
+    @DisplayName("Un rango repetido se responde desde la caché")
+    void testRepeatedRangeIsHit() {
+        PQRSStatisticsDTO first = load(MARCH_1, MARCH_31);
+        PQRSStatisticsDTO second = load(MARCH_1, MARCH_31);
+
+        assertEquals(first, second);
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    @DisplayName("Cada consulta recibe su propia copia y no puede alterar la guardada")
+    void testCallersGetDefensiveCopies() {
+        PQRSStatisticsDTO computed = PQRSStatisticsAccumulatorUnitTest.fixture(new Random(4), 200, 6)
+                .stream()
+                .collect(PQRSStatisticsAccumulator::new, PQRSStatisticsAccumulator::add,
+                        PQRSStatisticsAccumulator::merge)
+                .toStatistics();
+        PQRSStatisticsDTO expected = StatisticsResultCache.copy(computed);
+
+        PQRSStatisticsDTO first = cache.get(null, null, () -> computed);
+        assertNotSame(computed, first);
+        first.setTotalPqrs(-1L);
+        first.getPqrsByStatus().clear();
+        first.getTopEmployees().get(0).setTotalResolved(-1L);
+        first.getMonthlyTrends().clear();
+        computed.getPqrsByType().clear();
+
+        PQRSStatisticsDTO second = cache.get(null, null, () -> fail("debería responder la caché"));
+        assertEquals(expected, second);
+        assertNotSame(second, cache.get(null, null, () -> fail("debería responder la caché")));
+    }
+
+    @Test
+    @DisplayName("Una escritura invalida solo los rangos que contienen su fecha")
+    void testWriteInvalidatesContainingRanges() {
+        load(MARCH_1, MARCH_31);
+        load(APRIL_1, APRIL_30);
+        load(null, null);
+        load(APRIL_1, null);
+
+        cache.onComplaintChanged(new ComplaintChangedEvent(null, complaintOn(LocalDate.of(2025, 3, 15))));
+
+        assertEquals(2, cache.size());
+        load(APRIL_1, APRIL_30);
+        load(APRIL_1, null);
+        assertEquals(4, loads.get());
+        load(MARCH_1, MARCH_31);
+        assertEquals(5, loads.get());
+    }
+
+    @Test
+    @DisplayName("Una actualización invalida la fecha anterior y la nueva")
+    void testUpdateInvalidatesPreviousAndCurrentDays() {
+        load(MARCH_1, MARCH_31);
+        load(APRIL_1, APRIL_30);
+        Complaint previous = complaintOn(LocalDate.of(2025, 3, 10));
+        Complaint current = previous.toBuilder().recievedDate(complaintOn(LocalDate.of(2025, 4, 10)).getRecievedDate())
+                .build();
+
+        cache.onComplaintChanged(new ComplaintChangedEvent(previous, current));
+
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    @DisplayName("Una queja sin fecha solo invalida la consulta sin filtro")
+    void testComplaintWithoutDateInvalidatesUnfilteredOnly() {
+        load(null, null);
+        load(null, MARCH_31);
+
+        cache.onComplaintChanged(new ComplaintChangedEvent(null, Complaint.builder().status(0).build()));
+
+        assertEquals(1, cache.size());
+        load(null, MARCH_31);
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    @DisplayName("Se descarta el rango menos usado al superar el tamaño")
+    void testLeastRecentlyUsedEviction() {
+        ReflectionTestUtils.setField(cache, "maxEntries", 2);
+        load(MARCH_1, MARCH_31);
+        load(APRIL_1, APRIL_30);
+        load(MARCH_1, MARCH_31);
+        load(null, null);
+
+        assertEquals(2, cache.size());
+        load(MARCH_1, MARCH_31);
+        assertEquals(3, loads.get());
+        load(APRIL_1, APRIL_30);
+        assertEquals(4, loads.get());
+    }
+
+    @Test
+    @DisplayName("No se guarda un resultado calculado durante una escritura")
+    void testConcurrentWriteSkipsStore() {
+        cache.get(MARCH_1, MARCH_31, () -> {
+            cache.onComplaintChanged(new ComplaintChangedEvent(null, complaintOn(LocalDate.of(2024, 1, 1))));
+            return new PQRSStatisticsDTO();
+        });
+
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    @DisplayName("Las métricas reflejan aciertos, fallos y desalojos")
+    void testMetrics() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        cache.bindTo(registry);
+        ReflectionTestUtils.setField(cache, "maxEntries", 1);
+
+        load(MARCH_1, MARCH_31);
+        load(MARCH_1, MARCH_31);
+        load(APRIL_1, APRIL_30);
+        cache.onComplaintChanged(new ComplaintChangedEvent(null, complaintOn(LocalDate.of(2025, 4, 2))));
+
+        assertEquals(1.0, registry.get("quejapi.statistics.cache.gets").tag("result", "hit").functionCounter().count());
+        assertEquals(2.0, registry.get("quejapi.statistics.cache.gets").tag("result", "miss").functionCounter().count());
+        assertEquals(1.0, registry.get("quejapi.statistics.cache.evictions").functionCounter().count());
+        assertEquals(1.0, registry.get("quejapi.statistics.cache.invalidations").functionCounter().count());
+        assertEquals(0.0, registry.get("quejapi.statistics.cache.size").gauge().value());
+    }
+
+    private PQRSStatisticsDTO load(LocalDate startDate, LocalDate endDate) {
+        return cache.get(startDate, endDate, () -> {
+            loads.incrementAndGet();
+            return new PQRSStatisticsDTO();
+        });
+    }
+
+    private static Complaint complaintOn(LocalDate day) {
+        return Complaint.builder()
+                .status(0)
+                .recievedDate(Date.from(day.atTime(10, 0).atZone(ZoneId.systemDefault()).toInstant()))
+                .build();
+    }
+}
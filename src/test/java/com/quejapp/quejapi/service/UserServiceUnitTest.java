@@ -4,27 +4,33 @@ import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
 import java.util.Optional;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.mockito.junit.jupiter.MockitoSettings;
 import org.mockito.quality.Strictness;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import com.quejapp.quejapi.dto.ComplaintSearch;
 import com.quejapp.quejapi.model.Complaint;
 import com.quejapp.quejapi.model.User;
+import com.quejapp.quejapi.repository.ComplaintFilter;
 import com.quejapp.quejapi.repository.ComplaintRepository;
 import com.quejapp.quejapi.repository.UserRepository;
 
@@ -45,13 +51,21 @@ class UserServiceUnitTest {
     @Mock
     private WekaService wekaService;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private ComplaintSearchIndex searchIndex;
+
+    @Mock
+    private ComplaintCountCache countCache;
+
     @Mock
     private SecurityContext securityContext;
 
     @Mock
     private Authentication authentication;
 
-    @InjectMocks
     private UserService userService;
 
     private User testUser;
@@ -59,6 +73,9 @@ class UserServiceUnitTest {
 
     @BeforeEach
     void setUp() {
+        userService = new UserService(complaintsRepo, usersRepo, wekaService, eventPublisher,
+                new ComplaintListingSupport(complaintsRepo, searchIndex, countCache));
+
         // Configurar usuario de prueba
         testUser = new User();
         testUser.setId("user123");
@@ -101,6 +118,12 @@ class UserServiceUnitTest {
         assertNotNull(result.getReference());
         assertTrue(result.getReference().startsWith("TRC-"));
         assertNotNull(result.getRecievedDate());
+        // Campos de fecha derivados al registrar la queja
+        LocalDate day = result.getRecievedDate().toInstant().atZone(ZoneId.systemDefault()).toLocalDate();
+        assertEquals((int) day.toEpochDay(), result.getEpochDay());
+        assertEquals(YearMonth.from(day).toString(), result.getYearMonth());
+        assertEquals(day.getDayOfWeek().getValue(), result.getWeekday());
+        assertTrue(result.getReference().contains(day.format(DateTimeFormatter.BASIC_ISO_DATE)));
         assertNotNull(result.getTraceability());
         assertEquals(1, result.getTraceability().size());
         assertEquals("PQRS Radicada", result.getTraceability().get(0).getStatus());
@@ -111,6 +134,7 @@ class UserServiceUnitTest {
         verify(usersRepo).findByEmail("juan.perez@test.com");
         verify(complaintsRepo).save(any(Complaint.class));
         verify(wekaService).predict(anyString(), anyString(), anyString(), anyString(), eq(true));
+        verify(eventPublisher).publishEvent(new ComplaintChangedEvent(null, result));
     }
 
     @Test
@@ -199,9 +223,10 @@ class UserServiceUnitTest {
         Page<Complaint> page = new PageImpl<>(complaints);
 
         when(usersRepo.findByEmail("juan.perez@test.com")).thenReturn(Optional.of(testUser));
-        when(complaintsRepo.findByReferenceOrSubjectContainingIgnoreCaseAndStatus(
-            eq("test"), eq(1), eq("user123"), any(Pageable.class)))
-            .thenReturn(page);
+        ComplaintFilter filter = ComplaintFilter.builder().searchTerm("test").status(1).user("user123").build();
+        when(complaintsRepo.filter(eq(filter), any(Pageable.class))).thenReturn(page);
+
+        ReflectionTestUtils.setField(listingsOf(userService), "searchMode", ComplaintListingSupport.SearchMode.REGEX);
 
         // Act
         Page<Complaint> result = userService.searchComplaints(request);
@@ -209,8 +234,7 @@ class UserServiceUnitTest {
         // Assert
         assertNotNull(result);
         assertEquals(1, result.getContent().size());
-        verify(complaintsRepo).findByReferenceOrSubjectContainingIgnoreCaseAndStatus(
-            eq("test"), eq(1), eq("user123"), any(Pageable.class));
+        verify(complaintsRepo).filter(eq(filter), any(Pageable.class));
     }
 
     @Test
@@ -228,17 +252,87 @@ class UserServiceUnitTest {
         Page<Complaint> page = new PageImpl<>(complaints);
 
         when(usersRepo.findByEmail("juan.perez@test.com")).thenReturn(Optional.of(testUser));
-        when(complaintsRepo.findByReferenceOrSubjectContainingIgnoreCase(
-            eq("test"), eq("user123"), any(Pageable.class)))
-            .thenReturn(page);
+        ComplaintFilter filter = ComplaintFilter.builder().searchTerm("test").user("user123").build();
+        when(complaintsRepo.filter(eq(filter), any(Pageable.class))).thenReturn(page);
+
+        ReflectionTestUtils.setField(listingsOf(userService), "searchMode", ComplaintListingSupport.SearchMode.REGEX);
+
+        // Act
+        Page<Complaint> result = userService.searchComplaints(request);
+
+        // Assert
+        assertNotNull(result);
+        verify(complaintsRepo).filter(eq(filter), any(Pageable.class));
+    }
+
+    @Test
+    @DisplayName("Buscar quejas - En modo texto usa la búsqueda indexada del usuario")
+    void testSearchComplaints_TextMode() {
+        // Arrange
+        ComplaintSearch request = new ComplaintSearch();
+        request.setSearchTerm("TRC-2024");
+        request.setPage(0);
+        request.setSize(10);
+        request.setSortBy("recievedDate");
+        request.setSortDirection("desc");
+
+        when(usersRepo.findByEmail("juan.perez@test.com")).thenReturn(Optional.of(testUser));
+        when(complaintsRepo.search(eq("TRC-2024"), isNull(), eq("user123"), any(Pageable.class)))
+            .thenReturn(new PageImpl<>(new ArrayList<>()));
+
+        // Act
+        Page<Complaint> result = userService.searchComplaints(request);
+
+        // Assert
+        assertNotNull(result);
+        verify(complaintsRepo).search(eq("TRC-2024"), isNull(), eq("user123"), any(Pageable.class));
+    }
+
+    @Test
+    @DisplayName("Buscar quejas - En modo índice filtra por el usuario en el índice de trigramas")
+    void testSearchComplaints_IndexMode() {
+        // Arrange
+        ComplaintSearch request = new ComplaintSearch();
+        request.setSearchTerm("TRC-2024");
+        request.setPage(0);
+        request.setSize(10);
+        request.setSortBy("recievedDate");
+        request.setSortDirection("desc");
+
+        when(usersRepo.findByEmail("juan.perez@test.com")).thenReturn(Optional.of(testUser));
+        when(searchIndex.search(eq("TRC-2024"), isNull(), eq("user123"), any(Pageable.class)))
+            .thenReturn(Optional.of(new PageImpl<>(new ArrayList<>())));
 
         // Act
         Page<Complaint> result = userService.searchComplaints(request);
 
         // Assert
         assertNotNull(result);
-        verify(complaintsRepo).findByReferenceOrSubjectContainingIgnoreCase(
-            eq("test"), eq("user123"), any(Pageable.class));
+        verify(complaintsRepo, never()).search(anyString(), any(), any(), any(Pageable.class));
+    }
+
+    @Test
+    @DisplayName("Buscar quejas - La expresión regular de respaldo recibe el término sin interpretar")
+    void testSearchComplaints_RegexModeEscapesTerm() {
+        // Arrange
+        ComplaintSearch request = new ComplaintSearch();
+        request.setSearchTerm("a.b(");
+        request.setPage(0);
+        request.setSize(10);
+        request.setSortBy("recievedDate");
+        request.setSortDirection("desc");
+        ReflectionTestUtils.setField(listingsOf(userService), "searchMode", ComplaintListingSupport.SearchMode.REGEX);
+
+        when(usersRepo.findByEmail("juan.perez@test.com")).thenReturn(Optional.of(testUser));
+        when(complaintsRepo.filter(any(ComplaintFilter.class), any(Pageable.class)))
+            .thenReturn(new PageImpl<>(new ArrayList<>()));
+
+        // Act
+        userService.searchComplaints(request);
+
+        // Assert: el constructor de consultas lo escapa
+        verify(complaintsRepo).filter(eq(ComplaintFilter.builder().searchTerm("a.b(").user("user123").build()),
+            any(Pageable.class));
     }
 
     @Test
@@ -256,15 +350,15 @@ class UserServiceUnitTest {
         Page<Complaint> page = new PageImpl<>(complaints);
 
         when(usersRepo.findByEmail("juan.perez@test.com")).thenReturn(Optional.of(testUser));
-        when(complaintsRepo.findByStatus(eq(2), eq("user123"), any(Pageable.class)))
-            .thenReturn(page);
+        ComplaintFilter filter = ComplaintFilter.builder().status(2).user("user123").build();
+        when(complaintsRepo.filter(eq(filter), any(Pageable.class))).thenReturn(page);
 
         // Act
         Page<Complaint> result = userService.searchComplaints(request);
 
         // Assert
         assertNotNull(result);
-        verify(complaintsRepo).findByStatus(eq(2), eq("user123"), any(Pageable.class));
+        verify(complaintsRepo).filter(eq(filter), any(Pageable.class));
     }
 
     @Test
@@ -281,15 +375,15 @@ class UserServiceUnitTest {
         Page<Complaint> page = new PageImpl<>(complaints);
 
         when(usersRepo.findByEmail("juan.perez@test.com")).thenReturn(Optional.of(testUser));
-        when(complaintsRepo.findByUserOrderByRecievedDateDesc(eq("user123"), any(Pageable.class)))
-            .thenReturn(page);
+        ComplaintFilter filter = ComplaintFilter.builder().user("user123").build();
+        when(complaintsRepo.filter(eq(filter), any(Pageable.class))).thenReturn(page);
 
         // Act
         Page<Complaint> result = userService.searchComplaints(request);
 
         // Assert
         assertNotNull(result);
-        verify(complaintsRepo).findByUserOrderByRecievedDateDesc(eq("user123"), any(Pageable.class));
+        verify(complaintsRepo).filter(eq(filter), any(Pageable.class));
     }
 
     @Test
@@ -308,5 +402,8 @@ class UserServiceUnitTest {
         assertNotNull(result.getReference());
         assertTrue(result.getReference().matches("TRC-\\d{8}-[A-Z0-9]{6}-\\d+"));
     }
-}
 
+    private static ComplaintListingSupport listingsOf(UserService service) {
+        return (ComplaintListingSupport) ReflectionTestUtils.getField(service, "listings");
+    }
+}